@@ -5,11 +5,18 @@ import ec.juanperez.test.technique.app.accounts.exception.AccountNotFoundExcepti
 import ec.juanperez.test.technique.app.exception.CustomerReferenceNotFoundException;
 import ec.juanperez.test.technique.app.movements.exceptions.MovementBalanceException;
 import ec.juanperez.test.technique.app.movements.exceptions.MovementNotFoundException;
+import ec.juanperez.test.technique.app.movements.exceptions.MovementSearchTimeoutException;
 import ec.juanperez.test.technique.app.movements.exceptions.MovementValueException;
+import ec.juanperez.test.technique.app.reports.exceptions.ReportJobNotFoundException;
+import ec.juanperez.test.technique.app.reports.exceptions.ReportJobNotReadyException;
+import ec.juanperez.test.technique.app.reports.exceptions.ReportJobQueueFullException;
 import jakarta.persistence.EntityNotFoundException;
+import jakarta.persistence.OptimisticLockException;
 import jakarta.validation.ConstraintViolationException;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.StaleStateException;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -20,6 +27,7 @@ import org.springframework.web.bind.support.WebExchangeBindException;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -65,6 +73,31 @@ public class GlobalExceptionHandler {
         return buildErrorResponse(HttpStatus.BAD_REQUEST, ex.getMessage());
     }
 
+    @ExceptionHandler(MovementSearchTimeoutException.class)
+    public ResponseEntity<Map<String, Object>> handleMovementSearchTimeoutException(MovementSearchTimeoutException ex) {
+        log.error("Movement search timeout: {}", ex.getMessage());
+        return buildErrorResponse(HttpStatus.SERVICE_UNAVAILABLE, ex.getMessage());
+    }
+
+    // Report Job Exceptions
+    @ExceptionHandler(ReportJobNotFoundException.class)
+    public ResponseEntity<Map<String, Object>> handleReportJobNotFoundException(ReportJobNotFoundException ex) {
+        log.error("Report job not found: {}", ex.getMessage());
+        return buildErrorResponse(HttpStatus.NOT_FOUND, ex.getMessage());
+    }
+
+    @ExceptionHandler(ReportJobNotReadyException.class)
+    public ResponseEntity<Map<String, Object>> handleReportJobNotReadyException(ReportJobNotReadyException ex) {
+        log.error("Report job not ready: {}", ex.getMessage());
+        return buildErrorResponse(HttpStatus.CONFLICT, ex.getMessage());
+    }
+
+    @ExceptionHandler(ReportJobQueueFullException.class)
+    public ResponseEntity<Map<String, Object>> handleReportJobQueueFullException(ReportJobQueueFullException ex) {
+        log.error("Report job queue full: {}", ex.getMessage());
+        return buildErrorResponse(HttpStatus.SERVICE_UNAVAILABLE, ex.getMessage());
+    }
+
     // Validation Exceptions
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<Map<String, Object>> handleMethodArgumentNotValidException(MethodArgumentNotValidException ex) {
@@ -148,6 +181,18 @@ public class GlobalExceptionHandler {
         return buildErrorResponse(HttpStatus.CONFLICT, message);
     }
 
+    @ExceptionHandler({OptimisticLockingFailureException.class, OptimisticLockException.class, StaleStateException.class})
+    public ResponseEntity<Map<String, Object>> handleOptimisticLockingFailureException(Exception ex) {
+        log.error("Concurrent modification: {}", ex.getMessage());
+        return buildErrorResponse(HttpStatus.CONFLICT, "The resource was modified concurrently. Please retry the operation.");
+    }
+
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<Map<String, Object>> handleRejectedExecutionException(RejectedExecutionException ex) {
+        log.error("Ledger queue full: {}", ex.getMessage());
+        return buildErrorResponse(HttpStatus.SERVICE_UNAVAILABLE, "Too many pending movements for this account. Please retry later.");
+    }
+
     // IllegalArgumentException
     @ExceptionHandler(IllegalArgumentException.class)
     public ResponseEntity<Map<String, Object>> handleIllegalArgumentException(IllegalArgumentException ex) {
@@ -2,6 +2,8 @@ package ec.juanperez.test.technique.app.accounts.controller;
 
 import ec.juanperez.test.technique.app.accounts.dto.AccountDTO;
 import ec.juanperez.test.technique.app.accounts.service.AccountService;
+import ec.juanperez.test.technique.app.accounts.service.ReactiveAccountService;
+import ec.juanperez.test.technique.app.common.reactive.BlockingScheduler;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -26,6 +28,8 @@ import reactor.core.publisher.Mono;
 public class AccountController {
 
     private final AccountService service;
+    private final ReactiveAccountService reactiveService;
+    private final BlockingScheduler blockingScheduler;
 
     @Operation(summary = "Get all accounts", description = "Retrieve all active accounts")
     @ApiResponses(value = {
@@ -36,12 +40,8 @@ public class AccountController {
     @GetMapping
     public Mono<ResponseEntity<Flux<AccountDTO>>> findAll() {
         log.info("Finding all accounts");
-        return Mono.fromCallable(service::findAll)
-                .map(accounts -> ResponseEntity.ok(Flux.fromIterable(accounts)))
-                .onErrorResume(e -> {
-                    log.error("Error finding all accounts", e);
-                    return Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build());
-                });
+        return Mono.just(ResponseEntity.ok(this.reactiveService.findAll()
+                .doOnError(e -> log.error("Error finding all accounts", e))));
     }
 
     @Operation(summary = "Get account by ID", description = "Retrieve a account by its ID")
@@ -55,10 +55,9 @@ public class AccountController {
     public Mono<ResponseEntity<AccountDTO>> findById(
             @Parameter(description = "Account ID", required = true) @PathVariable Long id) {
         log.info("Finding account with id: {}", id);
-        return Mono.fromCallable(() -> this.service.findById(id))
-                .map(optional -> optional
-                        .map(ResponseEntity::ok)
-                        .orElse(ResponseEntity.notFound().build()))
+        return this.reactiveService.findById(id)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build())
                 .onErrorResume(e -> {
                     log.error("Error finding account with id: {}", id, e);
                     return Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build());
@@ -75,7 +74,7 @@ public class AccountController {
     public Mono<ResponseEntity<AccountDTO>> create(@RequestBody Mono<AccountDTO> accountDTOMono) {
         log.info("Creating new account");
         return accountDTOMono
-                .flatMap(accountDTO -> Mono.fromCallable(() -> this.service.create(accountDTO)))
+                .flatMap(accountDTO -> this.blockingScheduler.fromCallable(() -> this.service.create(accountDTO)))
                 .map(ResponseEntity::ok)
                 .onErrorResume(e -> {
                     log.error("Error creating account", e);
@@ -97,7 +96,7 @@ public class AccountController {
             @RequestBody Mono<AccountDTO> accountDTOMono) {
         log.info("Updating account with id: {}", id);
         return accountDTOMono
-                .flatMap(accountDTO -> Mono.fromCallable(() -> this.service.update(id, accountDTO)))
+                .flatMap(accountDTO -> this.blockingScheduler.fromCallable(() -> this.service.update(id, accountDTO)))
                 .map(ResponseEntity::ok)
                 .onErrorResume(e -> {
                     log.error("Error updating account with id: {}", id, e);
@@ -114,7 +113,7 @@ public class AccountController {
     public Mono<ResponseEntity<Void>> delete(
             @Parameter(description = "Account ID", required = true) @PathVariable Long id) {
         log.info("Deleting account with id: {}", id);
-        return Mono.fromRunnable(() -> this.service.delete(id))
+        return this.blockingScheduler.fromRunnable(() -> this.service.delete(id))
                 .then(Mono.just(ResponseEntity.noContent().<Void>build()))
                 .onErrorResume(e -> {
                     log.error("Error deleting account with id: {}", id, e);
@@ -26,5 +26,14 @@ public class AccountDTO implements Serializable {
         this.number = number;
         this.accountType = accountType;
     }
-    
+
+    public AccountDTO(Long id, String number, AccountType accountType, BigDecimal initialBalance){
+        this(id, number, accountType);
+        this.initialBalance = initialBalance;
+    }
+
+    public AccountDTO copy() {
+        return new AccountDTO(this.id, this.number, this.accountType, this.initialBalance, this.status, this.customerId, this.customerName);
+    }
+
 }
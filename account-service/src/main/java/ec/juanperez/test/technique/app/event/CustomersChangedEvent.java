@@ -0,0 +1,10 @@
+package ec.juanperez.test.technique.app.accounts.event;
+
+import java.util.Collection;
+
+/**
+ * Published when the customer data copied into CUSTOMER_REFERENCE changes; the cached accounts of
+ * {@code customerIds} are evicted once the change commits.
+ */
+public record CustomersChangedEvent(Collection<Long> customerIds) {
+}
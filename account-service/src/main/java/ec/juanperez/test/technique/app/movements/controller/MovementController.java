@@ -1,9 +1,17 @@
 package ec.juanperez.test.technique.app.movements.controller;
 
+import ec.juanperez.test.technique.app.common.reactive.BlockingScheduler;
+import ec.juanperez.test.technique.app.movements.dto.BatchMovementResultDTO;
 import ec.juanperez.test.technique.app.movements.dto.MovementDTO;
+import ec.juanperez.test.technique.app.movements.dto.MovementFilter;
+import ec.juanperez.test.technique.app.movements.dto.MovementPageDTO;
+import ec.juanperez.test.technique.app.movements.dto.MovementSearchCriteria;
 import ec.juanperez.test.technique.app.movements.dto.RegisterMovementRequest;
 import ec.juanperez.test.technique.app.movements.enums.MovementType;
+import ec.juanperez.test.technique.app.movements.export.MovementExporter;
+import ec.juanperez.test.technique.app.movements.ledger.LedgerExecutor;
 import ec.juanperez.test.technique.app.movements.service.MovementService;
+import ec.juanperez.test.technique.app.movements.service.ReactiveMovementService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -13,13 +21,20 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpResponse;
 import org.springframework.web.bind.annotation.*;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
 
 @CrossOrigin
 @Slf4j
@@ -29,23 +44,99 @@ import java.math.BigDecimal;
 @Tag(name = "Movements", description = "Movements management API")
 public class MovementController {
 
+    private static final int STREAM_CHUNK_SIZE = 8192;
+
     private final MovementService service;
+    private final ReactiveMovementService reactiveService;
+    private final MovementExporter movementExporter;
+    private final BlockingScheduler blockingScheduler;
 
-    @Operation(summary = "Get all movements", description = "Retrieve all active movements")
+    @Operation(summary = "Get movements", description = "Retrieve movements ordered by date in pages, following nextCursor until it is null")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Successfully retrieved list",
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved page",
                     content = @Content(mediaType = "application/json",
-                            schema = @Schema(implementation = MovementDTO.class)))
+                            schema = @Schema(implementation = MovementPageDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor, page size or filters")
     })
     @GetMapping
-    public Mono<ResponseEntity<Flux<MovementDTO>>> findAll() {
-        log.info("Finding all movements");
-        return Mono.fromCallable(service::findAll)
-                .map(movements -> ResponseEntity.ok(Flux.fromIterable(movements)))
-                .onErrorResume(e -> {
-                    log.error("Error finding all movements", e);
-                    return Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build());
-                });
+    public Mono<ResponseEntity<MovementPageDTO>> findPage(
+            @Parameter(description = "Account ID") @RequestParam(value = "accountId", required = false) Long accountId,
+            @Parameter(description = "Movement type") @RequestParam(value = "type", required = false) MovementType type,
+            @Parameter(description = "Start date (format: yyyy-MM-dd)")
+            @RequestParam(value = "startDate", required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate startDate,
+            @Parameter(description = "End date (format: yyyy-MM-dd)")
+            @RequestParam(value = "endDate", required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate endDate,
+            @Parameter(description = "nextCursor of the previous page; omitted for the first page")
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @Parameter(description = "Page size, capped at the configured maximum")
+            @RequestParam(value = "size", required = false) Integer size) {
+        log.info("Finding movements page of account: {} type: {} from {} to {}", accountId, type, startDate, endDate);
+        MovementFilter filter = toFilter(accountId, type, startDate, endDate);
+        // Los errores de cursor o tamaño llegan al GlobalExceptionHandler como 400
+        return this.blockingScheduler.fromCallable(() -> this.service.findPage(filter, cursor, size))
+                .map(ResponseEntity::ok);
+    }
+
+    @Operation(summary = "Export movements", description = "Stream every movement matching the filters as newline-delimited JSON, ordered by date")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Movements streamed successfully",
+                    content = @Content(mediaType = "application/x-ndjson",
+                            schema = @Schema(implementation = MovementDTO.class)))
+    })
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Mono<ResponseEntity<Flux<DataBuffer>>> export(
+            @Parameter(description = "Account ID") @RequestParam(value = "accountId", required = false) Long accountId,
+            @Parameter(description = "Movement type") @RequestParam(value = "type", required = false) MovementType type,
+            @Parameter(description = "Start date (format: yyyy-MM-dd)")
+            @RequestParam(value = "startDate", required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate startDate,
+            @Parameter(description = "End date (format: yyyy-MM-dd)")
+            @RequestParam(value = "endDate", required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate endDate,
+            @Parameter(hidden = true) ServerHttpResponse response) {
+        log.info("Exporting movements of account: {} type: {} from {} to {}", accountId, type, startDate, endDate);
+        MovementFilter filter = toFilter(accountId, type, startDate, endDate);
+        // Las filas se escriben desde el cursor en el scheduler bloqueante, con contrapresión del cliente
+        Flux<DataBuffer> body = Flux.from(DataBufferUtils.outputStreamPublisher(
+                        outputStream -> this.movementExporter.writeNdjson(filter, outputStream),
+                        response.bufferFactory(),
+                        this.blockingScheduler.getScheduler()::schedule,
+                        STREAM_CHUNK_SIZE))
+                .doOnError(e -> log.error("Error exporting movements", e));
+        return Mono.just(ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body));
+    }
+
+    @Operation(summary = "Search movements", description = "Find movements by account number, type, amount range and date range, ordered by date in pages. " +
+            "Without accountNumber both dates are required and the range is limited to the configured number of days")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved page",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = MovementPageDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor, page size or filters"),
+            @ApiResponse(responseCode = "503", description = "The search exceeded its time budget")
+    })
+    @GetMapping("/search")
+    public Mono<ResponseEntity<MovementPageDTO>> search(
+            @Parameter(description = "Account number") @RequestParam(value = "accountNumber", required = false) String accountNumber,
+            @Parameter(description = "Movement type") @RequestParam(value = "type", required = false) MovementType type,
+            @Parameter(description = "Minimum amount, inclusive") @RequestParam(value = "minAmount", required = false) BigDecimal minAmount,
+            @Parameter(description = "Maximum amount, inclusive") @RequestParam(value = "maxAmount", required = false) BigDecimal maxAmount,
+            @Parameter(description = "Start date (format: yyyy-MM-dd)")
+            @RequestParam(value = "startDate", required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate startDate,
+            @Parameter(description = "End date (format: yyyy-MM-dd)")
+            @RequestParam(value = "endDate", required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate endDate,
+            @Parameter(description = "nextCursor of the previous page; omitted for the first page")
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @Parameter(description = "Page size, capped at the configured maximum")
+            @RequestParam(value = "size", required = false) Integer size) {
+        log.info("Searching movements of account number: {} type: {} amount {} - {} from {} to {}",
+                accountNumber, type, minAmount, maxAmount, startDate, endDate);
+        MovementSearchCriteria criteria = new MovementSearchCriteria(accountNumber, type, minAmount, maxAmount,
+                startDate != null ? startDate.atStartOfDay() : null,
+                endDate != null ? endDate.atTime(23, 59, 59) : null);
+        // Filtros inválidos llegan al GlobalExceptionHandler como 400 y el timeout como 503
+        return this.blockingScheduler.fromCallable(() -> this.service.search(criteria, cursor, size))
+                .map(ResponseEntity::ok);
     }
 
     @Operation(summary = "Get movement by ID", description = "Retrieve a movement by its ID")
@@ -59,10 +150,9 @@ public class MovementController {
     public Mono<ResponseEntity<MovementDTO>> findById(
             @Parameter(description = "movement ID", required = true) @PathVariable Long id) {
         log.info("Finding movement with id: {}", id);
-        return Mono.fromCallable(() -> this.service.findById(id))
-                .map(optional -> optional
-                        .map(ResponseEntity::ok)
-                        .orElse(ResponseEntity.notFound().build()))
+        return this.reactiveService.findById(id)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build())
                 .onErrorResume(e -> {
                     log.error("Error finding movement with id: {}", id, e);
                     return Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build());
@@ -79,7 +169,7 @@ public class MovementController {
     public Mono<ResponseEntity<MovementDTO>> create(@RequestBody Mono<MovementDTO> MovementDTOMono) {
         log.info("Creating new movement");
         return MovementDTOMono
-                .flatMap(MovementDTO -> Mono.fromCallable(() -> this.service.create(MovementDTO)))
+                .flatMap(MovementDTO -> this.blockingScheduler.fromCallable(() -> this.service.create(MovementDTO)))
                 .map(ResponseEntity::ok)
                 .onErrorResume(e -> {
                     log.error("Error creating movement", e);
@@ -100,7 +190,7 @@ public class MovementController {
             @RequestBody Mono<MovementDTO> MovementDTOMono) {
         log.info("Updating movement with id: {}", id);
         return MovementDTOMono
-                .flatMap(MovementDTO -> Mono.fromCallable(() -> this.service.update(id, MovementDTO)))
+                .flatMap(MovementDTO -> this.blockingScheduler.fromCallable(() -> this.service.update(id, MovementDTO)))
                 .map(ResponseEntity::ok)
                 .onErrorResume(e -> {
                     log.error("Error updating movement with id: {}", id, e);
@@ -117,7 +207,7 @@ public class MovementController {
     public Mono<ResponseEntity<Void>> delete(
             @Parameter(description = "movement ID", required = true) @PathVariable Long id) {
         log.info("Deleting movement with id: {}", id);
-        return Mono.fromRunnable(() -> this.service.delete(id))
+        return this.blockingScheduler.fromRunnable(() -> this.service.delete(id))
                 .then(Mono.just(ResponseEntity.noContent().<Void>build()))
                 .onErrorResume(e -> {
                     log.error("Error deleting movement with id: {}", id, e);
@@ -135,8 +225,8 @@ public class MovementController {
     public Mono<ResponseEntity<MovementDTO>> registerCredit(@RequestBody Mono<RegisterMovementRequest> requestMono) {
         return requestMono
                 .doOnNext(request -> log.info("Registering credit movement in account: {} with value: {}", request.getAccountId(), request.getValue()))
-                .flatMap(request -> Mono.fromCallable(() -> this.service.registerMovementByType(request.getAccountId(), MovementType.CREDIT, request.getValue()))
-                        .onErrorMap(e -> e.getCause() != null ? e.getCause() : e)
+                .flatMap(request -> this.reactiveService.registerMovementByType(request.getAccountId(), MovementType.CREDIT, request.getValue())
+                        .onErrorMap(LedgerExecutor::unwrap)
                         .map(ResponseEntity::ok));
     }
 
@@ -150,9 +240,29 @@ public class MovementController {
     public Mono<ResponseEntity<MovementDTO>> registerDebit(@RequestBody Mono<RegisterMovementRequest> requestMono) {
         return requestMono
                 .doOnNext(request -> log.info("Registering debit movement in account: {} with value: {}", request.getAccountId(), request.getValue()))
-                .flatMap(request -> Mono.fromCallable(() -> this.service.registerMovementByType(request.getAccountId(), MovementType.DEBIT, request.getValue()))
-                        .onErrorMap(e -> e.getCause() != null ? e.getCause() : e)
+                .flatMap(request -> this.reactiveService.registerMovementByType(request.getAccountId(), MovementType.DEBIT, request.getValue())
+                        .onErrorMap(LedgerExecutor::unwrap)
                         .map(ResponseEntity::ok));
     }
 
+    @Operation(summary = "Register a batch of movements", description = "Register a list of credit and debit movements in a single transaction, with a result per item")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "batch processed, see the result of each item",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = BatchMovementResultDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Empty batch or batch size exceeded")
+    })
+    @PostMapping("/register/batch")
+    public Mono<ResponseEntity<List<BatchMovementResultDTO>>> registerBatch(@RequestBody Mono<List<RegisterMovementRequest>> requestsMono) {
+        return requestsMono
+                .doOnNext(requests -> log.info("Registering batch of {} movements", requests.size()))
+                .flatMap(requests -> this.blockingScheduler.fromCallable(() -> this.service.registerMovementsBatch(requests))
+                        .map(ResponseEntity::ok));
+    }
+
+    private static MovementFilter toFilter(Long accountId, MovementType type, LocalDate startDate, LocalDate endDate) {
+        return new MovementFilter(accountId, type,
+                startDate != null ? startDate.atStartOfDay() : null,
+                endDate != null ? endDate.atTime(23, 59, 59) : null);
+    }
 }
@@ -0,0 +1,13 @@
+package ec.juanperez.test.technique.app.movements.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Projection of the latest balance of an account, used by batched balance lookups.
+ */
+public interface AccountBalanceView {
+
+    Long getAccountId();
+
+    BigDecimal getBalance();
+}
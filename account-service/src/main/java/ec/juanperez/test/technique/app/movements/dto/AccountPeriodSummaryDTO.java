@@ -0,0 +1,19 @@
+package ec.juanperez.test.technique.app.movements.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+public class AccountPeriodSummaryDTO implements Serializable {
+    private BigDecimal openingBalance;
+    private BigDecimal totalCredits;
+    private BigDecimal totalDebits;
+    private BigDecimal closingBalance;
+    private Long movementCount;
+}
@@ -0,0 +1,17 @@
+package ec.juanperez.test.technique.app.movements.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Projection of the credits, debits and movement count of an account over a range of days.
+ */
+public interface AccountPeriodTotalsView {
+
+    Long getAccountId();
+
+    BigDecimal getTotalCredits();
+
+    BigDecimal getTotalDebits();
+
+    Long getMovementCount();
+}
@@ -0,0 +1,22 @@
+package ec.juanperez.test.technique.app.movements.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Projection of the per-account statement summary computed in the database. The closing
+ * balance is null when the account has no movements in the range.
+ */
+public interface AccountSummaryView {
+
+    Long getAccountId();
+
+    BigDecimal getOpeningBalance();
+
+    BigDecimal getClosingBalance();
+
+    BigDecimal getTotalCredits();
+
+    BigDecimal getTotalDebits();
+
+    Long getMovementCount();
+}
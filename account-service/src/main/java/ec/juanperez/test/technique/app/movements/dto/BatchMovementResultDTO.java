@@ -0,0 +1,22 @@
+package ec.juanperez.test.technique.app.movements.dto;
+
+import ec.juanperez.test.technique.app.movements.enums.MovementErrorType;
+import ec.juanperez.test.technique.app.movements.enums.MovementType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+public class BatchMovementResultDTO implements Serializable {
+    private int index;
+    private Long accountId;
+    private MovementType movementType;
+    private boolean success;
+    private MovementDTO movement;
+    private String error;
+    private MovementErrorType errorType;
+}
@@ -0,0 +1,19 @@
+package ec.juanperez.test.technique.app.movements.dto;
+
+import ec.juanperez.test.technique.app.movements.enums.MovementType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Filtros opcionales del listado de movimientos: los nulos no se aplican
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+public class MovementFilter {
+    private Long accountId;
+    private MovementType movementType;
+    private LocalDateTime startDate;
+    private LocalDateTime endDate;
+}
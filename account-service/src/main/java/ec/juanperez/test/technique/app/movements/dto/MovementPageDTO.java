@@ -0,0 +1,16 @@
+package ec.juanperez.test.technique.app.movements.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+public class MovementPageDTO {
+    private List<MovementDTO> movements;
+    // null en la última página
+    private String nextCursor;
+}
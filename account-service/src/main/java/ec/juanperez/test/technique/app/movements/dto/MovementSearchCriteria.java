@@ -0,0 +1,22 @@
+package ec.juanperez.test.technique.app.movements.dto;
+
+import ec.juanperez.test.technique.app.movements.enums.MovementType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Filtros de la búsqueda de movimientos (GET /movements/search): los nulos no se aplican
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+public class MovementSearchCriteria {
+    private String accountNumber;
+    private MovementType movementType;
+    private BigDecimal minAmount;
+    private BigDecimal maxAmount;
+    private LocalDateTime startDate;
+    private LocalDateTime endDate;
+}
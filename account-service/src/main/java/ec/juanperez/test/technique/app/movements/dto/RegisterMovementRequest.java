@@ -1,5 +1,6 @@
 package ec.juanperez.test.technique.app.movements.dto;
 
+import ec.juanperez.test.technique.app.movements.enums.MovementType;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
 import lombok.AllArgsConstructor;
@@ -19,5 +20,13 @@ public class RegisterMovementRequest implements Serializable {
     
     @NotNull(message = "Value is required")
     private BigDecimal value;
+
+    // Solo requerido en el registro por lotes
+    private MovementType movementType;
+
+    public RegisterMovementRequest(Long accountId, BigDecimal value) {
+        this.accountId = accountId;
+        this.value = value;
+    }
 }
 
@@ -0,0 +1,8 @@
+package ec.juanperez.test.technique.app.movements.enums;
+
+public enum MovementErrorType {
+    ACCOUNT_NOT_FOUND,
+    INVALID_VALUE,
+    INSUFFICIENT_BALANCE,
+    INVALID_REQUEST
+}
@@ -0,0 +1,14 @@
+package ec.juanperez.test.technique.app.movements.event;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published when movements of an account are registered, updated or deleted; {@code from} and
+ * {@code to} bound the {@code fechaMovimiento} of the affected movements.
+ */
+public record MovementsChangedEvent(Long accountId, LocalDateTime from, LocalDateTime to) {
+
+    public static MovementsChangedEvent of(Long accountId, LocalDateTime fechaMovimiento) {
+        return new MovementsChangedEvent(accountId, fechaMovimiento, fechaMovimiento);
+    }
+}
@@ -0,0 +1,10 @@
+package ec.juanperez.test.technique.app.movements.exceptions;
+
+import java.time.Duration;
+
+public class MovementSearchTimeoutException extends RuntimeException {
+
+    public MovementSearchTimeoutException(Duration budget) {
+        super("Movement search exceeded its budget of " + budget.toMillis() + " ms, narrow the filters");
+    }
+}
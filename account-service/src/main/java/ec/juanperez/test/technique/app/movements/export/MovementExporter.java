@@ -0,0 +1,48 @@
+package ec.juanperez.test.technique.app.movements.export;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import ec.juanperez.test.technique.app.movements.dto.MovementDTO;
+import ec.juanperez.test.technique.app.movements.dto.MovementFilter;
+import ec.juanperez.test.technique.app.movements.service.MovementService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes every movement matching the filter as newline-delimited JSON while the rows are read
+ * from the database cursor, so the heap used does not depend on the number of movements.
+ */
+@RequiredArgsConstructor
+@Component
+public class MovementExporter {
+
+    private final MovementService movementService;
+    private final ObjectMapper objectMapper;
+
+    @Transactional(readOnly = true)
+    public void writeNdjson(MovementFilter filter, OutputStream outputStream) {
+        // Sin flush por registro: los bloques se envían cuando se llena el buffer
+        ObjectWriter writer = this.objectMapper.writerFor(MovementDTO.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        try (Stream<MovementDTO> movements = this.movementService.streamMovements(filter);
+             JsonGenerator generator = this.objectMapper.getFactory().createGenerator(outputStream)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            Iterator<MovementDTO> iterator = movements.iterator();
+            while (iterator.hasNext()) {
+                writer.writeValue(generator, iterator.next());
+                generator.writeRaw('\n');
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error writing movements export", e);
+        }
+    }
+}
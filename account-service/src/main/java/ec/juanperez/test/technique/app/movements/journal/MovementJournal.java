@@ -0,0 +1,202 @@
+package ec.juanperez.test.technique.app.movements.journal;
+
+import ec.juanperez.test.technique.app.accounts.exception.AccountNotFoundException;
+import ec.juanperez.test.technique.app.movements.dto.BatchMovementResultDTO;
+import ec.juanperez.test.technique.app.movements.dto.MovementDTO;
+import ec.juanperez.test.technique.app.movements.dto.RegisterMovementRequest;
+import ec.juanperez.test.technique.app.movements.enums.MovementType;
+import ec.juanperez.test.technique.app.movements.exceptions.MovementBalanceException;
+import ec.juanperez.test.technique.app.movements.exceptions.MovementValueException;
+import ec.juanperez.test.technique.app.movements.service.MovementService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Group-commit mode for movement registration: movements are queued and written in
+ * micro-batches inside one transaction; each caller completes once its batch commits.
+ */
+@Slf4j
+@Component
+public class MovementJournal {
+
+    private final MovementService movementService;
+    private final boolean enabled;
+    private final int maxBatchSize;
+    private final long maxWaitNanos;
+    private final BlockingQueue<PendingMovement> queue;
+    private final DistributionSummary batchSizeSummary;
+    private final Timer commitTimer;
+
+    private volatile boolean running;
+    private Thread flusher;
+
+    public MovementJournal(MovementService movementService,
+                           MeterRegistry meterRegistry,
+                           @Value("${movements.journal.enabled:false}") boolean enabled,
+                           @Value("${movements.journal.max-batch-size:100}") int maxBatchSize,
+                           @Value("${movements.journal.max-wait-ms:5}") long maxWaitMillis,
+                           @Value("${movements.journal.queue-capacity:10000}") int queueCapacity,
+                           @Value("${movements.batch.max-size:1000}") int batchMaxSize) {
+        if (maxBatchSize <= 0 || maxWaitMillis < 0 || queueCapacity <= 0) {
+            throw new IllegalArgumentException("Invalid movement journal configuration");
+        }
+        this.movementService = movementService;
+        this.enabled = enabled;
+        this.maxBatchSize = Math.min(maxBatchSize, batchMaxSize);
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSizeSummary = DistributionSummary.builder("movements.journal.batch.size")
+                .description("Movements written per group commit")
+                .register(meterRegistry);
+        this.commitTimer = Timer.builder("movements.journal.commit.latency")
+                .description("Time to write and commit one group of movements")
+                .register(meterRegistry);
+        Gauge.builder("movements.journal.queue.size", this.queue, BlockingQueue::size)
+                .description("Movements waiting for the next group commit")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!this.enabled) {
+            return;
+        }
+        this.running = true;
+        this.flusher = new Thread(this::run, "movement-journal");
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+        log.info("Movement journal started: batch size {}, max wait {} ms", this.maxBatchSize,
+                TimeUnit.NANOSECONDS.toMillis(this.maxWaitNanos));
+    }
+
+    @PreDestroy
+    public void stop() {
+        this.running = false;
+        if (this.flusher == null) {
+            return;
+        }
+        try {
+            this.flusher.join(TimeUnit.SECONDS.toMillis(30));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (this.flusher.isAlive()) {
+            this.flusher.interrupt();
+        }
+        PendingMovement pending;
+        while ((pending = this.queue.poll()) != null) {
+            pending.future().completeExceptionally(new RejectedExecutionException("Movement journal stopped"));
+        }
+    }
+
+    public boolean isEnabled() {
+        return this.enabled;
+    }
+
+    public Mono<MovementDTO> submit(Long accountId, MovementType type, BigDecimal value) {
+        return Mono.defer(() -> {
+            PendingMovement pending = new PendingMovement(new RegisterMovementRequest(accountId, value, type), new CompletableFuture<>());
+            if (!this.running || !this.queue.offer(pending)) {
+                log.warn("Movement journal rejected movement for account id: {}", accountId);
+                return Mono.error(new RejectedExecutionException("Movement journal queue is full"));
+            }
+            return Mono.fromFuture(pending.future());
+        });
+    }
+
+    private void run() {
+        List<PendingMovement> batch = new ArrayList<>(this.maxBatchSize);
+        while (this.running || !this.queue.isEmpty()) {
+            try {
+                PendingMovement first = this.queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                this.fill(batch);
+                this.flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                batch.forEach(pending -> pending.future().completeExceptionally(new RejectedExecutionException("Movement journal stopped")));
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    // Completa el lote hasta N movimientos o hasta que venza el tiempo T desde el primero
+    private void fill(List<PendingMovement> batch) throws InterruptedException {
+        long deadline = System.nanoTime() + this.maxWaitNanos;
+        while (batch.size() < this.maxBatchSize) {
+            this.queue.drainTo(batch, this.maxBatchSize - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= this.maxBatchSize || remaining <= 0) {
+                return;
+            }
+            PendingMovement next = this.queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void flush(List<PendingMovement> batch) {
+        List<RegisterMovementRequest> requests = batch.stream().map(PendingMovement::request).toList();
+        long start = System.nanoTime();
+        List<BatchMovementResultDTO> results;
+        try {
+            // registerMovementsBatch es transaccional: al retornar, el lote ya está confirmado
+            results = this.movementService.registerMovementsBatch(requests);
+        } catch (RuntimeException e) {
+            log.error("Movement journal failed to commit a batch of {} movements", batch.size(), e);
+            batch.forEach(pending -> pending.future().completeExceptionally(e));
+            return;
+        }
+        this.commitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        this.batchSizeSummary.record(batch.size());
+
+        for (int i = 0; i < batch.size(); i++) {
+            PendingMovement pending = batch.get(i);
+            BatchMovementResultDTO result = results.get(i);
+            if (result.isSuccess()) {
+                pending.future().complete(result.getMovement());
+            } else {
+                pending.future().completeExceptionally(toException(pending.request(), result));
+            }
+        }
+    }
+
+    private static RuntimeException toException(RegisterMovementRequest request, BatchMovementResultDTO result) {
+        if (result.getErrorType() == null) {
+            return new IllegalArgumentException(result.getError());
+        }
+        return switch (result.getErrorType()) {
+            case ACCOUNT_NOT_FOUND -> new AccountNotFoundException(result.getError());
+            case INVALID_VALUE -> new MovementValueException(request.getValue());
+            case INSUFFICIENT_BALANCE -> new MovementBalanceException(result.getError());
+            case INVALID_REQUEST -> new IllegalArgumentException(result.getError());
+        };
+    }
+
+    private record PendingMovement(RegisterMovementRequest request, CompletableFuture<MovementDTO> future) {
+    }
+}
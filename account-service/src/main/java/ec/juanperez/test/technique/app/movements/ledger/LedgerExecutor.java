@@ -0,0 +1,124 @@
+package ec.juanperez.test.technique.app.movements.ledger;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Applies movements of the same account one at a time, in arrival order.
+ * Different accounts are spread over single-thread stripes and run in parallel.
+ */
+@Slf4j
+@Component
+public class LedgerExecutor {
+
+    public static final String MODE_SERIALIZED = "serialized";
+    public static final String MODE_DIRECT = "direct";
+
+    private final boolean serialized;
+    private final ThreadPoolExecutor[] stripes;
+
+    public LedgerExecutor(@Value("${ledger.mode:serialized}") String mode,
+                          @Value("${ledger.stripes:16}") int stripeCount,
+                          @Value("${ledger.queue-capacity:1000}") int queueCapacity) {
+        this.serialized = MODE_SERIALIZED.equalsIgnoreCase(mode);
+        if (!this.serialized && !MODE_DIRECT.equalsIgnoreCase(mode)) {
+            throw new IllegalArgumentException("Unknown ledger mode: " + mode);
+        }
+        if (stripeCount <= 0 || queueCapacity <= 0) {
+            throw new IllegalArgumentException("Ledger stripes and queue capacity must be greater than zero");
+        }
+        this.stripes = this.serialized ? createStripes(stripeCount, queueCapacity) : new ThreadPoolExecutor[0];
+        log.info("Ledger executor started in {} mode with {} stripes", mode, this.stripes.length);
+    }
+
+    public <T> CompletableFuture<T> submit(Long accountId, Callable<T> task) {
+        if (!this.serialized) {
+            try {
+                return CompletableFuture.completedFuture(task.call());
+            } catch (Exception e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }
+        CompletableFuture<T> future = new CompletableFuture<>();
+        try {
+            this.stripeFor(accountId).execute(() -> {
+                try {
+                    future.complete(task.call());
+                } catch (Throwable e) {
+                    future.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            log.warn("Ledger queue full for account id: {}", accountId);
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    /**
+     * Returns the original failure of a task, removing the wrapper added when its future is joined or read.
+     * Any other exception is returned as is.
+     */
+    public static Throwable unwrap(Throwable e) {
+        if ((e instanceof CompletionException || e instanceof ExecutionException) && e.getCause() != null) {
+            return e.getCause();
+        }
+        return e;
+    }
+
+    public boolean isSerialized() {
+        return this.serialized;
+    }
+
+    public int getStripeCount() {
+        return this.stripes.length;
+    }
+
+    int stripeIndex(Long accountId) {
+        int hash = accountId == null ? 0 : Long.hashCode(accountId);
+        return Math.floorMod(hash ^ (hash >>> 16), this.stripes.length);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (ThreadPoolExecutor stripe : this.stripes) {
+            stripe.shutdown();
+        }
+        for (ThreadPoolExecutor stripe : this.stripes) {
+            try {
+                if (!stripe.awaitTermination(10, TimeUnit.SECONDS)) {
+                    stripe.shutdownNow();
+                }
+            } catch (InterruptedException e) {
+                stripe.shutdownNow();
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private ThreadPoolExecutor stripeFor(Long accountId) {
+        return this.stripes[this.stripeIndex(accountId)];
+    }
+
+    private static ThreadPoolExecutor[] createStripes(int stripeCount, int queueCapacity) {
+        ThreadPoolExecutor[] executors = new ThreadPoolExecutor[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            String name = "ledger-" + i;
+            AtomicInteger threads = new AtomicInteger();
+            executors[i] = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                    new LinkedBlockingQueue<>(queueCapacity),
+                    runnable -> {
+                        Thread thread = new Thread(runnable, name + "-" + threads.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    },
+                    new ThreadPoolExecutor.AbortPolicy());
+        }
+        return executors;
+    }
+}
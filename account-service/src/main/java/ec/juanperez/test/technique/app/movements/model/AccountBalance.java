@@ -0,0 +1,31 @@
+package ec.juanperez.test.technique.app.movements.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+@Entity
+@Table(name = "saldo_cuenta")
+public class AccountBalance {
+
+    @Id
+    @Column(name = "id_cuenta")
+    private Long accountId;
+
+    @Column(name = "saldo", columnDefinition = "NUMERIC(18,2)", nullable = false)
+    private BigDecimal balance;
+
+    @Column(name = "fecha_actualizacion", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+}
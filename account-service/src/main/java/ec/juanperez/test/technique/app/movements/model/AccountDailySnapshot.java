@@ -0,0 +1,68 @@
+package ec.juanperez.test.technique.app.movements.model;
+
+import ec.juanperez.test.technique.app.movements.dto.MovementDTO;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+@Entity
+@IdClass(AccountDailySnapshotId.class)
+@Table(name = "account_daily_snapshot")
+public class AccountDailySnapshot {
+
+    @Id
+    @Column(name = "id_cuenta")
+    private Long accountId;
+
+    @Id
+    @Column(name = "fecha")
+    private LocalDate snapshotDate;
+
+    @Column(name = "saldo_cierre", columnDefinition = "NUMERIC(18,2)", nullable = false)
+    private BigDecimal closingBalance;
+
+    @Column(name = "total_creditos", columnDefinition = "NUMERIC(18,2)", nullable = false)
+    private BigDecimal totalCredits;
+
+    @Column(name = "total_debitos", columnDefinition = "NUMERIC(18,2)", nullable = false)
+    private BigDecimal totalDebits;
+
+    @Column(name = "cantidad_movimientos", nullable = false)
+    private Long movementCount;
+
+    // El registro incremental y el backfill pueden escribir el mismo día: el que llega tarde falla en vez de pisar al otro
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
+    public static AccountDailySnapshot empty(Long accountId, LocalDate snapshotDate) {
+        return new AccountDailySnapshot(accountId, snapshotDate, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO, 0L, null);
+    }
+
+    /**
+     * Adds a movement of the day. Movements must be applied in chronological order, since the
+     * balance of the last one is the closing balance of the day.
+     */
+    public void apply(MovementDTO movement) {
+        switch (movement.getMovementType()) {
+            case CREDIT -> this.totalCredits = this.totalCredits.add(movement.getValue());
+            case DEBIT -> this.totalDebits = this.totalDebits.add(movement.getValue());
+        }
+        this.movementCount++;
+        this.closingBalance = movement.getBalance();
+    }
+
+    public void reset() {
+        this.closingBalance = BigDecimal.ZERO;
+        this.totalCredits = BigDecimal.ZERO;
+        this.totalDebits = BigDecimal.ZERO;
+        this.movementCount = 0L;
+    }
+}
@@ -0,0 +1,17 @@
+package ec.juanperez.test.technique.app.movements.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+public class AccountDailySnapshotId implements Serializable {
+
+    private Long accountId;
+    private LocalDate snapshotDate;
+}
@@ -0,0 +1,29 @@
+package ec.juanperez.test.technique.app.movements.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+@Entity
+@Table(name = "account_daily_snapshot_backfill")
+public class AccountSnapshotBackfill {
+
+    @Id
+    @Column(name = "nombre", length = 50)
+    private String name;
+
+    @Column(name = "ultima_cuenta", nullable = false)
+    private Long lastAccountId;
+
+    @Column(name = "completado", nullable = false)
+    private boolean completed;
+
+    @Column(name = "fecha_actualizacion", nullable = false)
+    private LocalDateTime updatedAt;
+}
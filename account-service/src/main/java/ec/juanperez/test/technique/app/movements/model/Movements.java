@@ -17,8 +17,11 @@ import java.time.LocalDateTime;
 @Table(name = "movimientos")
 public class Movements {
 
+    // Secuencia con optimizador pooled para que Hibernate pueda agrupar los inserts en lotes JDBC;
+    // la migración V8 ajusta el incremento de SEQ_MOVIMIENTOS a este allocationSize
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "movementsSequence")
+    @SequenceGenerator(name = "movementsSequence", sequenceName = "seq_movimientos", allocationSize = 50)
     @Column(name = "id_movimiento")
     private Long id;
 
@@ -0,0 +1,29 @@
+package ec.juanperez.test.technique.app.movements.paging;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position (date, id) of the last movement returned in a page, sent to the client as an opaque token.
+ */
+public record MovementCursor(LocalDateTime fechaMovimiento, Long movementId) {
+
+    private static final String SEPARATOR = "|";
+
+    public String encode() {
+        String raw = this.fechaMovimiento + SEPARATOR + this.movementId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static MovementCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            return new MovementCursor(LocalDateTime.parse(raw.substring(0, separator)), Long.valueOf(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid movement cursor: " + token);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package ec.juanperez.test.technique.app.movements.partition;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+/**
+ * Keeps the monthly partitions of MOVIMIENTOS created ahead of time, so new
+ * movements never land in the default partition.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "movements.partitions.maintenance-enabled", havingValue = "true", matchIfMissing = true)
+public class MovementPartitionMaintenance {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${movements.partitions.months-ahead:3}")
+    private int monthsAhead;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        this.createFuturePartitions();
+    }
+
+    @Scheduled(cron = "${movements.partitions.cron:0 0 3 * * *}")
+    public void createFuturePartitions() {
+        try {
+            Integer created = this.jdbcTemplate.queryForObject("SELECT crear_particiones_movimientos(?, ?)",
+                    Integer.class, LocalDate.now(), this.monthsAhead);
+            log.info("Movement partitions checked {} months ahead, {} created", this.monthsAhead, created);
+        } catch (RuntimeException e) {
+            log.error("Error creating movement partitions", e);
+        }
+    }
+}
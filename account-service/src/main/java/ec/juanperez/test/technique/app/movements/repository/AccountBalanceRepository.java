@@ -0,0 +1,20 @@
+package ec.juanperez.test.technique.app.movements.repository;
+
+import ec.juanperez.test.technique.app.movements.model.AccountBalance;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface AccountBalanceRepository extends JpaRepository<AccountBalance, Long> {
+
+    // Bloquea la fila hasta el fin de la transacción: un registro concurrente de la cuenta falla por versión
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select b from AccountBalance b where b.accountId = :accountId")
+    Optional<AccountBalance> findByIdForUpdate(@Param("accountId") Long accountId);
+}
@@ -0,0 +1,40 @@
+package ec.juanperez.test.technique.app.movements.repository;
+
+import ec.juanperez.test.technique.app.movements.dto.AccountPeriodTotalsView;
+import ec.juanperez.test.technique.app.movements.model.AccountDailySnapshot;
+import ec.juanperez.test.technique.app.movements.model.AccountDailySnapshotId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface AccountDailySnapshotRepository extends JpaRepository<AccountDailySnapshot, AccountDailySnapshotId> {
+
+    List<AccountDailySnapshot> findByAccountId(Long accountId);
+
+    // Totales del período sumando un registro por día, sin leer los movimientos
+    @Query(" select s.accountId as accountId, " +
+            " sum(s.totalCredits) as totalCredits, " +
+            " sum(s.totalDebits) as totalDebits, " +
+            " sum(s.movementCount) as movementCount " +
+            " from AccountDailySnapshot s " +
+            " where s.accountId in :accountIds " +
+            " and s.snapshotDate between :startDate and :endDate " +
+            " group by s.accountId ")
+    List<AccountPeriodTotalsView> sumByAccounts(@Param("accountIds") Collection<Long> accountIds,
+                                                @Param("startDate") LocalDate startDate,
+                                                @Param("endDate") LocalDate endDate);
+
+    // Último cierre de cada cuenta hasta la fecha (inclusive); se resuelve con la clave primaria (cuenta, fecha)
+    @Query(" select s from AccountDailySnapshot s " +
+            " where s.accountId in :accountIds " +
+            " and s.snapshotDate = (select max(l.snapshotDate) from AccountDailySnapshot l " +
+            "                       where l.accountId = s.accountId and l.snapshotDate <= :date) ")
+    List<AccountDailySnapshot> findLatestByAccountsUpTo(@Param("accountIds") Collection<Long> accountIds,
+                                                        @Param("date") LocalDate date);
+}
@@ -0,0 +1,9 @@
+package ec.juanperez.test.technique.app.movements.repository;
+
+import ec.juanperez.test.technique.app.movements.model.AccountSnapshotBackfill;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface AccountSnapshotBackfillRepository extends JpaRepository<AccountSnapshotBackfill, String> {
+}
@@ -1,42 +1,191 @@
 package ec.juanperez.test.technique.app.movements.repository;
 
+import ec.juanperez.test.technique.app.common.enums.StatusType;
+import ec.juanperez.test.technique.app.movements.dto.AccountBalanceView;
+import ec.juanperez.test.technique.app.movements.dto.AccountSummaryView;
 import ec.juanperez.test.technique.app.movements.dto.MovementDTO;
 import ec.juanperez.test.technique.app.movements.model.Movements;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface MovementRepository extends JpaRepository<Movements, Long> {
+public interface MovementRepository extends JpaRepository<Movements, Long>, MovementRepositoryCustom {
 
     @Query(value = "SELECT m.saldo " +
             "FROM movimientos m " +
             "WHERE m.id_cuenta = :accountId " +
-            "ORDER BY m.fecha_movimiento DESC " +
+            "ORDER BY m.fecha_movimiento DESC, m.id_movimiento DESC " +
             "LIMIT 1", nativeQuery = true)
     Optional<BigDecimal> balanceLastMovement(@Param("accountId") Long accountId);
 
-    @Query(" select m from Movements m join fetch m.account ")
-    List<Movements> findAllWithAccount();
+    // Último saldo de varias cuentas en una sola consulta: el movimiento más reciente de cada cuenta,
+    // el de mayor id si dos comparten la fecha
+    @Query(value = "SELECT u.id_cuenta AS accountId, u.saldo AS balance " +
+            "FROM (SELECT m.id_cuenta, m.saldo, " +
+            "ROW_NUMBER() OVER (PARTITION BY m.id_cuenta ORDER BY m.fecha_movimiento DESC, m.id_movimiento DESC) AS rn " +
+            "FROM movimientos m " +
+            "WHERE m.id_cuenta IN (:accountIds)) u " +
+            "WHERE u.rn = 1", nativeQuery = true)
+    List<AccountBalanceView> balanceLastMovementByAccounts(@Param("accountIds") Collection<Long> accountIds);
+
+    // Resumen por cuenta del cliente en una sola consulta agrupada: totales del rango y, con subconsultas
+    // sobre el índice (cuenta, fecha, id), el último saldo antes del rango y el último dentro del rango;
+    // si dos movimientos comparten la fecha gana el de mayor id
+    @Query(value = "SELECT a.id_cuenta AS accountId, " +
+            "COALESCE((SELECT p.saldo FROM movimientos p " +
+            "          WHERE p.id_cuenta = a.id_cuenta AND p.fecha_movimiento < :startDate " +
+            "          ORDER BY p.fecha_movimiento DESC, p.id_movimiento DESC LIMIT 1), a.saldo_inicial) AS openingBalance, " +
+            "(SELECT l.saldo FROM movimientos l " +
+            " WHERE l.id_cuenta = a.id_cuenta AND l.fecha_movimiento BETWEEN :startDate AND :endDate " +
+            " ORDER BY l.fecha_movimiento DESC, l.id_movimiento DESC LIMIT 1) AS closingBalance, " +
+            "COALESCE(SUM(CASE WHEN m.tipo_movimiento = 'CREDIT' THEN m.valor END), 0) AS totalCredits, " +
+            "COALESCE(SUM(CASE WHEN m.tipo_movimiento = 'DEBIT' THEN m.valor END), 0) AS totalDebits, " +
+            "COUNT(m.id_movimiento) AS movementCount " +
+            "FROM cuenta a " +
+            "LEFT JOIN movimientos m ON m.id_cuenta = a.id_cuenta " +
+            "AND m.fecha_movimiento BETWEEN :startDate AND :endDate " +
+            "WHERE a.id_cliente = :customerId AND a.estado = :status " +
+            "GROUP BY a.id_cuenta, a.saldo_inicial", nativeQuery = true)
+    List<AccountSummaryView> summarizeByCustomer(@Param("customerId") Long customerId,
+                                                 @Param("status") String status,
+                                                 @Param("startDate") LocalDateTime startDate,
+                                                 @Param("endDate") LocalDateTime endDate);
+
+    // Movimientos de todas las cuentas del cliente en una sola consulta, agrupables por cuenta en orden
+    @Query(" select new ec.juanperez.test.technique.app.movements.dto.MovementDTO( " +
+            " m.id, " +
+            " m.movementType, " +
+            " m.value, " +
+            " m.fechaMovimiento, " +
+            " m.balance, " +
+            " a.id, " +
+            " a.number " +
+            " )" +
+            " from Movements m " +
+            " join m.account a " +
+            " where a.customer.id = :customerId " +
+            " and a.status = :status " +
+            " and m.fechaMovimiento between :startDate and :endDate " +
+            " order by a.id, m.fechaMovimiento, m.id ")
+    List<MovementDTO> findMovementsByCustomer(@Param("customerId") Long customerId,
+                                              @Param("status") StatusType status,
+                                              @Param("startDate") LocalDateTime startDate,
+                                              @Param("endDate") LocalDateTime endDate);
 
+    // Cursor del servidor: las filas se leen en bloques de fetch size, sin cargar el rango completo
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
     @Query(" select new ec.juanperez.test.technique.app.movements.dto.MovementDTO( " +
             " m.movementType, " +
             " m.value, " +
             " m.fechaMovimiento, " +
             " m.balance " +
-            " )" +  
+            " )" +
+            " from Movements m " +
+            " where m.account.id = :accountId " +
+            " and m.fechaMovimiento between :startDate and :endDate " +
+            " order by m.fechaMovimiento, m.id ")
+    Stream<MovementDTO> streamMovementsByAccount(@Param("accountId") Long accountId,
+                                                 @Param("startDate") LocalDateTime startDate,
+                                                 @Param("endDate") LocalDateTime endDate);
+
+    // Cursor sobre todas las cuentas del cliente, en el mismo orden en que se listan las cuentas
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(" select new ec.juanperez.test.technique.app.movements.dto.MovementDTO( " +
+            " m.id, " +
+            " m.movementType, " +
+            " m.value, " +
+            " m.fechaMovimiento, " +
+            " m.balance, " +
+            " a.id, " +
+            " a.number " +
+            " )" +
+            " from Movements m " +
+            " join m.account a " +
+            " where a.customer.id = :customerId " +
+            " and a.status = :status " +
+            " and m.fechaMovimiento between :startDate and :endDate " +
+            " order by a.accountType, a.number, m.fechaMovimiento, m.id ")
+    Stream<MovementDTO> streamMovementsByCustomer(@Param("customerId") Long customerId,
+                                                  @Param("status") StatusType status,
+                                                  @Param("startDate") LocalDateTime startDate,
+                                                  @Param("endDate") LocalDateTime endDate);
+
+    // Página de movimientos de una cuenta del cliente después del cursor (fecha, id): el índice
+    // (cuenta, fecha, id) resuelve la condición y el orden, sin OFFSET ni filas descartadas
+    @Query(" select new ec.juanperez.test.technique.app.movements.dto.MovementDTO( " +
+            " m.id, " +
+            " m.movementType, " +
+            " m.value, " +
+            " m.fechaMovimiento, " +
+            " m.balance, " +
+            " a.id, " +
+            " a.number " +
+            " )" +
             " from Movements m " +
-            " join Account a on m.account.id = a.id " +
+            " join m.account a " +
             " where m.account.id = :accountId " +
+            " and a.customer.id = :customerId " +
+            " and a.status = :status " +
             " and m.fechaMovimiento between :startDate and :endDate " +
-            " order by m.fechaMovimiento ")
-    List<MovementDTO> findMovementsByAccount(@Param("accountId") Long accountId,
+            " and (m.fechaMovimiento, m.id) > (:afterFecha, :afterId) " +
+            " order by m.fechaMovimiento, m.id ")
+    List<MovementDTO> findMovementsPageAfter(@Param("customerId") Long customerId,
+                                             @Param("accountId") Long accountId,
+                                             @Param("status") StatusType status,
                                              @Param("startDate") LocalDateTime startDate,
-                                             @Param("endDate") LocalDateTime endDate);
+                                             @Param("endDate") LocalDateTime endDate,
+                                             @Param("afterFecha") LocalDateTime afterFecha,
+                                             @Param("afterId") Long afterId,
+                                             Limit limit);
+
+    // Historial completo de una cuenta en el orden en que se aplicaron los movimientos, para reconstruir sus cierres diarios
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(" select new ec.juanperez.test.technique.app.movements.dto.MovementDTO( " +
+            " m.movementType, " +
+            " m.value, " +
+            " m.fechaMovimiento, " +
+            " m.balance " +
+            " )" +
+            " from Movements m " +
+            " where m.account.id = :accountId " +
+            " order by m.fechaMovimiento, m.id ")
+    Stream<MovementDTO> streamAccountHistory(@Param("accountId") Long accountId);
+
+    // Movimientos de una cuenta en [startDate, endDate), en el orden en que se aplicaron
+    @Query(" select new ec.juanperez.test.technique.app.movements.dto.MovementDTO( " +
+            " m.movementType, " +
+            " m.value, " +
+            " m.fechaMovimiento, " +
+            " m.balance " +
+            " )" +
+            " from Movements m " +
+            " where m.account.id = :accountId " +
+            " and m.fechaMovimiento >= :startDate " +
+            " and m.fechaMovimiento < :endDate " +
+            " order by m.fechaMovimiento, m.id ")
+    List<MovementDTO> findAccountMovementsBetween(@Param("accountId") Long accountId,
+                                                  @Param("startDate") LocalDateTime startDate,
+                                                  @Param("endDate") LocalDateTime endDate);
 
     @Query(" select m from Movements m join fetch m.account where m.id = :id ")
     Optional<Movements> findByIdWithAccount(@Param("id") Long id);
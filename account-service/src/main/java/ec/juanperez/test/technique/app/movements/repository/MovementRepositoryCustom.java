@@ -0,0 +1,27 @@
+package ec.juanperez.test.technique.app.movements.repository;
+
+import ec.juanperez.test.technique.app.movements.dto.MovementDTO;
+import ec.juanperez.test.technique.app.movements.dto.MovementFilter;
+import ec.juanperez.test.technique.app.movements.dto.MovementSearchCriteria;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Movement listings with optional filters, ordered by date and id. Only the filters that are
+ * present become conditions, so each combination gets its own plan on the matching index.
+ */
+public interface MovementRepositoryCustom {
+
+    List<MovementDTO> findPage(MovementFilter filter, LocalDateTime afterFecha, Long afterId, int limit);
+
+    Stream<MovementDTO> streamByFilter(MovementFilter filter);
+
+    /**
+     * Page of the search after the (afterFecha, afterId) cursor; the statement is cancelled by the
+     * driver once {@code timeout} elapses.
+     */
+    List<MovementDTO> search(MovementSearchCriteria criteria, LocalDateTime afterFecha, Long afterId, int limit, Duration timeout);
+}
@@ -0,0 +1,126 @@
+package ec.juanperez.test.technique.app.movements.repository;
+
+import ec.juanperez.test.technique.app.movements.dto.MovementDTO;
+import ec.juanperez.test.technique.app.movements.dto.MovementFilter;
+import ec.juanperez.test.technique.app.movements.dto.MovementSearchCriteria;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.jpa.HibernateHints;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+public class MovementRepositoryCustomImpl implements MovementRepositoryCustom {
+
+    private static final String SELECT = " select new ec.juanperez.test.technique.app.movements.dto.MovementDTO( " +
+            " m.id, " +
+            " m.movementType, " +
+            " m.value, " +
+            " m.fechaMovimiento, " +
+            " m.balance, " +
+            " a.id, " +
+            " a.number " +
+            " )" +
+            " from Movements m " +
+            " join m.account a ";
+    private static final String ORDER_BY = " order by m.fechaMovimiento, m.id ";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<MovementDTO> findPage(MovementFilter filter, LocalDateTime afterFecha, Long afterId, int limit) {
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        List<String> conditions = conditions(filter, parameters);
+        return this.pageQuery(conditions, parameters, afterFecha, afterId, limit)
+                .getResultList();
+    }
+
+    @Override
+    public List<MovementDTO> search(MovementSearchCriteria criteria, LocalDateTime afterFecha, Long afterId, int limit, Duration timeout) {
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        List<String> conditions = new ArrayList<>();
+        if (criteria.getAccountNumber() != null) {
+            // Número de cuenta único: la cuenta se resuelve por su índice y los movimientos por (cuenta, fecha, id)
+            conditions.add("a.number = :accountNumber");
+            parameters.put("accountNumber", criteria.getAccountNumber());
+        }
+        if (criteria.getMovementType() != null) {
+            conditions.add("m.movementType = :movementType");
+            parameters.put("movementType", criteria.getMovementType());
+        }
+        if (criteria.getMinAmount() != null) {
+            conditions.add("m.value >= :minAmount");
+            parameters.put("minAmount", criteria.getMinAmount());
+        }
+        if (criteria.getMaxAmount() != null) {
+            conditions.add("m.value <= :maxAmount");
+            parameters.put("maxAmount", criteria.getMaxAmount());
+        }
+        addDateRange(conditions, parameters, criteria.getStartDate(), criteria.getEndDate());
+        // El timeout de JDBC se expresa en segundos
+        return this.pageQuery(conditions, parameters, afterFecha, afterId, limit)
+                .setHint(HibernateHints.HINT_TIMEOUT, (int) Math.max(1, timeout.toSeconds()))
+                .getResultList();
+    }
+
+    @Override
+    public Stream<MovementDTO> streamByFilter(MovementFilter filter) {
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        // Cursor del servidor: las filas se leen en bloques de fetch size, sin cargar el resultado completo
+        return this.query(conditions(filter, parameters), parameters)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, 500)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
+    private static List<String> conditions(MovementFilter filter, Map<String, Object> parameters) {
+        List<String> conditions = new ArrayList<>();
+        if (filter.getAccountId() != null) {
+            conditions.add("m.account.id = :accountId");
+            parameters.put("accountId", filter.getAccountId());
+        }
+        if (filter.getMovementType() != null) {
+            conditions.add("m.movementType = :movementType");
+            parameters.put("movementType", filter.getMovementType());
+        }
+        addDateRange(conditions, parameters, filter.getStartDate(), filter.getEndDate());
+        return conditions;
+    }
+
+    private static void addDateRange(List<String> conditions, Map<String, Object> parameters, LocalDateTime startDate, LocalDateTime endDate) {
+        if (startDate != null) {
+            conditions.add("m.fechaMovimiento >= :startDate");
+            parameters.put("startDate", startDate);
+        }
+        if (endDate != null) {
+            conditions.add("m.fechaMovimiento <= :endDate");
+            parameters.put("endDate", endDate);
+        }
+    }
+
+    private TypedQuery<MovementDTO> pageQuery(List<String> conditions, Map<String, Object> parameters,
+                                              LocalDateTime afterFecha, Long afterId, int limit) {
+        if (afterFecha != null) {
+            // Continúa después del cursor: con el índice que termina en (fecha, id) no se leen las filas anteriores
+            conditions.add("(m.fechaMovimiento, m.id) > (:afterFecha, :afterId)");
+            parameters.put("afterFecha", afterFecha);
+            parameters.put("afterId", afterId);
+        }
+        return this.query(conditions, parameters)
+                .setMaxResults(limit);
+    }
+
+    private TypedQuery<MovementDTO> query(List<String> conditions, Map<String, Object> parameters) {
+        String jpql = SELECT + (conditions.isEmpty() ? "" : " where " + String.join(" and ", conditions)) + ORDER_BY;
+        TypedQuery<MovementDTO> query = this.entityManager.createQuery(jpql, MovementDTO.class);
+        parameters.forEach(query::setParameter);
+        return query;
+    }
+}
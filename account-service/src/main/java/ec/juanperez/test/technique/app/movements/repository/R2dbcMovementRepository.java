@@ -0,0 +1,117 @@
+package ec.juanperez.test.technique.app.movements.repository;
+
+import ec.juanperez.test.technique.app.movements.dto.MovementDTO;
+import ec.juanperez.test.technique.app.movements.enums.MovementType;
+import ec.juanperez.test.technique.config.R2dbcConfig;
+import io.r2dbc.spi.Readable;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Repository
+@Profile(R2dbcConfig.PROFILE)
+@RequiredArgsConstructor
+public class R2dbcMovementRepository {
+
+    private static final String SELECT_WITH_ACCOUNT = "SELECT m.id_movimiento, m.tipo_movimiento, m.valor, m.fecha_movimiento, " +
+            "m.saldo, m.id_cuenta, a.numero_cuenta " +
+            "FROM movimientos m " +
+            "JOIN cuenta a ON a.id_cuenta = m.id_cuenta ";
+
+    private final DatabaseClient databaseClient;
+
+    public Mono<MovementDTO> findByIdWithAccount(Long id) {
+        return this.databaseClient.sql(SELECT_WITH_ACCOUNT + "WHERE m.id_movimiento = :id")
+                .bind("id", id)
+                .map(this::toDto)
+                .one();
+    }
+
+    // Bloquea la fila del saldo hasta el fin de la transacción: serializa los movimientos
+    // de una cuenta también entre instancias del servicio
+    public Mono<BigDecimal> findBalanceForUpdate(Long accountId) {
+        return this.databaseClient.sql("SELECT saldo FROM saldo_cuenta WHERE id_cuenta = :accountId FOR UPDATE")
+                .bind("accountId", accountId)
+                .map(row -> row.get("saldo", BigDecimal.class))
+                .one();
+    }
+
+    public Mono<BigDecimal> balanceLastMovement(Long accountId) {
+        return this.databaseClient.sql("SELECT m.saldo FROM movimientos m " +
+                        "WHERE m.id_cuenta = :accountId " +
+                        "ORDER BY m.fecha_movimiento DESC " +
+                        "LIMIT 1")
+                .bind("accountId", accountId)
+                .map(row -> row.get("saldo", BigDecimal.class))
+                .one();
+    }
+
+    public Mono<Void> insertBalanceIfAbsent(Long accountId, BigDecimal balance, LocalDateTime updatedAt) {
+        return this.databaseClient.sql("INSERT INTO saldo_cuenta (id_cuenta, saldo, fecha_actualizacion, version) " +
+                        "VALUES (:accountId, :balance, :updatedAt, 0) " +
+                        "ON CONFLICT (id_cuenta) DO NOTHING")
+                .bind("accountId", accountId)
+                .bind("balance", balance)
+                .bind("updatedAt", updatedAt)
+                .then();
+    }
+
+    // Acumula el movimiento en el cierre del día; la fila del saldo ya está bloqueada, así que no compite con otro registro
+    public Mono<Void> upsertDailySnapshot(MovementDTO movementDTO) {
+        boolean credit = movementDTO.getMovementType() == MovementType.CREDIT;
+        return this.databaseClient.sql("INSERT INTO account_daily_snapshot (id_cuenta, fecha, saldo_cierre, total_creditos, " +
+                        "total_debitos, cantidad_movimientos, version) " +
+                        "VALUES (:accountId, :date, :balance, :credits, :debits, 1, 0) " +
+                        "ON CONFLICT (id_cuenta, fecha) DO UPDATE SET saldo_cierre = EXCLUDED.saldo_cierre, " +
+                        "total_creditos = account_daily_snapshot.total_creditos + EXCLUDED.total_creditos, " +
+                        "total_debitos = account_daily_snapshot.total_debitos + EXCLUDED.total_debitos, " +
+                        "cantidad_movimientos = account_daily_snapshot.cantidad_movimientos + 1, " +
+                        "version = account_daily_snapshot.version + 1")
+                .bind("accountId", movementDTO.getAccountId())
+                .bind("date", movementDTO.getFechaMovimiento().toLocalDate())
+                .bind("balance", movementDTO.getBalance())
+                .bind("credits", credit ? movementDTO.getValue() : BigDecimal.ZERO)
+                .bind("debits", credit ? BigDecimal.ZERO : movementDTO.getValue())
+                .then();
+    }
+
+    // La versión se incrementa igual que lo haría JPA para que su bloqueo optimista detecte este cambio
+    public Mono<Void> updateBalance(Long accountId, BigDecimal balance, LocalDateTime updatedAt) {
+        return this.databaseClient.sql("UPDATE saldo_cuenta SET saldo = :balance, fecha_actualizacion = :updatedAt, " +
+                        "version = version + 1 " +
+                        "WHERE id_cuenta = :accountId")
+                .bind("accountId", accountId)
+                .bind("balance", balance)
+                .bind("updatedAt", updatedAt)
+                .then();
+    }
+
+    public Mono<Long> insert(MovementDTO movementDTO) {
+        return this.databaseClient.sql("INSERT INTO movimientos (id_cuenta, tipo_movimiento, valor, fecha_movimiento, saldo) " +
+                        "VALUES (:accountId, :movementType, :value, :fechaMovimiento, :balance) " +
+                        "RETURNING id_movimiento")
+                .bind("accountId", movementDTO.getAccountId())
+                .bind("movementType", movementDTO.getMovementType().name())
+                .bind("value", movementDTO.getValue())
+                .bind("fechaMovimiento", movementDTO.getFechaMovimiento())
+                .bind("balance", movementDTO.getBalance())
+                .map(row -> row.get("id_movimiento", Long.class))
+                .one();
+    }
+
+    private MovementDTO toDto(Readable row) {
+        return new MovementDTO(
+                row.get("id_movimiento", Long.class),
+                MovementType.valueOf(row.get("tipo_movimiento", String.class)),
+                row.get("valor", BigDecimal.class),
+                row.get("fecha_movimiento", LocalDateTime.class),
+                row.get("saldo", BigDecimal.class),
+                row.get("id_cuenta", Long.class),
+                row.get("numero_cuenta", String.class));
+    }
+}
@@ -1,23 +1,40 @@
 package ec.juanperez.test.technique.app.movements.service;
 
+import ec.juanperez.test.technique.app.movements.dto.AccountPeriodSummaryDTO;
+import ec.juanperez.test.technique.app.movements.dto.BatchMovementResultDTO;
+import ec.juanperez.test.technique.app.movements.dto.MovementFilter;
+import ec.juanperez.test.technique.app.movements.dto.MovementPageDTO;
+import ec.juanperez.test.technique.app.movements.dto.MovementSearchCriteria;
+import ec.juanperez.test.technique.app.movements.dto.RegisterMovementRequest;
 import ec.juanperez.test.technique.app.movements.enums.MovementType;
 import ec.juanperez.test.technique.app.movements.dto.MovementDTO;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface MovementService {
 
     MovementDTO create(MovementDTO movementDTO);
     MovementDTO update(Long idMovement, MovementDTO movementDTO);
     Optional<MovementDTO> findById(Long id);
-    List<MovementDTO> findAll();
+    MovementPageDTO findPage(MovementFilter filter, String cursor, Integer pageSize);
+    Stream<MovementDTO> streamMovements(MovementFilter filter);
+    MovementPageDTO search(MovementSearchCriteria criteria, String cursor, Integer pageSize);
     void delete(Long id);
     MovementDTO registerMovementByType(Long accountId, MovementType type, BigDecimal value);
+    List<BatchMovementResultDTO> registerMovementsBatch(List<RegisterMovementRequest> requests);
     Map<String, List<MovementDTO>> getMovementsByCustomerIdAndDates(Long customerId, LocalDateTime startTime, LocalDateTime endTime);
     Optional<BigDecimal> getCurrentBalance(Long accountId);
+    Map<Long, BigDecimal> getCurrentBalances(Collection<Long> accountIds);
+    Map<Long, AccountPeriodSummaryDTO> getAccountSummaries(Long customerId, LocalDateTime startTime, LocalDateTime endTime);
+    List<MovementDTO> getMovementsPage(Long customerId, Long accountId, LocalDateTime startTime, LocalDateTime endTime,
+                                       LocalDateTime afterFecha, Long afterId, int limit);
+    Stream<MovementDTO> streamMovementsByAccount(Long accountId, LocalDateTime startTime, LocalDateTime endTime);
+    Stream<MovementDTO> streamMovementsByCustomer(Long customerId, LocalDateTime startTime, LocalDateTime endTime);
 }
@@ -0,0 +1,13 @@
+package ec.juanperez.test.technique.app.movements.service;
+
+import ec.juanperez.test.technique.app.movements.dto.MovementDTO;
+import ec.juanperez.test.technique.app.movements.enums.MovementType;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+
+public interface ReactiveMovementService {
+
+    Mono<MovementDTO> findById(Long id);
+    Mono<MovementDTO> registerMovementByType(Long accountId, MovementType type, BigDecimal value);
+}
@@ -0,0 +1,48 @@
+package ec.juanperez.test.technique.app.movements.service.impl;
+
+import ec.juanperez.test.technique.app.common.reactive.BlockingScheduler;
+import ec.juanperez.test.technique.app.movements.dto.MovementDTO;
+import ec.juanperez.test.technique.app.movements.enums.MovementType;
+import ec.juanperez.test.technique.app.movements.journal.MovementJournal;
+import ec.juanperez.test.technique.app.movements.ledger.LedgerExecutor;
+import ec.juanperez.test.technique.app.movements.service.MovementService;
+import ec.juanperez.test.technique.app.movements.service.ReactiveMovementService;
+import ec.juanperez.test.technique.config.R2dbcConfig;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+
+// Implementación por defecto: expone el servicio JPA bloqueante como Mono; los registros
+// pasan por el journal si está habilitado o por el ledger serializado por cuenta
+@RequiredArgsConstructor
+@Service
+@Profile("!" + R2dbcConfig.PROFILE)
+public class JpaReactiveMovementServiceImpl implements ReactiveMovementService {
+
+    private final MovementService service;
+    private final LedgerExecutor ledgerExecutor;
+    private final MovementJournal movementJournal;
+    private final BlockingScheduler blockingScheduler;
+
+    @Override
+    public Mono<MovementDTO> findById(Long id) {
+        return this.blockingScheduler.fromCallable(() -> this.service.findById(id))
+                .flatMap(Mono::justOrEmpty);
+    }
+
+    @Override
+    public Mono<MovementDTO> registerMovementByType(Long accountId, MovementType type, BigDecimal value) {
+        if (this.movementJournal.isEnabled()) {
+            return this.movementJournal.submit(accountId, type, value);
+        }
+        if (!this.ledgerExecutor.isSerialized()) {
+            // En modo direct el ledger ejecuta en el hilo que lo invoca
+            return this.blockingScheduler.fromCallable(() -> this.service.registerMovementByType(accountId, type, value));
+        }
+        return Mono.fromFuture(() -> this.ledgerExecutor.submit(accountId,
+                () -> this.service.registerMovementByType(accountId, type, value)));
+    }
+}
@@ -3,27 +3,57 @@ package ec.juanperez.test.technique.app.movements.service.impl;
 import ec.juanperez.test.technique.app.accounts.dto.AccountDTO;
 import ec.juanperez.test.technique.app.accounts.exception.AccountNotFoundException;
 import ec.juanperez.test.technique.app.accounts.service.AccountService;
+import ec.juanperez.test.technique.app.common.enums.StatusType;
+import ec.juanperez.test.technique.app.movements.enums.MovementErrorType;
+import ec.juanperez.test.technique.app.movements.event.MovementsChangedEvent;
 import ec.juanperez.test.technique.app.movements.enums.MovementType;
+import ec.juanperez.test.technique.app.movements.dto.AccountPeriodSummaryDTO;
+import ec.juanperez.test.technique.app.movements.dto.BatchMovementResultDTO;
 import ec.juanperez.test.technique.app.movements.dto.MovementDTO;
+import ec.juanperez.test.technique.app.movements.dto.MovementFilter;
+import ec.juanperez.test.technique.app.movements.dto.MovementPageDTO;
+import ec.juanperez.test.technique.app.movements.dto.MovementSearchCriteria;
+import ec.juanperez.test.technique.app.movements.dto.RegisterMovementRequest;
 import ec.juanperez.test.technique.app.movements.exceptions.MovementBalanceException;
 import ec.juanperez.test.technique.app.movements.exceptions.MovementValueException;
 import ec.juanperez.test.technique.app.movements.exceptions.MovementNotFoundException;
+import ec.juanperez.test.technique.app.movements.exceptions.MovementSearchTimeoutException;
 import ec.juanperez.test.technique.app.movements.mapper.MovementMapper;
+import ec.juanperez.test.technique.app.movements.model.AccountBalance;
 import ec.juanperez.test.technique.app.movements.model.Movements;
+import ec.juanperez.test.technique.app.movements.paging.MovementCursor;
+import ec.juanperez.test.technique.app.movements.repository.AccountBalanceRepository;
 import ec.juanperez.test.technique.app.movements.repository.MovementRepository;
 import ec.juanperez.test.technique.app.movements.service.MovementService;
+import ec.juanperez.test.technique.app.movements.snapshot.AccountDailySnapshotService;
+import jakarta.persistence.OptimisticLockException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Slf4j
 @RequiredArgsConstructor
@@ -31,10 +61,30 @@ import java.util.stream.Collectors;
 @Transactional
 public class MovementServiceImpl implements MovementService {
 
+    private static final int BATCH_MAX_ATTEMPTS = 3;
+
     private final MovementRepository repository;
+    private final AccountBalanceRepository balanceRepository;
     private final MovementMapper mapper;
     private final AccountService accountService;
+    private final AccountDailySnapshotService snapshotService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${movements.batch.max-size:1000}")
+    private int batchMaxSize;
+
+    @Value("${movements.paging.default-size:50}")
+    private int pageDefaultSize;
+
+    @Value("${movements.paging.max-size:500}")
+    private int pageMaxSize;
 
+    @Value("${movements.search.timeout:PT2S}")
+    private Duration searchTimeout;
+
+    @Value("${movements.search.max-days-without-account:31}")
+    private int searchMaxDaysWithoutAccount;
 
     @Override
     public MovementDTO create(MovementDTO movementDTO) {
@@ -42,7 +92,12 @@ public class MovementServiceImpl implements MovementService {
             log.error("Movement value is less than or equal to zero");
             throw new MovementValueException(movementDTO.getValue());
         }
-        return this.save(movementDTO);
+        List<AccountBalance> balances = this.lockBalances(movementDTO.getAccountId());
+        MovementDTO created = this.save(movementDTO);
+        this.syncBalances(balances);
+        this.refreshSnapshot(created);
+        this.publishMovementsChanged(created.getAccountId(), created.getFechaMovimiento());
+        return created;
     }
 
     @Override
@@ -53,8 +108,19 @@ public class MovementServiceImpl implements MovementService {
             throw new MovementNotFoundException(idMovement);
         }
 
+        MovementDTO previous = optionalMovementDTO.get();
+        List<AccountBalance> balances = this.lockBalances(previous.getAccountId(), movementDTO.getAccountId());
         movementDTO.setId(idMovement);
-        return this.save(movementDTO);
+        MovementDTO updated = this.save(movementDTO);
+        this.syncBalances(balances);
+        // Tanto la fecha anterior como la nueva pueden caer en reportes distintos
+        this.refreshSnapshot(previous);
+        if (!Objects.equals(previous.getAccountId(), updated.getAccountId()) || !sameDay(previous, updated)) {
+            this.refreshSnapshot(updated);
+        }
+        this.publishMovementsChanged(previous.getAccountId(), previous.getFechaMovimiento());
+        this.publishMovementsChanged(updated.getAccountId(), updated.getFechaMovimiento());
+        return updated;
     }
 
     @Override
@@ -66,8 +132,39 @@ public class MovementServiceImpl implements MovementService {
 
     @Override
     @Transactional(readOnly = true)
-    public List<MovementDTO> findAll() {
-        return this.repository.findAllWithAccount().stream().map(this.mapper::toDTO).collect(Collectors.toList());
+    public MovementPageDTO findPage(MovementFilter filter, String cursor, Integer pageSize) {
+        int size = this.pageSize(pageSize);
+        MovementCursor after = cursor != null ? MovementCursor.decode(cursor) : null;
+
+        // Se pide una fila de más para saber si hay otra página sin contar el resultado completo
+        List<MovementDTO> rows = this.repository.findPage(filter,
+                after != null ? after.fechaMovimiento() : null, after != null ? after.movementId() : null, size + 1);
+        return toPage(rows, size);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public MovementPageDTO search(MovementSearchCriteria criteria, String cursor, Integer pageSize) {
+        this.validateSearch(criteria);
+        int size = this.pageSize(pageSize);
+        MovementCursor after = cursor != null ? MovementCursor.decode(cursor) : null;
+
+        try {
+            List<MovementDTO> rows = this.repository.search(criteria,
+                    after != null ? after.fechaMovimiento() : null, after != null ? after.movementId() : null,
+                    size + 1, this.searchTimeout);
+            return toPage(rows, size);
+        } catch (QueryTimeoutException e) {
+            log.warn("Movement search exceeded {} with criteria: {}", this.searchTimeout, criteria);
+            throw new MovementSearchTimeoutException(this.searchTimeout);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Stream<MovementDTO> streamMovements(MovementFilter filter) {
+        // El stream debe consumirse y cerrarse dentro de la transacción del llamador
+        return this.repository.streamByFilter(filter);
     }
 
     @Override
@@ -77,7 +174,12 @@ public class MovementServiceImpl implements MovementService {
             log.error("Movement not found with id: {}", id);
             throw new MovementNotFoundException(id);
         }
+        MovementDTO deleted = optionalMovementDTO.get();
+        List<AccountBalance> balances = this.lockBalances(deleted.getAccountId());
         this.repository.deleteById(id);
+        this.syncBalances(balances);
+        this.refreshSnapshot(deleted);
+        this.publishMovementsChanged(deleted.getAccountId(), deleted.getFechaMovimiento());
     }
 
     @Override
@@ -95,14 +197,101 @@ public class MovementServiceImpl implements MovementService {
         return this.createMovementByAccountAndType(accountDTO, type, value);
     }
 
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<BatchMovementResultDTO> registerMovementsBatch(List<RegisterMovementRequest> requests) {
+        if (requests == null || requests.isEmpty()) {
+            throw new IllegalArgumentException("Batch must contain at least one movement");
+        }
+        if (requests.size() > this.batchMaxSize) {
+            throw new IllegalArgumentException("Batch size " + requests.size() + " exceeds the maximum of " + this.batchMaxSize);
+        }
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            // Dentro de una transacción del llamador no se reintenta: el conflicto ya la marcó para rollback
+            return this.applyBatch(requests);
+        }
+
+        // El lote no pasa por el ledger: un movimiento concurrente sobre una de sus cuentas cambia la versión
+        // del saldo. Cada intento es una transacción nueva que relee los saldos, en vez de fallar todo el lote
+        TransactionTemplate transactionTemplate = new TransactionTemplate(this.transactionManager);
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> this.applyBatch(requests));
+            } catch (OptimisticLockingFailureException | OptimisticLockException e) {
+                if (attempt == BATCH_MAX_ATTEMPTS) {
+                    throw e;
+                }
+                log.warn("Batch of {} movements conflicted with a concurrent movement, retrying ({} of {})",
+                        requests.size(), attempt, BATCH_MAX_ATTEMPTS);
+            }
+        }
+    }
+
+    private List<BatchMovementResultDTO> applyBatch(List<RegisterMovementRequest> requests) {
+        Map<Long, Optional<AccountDTO>> accounts = new HashMap<>();
+        Map<Long, AccountBalance> balances = new LinkedHashMap<>();
+        List<BatchMovementResultDTO> results = new ArrayList<>(requests.size());
+        List<Movements> pendingMovements = new ArrayList<>(requests.size());
+        List<MovementDTO> pendingDTOs = new ArrayList<>(requests.size());
+
+        for (int index = 0; index < requests.size(); index++) {
+            RegisterMovementRequest request = requests.get(index);
+            try {
+                this.validateBatchItem(request);
+                Long accountId = request.getAccountId();
+                AccountDTO accountDTO = accounts.computeIfAbsent(accountId, this.accountService::findById)
+                        .orElseThrow(() -> new AccountNotFoundException(accountId));
+                AccountBalance accountBalance = balances.computeIfAbsent(accountId, id -> this.loadAccountBalance(accountDTO));
+                MovementDTO movementDTO = this.applyMovement(accountDTO, accountBalance, request.getMovementType(), request.getValue());
+
+                pendingMovements.add(this.mapper.toEntity(movementDTO));
+                pendingDTOs.add(movementDTO);
+                results.add(new BatchMovementResultDTO(index, accountId, request.getMovementType(), true, movementDTO, null, null));
+            } catch (AccountNotFoundException | MovementValueException | MovementBalanceException | IllegalArgumentException e) {
+                log.warn("Batch movement {} rejected: {}", index, e.getMessage());
+                results.add(new BatchMovementResultDTO(index, request != null ? request.getAccountId() : null,
+                        request != null ? request.getMovementType() : null, false, null, e.getMessage(), this.errorTypeOf(e)));
+            }
+        }
+
+        // Con ids de secuencia los inserts se envían en lotes de hibernate.jdbc.batch_size al hacer flush
+        List<Movements> savedMovements = this.repository.saveAll(pendingMovements);
+        this.balanceRepository.saveAll(balances.values());
+        for (int i = 0; i < savedMovements.size(); i++) {
+            pendingDTOs.get(i).setId(savedMovements.get(i).getId());
+        }
+        this.snapshotService.record(pendingDTOs);
+        // Un evento por cuenta con el rango de fechas del lote
+        pendingDTOs.stream()
+                .collect(Collectors.groupingBy(MovementDTO::getAccountId, LinkedHashMap::new, Collectors.toList()))
+                .forEach((accountId, movements) -> {
+                    List<LocalDateTime> dates = movements.stream().map(MovementDTO::getFechaMovimiento).sorted().toList();
+                    this.eventPublisher.publishEvent(new MovementsChangedEvent(accountId, dates.get(0), dates.get(dates.size() - 1)));
+                });
+        log.info("Batch registered {} of {} movements", savedMovements.size(), requests.size());
+        return results;
+    }
+
     @Override
     public Map<String, List<MovementDTO>> getMovementsByCustomerIdAndDates(Long customerId, LocalDateTime startTime, LocalDateTime endTime) {
         List<AccountDTO> accounts = this.accountService.findAllByCustomerId(customerId);
+        List<MovementDTO> rows = this.repository.findMovementsByCustomer(customerId, StatusType.ACTIVE, startTime, endTime);
+        // Las filas llegan ordenadas por cuenta: se agrupan en un solo recorrido cortando en cada cambio de cuenta
+        Map<Long, List<MovementDTO>> movementsByAccount = new HashMap<>();
+        Long currentAccountId = null;
+        List<MovementDTO> current = null;
+        for (MovementDTO row : rows) {
+            if (!row.getAccountId().equals(currentAccountId)) {
+                currentAccountId = row.getAccountId();
+                current = new ArrayList<>();
+                movementsByAccount.put(currentAccountId, current);
+            }
+            current.add(row);
+        }
         Map<String, List<MovementDTO>> movements = new LinkedHashMap<>();
         accounts.forEach(account -> {
             String key = account.getNumber() + "-"+account.getAccountType();
-            List<MovementDTO> movementsByAccount = this.repository.findMovementsByAccount(account.getId(), startTime, endTime);
-            movements.put(key, movementsByAccount);
+            movements.put(key, movementsByAccount.getOrDefault(account.getId(), new ArrayList<>()));
         });
         return movements;
     }
@@ -110,39 +299,154 @@ public class MovementServiceImpl implements MovementService {
     @Override
     @Transactional(readOnly = true)
     public Optional<BigDecimal> getCurrentBalance(Long accountId) {
+        Optional<AccountBalance> optionalAccountBalance = this.balanceRepository.findById(accountId);
+        if (optionalAccountBalance.isPresent()) {
+            return Optional.of(optionalAccountBalance.get().getBalance());
+        }
         return this.repository.balanceLastMovement(accountId);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Map<Long, BigDecimal> getCurrentBalances(Collection<Long> accountIds) {
+        Map<Long, BigDecimal> balances = new HashMap<>();
+        if (accountIds.isEmpty()) {
+            return balances;
+        }
+        this.balanceRepository.findAllById(accountIds)
+                .forEach(accountBalance -> balances.put(accountBalance.getAccountId(), accountBalance.getBalance()));
+        // Solo las cuentas sin saldo materializado se resuelven con el último movimiento, también en una sola consulta
+        List<Long> pending = accountIds.stream()
+                .filter(accountId -> !balances.containsKey(accountId))
+                .toList();
+        if (!pending.isEmpty()) {
+            this.repository.balanceLastMovementByAccounts(pending)
+                    .forEach(view -> balances.put(view.getAccountId(), view.getBalance()));
+        }
+        return balances;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<Long, AccountPeriodSummaryDTO> getAccountSummaries(Long customerId, LocalDateTime startTime, LocalDateTime endTime) {
+        Map<Long, AccountPeriodSummaryDTO> summaries = new HashMap<>();
+        // Los totales se calculan en la base: no se trae ninguna fila de movimientos
+        this.repository.summarizeByCustomer(customerId, StatusType.ACTIVE.name(), startTime, endTime)
+                .forEach(view -> summaries.put(view.getAccountId(), new AccountPeriodSummaryDTO(
+                        view.getOpeningBalance(),
+                        view.getTotalCredits(),
+                        view.getTotalDebits(),
+                        view.getClosingBalance() != null ? view.getClosingBalance() : view.getOpeningBalance(),
+                        view.getMovementCount())));
+        return summaries;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<MovementDTO> getMovementsPage(Long customerId, Long accountId, LocalDateTime startTime, LocalDateTime endTime,
+                                              LocalDateTime afterFecha, Long afterId, int limit) {
+        // Sin cursor la página empieza en el inicio del rango: (startTime, 0) precede a todo movimiento del rango
+        return this.repository.findMovementsPageAfter(customerId, accountId, StatusType.ACTIVE, startTime, endTime,
+                afterFecha != null ? afterFecha : startTime, afterId != null ? afterId : 0L, Limit.of(limit));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Stream<MovementDTO> streamMovementsByAccount(Long accountId, LocalDateTime startTime, LocalDateTime endTime) {
+        // El stream debe consumirse y cerrarse dentro de la transacción del llamador
+        return this.repository.streamMovementsByAccount(accountId, startTime, endTime);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Stream<MovementDTO> streamMovementsByCustomer(Long customerId, LocalDateTime startTime, LocalDateTime endTime) {
+        // Mismo orden que findAllByCustomerId: cuenta por tipo y número, luego fecha del movimiento
+        return this.repository.streamMovementsByCustomer(customerId, StatusType.ACTIVE, startTime, endTime);
+    }
+
 
     private MovementDTO save(MovementDTO movementDTO){
         Movements movement = this.mapper.toEntity(movementDTO);
         Movements movementSaved = this.repository.save(movement);
-        // Store accountNumber before reloading in case mapper doesn't set it
-        String accountNumberToPreserve = movementDTO.getAccountNumber();
-        
-        Optional<MovementDTO> optionalMovementDTO = this.findById(movementSaved.getId());
-        MovementDTO result = optionalMovementDTO.orElseGet(() -> {
-            log.error("Movement not found after save with id: {}", movementSaved.getId());
-            throw new MovementNotFoundException(movementSaved.getId());
-        });
-        
-        // Ensure accountNumber is set - preserve it if it was set before save, or get it from accountService
+        // La respuesta se arma con lo que ya se tiene en memoria, sin volver a consultar el movimiento
+        MovementDTO result = this.mapper.toDTO(movementSaved);
         if (result.getAccountNumber() == null) {
-            if (accountNumberToPreserve != null) {
-                result.setAccountNumber(accountNumberToPreserve);
-            } else if (movementDTO.getAccountId() != null) {
-                Optional<AccountDTO> accountDTO = this.accountService.findById(movementDTO.getAccountId());
-                if (accountDTO.isPresent() && accountDTO.get().getNumber() != null) {
-                    result.setAccountNumber(accountDTO.get().getNumber());
-                    log.debug("Manually set accountNumber for movement id: {} from accountService", movementSaved.getId());
-                }
-            }
+            result.setAccountNumber(movementDTO.getAccountNumber());
+        }
+        if (result.getAccountNumber() == null && movementDTO.getAccountId() != null) {
+            this.accountService.findById(movementDTO.getAccountId())
+                    .ifPresent(accountDTO -> result.setAccountNumber(accountDTO.getNumber()));
         }
-        
         return result;
     }
 
+    private MovementDTO persist(MovementDTO movementDTO){
+        Movements movementSaved = this.repository.save(this.mapper.toEntity(movementDTO));
+        movementDTO.setId(movementSaved.getId());
+        return movementDTO;
+    }
+
     private MovementDTO createMovementByAccountAndType(AccountDTO accountDTO, MovementType type, BigDecimal value){
+        AccountBalance accountBalance = this.loadAccountBalance(accountDTO);
+        MovementDTO movementDTO = this.applyMovement(accountDTO, accountBalance, type, value);
+
+        // El saldo materializado se actualiza en la misma transacción que el movimiento
+        this.balanceRepository.save(accountBalance);
+        MovementDTO persisted = this.persist(movementDTO);
+        // El cierre del día se acumula en la misma transacción, sin recorrer los movimientos del día
+        this.snapshotService.record(List.of(persisted));
+        this.publishMovementsChanged(persisted.getAccountId(), persisted.getFechaMovimiento());
+        return persisted;
+    }
+
+    // Las ediciones directas no pasan por el ledger: se bloquea el saldo materializado de las cuentas
+    // afectadas antes de escribir, en orden de id para que dos ediciones no se bloqueen entre sí
+    private List<AccountBalance> lockBalances(Long... accountIds) {
+        return Stream.of(accountIds)
+                .filter(Objects::nonNull)
+                .distinct()
+                .sorted()
+                .map(this.balanceRepository::findByIdForUpdate)
+                .flatMap(Optional::stream)
+                .toList();
+    }
+
+    // El saldo vigente es el del último movimiento de la cuenta, como antes de materializarlo;
+    // las cuentas sin fila en SALDO_CUENTA ya lo leen así y no se tocan
+    private void syncBalances(List<AccountBalance> balances) {
+        if (balances.isEmpty()) {
+            return;
+        }
+        this.repository.flush();
+        for (AccountBalance accountBalance : balances) {
+            BigDecimal balance = this.repository.balanceLastMovement(accountBalance.getAccountId())
+                    .orElseGet(() -> this.accountService.findById(accountBalance.getAccountId())
+                            .map(AccountDTO::getInitialBalance)
+                            .orElse(accountBalance.getBalance()));
+            accountBalance.setBalance(balance);
+            accountBalance.setUpdatedAt(LocalDateTime.now());
+            this.balanceRepository.save(accountBalance);
+        }
+    }
+
+    private void refreshSnapshot(MovementDTO movementDTO) {
+        // Un movimiento editado puede tener cualquier fecha: se recalcula el día completo
+        if (movementDTO.getAccountId() != null && movementDTO.getFechaMovimiento() != null) {
+            this.snapshotService.refreshDay(movementDTO.getAccountId(), movementDTO.getFechaMovimiento().toLocalDate());
+        }
+    }
+
+    private static boolean sameDay(MovementDTO previous, MovementDTO updated) {
+        return previous.getFechaMovimiento() != null && updated.getFechaMovimiento() != null
+                && previous.getFechaMovimiento().toLocalDate().equals(updated.getFechaMovimiento().toLocalDate());
+    }
+
+    private void publishMovementsChanged(Long accountId, LocalDateTime fechaMovimiento) {
+        // Los oyentes transaccionales lo reciben después del commit
+        this.eventPublisher.publishEvent(MovementsChangedEvent.of(accountId, fechaMovimiento));
+    }
+
+    private MovementDTO applyMovement(AccountDTO accountDTO, AccountBalance accountBalance, MovementType type, BigDecimal value){
         MovementDTO movementDTO = new MovementDTO();
         movementDTO.setAccountId(accountDTO.getId());
         movementDTO.setMovementType(type);
@@ -150,8 +454,7 @@ public class MovementServiceImpl implements MovementService {
         movementDTO.setFechaMovimiento(LocalDateTime.now());
         movementDTO.setAccountNumber(accountDTO.getNumber());
 
-        Optional<BigDecimal> optionalBalance = this.repository.balanceLastMovement(accountDTO.getId());
-        BigDecimal balance = optionalBalance.orElseGet(accountDTO::getInitialBalance);
+        BigDecimal balance = accountBalance.getBalance();
 
         balance = switch (type) {
             case DEBIT -> balance.subtract(value);
@@ -163,7 +466,92 @@ public class MovementServiceImpl implements MovementService {
             throw new MovementBalanceException();
         }
         movementDTO.setBalance(balance);
-        return this.save(movementDTO);
+        accountBalance.setBalance(balance);
+        accountBalance.setUpdatedAt(movementDTO.getFechaMovimiento());
+        return movementDTO;
+    }
+
+    private MovementErrorType errorTypeOf(RuntimeException e) {
+        if (e instanceof AccountNotFoundException) {
+            return MovementErrorType.ACCOUNT_NOT_FOUND;
+        }
+        if (e instanceof MovementValueException) {
+            return MovementErrorType.INVALID_VALUE;
+        }
+        if (e instanceof MovementBalanceException) {
+            return MovementErrorType.INSUFFICIENT_BALANCE;
+        }
+        return MovementErrorType.INVALID_REQUEST;
+    }
+
+    private void validateBatchItem(RegisterMovementRequest request) {
+        if (request == null || request.getAccountId() == null) {
+            throw new IllegalArgumentException("Account ID is required");
+        }
+        if (request.getMovementType() == null) {
+            throw new IllegalArgumentException("Movement type is required");
+        }
+        if (request.getValue() == null) {
+            throw new IllegalArgumentException("Value is required");
+        }
+        if (request.getValue().compareTo(BigDecimal.ZERO) <= 0) {
+            throw new MovementValueException(request.getValue());
+        }
     }
 
+    private AccountBalance loadAccountBalance(AccountDTO accountDTO) {
+        Optional<AccountBalance> optionalAccountBalance = this.balanceRepository.findById(accountDTO.getId());
+        if (optionalAccountBalance.isPresent()) {
+            return optionalAccountBalance.get();
+        }
+        // Cuentas sin saldo materializado: se inicializa una sola vez desde el historial
+        log.debug("Seeding materialized balance for account id: {}", accountDTO.getId());
+        BigDecimal balance = this.repository.balanceLastMovement(accountDTO.getId())
+                .orElseGet(accountDTO::getInitialBalance);
+        AccountBalance accountBalance = new AccountBalance();
+        accountBalance.setAccountId(accountDTO.getId());
+        accountBalance.setBalance(balance);
+        accountBalance.setUpdatedAt(LocalDateTime.now());
+        return accountBalance;
+    }
+
+    private int pageSize(Integer pageSize) {
+        int size = pageSize != null ? pageSize : this.pageDefaultSize;
+        if (size < 1) {
+            throw new IllegalArgumentException("Page size must be greater than zero");
+        }
+        return Math.min(size, this.pageMaxSize);
+    }
+
+    private static MovementPageDTO toPage(List<MovementDTO> rows, int size) {
+        if (rows.size() <= size) {
+            return new MovementPageDTO(rows, null);
+        }
+        List<MovementDTO> page = new ArrayList<>(rows.subList(0, size));
+        MovementDTO last = page.get(size - 1);
+        return new MovementPageDTO(page, new MovementCursor(last.getFechaMovimiento(), last.getId()).encode());
+    }
+
+    // Sin número de cuenta la búsqueda recorre todas las cuentas: solo se acepta con un rango de fechas
+    // acotado, para que lea pocas particiones y quepa en el presupuesto de tiempo
+    private void validateSearch(MovementSearchCriteria criteria) {
+        if (criteria.getMinAmount() != null && criteria.getMaxAmount() != null
+                && criteria.getMinAmount().compareTo(criteria.getMaxAmount()) > 0) {
+            throw new IllegalArgumentException("minAmount must not be greater than maxAmount");
+        }
+        if (criteria.getStartDate() != null && criteria.getEndDate() != null
+                && criteria.getStartDate().isAfter(criteria.getEndDate())) {
+            throw new IllegalArgumentException("startDate must not be after endDate");
+        }
+        if (criteria.getAccountNumber() != null) {
+            return;
+        }
+        if (criteria.getStartDate() == null || criteria.getEndDate() == null) {
+            throw new IllegalArgumentException("Search without accountNumber requires startDate and endDate");
+        }
+        // Un rango de exactamente el máximo de días se acepta; solo se rechaza lo que lo supera
+        if (criteria.getEndDate().isAfter(criteria.getStartDate().plusDays(this.searchMaxDaysWithoutAccount))) {
+            throw new IllegalArgumentException("Search without accountNumber is limited to " + this.searchMaxDaysWithoutAccount + " days");
+        }
+    }
 }
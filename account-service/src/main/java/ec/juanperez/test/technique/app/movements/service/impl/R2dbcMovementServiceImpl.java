@@ -0,0 +1,106 @@
+package ec.juanperez.test.technique.app.movements.service.impl;
+
+import ec.juanperez.test.technique.app.accounts.dto.AccountDTO;
+import ec.juanperez.test.technique.app.accounts.exception.AccountNotFoundException;
+import ec.juanperez.test.technique.app.accounts.service.ReactiveAccountService;
+import ec.juanperez.test.technique.app.movements.dto.MovementDTO;
+import ec.juanperez.test.technique.app.movements.enums.MovementType;
+import ec.juanperez.test.technique.app.movements.event.MovementsChangedEvent;
+import ec.juanperez.test.technique.app.movements.exceptions.MovementBalanceException;
+import ec.juanperez.test.technique.app.movements.exceptions.MovementValueException;
+import ec.juanperez.test.technique.app.movements.repository.R2dbcMovementRepository;
+import ec.juanperez.test.technique.app.movements.service.ReactiveMovementService;
+import ec.juanperez.test.technique.config.R2dbcConfig;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+@Slf4j
+@RequiredArgsConstructor
+@Service
+@Profile(R2dbcConfig.PROFILE)
+public class R2dbcMovementServiceImpl implements ReactiveMovementService {
+
+    private final R2dbcMovementRepository repository;
+    private final ReactiveAccountService accountService;
+    private final TransactionalOperator transactionalOperator;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Override
+    public Mono<MovementDTO> findById(Long id) {
+        return this.repository.findByIdWithAccount(id);
+    }
+
+    @Override
+    public Mono<MovementDTO> registerMovementByType(Long accountId, MovementType type, BigDecimal value) {
+        return this.accountService.findById(accountId)
+                .switchIfEmpty(Mono.error(() -> {
+                    log.error("Account not found with id: {}", accountId);
+                    return new AccountNotFoundException(accountId);
+                }))
+                .flatMap(accountDTO -> {
+                    if (value.compareTo(BigDecimal.ZERO) <= 0) {
+                        log.error("Movement value is less than or equal to zero");
+                        return Mono.error(new MovementValueException(value));
+                    }
+                    return this.createMovementByAccountAndType(accountDTO, type, value);
+                })
+                .as(this.transactionalOperator::transactional)
+                // Fuera de la transacción reactiva: se publica una vez confirmado el movimiento
+                .doOnNext(movementDTO -> this.eventPublisher.publishEvent(
+                        MovementsChangedEvent.of(movementDTO.getAccountId(), movementDTO.getFechaMovimiento())));
+    }
+
+    private Mono<MovementDTO> createMovementByAccountAndType(AccountDTO accountDTO, MovementType type, BigDecimal value) {
+        return this.lockAccountBalance(accountDTO)
+                .flatMap(balance -> {
+                    MovementDTO movementDTO = this.applyMovement(accountDTO, balance, type, value);
+                    return this.repository.updateBalance(accountDTO.getId(), movementDTO.getBalance(), movementDTO.getFechaMovimiento())
+                            .then(this.repository.insert(movementDTO))
+                            .map(id -> {
+                                movementDTO.setId(id);
+                                return movementDTO;
+                            })
+                            .flatMap(saved -> this.repository.upsertDailySnapshot(saved).thenReturn(saved));
+                });
+    }
+
+    private Mono<BigDecimal> lockAccountBalance(AccountDTO accountDTO) {
+        Long accountId = accountDTO.getId();
+        // Cuentas sin saldo materializado: se inicializa una sola vez desde el historial
+        return this.repository.findBalanceForUpdate(accountId)
+                .switchIfEmpty(Mono.defer(() -> this.repository.balanceLastMovement(accountId)
+                        .defaultIfEmpty(Objects.requireNonNullElse(accountDTO.getInitialBalance(), BigDecimal.ZERO))
+                        .flatMap(balance -> this.repository.insertBalanceIfAbsent(accountId, balance, LocalDateTime.now()))
+                        .then(this.repository.findBalanceForUpdate(accountId))));
+    }
+
+    private MovementDTO applyMovement(AccountDTO accountDTO, BigDecimal balance, MovementType type, BigDecimal value) {
+        MovementDTO movementDTO = new MovementDTO();
+        movementDTO.setAccountId(accountDTO.getId());
+        movementDTO.setMovementType(type);
+        movementDTO.setValue(value);
+        movementDTO.setFechaMovimiento(LocalDateTime.now());
+        movementDTO.setAccountNumber(accountDTO.getNumber());
+
+        balance = switch (type) {
+            case DEBIT -> balance.subtract(value);
+            case CREDIT -> balance.add(value);
+        };
+
+        if (balance.compareTo(BigDecimal.ZERO) < 0) {
+            log.error("Balance is less than zero");
+            throw new MovementBalanceException();
+        }
+        movementDTO.setBalance(balance);
+        return movementDTO;
+    }
+}
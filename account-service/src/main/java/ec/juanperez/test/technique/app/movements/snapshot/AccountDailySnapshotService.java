@@ -0,0 +1,166 @@
+package ec.juanperez.test.technique.app.movements.snapshot;
+
+import ec.juanperez.test.technique.app.accounts.dto.AccountDTO;
+import ec.juanperez.test.technique.app.movements.dto.AccountPeriodSummaryDTO;
+import ec.juanperez.test.technique.app.movements.dto.AccountPeriodTotalsView;
+import ec.juanperez.test.technique.app.movements.dto.MovementDTO;
+import ec.juanperez.test.technique.app.movements.model.AccountDailySnapshot;
+import ec.juanperez.test.technique.app.movements.model.AccountDailySnapshotId;
+import ec.juanperez.test.technique.app.movements.repository.AccountDailySnapshotRepository;
+import ec.juanperez.test.technique.app.movements.repository.AccountSnapshotBackfillRepository;
+import ec.juanperez.test.technique.app.movements.repository.MovementRepository;
+import ec.juanperez.test.technique.app.movements.model.AccountSnapshotBackfill;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Maintains ACCOUNT_DAILY_SNAPSHOT, one row per account and day with movements, and answers
+ * period summaries from it. Registered movements are rolled up incrementally in the same
+ * transaction; edited or deleted movements recompute only the affected day.
+ */
+@Slf4j
+@RequiredArgsConstructor
+@Service
+public class AccountDailySnapshotService {
+
+    public static final String BACKFILL_NAME = "account_daily_snapshot";
+
+    private final AccountDailySnapshotRepository repository;
+    private final AccountSnapshotBackfillRepository backfillRepository;
+    private final MovementRepository movementRepository;
+
+    private volatile boolean backfillCompleted;
+
+    /**
+     * Adds newly registered movements to the rows of their day. Movements of the same account
+     * must come in the order they were applied.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(List<MovementDTO> movements) {
+        if (movements.isEmpty()) {
+            return;
+        }
+        Map<AccountDailySnapshotId, List<MovementDTO>> movementsByDay = movements.stream()
+                .collect(Collectors.groupingBy(
+                        movement -> new AccountDailySnapshotId(movement.getAccountId(), movement.getFechaMovimiento().toLocalDate()),
+                        LinkedHashMap::new,
+                        Collectors.toList()));
+        Map<AccountDailySnapshotId, AccountDailySnapshot> existing = this.repository.findAllById(movementsByDay.keySet()).stream()
+                .collect(Collectors.toMap(snapshot -> new AccountDailySnapshotId(snapshot.getAccountId(), snapshot.getSnapshotDate()), Function.identity()));
+
+        List<AccountDailySnapshot> snapshots = new ArrayList<>(movementsByDay.size());
+        movementsByDay.forEach((id, dayMovements) -> {
+            AccountDailySnapshot snapshot = existing.getOrDefault(id, AccountDailySnapshot.empty(id.getAccountId(), id.getSnapshotDate()));
+            dayMovements.forEach(snapshot::apply);
+            snapshots.add(snapshot);
+        });
+        this.repository.saveAll(snapshots);
+    }
+
+    /**
+     * Recomputes the row of one day from its movements, or removes it when the day has no
+     * movements left. Used when a movement is created, edited or deleted directly.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void refreshDay(Long accountId, LocalDate date) {
+        // La fila se lee antes que los movimientos: si otro registro la cambia entretanto, la versión lo detecta
+        Optional<AccountDailySnapshot> existing = this.repository.findById(new AccountDailySnapshotId(accountId, date));
+        List<MovementDTO> movements = this.movementRepository.findAccountMovementsBetween(accountId, date.atStartOfDay(), date.plusDays(1).atStartOfDay());
+        if (movements.isEmpty()) {
+            existing.ifPresent(this.repository::delete);
+            return;
+        }
+        AccountDailySnapshot snapshot = existing.orElseGet(() -> AccountDailySnapshot.empty(accountId, date));
+        snapshot.reset();
+        movements.forEach(snapshot::apply);
+        this.repository.save(snapshot);
+    }
+
+    /**
+     * Rebuilds every daily row of an account from its full movement history and returns the
+     * number of days written.
+     */
+    @Transactional
+    public int rebuildAccount(Long accountId) {
+        Map<LocalDate, AccountDailySnapshot> existing = this.repository.findByAccountId(accountId).stream()
+                .collect(Collectors.toMap(AccountDailySnapshot::getSnapshotDate, Function.identity()));
+        Map<LocalDate, AccountDailySnapshot> rebuilt = new HashMap<>();
+        try (Stream<MovementDTO> history = this.movementRepository.streamAccountHistory(accountId)) {
+            history.forEach(movement -> rebuilt.computeIfAbsent(movement.getFechaMovimiento().toLocalDate(), date -> {
+                AccountDailySnapshot snapshot = existing.remove(date);
+                if (snapshot == null) {
+                    return AccountDailySnapshot.empty(accountId, date);
+                }
+                snapshot.reset();
+                return snapshot;
+            }).apply(movement));
+        }
+        this.repository.saveAll(rebuilt.values());
+        // Días que ya no tienen movimientos
+        this.repository.deleteAll(existing.values());
+        return rebuilt.size();
+    }
+
+    /**
+     * Summaries of whole days from {@code startDate} to {@code endDate}, keyed by account id.
+     * Uses three indexed lookups on the snapshot table regardless of the number of movements;
+     * accounts without earlier rows open with their initial balance.
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, AccountPeriodSummaryDTO> getPeriodSummaries(List<AccountDTO> accounts, LocalDate startDate, LocalDate endDate) {
+        Map<Long, AccountPeriodSummaryDTO> summaries = new LinkedHashMap<>();
+        if (accounts.isEmpty()) {
+            return summaries;
+        }
+        List<Long> accountIds = accounts.stream().map(AccountDTO::getId).toList();
+        Map<Long, BigDecimal> openingBalances = this.closingBalancesUpTo(accountIds, startDate.minusDays(1));
+        Map<Long, BigDecimal> closingBalances = this.closingBalancesUpTo(accountIds, endDate);
+        Map<Long, AccountPeriodTotalsView> totals = this.repository.sumByAccounts(accountIds, startDate, endDate).stream()
+                .collect(Collectors.toMap(AccountPeriodTotalsView::getAccountId, Function.identity()));
+
+        accounts.forEach(account -> {
+            BigDecimal openingBalance = openingBalances.getOrDefault(account.getId(), account.getInitialBalance());
+            AccountPeriodTotalsView accountTotals = totals.get(account.getId());
+            summaries.put(account.getId(), new AccountPeriodSummaryDTO(
+                    openingBalance,
+                    accountTotals != null ? accountTotals.getTotalCredits() : BigDecimal.ZERO,
+                    accountTotals != null ? accountTotals.getTotalDebits() : BigDecimal.ZERO,
+                    closingBalances.getOrDefault(account.getId(), openingBalance),
+                    accountTotals != null ? accountTotals.getMovementCount() : 0L));
+        });
+        return summaries;
+    }
+
+    /**
+     * Whether the history before incremental maintenance has been backfilled; until then the
+     * snapshots only cover recent days and must not be used for summaries.
+     */
+    public boolean isBackfillCompleted() {
+        if (!this.backfillCompleted) {
+            this.backfillCompleted = this.backfillRepository.findById(BACKFILL_NAME)
+                    .map(AccountSnapshotBackfill::isCompleted)
+                    .orElse(false);
+        }
+        return this.backfillCompleted;
+    }
+
+    private Map<Long, BigDecimal> closingBalancesUpTo(List<Long> accountIds, LocalDate date) {
+        return this.repository.findLatestByAccountsUpTo(accountIds, date).stream()
+                .collect(Collectors.toMap(AccountDailySnapshot::getAccountId, AccountDailySnapshot::getClosingBalance));
+    }
+}
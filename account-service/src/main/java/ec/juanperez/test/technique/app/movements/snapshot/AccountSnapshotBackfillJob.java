@@ -0,0 +1,100 @@
+package ec.juanperez.test.technique.app.movements.snapshot;
+
+import ec.juanperez.test.technique.app.accounts.repository.AccountRepository;
+import ec.juanperez.test.technique.app.movements.model.AccountSnapshotBackfill;
+import ec.juanperez.test.technique.app.movements.repository.AccountSnapshotBackfillRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Fills ACCOUNT_DAILY_SNAPSHOT for the movements registered before incremental maintenance.
+ * Accounts are rebuilt in id order and the last finished account is saved after each chunk,
+ * so a restarted instance resumes where the previous one stopped. Once completed it does
+ * nothing on later runs.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "movements.snapshots.backfill.enabled", havingValue = "true", matchIfMissing = true)
+public class AccountSnapshotBackfillJob {
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final AccountDailySnapshotService snapshotService;
+    private final AccountRepository accountRepository;
+    private final AccountSnapshotBackfillRepository backfillRepository;
+    private final int chunkSize;
+
+    public AccountSnapshotBackfillJob(AccountDailySnapshotService snapshotService,
+                                      AccountRepository accountRepository,
+                                      AccountSnapshotBackfillRepository backfillRepository,
+                                      @Value("${movements.snapshots.backfill.chunk-size:100}") int chunkSize) {
+        this.snapshotService = snapshotService;
+        this.accountRepository = accountRepository;
+        this.backfillRepository = backfillRepository;
+        this.chunkSize = chunkSize;
+    }
+
+    @Scheduled(initialDelayString = "${movements.snapshots.backfill.initial-delay:PT1M}",
+            fixedDelayString = "${movements.snapshots.backfill.retry-interval:PT1H}")
+    public void run() {
+        try {
+            this.backfill();
+        } catch (RuntimeException e) {
+            // El avance ya guardado se conserva: el siguiente intento continúa desde ahí
+            log.error("Daily snapshot backfill failed", e);
+        }
+    }
+
+    public int backfill() {
+        AccountSnapshotBackfill progress = this.backfillRepository.findById(AccountDailySnapshotService.BACKFILL_NAME)
+                .orElseGet(() -> new AccountSnapshotBackfill(AccountDailySnapshotService.BACKFILL_NAME, 0L, false, LocalDateTime.now()));
+        if (progress.isCompleted()) {
+            return 0;
+        }
+        log.info("Daily snapshot backfill starting after account {}", progress.getLastAccountId());
+
+        long startedAt = System.nanoTime();
+        int accounts = 0;
+        List<Long> accountIds = this.accountRepository.findIdsAfter(progress.getLastAccountId(), Limit.of(this.chunkSize));
+        while (!accountIds.isEmpty()) {
+            for (Long accountId : accountIds) {
+                this.rebuild(accountId);
+            }
+            accounts += accountIds.size();
+            progress.setLastAccountId(accountIds.get(accountIds.size() - 1));
+            progress.setUpdatedAt(LocalDateTime.now());
+            progress = this.backfillRepository.save(progress);
+            accountIds = this.accountRepository.findIdsAfter(progress.getLastAccountId(), Limit.of(this.chunkSize));
+        }
+        progress.setCompleted(true);
+        progress.setUpdatedAt(LocalDateTime.now());
+        this.backfillRepository.save(progress);
+        log.info("Daily snapshot backfill completed: {} accounts in {} ms", accounts, (System.nanoTime() - startedAt) / 1_000_000);
+        return accounts;
+    }
+
+    private void rebuild(Long accountId) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                int days = this.snapshotService.rebuildAccount(accountId);
+                log.debug("Rebuilt {} daily snapshots of account {}", days, accountId);
+                return;
+            } catch (OptimisticLockingFailureException | DataIntegrityViolationException e) {
+                // Un movimiento nuevo de la cuenta actualizó el mismo día: se reconstruye otra vez
+                if (attempt == MAX_ATTEMPTS) {
+                    throw e;
+                }
+                log.warn("Daily snapshots of account {} changed during rebuild, retrying", accountId);
+            }
+        }
+    }
+}
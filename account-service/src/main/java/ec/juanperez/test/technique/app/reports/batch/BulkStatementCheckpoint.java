@@ -0,0 +1,105 @@
+package ec.juanperez.test.technique.app.reports.batch;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Progress of a bulk statement run: the last customer whose statement is already inside a
+ * closed archive, so a restarted run continues right after it, and the customers whose
+ * statement failed, so a later run can retry them.
+ */
+public record BulkStatementCheckpoint(long lastCustomerId, int nextPart, long generated, long failed, boolean completed) {
+
+    public static final String FILE_NAME = "checkpoint.properties";
+    public static final String FAILED_FILE_NAME = "failed-customers.txt";
+
+    public static BulkStatementCheckpoint initial() {
+        return new BulkStatementCheckpoint(0L, 1, 0L, 0L, false);
+    }
+
+    public static BulkStatementCheckpoint load(Path directory) throws IOException {
+        Path file = directory.resolve(FILE_NAME);
+        if (!Files.exists(file)) {
+            return initial();
+        }
+        Properties properties = new Properties();
+        try (InputStream inputStream = Files.newInputStream(file)) {
+            properties.load(inputStream);
+        }
+        return new BulkStatementCheckpoint(
+                Long.parseLong(properties.getProperty("lastCustomerId", "0")),
+                Integer.parseInt(properties.getProperty("nextPart", "1")),
+                Long.parseLong(properties.getProperty("generated", "0")),
+                Long.parseLong(properties.getProperty("failed", "0")),
+                Boolean.parseBoolean(properties.getProperty("completed", "false")));
+    }
+
+    public static Set<Long> loadFailedCustomerIds(Path directory) throws IOException {
+        Path file = directory.resolve(FAILED_FILE_NAME);
+        if (!Files.exists(file)) {
+            return new LinkedHashSet<>();
+        }
+        // Un bloque repetido tras un corte puede registrar dos veces al mismo cliente
+        try (Stream<String> lines = Files.lines(file)) {
+            return lines.filter(line -> !line.isBlank())
+                    .map(line -> Long.parseLong(line.trim()))
+                    .collect(Collectors.toCollection(LinkedHashSet::new));
+        }
+    }
+
+    public static void appendFailedCustomerIds(Path directory, Collection<Long> customerIds) throws IOException {
+        if (customerIds.isEmpty()) {
+            return;
+        }
+        Files.write(directory.resolve(FAILED_FILE_NAME), lines(customerIds), StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    public static void saveFailedCustomerIds(Path directory, Collection<Long> customerIds) throws IOException {
+        Path temporary = directory.resolve(FAILED_FILE_NAME + ".tmp");
+        Files.write(temporary, lines(customerIds));
+        Files.move(temporary, directory.resolve(FAILED_FILE_NAME), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public void save(Path directory) throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty("lastCustomerId", Long.toString(this.lastCustomerId));
+        properties.setProperty("nextPart", Integer.toString(this.nextPart));
+        properties.setProperty("generated", Long.toString(this.generated));
+        properties.setProperty("failed", Long.toString(this.failed));
+        properties.setProperty("completed", Boolean.toString(this.completed));
+        // Se escribe aparte y se reemplaza de forma atómica: un corte nunca deja el checkpoint a medias
+        Path temporary = directory.resolve(FILE_NAME + ".tmp");
+        try (OutputStream outputStream = Files.newOutputStream(temporary)) {
+            properties.store(outputStream, "Bulk statement checkpoint");
+        }
+        Files.move(temporary, directory.resolve(FILE_NAME), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public BulkStatementCheckpoint next(long lastCustomerId, long generated, long failed) {
+        return new BulkStatementCheckpoint(lastCustomerId, this.nextPart + 1, this.generated + generated, this.failed + failed, false);
+    }
+
+    public BulkStatementCheckpoint retried(long recovered, long resolved) {
+        return new BulkStatementCheckpoint(this.lastCustomerId, this.nextPart + 1, this.generated + recovered, this.failed - resolved, this.completed);
+    }
+
+    public BulkStatementCheckpoint complete() {
+        return new BulkStatementCheckpoint(this.lastCustomerId, this.nextPart, this.generated, this.failed, true);
+    }
+
+    private static List<String> lines(Collection<Long> customerIds) {
+        return customerIds.stream().map(String::valueOf).toList();
+    }
+}
@@ -0,0 +1,12 @@
+package ec.juanperez.test.technique.app.reports.batch;
+
+import java.time.Duration;
+import java.time.YearMonth;
+
+public record BulkStatementResult(YearMonth period, long generated, long failed, Duration elapsed, boolean skipped) {
+
+    public double statementsPerSecond() {
+        double seconds = this.elapsed.toNanos() / 1_000_000_000.0;
+        return seconds > 0 ? this.generated / seconds : 0.0;
+    }
+}
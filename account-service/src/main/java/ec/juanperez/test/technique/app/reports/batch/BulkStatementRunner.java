@@ -0,0 +1,265 @@
+package ec.juanperez.test.technique.app.reports.batch;
+
+import ec.juanperez.test.technique.app.common.enums.StatusType;
+import ec.juanperez.test.technique.app.dto.CustomerDTO;
+import ec.juanperez.test.technique.app.reports.service.ReportService;
+import ec.juanperez.test.technique.model.CustomerReference;
+import ec.juanperez.test.technique.repository.CustomerReferenceRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Generates the monthly Excel statement of every active customer. Customers are read in keyset
+ * chunks, each chunk is rendered in parallel to temporary files and copied into its own zip
+ * archive, and the checkpoint is saved once the archive is closed, so a restarted run skips
+ * finished chunks. Customers whose statement failed are recorded and retried by the next run.
+ */
+@Slf4j
+@Component
+public class BulkStatementRunner {
+
+    private static final String STALE_SUFFIX = ".xlsx.tmp";
+
+    private final CustomerReferenceRepository customerReferenceRepository;
+    private final ReportService reportService;
+    private final boolean enabled;
+    private final Path outputDirectory;
+    private final int chunkSize;
+    private final int parallelism;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public BulkStatementRunner(CustomerReferenceRepository customerReferenceRepository,
+                               ReportService reportService,
+                               @Value("${reports.bulk.enabled:false}") boolean enabled,
+                               @Value("${reports.bulk.output-dir:${java.io.tmpdir}/account-service-statements}") Path outputDirectory,
+                               @Value("${reports.bulk.chunk-size:200}") int chunkSize,
+                               @Value("${reports.bulk.parallelism:4}") int parallelism,
+                               @Value("${spring.datasource.hikari.maximum-pool-size:10}") int connectionPoolSize) {
+        if (chunkSize <= 0 || parallelism <= 0) {
+            throw new IllegalArgumentException("Invalid bulk statement configuration");
+        }
+        this.customerReferenceRepository = customerReferenceRepository;
+        this.reportService = reportService;
+        this.enabled = enabled;
+        this.outputDirectory = outputDirectory;
+        this.chunkSize = chunkSize;
+        // Cada tarea usa una conexión: se deja al menos una libre para el tráfico en línea
+        this.parallelism = Math.max(1, Math.min(parallelism, connectionPoolSize - 1));
+    }
+
+    @Scheduled(cron = "${reports.bulk.cron:0 0 2 * * *}")
+    public void runNightly() {
+        if (!this.enabled) {
+            return;
+        }
+        // Todas las noches se intenta el mes anterior: si quedó a medias se retoma y si ya terminó solo
+        // se reintentan los clientes que fallaron
+        try {
+            this.run(YearMonth.now().minusMonths(1), LocalDate.now());
+        } catch (RuntimeException e) {
+            log.error("Bulk statement run failed", e);
+        }
+    }
+
+    public BulkStatementResult run(YearMonth period, LocalDate runDate) {
+        if (!this.running.compareAndSet(false, true)) {
+            throw new IllegalStateException("A bulk statement run is already in progress");
+        }
+        try {
+            return this.runPeriod(period, runDate);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error writing bulk statements for " + period, e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Error generating bulk statements for " + period, e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Bulk statement run interrupted for " + period, e);
+        } finally {
+            this.running.set(false);
+        }
+    }
+
+    private BulkStatementResult runPeriod(YearMonth period, LocalDate runDate) throws IOException, ExecutionException, InterruptedException {
+        Path directory = this.outputDirectory.resolve(period.toString());
+        Files.createDirectories(directory);
+        this.deleteStaleStatements(directory);
+        BulkStatementCheckpoint checkpoint = BulkStatementCheckpoint.load(directory);
+        if (checkpoint.completed()) {
+            Set<Long> failedIds = BulkStatementCheckpoint.loadFailedCustomerIds(directory);
+            if (failedIds.isEmpty()) {
+                log.info("Bulk statements for {} already completed, skipping", period);
+                return new BulkStatementResult(period, 0, 0, Duration.ZERO, true);
+            }
+            return this.retryFailed(period, runDate, directory, checkpoint, failedIds);
+        }
+        if (checkpoint.lastCustomerId() > 0) {
+            log.info("Resuming bulk statements for {} after customer {}", period, checkpoint.lastCustomerId());
+        }
+
+        LocalDateTime startTime = period.atDay(1).atStartOfDay();
+        LocalDateTime endTime = period.atEndOfMonth().atTime(23, 59, 59);
+        long startedAt = System.nanoTime();
+        long generated = 0;
+        long failed = 0;
+        ForkJoinPool pool = new ForkJoinPool(this.parallelism);
+        try {
+            List<CustomerReference> chunk = this.nextChunk(checkpoint.lastCustomerId());
+            while (!chunk.isEmpty()) {
+                List<RenderedStatement> statements = this.renderAll(pool, chunk, directory, startTime, endTime);
+                Path archive = directory.resolve(String.format("statements-%s-part-%05d.zip", runDate, checkpoint.nextPart()));
+                this.writeArchive(archive, statements);
+                List<Long> failedIds = failedCustomerIds(statements);
+                // Los fallidos se registran antes de avanzar el checkpoint para que no se pierdan al reanudar
+                BulkStatementCheckpoint.appendFailedCustomerIds(directory, failedIds);
+                checkpoint = checkpoint.next(chunk.get(chunk.size() - 1).getId(), statements.size() - failedIds.size(), failedIds.size());
+                checkpoint.save(directory);
+                generated += statements.size() - failedIds.size();
+                failed += failedIds.size();
+
+                chunk = this.nextChunk(checkpoint.lastCustomerId());
+            }
+            checkpoint.complete().save(directory);
+        } finally {
+            pool.shutdown();
+        }
+
+        BulkStatementResult result = new BulkStatementResult(period, generated, failed, Duration.ofNanos(System.nanoTime() - startedAt), false);
+        log.info("Bulk statements for {} finished: {} generated, {} failed in {} ms ({} statements/s); {} generated in total",
+                period, result.generated(), result.failed(), result.elapsed().toMillis(),
+                String.format("%.2f", result.statementsPerSecond()), checkpoint.generated());
+        return result;
+    }
+
+    private BulkStatementResult retryFailed(YearMonth period, LocalDate runDate, Path directory,
+                                            BulkStatementCheckpoint checkpoint, Set<Long> failedIds)
+            throws IOException, ExecutionException, InterruptedException {
+        log.info("Retrying {} failed bulk statements for {}", failedIds.size(), period);
+        long startedAt = System.nanoTime();
+        // Un cliente que dejó de estar activo ya no se reintenta
+        List<CustomerReference> customers = this.customerReferenceRepository.findAllById(failedIds).stream()
+                .filter(customer -> customer.getStatus() == StatusType.ACTIVE)
+                .toList();
+        List<Long> stillFailed = List.of();
+        long recovered = 0;
+        if (!customers.isEmpty()) {
+            ForkJoinPool pool = new ForkJoinPool(this.parallelism);
+            try {
+                List<RenderedStatement> statements = this.renderAll(pool, customers, directory,
+                        period.atDay(1).atStartOfDay(), period.atEndOfMonth().atTime(23, 59, 59));
+                this.writeArchive(directory.resolve(String.format("statements-%s-retry-%05d.zip", runDate, checkpoint.nextPart())), statements);
+                stillFailed = failedCustomerIds(statements);
+                recovered = statements.size() - stillFailed.size();
+            } finally {
+                pool.shutdown();
+            }
+        }
+        BulkStatementCheckpoint.saveFailedCustomerIds(directory, stillFailed);
+        checkpoint = checkpoint.retried(recovered, failedIds.size() - stillFailed.size());
+        checkpoint.save(directory);
+
+        BulkStatementResult result = new BulkStatementResult(period, recovered, stillFailed.size(), Duration.ofNanos(System.nanoTime() - startedAt), false);
+        log.info("Bulk statement retry for {} finished: {} generated, {} still failed; {} generated in total",
+                period, result.generated(), result.failed(), checkpoint.generated());
+        return result;
+    }
+
+    private List<CustomerReference> nextChunk(long afterId) {
+        return this.customerReferenceRepository.findByStatusAfterId(StatusType.ACTIVE, afterId, Limit.of(this.chunkSize));
+    }
+
+    private List<RenderedStatement> renderAll(ForkJoinPool pool, List<CustomerReference> customers, Path directory,
+                                              LocalDateTime startTime, LocalDateTime endTime)
+            throws ExecutionException, InterruptedException {
+        // El parallel stream se ejecuta dentro del pool propio, no en el common pool
+        return pool.submit(() -> customers.parallelStream()
+                .map(customer -> this.render(customer, directory, startTime, endTime))
+                .toList()).get();
+    }
+
+    private RenderedStatement render(CustomerReference customer, Path directory, LocalDateTime startTime, LocalDateTime endTime) {
+        CustomerDTO customerDTO = new CustomerDTO(customer.getId(), customer.getName(), customer.getIdentification(), customer.getStatus().name());
+        Path file = null;
+        try {
+            // Cada libro va a un archivo temporal: en memoria solo queda la ruta, no el bloque completo
+            file = Files.createTempFile(directory, "statement-" + customer.getId() + "-", STALE_SUFFIX);
+            try (OutputStream outputStream = Files.newOutputStream(file)) {
+                this.reportService.writeExcelReport(customerDTO, startTime, endTime, outputStream, false);
+            }
+            return new RenderedStatement(customer.getId(), file);
+        } catch (IOException | RuntimeException e) {
+            // Un cliente con error no detiene la corrida; queda registrado como fallido para reintentarlo
+            log.error("Error generating bulk statement for customer {}", customer.getId(), e);
+            deleteQuietly(file);
+            return new RenderedStatement(customer.getId(), null);
+        }
+    }
+
+    private void writeArchive(Path archive, List<RenderedStatement> statements) throws IOException {
+        Path temporary = archive.resolveSibling(archive.getFileName() + ".tmp");
+        try (OutputStream outputStream = Files.newOutputStream(temporary);
+             ZipOutputStream zip = new ZipOutputStream(outputStream)) {
+            for (RenderedStatement statement : statements) {
+                if (statement.file() == null) {
+                    continue;
+                }
+                zip.putNextEntry(new ZipEntry("account_statement_" + statement.customerId() + ".xlsx"));
+                Files.copy(statement.file(), zip);
+                zip.closeEntry();
+            }
+        } finally {
+            statements.forEach(statement -> deleteQuietly(statement.file()));
+        }
+        // Si la corrida se corta antes del checkpoint, al reanudar se vuelve a escribir la misma parte
+        Files.move(temporary, archive, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private void deleteStaleStatements(Path directory) throws IOException {
+        // Libros de una corrida cortada antes de cerrar su archivo
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(file -> file.getFileName().toString().endsWith(STALE_SUFFIX)).forEach(BulkStatementRunner::deleteQuietly);
+        }
+    }
+
+    private static List<Long> failedCustomerIds(List<RenderedStatement> statements) {
+        return statements.stream()
+                .filter(statement -> statement.file() == null)
+                .map(RenderedStatement::customerId)
+                .toList();
+    }
+
+    private static void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Could not delete temporary statement {}", file, e);
+        }
+    }
+
+    private record RenderedStatement(Long customerId, Path file) {
+    }
+}
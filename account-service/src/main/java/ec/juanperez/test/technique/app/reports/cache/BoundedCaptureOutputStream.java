@@ -0,0 +1,52 @@
+package ec.juanperez.test.technique.app.reports.cache;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Passes every byte through to the response and keeps a copy while it stays under the limit,
+ * so a streamed statement can be cached without rendering it twice.
+ */
+public class BoundedCaptureOutputStream extends FilterOutputStream {
+
+    private final int maxBytes;
+    private ByteArrayOutputStream copy = new ByteArrayOutputStream();
+
+    public BoundedCaptureOutputStream(OutputStream out, int maxBytes) {
+        super(out);
+        this.maxBytes = maxBytes;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        this.out.write(b);
+        this.capture(new byte[]{(byte) b}, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        this.out.write(b, off, len);
+        this.capture(b, off, len);
+    }
+
+    /**
+     * Returns the captured bytes, or {@code null} when the output exceeded the limit.
+     */
+    public byte[] toByteArray() {
+        return this.copy == null ? null : this.copy.toByteArray();
+    }
+
+    private void capture(byte[] b, int off, int len) {
+        if (this.copy == null) {
+            return;
+        }
+        if (this.copy.size() + len > this.maxBytes) {
+            // Demasiado grande para el caché: se descarta la copia y se sigue solo con la respuesta
+            this.copy = null;
+            return;
+        }
+        this.copy.write(b, off, len);
+    }
+}
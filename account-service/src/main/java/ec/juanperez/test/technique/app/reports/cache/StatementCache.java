@@ -0,0 +1,119 @@
+package ec.juanperez.test.technique.app.reports.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import ec.juanperez.test.technique.app.movements.event.MovementsChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounded cache of rendered statements keyed by customer, range and format. An entry is dropped
+ * only when a movement of one of its accounts changes inside its range; everything else relies
+ * on the TTL. Hits and misses are published as {@code cache.gets{cache=statements}}.
+ */
+@Slf4j
+@Component
+public class StatementCache {
+
+    public static final String CACHE_NAME = "statements";
+
+    private final boolean enabled;
+    private final Cache<StatementCacheKey, StatementCacheEntry> entries;
+    // Última invalidación por cuenta (System.nanoTime): evita guardar un reporte armado antes del cambio
+    private final Cache<Long, Long> invalidations;
+    private final Counter invalidatedCounter;
+
+    public StatementCache(MeterRegistry meterRegistry,
+                          @Value("${reports.cache.enabled:true}") boolean enabled,
+                          @Value("${reports.cache.maximum-weight-bytes:67108864}") long maximumWeightBytes,
+                          @Value("${reports.cache.expire-after-write:10m}") Duration expireAfterWrite) {
+        this.enabled = enabled;
+        this.entries = Caffeine.newBuilder()
+                .maximumWeight(maximumWeightBytes)
+                .weigher((StatementCacheKey key, StatementCacheEntry entry) -> entry.weight())
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        this.invalidations = Caffeine.newBuilder()
+                .expireAfterWrite(expireAfterWrite)
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, this.entries, CACHE_NAME);
+        Gauge.builder("reports.statement.cache.hit.ratio", this.entries, cache -> cache.stats().hitRate())
+                .description("Share of statement requests served from the cache")
+                .register(meterRegistry);
+        this.invalidatedCounter = Counter.builder("reports.statement.cache.invalidated")
+                .description("Cached statements dropped because a movement changed inside their range")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Marks the start of a statement load; pass the value to {@link #put} once rendered.
+     */
+    public long startLoad() {
+        return System.nanoTime();
+    }
+
+    public Optional<StatementCacheEntry> get(StatementCacheKey key) {
+        if (!this.enabled) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(this.entries.getIfPresent(key));
+    }
+
+    public void put(StatementCacheKey key, StatementCacheEntry entry, long loadStartedAt) {
+        if (!this.enabled) {
+            return;
+        }
+        this.entries.put(key, entry);
+        // Se revisa después de guardar: una invalidación concurrente o ya la ve aquí o elimina la entrada ella misma
+        if (this.invalidatedSince(entry, loadStartedAt)) {
+            this.entries.asMap().remove(key, entry);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMovementsChanged(MovementsChangedEvent event) {
+        this.invalidate(event.accountId(), event.from(), event.to());
+    }
+
+    public void invalidate(Long accountId, LocalDateTime from, LocalDateTime to) {
+        if (!this.enabled) {
+            return;
+        }
+        this.invalidations.put(accountId, System.nanoTime());
+        // Recorrido lineal de las entradas: el caché es acotado y el filtro es barato frente al commit del movimiento
+        AtomicInteger removed = new AtomicInteger();
+        this.entries.asMap().entrySet().removeIf(cached -> {
+            boolean stale = cached.getValue().accountIds().contains(accountId) && cached.getKey().overlaps(from, to);
+            if (stale) {
+                removed.incrementAndGet();
+            }
+            return stale;
+        });
+        if (removed.get() > 0) {
+            this.invalidatedCounter.increment(removed.get());
+            log.debug("Invalidated {} cached statements for account {} between {} and {}", removed, accountId, from, to);
+        }
+    }
+
+    private boolean invalidatedSince(StatementCacheEntry entry, long loadStartedAt) {
+        for (Long accountId : entry.accountIds()) {
+            Long invalidatedAt = this.invalidations.getIfPresent(accountId);
+            if (invalidatedAt != null && invalidatedAt - loadStartedAt >= 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,32 @@
+package ec.juanperez.test.technique.app.reports.cache;
+
+import ec.juanperez.test.technique.app.reports.dto.ReportAccountDTO;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A rendered statement with the accounts it covers and the balances it was rendered with.
+ * Holds either the JSON report (without balances, which are always read fresh) or the Excel bytes.
+ */
+public record StatementCacheEntry(Set<Long> accountIds, Map<Long, BigDecimal> balances, ReportAccountDTO report, byte[] workbook) {
+
+    public static StatementCacheEntry json(Set<Long> accountIds, ReportAccountDTO report) {
+        return new StatementCacheEntry(accountIds, Map.of(), report, null);
+    }
+
+    public static StatementCacheEntry excel(Set<Long> accountIds, Map<Long, BigDecimal> balances, byte[] workbook) {
+        return new StatementCacheEntry(accountIds, balances, null, workbook);
+    }
+
+    int weight() {
+        if (this.workbook != null) {
+            return this.workbook.length;
+        }
+        // Estimación por movimiento del DTO en memoria
+        int movements = this.report.getMovements() == null ? 0 : this.report.getMovements().values().stream().mapToInt(List::size).sum();
+        return 1024 + movements * 200;
+    }
+}
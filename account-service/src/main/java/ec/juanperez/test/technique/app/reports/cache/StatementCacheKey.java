@@ -0,0 +1,13 @@
+package ec.juanperez.test.technique.app.reports.cache;
+
+import ec.juanperez.test.technique.app.reports.enums.ReportFormat;
+
+import java.time.LocalDateTime;
+
+public record StatementCacheKey(Long customerId, LocalDateTime startTime, LocalDateTime endTime, ReportFormat format) {
+
+    boolean overlaps(LocalDateTime from, LocalDateTime to) {
+        // Sin fecha conocida se asume que el cambio puede afectar cualquier rango
+        return (from == null || !from.isAfter(this.endTime)) && (to == null || !to.isBefore(this.startTime));
+    }
+}
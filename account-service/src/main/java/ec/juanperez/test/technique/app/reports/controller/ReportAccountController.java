@@ -1,6 +1,9 @@
 package ec.juanperez.test.technique.app.reports.controller;
 
+import ec.juanperez.test.technique.app.common.reactive.BlockingScheduler;
 import ec.juanperez.test.technique.app.reports.dto.ReportAccountDTO;
+import ec.juanperez.test.technique.app.reports.dto.StatementPageDTO;
+import ec.juanperez.test.technique.app.reports.dto.StatementRecordDTO;
 import ec.juanperez.test.technique.app.reports.service.ReportService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -11,12 +14,15 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
 import org.springframework.format.annotation.DateTimeFormat;
-import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpResponse;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.time.LocalDate;
@@ -30,9 +36,14 @@ import java.time.LocalDateTime;
 @Tag(name = "Reports", description = "Reports account management API")
 public class ReportAccountController {
 
+    private static final int STREAM_CHUNK_SIZE = 8192;
+
     private final ReportService reportService;
+    private final BlockingScheduler blockingScheduler;
 
-    @Operation(summary = "Report Account Statement", description = "Generate account statement report in JSON or Excel format")
+    @Operation(summary = "Report Account Statement", description = "Generate account statement report in JSON or Excel format. " +
+            "The Excel file is streamed as it is written: if generation fails after the download started, " +
+            "the connection is closed and the file is truncated")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Report generated successfully",
                     content = {
@@ -50,31 +61,117 @@ public class ReportAccountController {
             @Parameter(description = "End date (format: yyyy-MM-dd)", required = true) 
             @RequestParam("endDate") @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate endDate,
             @Parameter(description = "Format: json or excel (default: json)") 
-            @RequestParam(value = "format", defaultValue = "json") String format) {
+            @RequestParam(value = "format", defaultValue = "json") String format,
+            @Parameter(description = "Include the movement detail in the JSON report; the per-account summary is always included (default: true)")
+            @RequestParam(value = "includeMovements", defaultValue = "true") boolean includeMovements,
+            @Parameter(hidden = true) ServerHttpResponse response) {
         log.info("Finding report by customer: {} from {} to {} in format: {}", clientId, startDate, endDate, format);
         
         LocalDateTime startDateTime = startDate.atStartOfDay();
         LocalDateTime endDateTime = endDate.atTime(23, 59, 59);
         
-        return Mono.fromCallable(() -> {
-            if ("excel".equalsIgnoreCase(format)) {
-                byte[] excelBytes = this.reportService.generateExcelReport(clientId, startDateTime, endDateTime);
-                HttpHeaders headers = new HttpHeaders();
-                headers.setContentType(MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"));
-                headers.setContentDispositionFormData("attachment", "account_statement_" + clientId + ".xlsx");
-                return ResponseEntity.ok()
-                        .headers(headers)
-                        .body(excelBytes);
-            } else {
-                ReportAccountDTO report = this.reportService.getAccountStatementByCustomerIdAndDates(clientId, startDateTime, endDateTime);
-                return ResponseEntity.ok()
-                        .contentType(MediaType.APPLICATION_JSON)
-                        .body(report);
-            }
+        if ("excel".equalsIgnoreCase(format)) {
+            // El libro se escribe directamente en la respuesta: el cuerpo es un Flux<DataBuffer> que
+            // ResponseEntity<?> no puede codificar con el tipo declarado, por eso se usa writeWith
+            return this.blockingScheduler.fromCallable(() -> this.reportService.findCustomer(clientId))
+                    .flatMap(customer -> {
+                        response.setStatusCode(HttpStatus.OK);
+                        response.getHeaders().setContentType(MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"));
+                        response.getHeaders().setContentDispositionFormData("attachment", "account_statement_" + clientId + ".xlsx");
+                        // El libro se genera en el scheduler bloqueante y se envía por bloques a medida que se escribe
+                        Flux<DataBuffer> body = Flux.from(DataBufferUtils.outputStreamPublisher(
+                                        outputStream -> this.reportService.writeExcelReport(customer, startDateTime, endDateTime, outputStream),
+                                        response.bufferFactory(),
+                                        this.blockingScheduler.getScheduler()::schedule,
+                                        STREAM_CHUNK_SIZE))
+                                .doOnError(e -> log.error("Error streaming Excel report for customer: {}", clientId, e));
+                        return response.writeWith(body).then(Mono.<ResponseEntity<?>>empty());
+                    })
+                    // Solo se puede responder 500 mientras la respuesta no se haya enviado: si el libro falla
+                    // a mitad de la descarga, el 200 ya salió, la conexión se cierra y el .xlsx queda truncado
+                    .onErrorResume(e -> !response.isCommitted(), e -> {
+                        log.error("Error finding report by customer: {} from {} to {}", clientId, startDate, endDate, e);
+                        return Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build());
+                    });
+        }
+
+        return this.blockingScheduler.<ResponseEntity<?>>fromCallable(() -> {
+            ReportAccountDTO report = this.reportService.getAccountStatementByCustomerIdAndDates(clientId, startDateTime, endDateTime, includeMovements);
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(report);
         })
         .onErrorResume(e -> {
             log.error("Error finding report by customer: {} from {} to {}", clientId, startDate, endDate, e);
             return Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build());
         });
     }
+
+    @Operation(summary = "Page of an account statement", description = "Browse the movements of one account of the customer in pages, following nextCursor until it is null")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Page retrieved successfully",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = StatementPageDTO.class))),
+            @ApiResponse(responseCode = "404", description = "Customer not found"),
+            @ApiResponse(responseCode = "400", description = "Invalid date format, cursor or page size")
+    })
+    @GetMapping("/{client-id}/accounts/{account-id}/movements")
+    public Mono<ResponseEntity<StatementPageDTO>> findStatementPage(
+            @Parameter(description = "Customer ID", required = true) @PathVariable("client-id") Long clientId,
+            @Parameter(description = "Account ID", required = true) @PathVariable("account-id") Long accountId,
+            @Parameter(description = "Start date (format: yyyy-MM-dd)", required = true)
+            @RequestParam("startDate") @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate startDate,
+            @Parameter(description = "End date (format: yyyy-MM-dd)", required = true)
+            @RequestParam("endDate") @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate endDate,
+            @Parameter(description = "nextCursor of the previous page; omitted for the first page")
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @Parameter(description = "Page size, capped at the configured maximum")
+            @RequestParam(value = "size", required = false) Integer size) {
+        log.info("Finding statement page of account: {} of customer: {} from {} to {}", accountId, clientId, startDate, endDate);
+
+        LocalDateTime startDateTime = startDate.atStartOfDay();
+        LocalDateTime endDateTime = endDate.atTime(23, 59, 59);
+
+        // Los errores de cursor o tamaño llegan al GlobalExceptionHandler como 400
+        return this.blockingScheduler.fromCallable(() -> this.reportService.getStatementPage(clientId, accountId, startDateTime, endDateTime, cursor, size))
+                .map(ResponseEntity::ok);
+    }
+
+    @Operation(summary = "Report Account Statement as NDJSON", description = "Stream the account statement as newline-delimited JSON: a header record, a record per account and a record per movement")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Report streamed successfully",
+                    content = @Content(mediaType = "application/x-ndjson", schema = @Schema(implementation = StatementRecordDTO.class))),
+            @ApiResponse(responseCode = "404", description = "Customer not found"),
+            @ApiResponse(responseCode = "400", description = "Invalid date format or parameters")
+    })
+    @GetMapping(value = "/{client-id}", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Mono<ResponseEntity<Flux<DataBuffer>>> streamReportByCustomer(
+            @Parameter(description = "Customer ID", required = true) @PathVariable("client-id") Long clientId,
+            @Parameter(description = "Start date (format: yyyy-MM-dd)", required = true)
+            @RequestParam("startDate") @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate startDate,
+            @Parameter(description = "End date (format: yyyy-MM-dd)", required = true)
+            @RequestParam("endDate") @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate endDate,
+            @Parameter(hidden = true) ServerHttpResponse response) {
+        log.info("Streaming NDJSON report by customer: {} from {} to {}", clientId, startDate, endDate);
+
+        LocalDateTime startDateTime = startDate.atStartOfDay();
+        LocalDateTime endDateTime = endDate.atTime(23, 59, 59);
+
+        return this.blockingScheduler.fromCallable(() -> this.reportService.findCustomer(clientId))
+                .map(customer -> {
+                    // Los registros se escriben desde el cursor en el scheduler bloqueante, con contrapresión del cliente
+                    Flux<DataBuffer> body = Flux.from(DataBufferUtils.outputStreamPublisher(
+                                    outputStream -> this.reportService.writeNdjsonReport(customer, startDateTime, endDateTime, outputStream),
+                                    response.bufferFactory(),
+                                    this.blockingScheduler.getScheduler()::schedule,
+                                    STREAM_CHUNK_SIZE))
+                            .doOnError(e -> log.error("Error streaming NDJSON report for customer: {}", clientId, e));
+                    return ResponseEntity.ok()
+                            .contentType(MediaType.APPLICATION_NDJSON)
+                            .body(body);
+                })
+                .onErrorResume(e -> {
+                    log.error("Error finding report by customer: {} from {} to {}", clientId, startDate, endDate, e);
+                    return Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build());
+                });
+    }
 }
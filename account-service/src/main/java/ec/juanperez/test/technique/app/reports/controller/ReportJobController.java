@@ -0,0 +1,95 @@
+package ec.juanperez.test.technique.app.reports.controller;
+
+import ec.juanperez.test.technique.app.reports.dto.ReportJobDTO;
+import ec.juanperez.test.technique.app.reports.dto.ReportJobRequest;
+import ec.juanperez.test.technique.app.reports.enums.ReportFormat;
+import ec.juanperez.test.technique.app.reports.job.ReportJob;
+import ec.juanperez.test.technique.app.reports.job.ReportJobService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+
+@RequiredArgsConstructor
+@CrossOrigin
+@Slf4j
+@RestController
+@RequestMapping("/reports/jobs")
+@Tag(name = "Report jobs", description = "Asynchronous account statement reports")
+public class ReportJobController {
+
+    private final ReportJobService reportJobService;
+
+    @Operation(summary = "Submit a report job", description = "Queue an account statement report and return the job id")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Report job queued",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ReportJobDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid parameters"),
+            @ApiResponse(responseCode = "503", description = "Report job queue is full")
+    })
+    @PostMapping
+    public Mono<ResponseEntity<ReportJobDTO>> submit(@Valid @RequestBody Mono<ReportJobRequest> requestMono) {
+        // Encolar no bloquea: el reporte se genera en el pool de trabajos
+        return requestMono
+                .doOnNext(request -> log.info("Submitting report job for customer: {} from {} to {}",
+                        request.getClientId(), request.getStartDate(), request.getEndDate()))
+                .map(this.reportJobService::submit)
+                .map(job -> ResponseEntity.accepted()
+                        .location(URI.create("/reports/jobs/" + job.getId()))
+                        .body(job));
+    }
+
+    @Operation(summary = "Get report job status", description = "Retrieve the status of a report job")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Report job found",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ReportJobDTO.class))),
+            @ApiResponse(responseCode = "404", description = "Report job not found or expired")
+    })
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<ReportJobDTO>> findById(
+            @Parameter(description = "Report job ID", required = true) @PathVariable String id) {
+        return Mono.fromCallable(() -> ResponseEntity.ok(this.reportJobService.findById(id)));
+    }
+
+    @Operation(summary = "Download a report job file", description = "Download the generated report once the job is completed")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Report file",
+                    content = {
+                            @Content(mediaType = "application/json"),
+                            @Content(mediaType = "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet")
+                    }),
+            @ApiResponse(responseCode = "404", description = "Report job not found or expired"),
+            @ApiResponse(responseCode = "409", description = "Report job not completed")
+    })
+    @GetMapping("/{id}/file")
+    public Mono<ResponseEntity<Resource>> download(
+            @Parameter(description = "Report job ID", required = true) @PathVariable String id) {
+        return Mono.fromCallable(() -> {
+            ReportJob job = this.reportJobService.findCompleted(id);
+            MediaType mediaType = job.getFormat() == ReportFormat.EXCEL
+                    ? MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet")
+                    : MediaType.APPLICATION_JSON;
+            // El archivo del spool se envía directamente desde disco
+            return ResponseEntity.ok()
+                    .contentType(mediaType)
+                    .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(job.getFileName()).build().toString())
+                    .body(new FileSystemResource(job.getFile()));
+        });
+    }
+}
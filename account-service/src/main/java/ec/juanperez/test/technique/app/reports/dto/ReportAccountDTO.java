@@ -1,11 +1,13 @@
 package ec.juanperez.test.technique.app.reports.dto;
 
 import ec.juanperez.test.technique.app.dto.CustomerDTO;
+import ec.juanperez.test.technique.app.movements.dto.AccountPeriodSummaryDTO;
 import ec.juanperez.test.technique.app.movements.dto.MovementDTO;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.math.BigDecimal;
 import java.util.List;
 import java.util.Map;
 
@@ -16,4 +18,6 @@ public class ReportAccountDTO {
 
     CustomerDTO customer;
     Map<String, List<MovementDTO>> movements;
+    Map<String, BigDecimal> balances;
+    Map<String, AccountPeriodSummaryDTO> summaries;
 }
@@ -0,0 +1,28 @@
+package ec.juanperez.test.technique.app.reports.dto;
+
+import ec.juanperez.test.technique.app.reports.enums.ReportFormat;
+import ec.juanperez.test.technique.app.reports.enums.ReportJobStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReportJobDTO {
+
+    private String id;
+    private ReportJobStatus status;
+    private Long clientId;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private ReportFormat format;
+    private LocalDateTime createdAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private Long fileSize;
+    private String error;
+}
@@ -0,0 +1,28 @@
+package ec.juanperez.test.technique.app.reports.dto;
+
+import ec.juanperez.test.technique.app.reports.enums.ReportFormat;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReportJobRequest implements Serializable {
+
+    @NotNull(message = "Customer ID is required")
+    private Long clientId;
+
+    @NotNull(message = "Start date is required")
+    private LocalDate startDate;
+
+    @NotNull(message = "End date is required")
+    private LocalDate endDate;
+
+    // Por defecto los trabajos generan el libro Excel
+    private ReportFormat format = ReportFormat.EXCEL;
+}
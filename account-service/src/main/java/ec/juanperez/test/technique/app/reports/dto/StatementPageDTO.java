@@ -0,0 +1,19 @@
+package ec.juanperez.test.technique.app.reports.dto;
+
+import ec.juanperez.test.technique.app.movements.dto.MovementDTO;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+public class StatementPageDTO {
+
+    Long accountId;
+    List<MovementDTO> movements;
+    // null en la última página
+    String nextCursor;
+}
@@ -0,0 +1,43 @@
+package ec.juanperez.test.technique.app.reports.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import ec.juanperez.test.technique.app.dto.CustomerDTO;
+import ec.juanperez.test.technique.app.movements.dto.MovementDTO;
+import ec.juanperez.test.technique.app.reports.enums.StatementRecordType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One line of the NDJSON statement: a header with the customer and range, then a section per
+ * account followed by its movements. Only the fields of each record type are serialized.
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class StatementRecordDTO {
+
+    private StatementRecordType type;
+    private CustomerDTO customer;
+    private LocalDateTime startDate;
+    private LocalDateTime endDate;
+    private String account;
+    private BigDecimal balance;
+    private MovementDTO movement;
+
+    public static StatementRecordDTO header(CustomerDTO customer, LocalDateTime startDate, LocalDateTime endDate) {
+        return new StatementRecordDTO(StatementRecordType.HEADER, customer, startDate, endDate, null, null, null);
+    }
+
+    public static StatementRecordDTO account(String account, BigDecimal balance) {
+        return new StatementRecordDTO(StatementRecordType.ACCOUNT, null, null, null, account, balance, null);
+    }
+
+    public static StatementRecordDTO movement(String account, MovementDTO movement) {
+        return new StatementRecordDTO(StatementRecordType.MOVEMENT, null, null, null, account, null, movement);
+    }
+}
@@ -0,0 +1,14 @@
+package ec.juanperez.test.technique.app.reports.enums;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+
+public enum ReportFormat {
+    JSON,
+    EXCEL;
+
+    // Acepta "json"/"excel" igual que el parámetro format de /reports/{client-id}
+    @JsonCreator
+    public static ReportFormat fromValue(String value) {
+        return ReportFormat.valueOf(value.trim().toUpperCase());
+    }
+}
@@ -0,0 +1,8 @@
+package ec.juanperez.test.technique.app.reports.enums;
+
+public enum ReportJobStatus {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
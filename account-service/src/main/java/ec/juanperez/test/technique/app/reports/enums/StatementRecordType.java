@@ -0,0 +1,7 @@
+package ec.juanperez.test.technique.app.reports.enums;
+
+public enum StatementRecordType {
+    HEADER,
+    ACCOUNT,
+    MOVEMENT
+}
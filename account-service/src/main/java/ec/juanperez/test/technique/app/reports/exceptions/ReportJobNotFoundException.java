@@ -0,0 +1,8 @@
+package ec.juanperez.test.technique.app.reports.exceptions;
+
+public class ReportJobNotFoundException extends RuntimeException {
+
+    public ReportJobNotFoundException(String id) {
+        super("Report job not found with id: " + id);
+    }
+}
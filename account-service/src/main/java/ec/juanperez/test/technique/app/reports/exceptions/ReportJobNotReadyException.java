@@ -0,0 +1,10 @@
+package ec.juanperez.test.technique.app.reports.exceptions;
+
+import ec.juanperez.test.technique.app.reports.enums.ReportJobStatus;
+
+public class ReportJobNotReadyException extends RuntimeException {
+
+    public ReportJobNotReadyException(String id, ReportJobStatus status) {
+        super("Report job " + id + " has no file available, current status: " + status);
+    }
+}
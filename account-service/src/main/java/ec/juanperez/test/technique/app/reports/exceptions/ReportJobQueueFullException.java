@@ -0,0 +1,8 @@
+package ec.juanperez.test.technique.app.reports.exceptions;
+
+public class ReportJobQueueFullException extends RuntimeException {
+
+    public ReportJobQueueFullException(int queueCapacity) {
+        super("Report job queue is full (" + queueCapacity + " pending jobs). Please retry later.");
+    }
+}
@@ -0,0 +1,71 @@
+package ec.juanperez.test.technique.app.reports.job;
+
+import ec.juanperez.test.technique.app.reports.dto.ReportJobDTO;
+import ec.juanperez.test.technique.app.reports.enums.ReportFormat;
+import ec.juanperez.test.technique.app.reports.enums.ReportJobStatus;
+import lombok.Getter;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * State of one report job. Written by its worker thread and read by status requests.
+ */
+@Getter
+public class ReportJob {
+
+    private final String id;
+    private final Long clientId;
+    private final LocalDate startDate;
+    private final LocalDate endDate;
+    private final ReportFormat format;
+    private final LocalDateTime createdAt;
+
+    private volatile ReportJobStatus status = ReportJobStatus.QUEUED;
+    private volatile LocalDateTime startedAt;
+    private volatile LocalDateTime finishedAt;
+    private volatile Path file;
+    private volatile Long fileSize;
+    private volatile String error;
+
+    public ReportJob(String id, Long clientId, LocalDate startDate, LocalDate endDate, ReportFormat format, LocalDateTime createdAt) {
+        this.id = id;
+        this.clientId = clientId;
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.format = format;
+        this.createdAt = createdAt;
+    }
+
+    public String getFileName() {
+        return "account_statement_" + this.clientId + (this.format == ReportFormat.EXCEL ? ".xlsx" : ".json");
+    }
+
+    public boolean isFinished() {
+        return this.status == ReportJobStatus.COMPLETED || this.status == ReportJobStatus.FAILED;
+    }
+
+    void markRunning(LocalDateTime startedAt) {
+        this.startedAt = startedAt;
+        this.status = ReportJobStatus.RUNNING;
+    }
+
+    void markCompleted(Path file, long fileSize, LocalDateTime finishedAt) {
+        this.file = file;
+        this.fileSize = fileSize;
+        this.finishedAt = finishedAt;
+        this.status = ReportJobStatus.COMPLETED;
+    }
+
+    void markFailed(String error, LocalDateTime finishedAt) {
+        this.error = error;
+        this.finishedAt = finishedAt;
+        this.status = ReportJobStatus.FAILED;
+    }
+
+    public ReportJobDTO toDTO() {
+        return new ReportJobDTO(this.id, this.status, this.clientId, this.startDate, this.endDate, this.format,
+                this.createdAt, this.startedAt, this.finishedAt, this.fileSize, this.error);
+    }
+}
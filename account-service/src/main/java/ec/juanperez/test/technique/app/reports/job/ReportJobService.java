@@ -0,0 +1,218 @@
+package ec.juanperez.test.technique.app.reports.job;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ec.juanperez.test.technique.app.dto.CustomerDTO;
+import ec.juanperez.test.technique.app.reports.dto.ReportJobDTO;
+import ec.juanperez.test.technique.app.reports.dto.ReportJobRequest;
+import ec.juanperez.test.technique.app.reports.enums.ReportFormat;
+import ec.juanperez.test.technique.app.reports.enums.ReportJobStatus;
+import ec.juanperez.test.technique.app.reports.exceptions.ReportJobNotFoundException;
+import ec.juanperez.test.technique.app.reports.exceptions.ReportJobNotReadyException;
+import ec.juanperez.test.technique.app.reports.exceptions.ReportJobQueueFullException;
+import ec.juanperez.test.technique.app.reports.service.ReportService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Runs statement reports in the background on a bounded worker pool. Results are spooled to
+ * local disk and removed, together with their job, once the TTL after completion expires.
+ */
+@Slf4j
+@Component
+public class ReportJobService {
+
+    private final ReportService reportService;
+    private final ObjectMapper objectMapper;
+    private final Path spoolDirectory;
+    private final Duration ttl;
+    private final int queueCapacity;
+    private final ThreadPoolExecutor executor;
+    private final Map<String, ReportJob> jobs = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+    private final Timer waitTimer;
+    private final Counter rejectedCounter;
+
+    public ReportJobService(ReportService reportService,
+                            ObjectMapper objectMapper,
+                            MeterRegistry meterRegistry,
+                            @Value("${reports.jobs.threads:2}") int threads,
+                            @Value("${reports.jobs.queue-capacity:50}") int queueCapacity,
+                            @Value("${reports.jobs.spool-dir:${java.io.tmpdir}/account-service-reports}") Path spoolDirectory,
+                            @Value("${reports.jobs.ttl:1h}") Duration ttl) {
+        if (threads <= 0 || queueCapacity <= 0) {
+            throw new IllegalArgumentException("Invalid report jobs configuration");
+        }
+        this.reportService = reportService;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.spoolDirectory = spoolDirectory;
+        this.ttl = ttl;
+        this.queueCapacity = queueCapacity;
+        // Cola acotada: si se llena, la solicitud se rechaza en lugar de acumular trabajos sin límite
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("report-job-"),
+                new ThreadPoolExecutor.AbortPolicy());
+        Gauge.builder("reports.jobs.queue.size", this.executor, pool -> pool.getQueue().size())
+                .description("Report jobs waiting for a worker")
+                .register(meterRegistry);
+        Gauge.builder("reports.jobs.active", this.executor, ThreadPoolExecutor::getActiveCount)
+                .description("Report jobs currently running")
+                .register(meterRegistry);
+        this.waitTimer = Timer.builder("reports.jobs.wait.time")
+                .description("Time a report job waits in the queue before it starts")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("reports.jobs.rejected")
+                .description("Report jobs rejected because the queue was full")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void init() throws IOException {
+        Files.createDirectories(this.spoolDirectory);
+        // Los archivos de una ejecución anterior ya no tienen trabajo asociado
+        try (Stream<Path> leftovers = Files.list(this.spoolDirectory)) {
+            leftovers.forEach(this::deleteQuietly);
+        }
+        log.info("Report jobs spooled to {} with TTL {}", this.spoolDirectory, this.ttl);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        this.executor.shutdownNow();
+    }
+
+    public ReportJobDTO submit(ReportJobRequest request) {
+        if (request.getStartDate().isAfter(request.getEndDate())) {
+            throw new IllegalArgumentException("Start date must not be after end date");
+        }
+        ReportFormat format = request.getFormat() != null ? request.getFormat() : ReportFormat.EXCEL;
+        ReportJob job = new ReportJob(UUID.randomUUID().toString(), request.getClientId(), request.getStartDate(),
+                request.getEndDate(), format, LocalDateTime.now());
+        this.jobs.put(job.getId(), job);
+        try {
+            long queuedAt = System.nanoTime();
+            this.executor.execute(() -> {
+                this.waitTimer.record(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+                this.run(job);
+            });
+        } catch (RejectedExecutionException e) {
+            this.jobs.remove(job.getId());
+            this.rejectedCounter.increment();
+            log.warn("Report job for customer {} rejected, queue full", request.getClientId());
+            throw new ReportJobQueueFullException(this.queueCapacity);
+        }
+        log.info("Report job {} queued for customer {} from {} to {} in format {}", job.getId(), job.getClientId(),
+                job.getStartDate(), job.getEndDate(), format);
+        return job.toDTO();
+    }
+
+    public ReportJobDTO findById(String id) {
+        return this.getJob(id).toDTO();
+    }
+
+    /**
+     * Returns the job only once its file is ready to download.
+     */
+    public ReportJob findCompleted(String id) {
+        ReportJob job = this.getJob(id);
+        if (job.getStatus() != ReportJobStatus.COMPLETED) {
+            throw new ReportJobNotReadyException(id, job.getStatus());
+        }
+        return job;
+    }
+
+    @Scheduled(fixedDelayString = "${reports.jobs.cleanup-interval:PT5M}")
+    public void cleanupExpiredJobs() {
+        LocalDateTime expiredBefore = LocalDateTime.now().minus(this.ttl);
+        this.jobs.values().removeIf(job -> {
+            boolean expired = job.isFinished() && !job.getFinishedAt().isAfter(expiredBefore);
+            if (expired && job.getFile() != null) {
+                this.deleteQuietly(job.getFile());
+            }
+            return expired;
+        });
+    }
+
+    private ReportJob getJob(String id) {
+        ReportJob job = this.jobs.get(id);
+        if (job == null) {
+            throw new ReportJobNotFoundException(id);
+        }
+        return job;
+    }
+
+    private void run(ReportJob job) {
+        job.markRunning(LocalDateTime.now());
+        Timer.Sample sample = Timer.start(this.meterRegistry);
+        Path partial = this.spoolDirectory.resolve(job.getId() + ".part");
+        Path target = this.spoolDirectory.resolve(job.getId() + (job.getFormat() == ReportFormat.EXCEL ? ".xlsx" : ".json"));
+        try {
+            try (OutputStream outputStream = new BufferedOutputStream(Files.newOutputStream(partial))) {
+                this.write(job, outputStream);
+            }
+            // El archivo solo aparece con su nombre final cuando está completo
+            Files.move(partial, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            job.markCompleted(target, Files.size(target), LocalDateTime.now());
+            sample.stop(this.runTimer("completed"));
+            log.info("Report job {} completed, {} bytes", job.getId(), job.getFileSize());
+        } catch (Exception e) {
+            this.deleteQuietly(partial);
+            job.markFailed(e.getMessage(), LocalDateTime.now());
+            sample.stop(this.runTimer("failed"));
+            log.error("Report job {} failed for customer {}", job.getId(), job.getClientId(), e);
+        }
+    }
+
+    private void write(ReportJob job, OutputStream outputStream) throws IOException {
+        LocalDateTime startDateTime = job.getStartDate().atStartOfDay();
+        LocalDateTime endDateTime = job.getEndDate().atTime(23, 59, 59);
+        if (job.getFormat() == ReportFormat.EXCEL) {
+            CustomerDTO customer = this.reportService.findCustomer(job.getClientId());
+            this.reportService.writeExcelReport(customer, startDateTime, endDateTime, outputStream);
+        } else {
+            this.objectMapper.writeValue(outputStream,
+                    this.reportService.getAccountStatementByCustomerIdAndDates(job.getClientId(), startDateTime, endDateTime));
+        }
+    }
+
+    private Timer runTimer(String outcome) {
+        return Timer.builder("reports.jobs.run.time")
+                .description("Time to generate and spool a report job")
+                .tag("outcome", outcome)
+                .register(this.meterRegistry);
+    }
+
+    private void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Could not delete spooled report {}: {}", path, e.getMessage());
+        }
+    }
+}
@@ -1,12 +1,38 @@
 package ec.juanperez.test.technique.app.reports.service;
 
+import ec.juanperez.test.technique.app.dto.CustomerDTO;
 import ec.juanperez.test.technique.app.reports.dto.ReportAccountDTO;
+import ec.juanperez.test.technique.app.reports.dto.StatementPageDTO;
 
+import java.io.OutputStream;
 import java.time.LocalDateTime;
 
 public interface ReportService {
 
     ReportAccountDTO getAccountStatementByCustomerIdAndDates(Long customerId, LocalDateTime startTime, LocalDateTime endTime);
-    
-    byte[] generateExcelReport(Long customerId, LocalDateTime startTime, LocalDateTime endTime);
+
+    /**
+     * Same as {@link #getAccountStatementByCustomerIdAndDates(Long, LocalDateTime, LocalDateTime)}; with
+     * {@code includeMovements = false} only the balances and the per-account summaries are returned.
+     */
+    ReportAccountDTO getAccountStatementByCustomerIdAndDates(Long customerId, LocalDateTime startTime, LocalDateTime endTime, boolean includeMovements);
+
+    /**
+     * Page of an account's statement detail ordered by date and id. {@code cursor} is the
+     * {@code nextCursor} of the previous page, or null for the first one; {@code pageSize} is capped
+     * at {@code reports.paging.max-size}.
+     */
+    StatementPageDTO getStatementPage(Long customerId, Long accountId, LocalDateTime startTime, LocalDateTime endTime, String cursor, Integer pageSize);
+
+    CustomerDTO findCustomer(Long customerId);
+
+    void writeNdjsonReport(CustomerDTO customer, LocalDateTime startTime, LocalDateTime endTime, OutputStream outputStream);
+
+    void writeExcelReport(CustomerDTO customer, LocalDateTime startTime, LocalDateTime endTime, OutputStream outputStream);
+
+    /**
+     * Same as {@link #writeExcelReport(CustomerDTO, LocalDateTime, LocalDateTime, OutputStream)}; bulk
+     * runs pass {@code useCache = false} so they neither read nor fill the statement cache.
+     */
+    void writeExcelReport(CustomerDTO customer, LocalDateTime startTime, LocalDateTime endTime, OutputStream outputStream, boolean useCache);
 }
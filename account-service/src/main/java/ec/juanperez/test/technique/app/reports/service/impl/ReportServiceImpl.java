@@ -4,87 +4,236 @@ import ec.juanperez.test.technique.app.accounts.dto.AccountDTO;
 import ec.juanperez.test.technique.app.accounts.service.AccountService;
 import ec.juanperez.test.technique.app.dto.CustomerDTO;
 import ec.juanperez.test.technique.app.exception.CustomerReferenceNotFoundException;
+import ec.juanperez.test.technique.app.movements.dto.AccountPeriodSummaryDTO;
 import ec.juanperez.test.technique.app.movements.dto.MovementDTO;
+import ec.juanperez.test.technique.app.movements.paging.MovementCursor;
 import ec.juanperez.test.technique.app.movements.service.MovementService;
+import ec.juanperez.test.technique.app.movements.snapshot.AccountDailySnapshotService;
+import ec.juanperez.test.technique.app.reports.cache.BoundedCaptureOutputStream;
+import ec.juanperez.test.technique.app.reports.cache.StatementCache;
+import ec.juanperez.test.technique.app.reports.cache.StatementCacheEntry;
+import ec.juanperez.test.technique.app.reports.cache.StatementCacheKey;
 import ec.juanperez.test.technique.app.reports.dto.ReportAccountDTO;
+import ec.juanperez.test.technique.app.reports.dto.StatementPageDTO;
+import ec.juanperez.test.technique.app.reports.enums.ReportFormat;
 import ec.juanperez.test.technique.app.reports.service.ReportService;
 import ec.juanperez.test.technique.app.reports.util.ReportAccountUtil;
+import ec.juanperez.test.technique.app.reports.util.ReportNdjsonWriter;
 import ec.juanperez.test.technique.model.CustomerReference;
 import ec.juanperez.test.technique.repository.CustomerReferenceRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Slf4j
 @RequiredArgsConstructor
 @Service
 public class ReportServiceImpl implements ReportService {
 
+    // Los reportes cierran el rango en 23:59:59 (ver ReportAccountController)
+    private static final LocalTime END_OF_DAY = LocalTime.of(23, 59, 59);
+
     private final CustomerReferenceRepository customerReferenceRepository;
     private final MovementService movementService;
+    private final AccountDailySnapshotService snapshotService;
     private final AccountService accountService;
     private final ReportAccountUtil reportAccountUtil;
+    private final ReportNdjsonWriter reportNdjsonWriter;
+    private final StatementCache statementCache;
+
+    @Value("${reports.cache.max-excel-bytes:2097152}")
+    private int maxCachedExcelBytes;
+
+    @Value("${reports.paging.default-size:100}")
+    private int defaultPageSize;
+
+    @Value("${reports.paging.max-size:500}")
+    private int maxPageSize;
     
     @Override
     public ReportAccountDTO getAccountStatementByCustomerIdAndDates(Long customerId, LocalDateTime startTime, LocalDateTime endTime) {
-        ReportAccountDTO report = new ReportAccountDTO();
-        Optional<CustomerReference> optionalCustomerRef = this.customerReferenceRepository.findById(customerId);
-        if (optionalCustomerRef.isEmpty()){
-            log.error("Customer reference not found with id: {}", customerId);
-            throw new CustomerReferenceNotFoundException(customerId);
+        return this.getAccountStatementByCustomerIdAndDates(customerId, startTime, endTime, true);
+    }
+
+    @Override
+    public ReportAccountDTO getAccountStatementByCustomerIdAndDates(Long customerId, LocalDateTime startTime, LocalDateTime endTime, boolean includeMovements) {
+        List<AccountDTO> accounts = this.accountService.findAllByCustomerId(customerId);
+        if (!includeMovements) {
+            // Sin detalle: el resumen sale igual de una consulta agregada, sin leer ni cachear movimientos
+            return new ReportAccountDTO(this.findCustomer(customerId), null, this.balancesByAccountKey(accounts),
+                    this.findPeriodSummaries(customerId, accounts, startTime, endTime));
         }
-        
-        CustomerReference customerRef = optionalCustomerRef.get();
-        CustomerDTO customerDTO = new CustomerDTO(
-            customerRef.getId(),
-            customerRef.getName(),
-            customerRef.getIdentification(),
-            customerRef.getStatus().name()
-        );
-        report.setCustomer(customerDTO);
-        report.setMovements(this.movementService.getMovementsByCustomerIdAndDates(customerId, startTime, endTime));
-        return report;
+
+        long loadStartedAt = this.statementCache.startLoad();
+        Set<Long> accountIds = this.accountIds(accounts);
+        StatementCacheKey key = new StatementCacheKey(customerId, startTime, endTime, ReportFormat.JSON);
+
+        ReportAccountDTO statement = this.statementCache.get(key)
+                .filter(entry -> entry.accountIds().equals(accountIds))
+                .map(StatementCacheEntry::report)
+                .orElseGet(() -> {
+                    ReportAccountDTO report = new ReportAccountDTO();
+                    report.setCustomer(this.findCustomer(customerId));
+                    report.setMovements(this.movementService.getMovementsByCustomerIdAndDates(customerId, startTime, endTime));
+                    this.statementCache.put(key, StatementCacheEntry.json(accountIds, report), loadStartedAt);
+                    return report;
+                });
+
+        // El saldo actual no depende del rango del reporte: se consulta en cada petición, también en aciertos del caché
+        return new ReportAccountDTO(statement.getCustomer(), statement.getMovements(), this.balancesByAccountKey(accounts),
+                this.findPeriodSummaries(customerId, accounts, startTime, endTime));
     }
 
     @Override
-    public byte[] generateExcelReport(Long customerId, LocalDateTime startTime, LocalDateTime endTime) {
+    public StatementPageDTO getStatementPage(Long customerId, Long accountId, LocalDateTime startTime, LocalDateTime endTime, String cursor, Integer pageSize) {
+        int size = pageSize != null ? pageSize : this.defaultPageSize;
+        if (size < 1) {
+            throw new IllegalArgumentException("Page size must be greater than zero");
+        }
+        size = Math.min(size, this.maxPageSize);
+        this.findCustomer(customerId);
+        MovementCursor after = cursor != null ? MovementCursor.decode(cursor) : null;
+
+        // Se pide una fila de más para saber si hay otra página sin contar el rango completo
+        List<MovementDTO> rows = this.movementService.getMovementsPage(customerId, accountId, startTime, endTime,
+                after != null ? after.fechaMovimiento() : null, after != null ? after.movementId() : null, size + 1);
+        if (rows.size() <= size) {
+            return new StatementPageDTO(accountId, rows, null);
+        }
+        List<MovementDTO> page = rows.subList(0, size);
+        MovementDTO last = page.get(size - 1);
+        return new StatementPageDTO(accountId, new ArrayList<>(page),
+                new MovementCursor(last.getFechaMovimiento(), last.getId()).encode());
+    }
+
+    @Override
+    public CustomerDTO findCustomer(Long customerId) {
         Optional<CustomerReference> optionalCustomerRef = this.customerReferenceRepository.findById(customerId);
         if (optionalCustomerRef.isEmpty()){
             log.error("Customer reference not found with id: {}", customerId);
             throw new CustomerReferenceNotFoundException(customerId);
         }
-        
+
         CustomerReference customerRef = optionalCustomerRef.get();
-        CustomerDTO customer = new CustomerDTO(
+        return new CustomerDTO(
             customerRef.getId(),
             customerRef.getName(),
             customerRef.getIdentification(),
             customerRef.getStatus().name()
         );
-        List<AccountDTO> accounts = this.accountService.findAllByCustomerId(customerId);
-        Map<String, List<MovementDTO>> movementsMap =
-                this.movementService.getMovementsByCustomerIdAndDates(customerId, startTime, endTime);
-        
-        Map<Long, BigDecimal> accountBalances = new HashMap<>();
-        for (AccountDTO account : accounts) {
-            Optional<BigDecimal> optionalBalance = this.movementService.getCurrentBalance(account.getId());
-            BigDecimal currentBalance = optionalBalance.orElse(account.getInitialBalance());
-            accountBalances.put(account.getId(), currentBalance);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void writeNdjsonReport(CustomerDTO customer, LocalDateTime startTime, LocalDateTime endTime, OutputStream outputStream) {
+        List<AccountDTO> accounts = this.accountService.findAllByCustomerId(customer.getId());
+        Map<Long, BigDecimal> accountBalances = this.findCurrentBalances(accounts);
+
+        // Un solo cursor para todas las cuentas; cada fila se escribe apenas se lee
+        try (Stream<MovementDTO> movements = this.movementService.streamMovementsByCustomer(customer.getId(), startTime, endTime)) {
+            this.reportNdjsonWriter.writeNdjsonReport(customer, accounts, accountBalances, movements, startTime, endTime, outputStream);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void writeExcelReport(CustomerDTO customer, LocalDateTime startTime, LocalDateTime endTime, OutputStream outputStream) {
+        this.writeExcelReport(customer, startTime, endTime, outputStream, true);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void writeExcelReport(CustomerDTO customer, LocalDateTime startTime, LocalDateTime endTime, OutputStream outputStream, boolean useCache) {
+        long loadStartedAt = this.statementCache.startLoad();
+        List<AccountDTO> accounts = this.accountService.findAllByCustomerId(customer.getId());
+        Set<Long> accountIds = this.accountIds(accounts);
+        Map<Long, BigDecimal> accountBalances = this.findCurrentBalances(accounts);
+        StatementCacheKey key = new StatementCacheKey(customer.getId(), startTime, endTime, ReportFormat.EXCEL);
+
+        // El libro incluye el saldo actual: solo se reutiliza si las cuentas y sus saldos no cambiaron
+        Optional<byte[]> cached = (useCache ? this.statementCache.get(key) : Optional.<StatementCacheEntry>empty())
+                .filter(entry -> entry.accountIds().equals(accountIds) && entry.balances().equals(accountBalances))
+                .map(StatementCacheEntry::workbook);
+        if (cached.isPresent()) {
+            try {
+                outputStream.write(cached.get());
+            } catch (IOException e) {
+                throw new UncheckedIOException("Error writing cached Excel report", e);
+            }
+            return;
+        }
+
+        // Los movimientos se leen con cursor y se escriben fila a fila mientras la transacción sigue abierta
+        BoundedCaptureOutputStream capture = useCache ? new BoundedCaptureOutputStream(outputStream, this.maxCachedExcelBytes) : null;
+        this.reportAccountUtil.writeExcelReport(
+                customer,
+                accounts,
+                accountBalances,
+                this.findAccountSummaries(customer.getId(), accounts, startTime, endTime),
+                account -> this.movementService.streamMovementsByAccount(account.getId(), startTime, endTime),
+                startTime,
+                endTime,
+                capture != null ? capture : outputStream);
+        byte[] workbook = capture != null ? capture.toByteArray() : null;
+        if (workbook != null) {
+            this.statementCache.put(key, StatementCacheEntry.excel(accountIds, accountBalances, workbook), loadStartedAt);
+        }
+    }
+
+    private Map<Long, BigDecimal> findCurrentBalances(List<AccountDTO> accounts) {
+        // Una sola consulta para todas las cuentas; las cuentas sin movimientos conservan el saldo inicial
+        Map<Long, BigDecimal> balances = new HashMap<>(this.movementService.getCurrentBalances(
+                accounts.stream().map(AccountDTO::getId).toList()));
+        accounts.forEach(account -> balances.putIfAbsent(account.getId(), account.getInitialBalance()));
+        return balances;
+    }
+
+    private Map<String, BigDecimal> balancesByAccountKey(List<AccountDTO> accounts) {
+        Map<Long, BigDecimal> accountBalances = this.findCurrentBalances(accounts);
+        Map<String, BigDecimal> balances = new LinkedHashMap<>();
+        accounts.forEach(account -> balances.put(account.getNumber() + "-" + account.getAccountType(), accountBalances.get(account.getId())));
+        return balances;
+    }
+
+    private Map<String, AccountPeriodSummaryDTO> findPeriodSummaries(Long customerId, List<AccountDTO> accounts, LocalDateTime startTime, LocalDateTime endTime) {
+        Map<Long, AccountPeriodSummaryDTO> accountSummaries = this.findAccountSummaries(customerId, accounts, startTime, endTime);
+        Map<String, AccountPeriodSummaryDTO> summaries = new LinkedHashMap<>();
+        accounts.forEach(account -> summaries.put(account.getNumber() + "-" + account.getAccountType(), accountSummaries.get(account.getId())));
+        return summaries;
+    }
+
+    private Map<Long, AccountPeriodSummaryDTO> findAccountSummaries(Long customerId, List<AccountDTO> accounts, LocalDateTime startTime, LocalDateTime endTime) {
+        // Con días completos y el historial ya en los cierres diarios, el resumen sale de un registro por día;
+        // si no, de una sola consulta agrupada sobre los movimientos del rango
+        if (coversWholeDays(startTime, endTime) && this.snapshotService.isBackfillCompleted()) {
+            return this.snapshotService.getPeriodSummaries(accounts, startTime.toLocalDate(), endTime.toLocalDate());
         }
-        
-        return this.reportAccountUtil.generateExcelReport(
-                customer, 
-                accounts, 
-                movementsMap, 
-                accountBalances, 
-                startTime, 
-                endTime);
+        return this.movementService.getAccountSummaries(customerId, startTime, endTime);
+    }
+
+    private static boolean coversWholeDays(LocalDateTime startTime, LocalDateTime endTime) {
+        return startTime.toLocalTime().equals(LocalTime.MIDNIGHT) && !endTime.toLocalTime().isBefore(END_OF_DAY);
+    }
+
+    private Set<Long> accountIds(List<AccountDTO> accounts) {
+        return accounts.stream().map(AccountDTO::getId).collect(Collectors.toSet());
     }
 }
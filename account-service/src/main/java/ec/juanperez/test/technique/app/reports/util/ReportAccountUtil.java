@@ -2,174 +2,284 @@ package ec.juanperez.test.technique.app.reports.util;
 
 import ec.juanperez.test.technique.app.accounts.dto.AccountDTO;
 import ec.juanperez.test.technique.app.dto.CustomerDTO;
+import ec.juanperez.test.technique.app.movements.dto.AccountPeriodSummaryDTO;
 import ec.juanperez.test.technique.app.movements.dto.MovementDTO;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.poi.common.usermodel.HyperlinkType;
+import org.apache.poi.ss.SpreadsheetVersion;
 import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.apache.poi.ss.util.WorkbookUtil;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 @Slf4j
 @Component
 public class ReportAccountUtil {
-    
-    public byte[] generateExcelReport(
+
+    private static final String OVERVIEW_SHEET = "Estado de Cuenta";
+
+    // Anchos fijos (en caracteres): autoSizeColumn necesita todas las filas en memoria
+    private static final int[] COLUMN_WIDTHS = {20, 45, 15, 15, 15};
+    private static final String[] SUMMARY_HEADERS = {"Saldo inicial", "Total créditos", "Total débitos", "Saldo final", "Movimientos"};
+    private static final String[] MOVEMENT_HEADERS = {"Fecha", "Tipo", "Valor", "Saldo"};
+    private static final String[] OVERVIEW_HEADERS = {"Cuenta", "Hoja", "Saldo"};
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+    private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+    // Deja lugar para el sufijo de las hojas de continuación dentro del límite de 31 caracteres
+    private static final int SHEET_BASE_NAME_LENGTH = 24;
+
+    @Value("${reports.excel.row-access-window:100}")
+    private int rowAccessWindow;
+
+    @Value("${reports.excel.max-rows-per-sheet:1000000}")
+    private int maxRowsPerSheet;
+
+    /**
+     * Writes the statement with a streaming workbook: only the last rows of the window stay
+     * in memory, the rest are flushed to a compressed temp file until written to the output.
+     * The first sheet lists the customer, the period and the accounts; each account gets its own
+     * sheet, opening with its summary for the period when {@code summaries} has one, and continues
+     * in a new sheet once {@code reports.excel.max-rows-per-sheet} rows are written.
+     */
+    public void writeExcelReport(
             CustomerDTO customer,
             List<AccountDTO> accounts,
-            Map<String, List<MovementDTO>> movementsMap,
             Map<Long, BigDecimal> accountBalances,
+            Map<Long, AccountPeriodSummaryDTO> summaries,
+            Function<AccountDTO, Stream<MovementDTO>> movementsByAccount,
             LocalDateTime startTime,
-            LocalDateTime endTime) {
-        
-        try (Workbook workbook = new XSSFWorkbook()) {
-            Sheet sheet = workbook.createSheet("Estado de Cuenta");
-            
-            // Estilos
-            CellStyle headerStyle = createHeaderStyle(workbook);
-            CellStyle dataStyle = createDataStyle(workbook);
-            
-            int rowNum = 0;
-            
-            // Información del Cliente
-            rowNum = addCustomerInfo(sheet, customer, headerStyle, dataStyle, rowNum);
-            
-            // Período
-            rowNum = addPeriodInfo(sheet, startTime, endTime, headerStyle, dataStyle, rowNum);
-            
+            LocalDateTime endTime,
+            OutputStream outputStream) {
+
+        SXSSFWorkbook workbook = new SXSSFWorkbook(this.rowAccessWindow);
+        workbook.setCompressTempFiles(true);
+        try {
+            // Un solo juego de estilos para todas las hojas: el libro admite un número limitado de estilos
+            ReportStyles styles = new ReportStyles(workbook);
+            int maxRows = Math.min(this.maxRowsPerSheet, SpreadsheetVersion.EXCEL2007.getMaxRows());
+            Set<String> sheetNames = new HashSet<>();
+            sheetNames.add(OVERVIEW_SHEET.toLowerCase());
+            List<String> accountSheetNames = new ArrayList<>();
+            accounts.forEach(account -> accountSheetNames.add(uniqueSheetName(accountLabel(account), "", sheetNames)));
+
+            addOverview(workbook, customer, accounts, accountSheetNames, accountBalances, startTime, endTime, styles);
+
             // Para cada cuenta
-            for (AccountDTO account : accounts) {
+            for (int i = 0; i < accounts.size(); i++) {
+                AccountDTO account = accounts.get(i);
                 BigDecimal currentBalance = accountBalances.getOrDefault(
-                        account.getId(), 
+                        account.getId(),
                         account.getInitialBalance());
-                
-                rowNum = addAccountSection(
-                        sheet, 
-                        account, 
-                        currentBalance, 
-                        movementsMap, 
-                        headerStyle, 
-                        dataStyle, 
-                        rowNum);
-            }
-            
-            // Ajustar ancho de columnas
-            for (int i = 0; i < 4; i++) {
-                sheet.autoSizeColumn(i);
+
+                try (Stream<MovementDTO> movements = movementsByAccount.apply(account)) {
+                    addAccountSheets(
+                            workbook,
+                            accountSheetNames.get(i),
+                            sheetNames,
+                            account,
+                            currentBalance,
+                            summaries.get(account.getId()),
+                            movements,
+                            styles,
+                            maxRows);
+                }
             }
-            
-            // Escribir a byte array
-            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
             workbook.write(outputStream);
-            return outputStream.toByteArray();
-            
+
         } catch (IOException e) {
             log.error("Error generating Excel report", e);
-            throw new RuntimeException("Error generating Excel report", e);
+            throw new UncheckedIOException("Error generating Excel report", e);
+        } finally {
+            workbook.dispose();
         }
     }
-    
-    private CellStyle createHeaderStyle(Workbook workbook) {
-        CellStyle headerStyle = workbook.createCellStyle();
-        Font headerFont = workbook.createFont();
-        headerFont.setBold(true);
-        headerFont.setFontHeightInPoints((short) 12);
-        headerStyle.setFont(headerFont);
-        headerStyle.setFillForegroundColor(IndexedColors.GREY_25_PERCENT.getIndex());
-        headerStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-        headerStyle.setBorderBottom(BorderStyle.THIN);
-        headerStyle.setBorderTop(BorderStyle.THIN);
-        headerStyle.setBorderLeft(BorderStyle.THIN);
-        headerStyle.setBorderRight(BorderStyle.THIN);
-        return headerStyle;
-    }
-    
-    private CellStyle createDataStyle(Workbook workbook) {
-        CellStyle dataStyle = workbook.createCellStyle();
-        dataStyle.setBorderBottom(BorderStyle.THIN);
-        dataStyle.setBorderTop(BorderStyle.THIN);
-        dataStyle.setBorderLeft(BorderStyle.THIN);
-        dataStyle.setBorderRight(BorderStyle.THIN);
-        return dataStyle;
+
+    private void addOverview(Workbook workbook, CustomerDTO customer, List<AccountDTO> accounts, List<String> accountSheetNames,
+                             Map<Long, BigDecimal> accountBalances, LocalDateTime startTime, LocalDateTime endTime,
+                             ReportStyles styles) {
+        Sheet sheet = createSheet(workbook, OVERVIEW_SHEET);
+        int rowNum = 0;
+
+        // Información del Cliente
+        rowNum = addCustomerInfo(sheet, customer, styles, rowNum);
+
+        // Período
+        rowNum = addPeriodInfo(sheet, startTime, endTime, styles, rowNum);
+
+        // Índice de cuentas, con enlace a la primera hoja de cada una
+        addHeaderRow(sheet.createRow(rowNum++), OVERVIEW_HEADERS, styles.header);
+        CreationHelper creationHelper = workbook.getCreationHelper();
+        for (int i = 0; i < accounts.size(); i++) {
+            AccountDTO account = accounts.get(i);
+            Row row = sheet.createRow(rowNum++);
+            addCell(row, 0, accountLabel(account), styles.data);
+            Cell sheetCell = addCell(row, 1, accountSheetNames.get(i), styles.data);
+            Hyperlink link = creationHelper.createHyperlink(HyperlinkType.DOCUMENT);
+            link.setAddress("'" + accountSheetNames.get(i).replace("'", "''") + "'!A1");
+            sheetCell.setHyperlink(link);
+            addCell(row, 2, accountBalances.getOrDefault(account.getId(), account.getInitialBalance()), styles.amount);
+        }
     }
-    
-    private int addCustomerInfo(Sheet sheet, CustomerDTO customer, CellStyle headerStyle, CellStyle dataStyle, int rowNum) {
+
+    private int addCustomerInfo(Sheet sheet, CustomerDTO customer, ReportStyles styles, int rowNum) {
         Row customerRow = sheet.createRow(rowNum++);
-        Cell customerLabelCell = customerRow.createCell(0);
-        customerLabelCell.setCellValue("Cliente:");
-        customerLabelCell.setCellStyle(headerStyle);
-        Cell customerValueCell = customerRow.createCell(1);
-        customerValueCell.setCellValue(customer.getName());
-        customerValueCell.setCellStyle(dataStyle);
-        
+        addCell(customerRow, 0, "Cliente:", styles.header);
+        addCell(customerRow, 1, customer.getName(), styles.data);
+
         Row identificationRow = sheet.createRow(rowNum++);
-        Cell identificationLabelCell = identificationRow.createCell(0);
-        identificationLabelCell.setCellValue("Identificación:");
-        identificationLabelCell.setCellStyle(headerStyle);
-        Cell identificationValueCell = identificationRow.createCell(1);
-        identificationValueCell.setCellValue(customer.getIdentification());
-        identificationValueCell.setCellStyle(dataStyle);
-        
+        addCell(identificationRow, 0, "Identificación:", styles.header);
+        addCell(identificationRow, 1, customer.getIdentification(), styles.data);
+
         return rowNum + 1; // Espacio
     }
-    
-    private int addPeriodInfo(Sheet sheet, LocalDateTime startTime, LocalDateTime endTime, 
-                             CellStyle headerStyle, CellStyle dataStyle, int rowNum) {
+
+    private int addPeriodInfo(Sheet sheet, LocalDateTime startTime, LocalDateTime endTime, ReportStyles styles, int rowNum) {
         Row periodRow = sheet.createRow(rowNum++);
-        Cell periodLabelCell = periodRow.createCell(0);
-        periodLabelCell.setCellValue("Período:");
-        periodLabelCell.setCellStyle(headerStyle);
-        Cell periodValueCell = periodRow.createCell(1);
-        periodValueCell.setCellValue(startTime.format(DateTimeFormatter.ofPattern("yyyy-MM-dd")) + 
-                " al " + endTime.format(DateTimeFormatter.ofPattern("yyyy-MM-dd")));
-        periodValueCell.setCellStyle(dataStyle);
-        
+        addCell(periodRow, 0, "Período:", styles.header);
+        addCell(periodRow, 1, startTime.format(DATE_FORMATTER) + " al " + endTime.format(DATE_FORMATTER), styles.data);
+
         return rowNum + 1; // Espacio
     }
-    
-    private int addAccountSection(Sheet sheet, AccountDTO account, BigDecimal currentBalance,
-                                 Map<String, List<MovementDTO>> movementsMap,
-                                 CellStyle headerStyle, CellStyle dataStyle, int rowNum) {
+
+    private void addAccountSheets(Workbook workbook, String sheetName, Set<String> sheetNames, AccountDTO account,
+                                  BigDecimal currentBalance, AccountPeriodSummaryDTO summary, Stream<MovementDTO> movements,
+                                  ReportStyles styles, int maxRows) {
+        String accountHeader = "Cuenta: " + account.getNumber() + " - " + account.getAccountType() + " | Saldo: " + currentBalance;
+        Sheet sheet = createSheet(workbook, sheetName);
+        int rowNum = 0;
+
         // Encabezado de cuenta
-        Row accountHeaderRow = sheet.createRow(rowNum++);
-        Cell accountHeaderCell = accountHeaderRow.createCell(0);
-        accountHeaderCell.setCellValue("Cuenta: " + account.getNumber() + " - " + account.getAccountType() + 
-                " | Saldo: " + currentBalance);
-        accountHeaderCell.setCellStyle(headerStyle);
-        
+        addCell(sheet.createRow(rowNum++), 0, accountHeader, styles.header);
+
+        // Resumen del período
+        if (summary != null) {
+            rowNum = addSummary(sheet, summary, styles, rowNum);
+        }
+
         // Encabezados de movimientos
-        Row movementHeaderRow = sheet.createRow(rowNum++);
-        String[] headers = {"Fecha", "Tipo", "Valor", "Saldo"};
+        addHeaderRow(sheet.createRow(rowNum++), MOVEMENT_HEADERS, styles.header);
+
+        // Movimientos de la cuenta: al llegar al límite de filas se continúa en otra hoja con los mismos encabezados
+        int part = 1;
+        Iterator<MovementDTO> iterator = movements.iterator();
+        while (iterator.hasNext()) {
+            if (rowNum >= maxRows) {
+                part++;
+                sheet = createSheet(workbook, uniqueSheetName(accountLabel(account), " (" + part + ")", sheetNames));
+                rowNum = 0;
+                addCell(sheet.createRow(rowNum++), 0, accountHeader + " (continuación)", styles.header);
+                addHeaderRow(sheet.createRow(rowNum++), MOVEMENT_HEADERS, styles.header);
+            }
+            MovementDTO movement = iterator.next();
+            Row movementRow = sheet.createRow(rowNum++);
+            addCell(movementRow, 0, movement.getFechaMovimiento().format(DATE_TIME_FORMATTER), styles.data);
+            addCell(movementRow, 1, movement.getMovementType().name(), styles.data);
+            addCell(movementRow, 2, movement.getValue(), styles.amount);
+            addCell(movementRow, 3, movement.getBalance(), styles.amount);
+        }
+    }
+
+    private int addSummary(Sheet sheet, AccountPeriodSummaryDTO summary, ReportStyles styles, int rowNum) {
+        addHeaderRow(sheet.createRow(rowNum++), SUMMARY_HEADERS, styles.header);
+
+        Row summaryRow = sheet.createRow(rowNum++);
+        addCell(summaryRow, 0, summary.getOpeningBalance(), styles.amount);
+        addCell(summaryRow, 1, summary.getTotalCredits(), styles.amount);
+        addCell(summaryRow, 2, summary.getTotalDebits(), styles.amount);
+        addCell(summaryRow, 3, summary.getClosingBalance(), styles.amount);
+        Cell countCell = summaryRow.createCell(4);
+        countCell.setCellValue(summary.getMovementCount());
+        countCell.setCellStyle(styles.data);
+        return rowNum;
+    }
+
+    private static Sheet createSheet(Workbook workbook, String name) {
+        Sheet sheet = workbook.createSheet(name);
+        for (int i = 0; i < COLUMN_WIDTHS.length; i++) {
+            sheet.setColumnWidth(i, COLUMN_WIDTHS[i] * 256);
+        }
+        return sheet;
+    }
+
+    private static void addHeaderRow(Row row, String[] headers, CellStyle style) {
         for (int i = 0; i < headers.length; i++) {
-            Cell headerCell = movementHeaderRow.createCell(i);
-            headerCell.setCellValue(headers[i]);
-            headerCell.setCellStyle(headerStyle);
+            addCell(row, i, headers[i], style);
         }
-        
-        // Movimientos de la cuenta
-        String accountKey = account.getNumber() + "-" + account.getAccountType();
-        List<MovementDTO> movements = movementsMap.getOrDefault(accountKey, List.of());
-        
-        for (MovementDTO movement : movements) {
-            Row movementRow = sheet.createRow(rowNum++);
-            movementRow.createCell(0).setCellValue(
-                    movement.getFechaMovimiento().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm")));
-            movementRow.createCell(1).setCellValue(movement.getMovementType().toString());
-            movementRow.createCell(2).setCellValue(movement.getValue().doubleValue());
-            movementRow.createCell(3).setCellValue(movement.getBalance().doubleValue());
-            
-            for (int i = 0; i < headers.length; i++) {
-                movementRow.getCell(i).setCellStyle(dataStyle);
-            }
+    }
+
+    private static Cell addCell(Row row, int column, String value, CellStyle style) {
+        Cell cell = row.createCell(column);
+        cell.setCellValue(value);
+        cell.setCellStyle(style);
+        return cell;
+    }
+
+    private static void addCell(Row row, int column, BigDecimal value, CellStyle style) {
+        Cell cell = row.createCell(column);
+        cell.setCellValue(value.doubleValue());
+        cell.setCellStyle(style);
+    }
+
+    private static String accountLabel(AccountDTO account) {
+        return account.getNumber() + " - " + account.getAccountType();
+    }
+
+    private static String uniqueSheetName(String label, String suffix, Set<String> usedNames) {
+        // Los nombres de hoja no distinguen mayúsculas y no admiten algunos caracteres
+        String base = label.length() > SHEET_BASE_NAME_LENGTH ? label.substring(0, SHEET_BASE_NAME_LENGTH) : label;
+        String name = WorkbookUtil.createSafeSheetName(base + suffix);
+        for (int i = 2; !usedNames.add(name.toLowerCase()); i++) {
+            name = WorkbookUtil.createSafeSheetName(base + suffix + " #" + i);
+        }
+        return name;
+    }
+
+    private static final class ReportStyles {
+
+        private final CellStyle header;
+        private final CellStyle data;
+        private final CellStyle amount;
+
+        private ReportStyles(Workbook workbook) {
+            this.header = workbook.createCellStyle();
+            Font headerFont = workbook.createFont();
+            headerFont.setBold(true);
+            headerFont.setFontHeightInPoints((short) 12);
+            this.header.setFont(headerFont);
+            this.header.setFillForegroundColor(IndexedColors.GREY_25_PERCENT.getIndex());
+            this.header.setFillPattern(FillPatternType.SOLID_FOREGROUND);
+            setBorders(this.header);
+
+            this.data = workbook.createCellStyle();
+            setBorders(this.data);
+
+            this.amount = workbook.createCellStyle();
+            this.amount.cloneStyleFrom(this.data);
+            this.amount.setDataFormat(workbook.createDataFormat().getFormat("#,##0.00"));
+        }
+
+        private static void setBorders(CellStyle style) {
+            style.setBorderBottom(BorderStyle.THIN);
+            style.setBorderTop(BorderStyle.THIN);
+            style.setBorderLeft(BorderStyle.THIN);
+            style.setBorderRight(BorderStyle.THIN);
         }
-        
-        return rowNum + 1; // Espacio entre cuentas
     }
 }
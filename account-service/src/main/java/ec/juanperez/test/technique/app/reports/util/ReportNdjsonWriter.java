@@ -0,0 +1,90 @@
+package ec.juanperez.test.technique.app.reports.util;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import ec.juanperez.test.technique.app.accounts.dto.AccountDTO;
+import ec.juanperez.test.technique.app.dto.CustomerDTO;
+import ec.juanperez.test.technique.app.movements.dto.MovementDTO;
+import ec.juanperez.test.technique.app.reports.dto.StatementRecordDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+@RequiredArgsConstructor
+@Component
+public class ReportNdjsonWriter {
+
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Writes the statement as newline-delimited JSON while the movements are read. The movements
+     * must come in the same account order as {@code accounts}; accounts without movements still
+     * get their section record.
+     */
+    public void writeNdjsonReport(
+            CustomerDTO customer,
+            List<AccountDTO> accounts,
+            Map<Long, BigDecimal> accountBalances,
+            Stream<MovementDTO> movements,
+            LocalDateTime startTime,
+            LocalDateTime endTime,
+            OutputStream outputStream) {
+
+        // Sin flush por registro: los bloques se envían cuando se llena el buffer o al cerrar cada sección
+        ObjectWriter writer = this.objectMapper.writerFor(StatementRecordDTO.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        try (JsonGenerator generator = this.objectMapper.getFactory().createGenerator(outputStream)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            this.writeRecord(writer, generator, StatementRecordDTO.header(customer, startTime, endTime));
+            // El encabezado se envía de inmediato, sin esperar a que se llene el buffer del generador
+            generator.flush();
+
+            Iterator<AccountDTO> pendingAccounts = accounts.iterator();
+            AccountDTO current = null;
+            Iterator<MovementDTO> iterator = movements.iterator();
+            while (iterator.hasNext()) {
+                MovementDTO movement = iterator.next();
+                // Se abren las secciones de las cuentas sin movimientos hasta llegar a la cuenta de la fila
+                while (current == null || !current.getId().equals(movement.getAccountId())) {
+                    if (!pendingAccounts.hasNext()) {
+                        throw new IllegalStateException("Movement of account " + movement.getAccountId() + " out of account order");
+                    }
+                    current = pendingAccounts.next();
+                    this.writeAccount(writer, generator, current, accountBalances);
+                }
+                this.writeRecord(writer, generator, StatementRecordDTO.movement(accountKey(current), movement));
+            }
+            while (pendingAccounts.hasNext()) {
+                this.writeAccount(writer, generator, pendingAccounts.next(), accountBalances);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error writing NDJSON report", e);
+        }
+    }
+
+    private void writeAccount(ObjectWriter writer, JsonGenerator generator, AccountDTO account, Map<Long, BigDecimal> accountBalances) throws IOException {
+        this.writeRecord(writer, generator, StatementRecordDTO.account(accountKey(account),
+                accountBalances.getOrDefault(account.getId(), account.getInitialBalance())));
+        generator.flush();
+    }
+
+    private void writeRecord(ObjectWriter writer, JsonGenerator generator, StatementRecordDTO record) throws IOException {
+        writer.writeValue(generator, record);
+        generator.writeRaw('\n');
+    }
+
+    private static String accountKey(AccountDTO account) {
+        return account.getNumber() + "-" + account.getAccountType();
+    }
+}
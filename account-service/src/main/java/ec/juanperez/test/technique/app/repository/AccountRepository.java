@@ -3,11 +3,13 @@ package ec.juanperez.test.technique.app.accounts.repository;
 import ec.juanperez.test.technique.app.accounts.dto.AccountDTO;
 import ec.juanperez.test.technique.app.accounts.model.Account;
 import ec.juanperez.test.technique.app.common.enums.StatusType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -20,7 +22,8 @@ public interface AccountRepository extends JpaRepository<Account, Long> {
     @Query(" select new ec.juanperez.test.technique.app.accounts.dto.AccountDTO( " +
             " a.id, " +
             " a.number, " +
-            " a.accountType " +
+            " a.accountType, " +
+            " a.initialBalance " +
             ") " +
             " from Account a " +
             " where a.customer.id = :customerId " +
@@ -29,6 +32,15 @@ public interface AccountRepository extends JpaRepository<Account, Long> {
     List<AccountDTO> findAllByCustomerIdAndStatus(@Param("customerId") Long customerId, 
                                                   @Param("status") StatusType status);
 
+    @Query(" select a.id from Account a where a.id > :afterId order by a.id ")
+    List<Long> findIdsAfter(@Param("afterId") Long afterId, Limit limit);
+
+    @Query(" select a.id from Account a where a.customer.id = :customerId ")
+    List<Long> findIdsByCustomerId(@Param("customerId") Long customerId);
+
+    @Query(" select a.id from Account a where a.customer.id in :customerIds ")
+    List<Long> findIdsByCustomerIds(@Param("customerIds") Collection<Long> customerIds);
+
     @Query(" select a from Account a join fetch a.customer where a.id = :id ")
     Optional<Account> findByIdWithCustomer(@Param("id") Long id);
 }
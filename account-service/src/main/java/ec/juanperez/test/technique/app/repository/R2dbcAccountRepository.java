@@ -0,0 +1,53 @@
+package ec.juanperez.test.technique.app.accounts.repository;
+
+import ec.juanperez.test.technique.app.accounts.dto.AccountDTO;
+import ec.juanperez.test.technique.app.accounts.enums.AccountType;
+import ec.juanperez.test.technique.app.common.enums.StatusType;
+import ec.juanperez.test.technique.config.R2dbcConfig;
+import io.r2dbc.spi.Readable;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+
+@Repository
+@Profile(R2dbcConfig.PROFILE)
+@RequiredArgsConstructor
+public class R2dbcAccountRepository {
+
+    private static final String SELECT_WITH_CUSTOMER = "SELECT a.id_cuenta, a.numero_cuenta, a.tipo_cuenta, a.saldo_inicial, " +
+            "a.estado, a.id_cliente, c.nombre " +
+            "FROM cuenta a " +
+            "JOIN customer_reference c ON c.id_cliente = a.id_cliente ";
+
+    private final DatabaseClient databaseClient;
+
+    public Mono<AccountDTO> findByIdWithCustomer(Long id) {
+        return this.databaseClient.sql(SELECT_WITH_CUSTOMER + "WHERE a.id_cuenta = :id")
+                .bind("id", id)
+                .map(this::toDto)
+                .one();
+    }
+
+    public Flux<AccountDTO> findAllByStatus(StatusType status) {
+        return this.databaseClient.sql(SELECT_WITH_CUSTOMER + "WHERE a.estado = :status")
+                .bind("status", status.name())
+                .map(this::toDto)
+                .all();
+    }
+
+    private AccountDTO toDto(Readable row) {
+        return new AccountDTO(
+                row.get("id_cuenta", Long.class),
+                row.get("numero_cuenta", String.class),
+                AccountType.valueOf(row.get("tipo_cuenta", String.class)),
+                row.get("saldo_inicial", BigDecimal.class),
+                StatusType.valueOf(row.get("estado", String.class)),
+                row.get("id_cliente", Long.class),
+                row.get("nombre", String.class));
+    }
+}
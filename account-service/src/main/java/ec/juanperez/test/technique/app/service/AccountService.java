@@ -2,6 +2,7 @@ package ec.juanperez.test.technique.app.accounts.service;
 
 import ec.juanperez.test.technique.app.accounts.dto.AccountDTO;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -13,4 +14,6 @@ public interface AccountService {
     List<AccountDTO> findAll();
     void delete(Long id);
     List<AccountDTO> findAllByCustomerId(Long customerId);
+    void evictByCustomerId(Long customerId);
+    void evictByCustomerIds(Collection<Long> customerIds);
 }
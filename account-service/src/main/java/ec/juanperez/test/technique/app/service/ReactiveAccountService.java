@@ -0,0 +1,11 @@
+package ec.juanperez.test.technique.app.accounts.service;
+
+import ec.juanperez.test.technique.app.accounts.dto.AccountDTO;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveAccountService {
+
+    Mono<AccountDTO> findById(Long id);
+    Flux<AccountDTO> findAll();
+}
@@ -0,0 +1,23 @@
+package ec.juanperez.test.technique.app.accounts.service.impl;
+
+import ec.juanperez.test.technique.app.accounts.event.CustomersChangedEvent;
+import ec.juanperez.test.technique.app.accounts.service.AccountService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Evicts the cached accounts of changed customers once the change commits.
+ */
+@RequiredArgsConstructor
+@Component
+public class AccountCacheEvictionListener {
+
+    private final AccountService accountService;
+
+    // Antes del commit, una lectura concurrente podría volver a guardar el estado anterior hasta que venza el TTL
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCustomersChanged(CustomersChangedEvent event) {
+        this.accountService.evictByCustomerIds(event.customerIds());
+    }
+}
@@ -10,12 +10,20 @@ import ec.juanperez.test.technique.app.accounts.service.AccountService;
 import ec.juanperez.test.technique.app.common.enums.StatusType;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
+import static ec.juanperez.test.technique.config.CacheConfig.ACCOUNTS_CACHE;
+import static ec.juanperez.test.technique.config.CacheConfig.CUSTOMER_ACCOUNTS_CACHE;
+
 @Slf4j
 @RequiredArgsConstructor
 @Service
@@ -23,15 +31,21 @@ public class AccountServiceImpl implements AccountService {
 
     private final AccountRepository repository;
     private final AccountMapper mapper;
+    private final CacheManager cacheManager;
 
     @Override
+    @CacheEvict(cacheNames = CUSTOMER_ACCOUNTS_CACHE, key = "#accountDTO.customerId", condition = "#accountDTO.customerId != null")
     public AccountDTO create(AccountDTO accountDTO) {
         return this.save(accountDTO);
     }
 
     @Override
+    @Caching(evict = {
+            @CacheEvict(cacheNames = ACCOUNTS_CACHE, key = "#accountId"),
+            @CacheEvict(cacheNames = CUSTOMER_ACCOUNTS_CACHE, allEntries = true)
+    })
     public AccountDTO update(Long accountId, AccountDTO accountDTO) {
-        Optional<AccountDTO> optionalAccountDTO = this.findById(accountId);
+        Optional<AccountDTO> optionalAccountDTO = this.loadById(accountId);
         if (optionalAccountDTO.isEmpty()) {
             log.error("Account not found with id: {}", accountId);
             throw new AccountNotFoundException(accountId);
@@ -48,8 +62,18 @@ public class AccountServiceImpl implements AccountService {
 
     @Override
     public Optional<AccountDTO> findById(Long id) {
-        Optional<Account> optionalAccount = this.repository.findByIdWithCustomer(id);
-        return optionalAccount.map(this.mapper::toDto);
+        // El caché guarda su propia copia y entrega otra: quien recibe la cuenta puede modificarla sin
+        // alterar la que ven los demás
+        Cache cache = this.cacheManager.getCache(ACCOUNTS_CACHE);
+        AccountDTO cached = cache == null ? null : cache.get(id, AccountDTO.class);
+        if (cached != null) {
+            return Optional.of(cached.copy());
+        }
+        Optional<AccountDTO> loaded = this.loadById(id);
+        if (cache != null) {
+            loaded.ifPresent(accountDTO -> cache.put(id, accountDTO.copy()));
+        }
+        return loaded;
     }
 
     @Override
@@ -60,8 +84,12 @@ public class AccountServiceImpl implements AccountService {
     }
 
     @Override
+    @Caching(evict = {
+            @CacheEvict(cacheNames = ACCOUNTS_CACHE, key = "#id"),
+            @CacheEvict(cacheNames = CUSTOMER_ACCOUNTS_CACHE, allEntries = true)
+    })
     public void delete(Long id) {
-        Optional<AccountDTO> optionalAccountDTO = this.findById(id);
+        Optional<AccountDTO> optionalAccountDTO = this.loadById(id);
         if (optionalAccountDTO.isEmpty()) {
             log.error("Account not found with id: {}", id);
             throw new AccountNotFoundException(id);
@@ -73,7 +101,52 @@ public class AccountServiceImpl implements AccountService {
 
     @Override
     public List<AccountDTO> findAllByCustomerId(Long customerId) {
-        return this.repository.findAllByCustomerIdAndStatus(customerId, StatusType.ACTIVE);
+        Cache cache = this.cacheManager.getCache(CUSTOMER_ACCOUNTS_CACHE);
+        Cache.ValueWrapper cached = cache == null ? null : cache.get(customerId);
+        if (cached != null && cached.get() instanceof List<?> accounts) {
+            return accounts.stream()
+                    .map(account -> ((AccountDTO) account).copy())
+                    .collect(Collectors.toList());
+        }
+        List<AccountDTO> loaded = this.repository.findAllByCustomerIdAndStatus(customerId, StatusType.ACTIVE);
+        if (cache != null) {
+            cache.put(customerId, loaded.stream().map(AccountDTO::copy).toList());
+        }
+        return loaded;
+    }
+
+    @Override
+    public void evictByCustomerId(Long customerId) {
+        Cache accountsCache = this.cacheManager.getCache(ACCOUNTS_CACHE);
+        if (accountsCache != null) {
+            this.repository.findIdsByCustomerId(customerId).forEach(accountsCache::evict);
+        }
+        Cache customerAccountsCache = this.cacheManager.getCache(CUSTOMER_ACCOUNTS_CACHE);
+        if (customerAccountsCache != null) {
+            customerAccountsCache.evict(customerId);
+        }
+        log.debug("Account cache evicted for customer id: {}", customerId);
+    }
+
+    @Override
+    public void evictByCustomerIds(Collection<Long> customerIds) {
+        if (customerIds.isEmpty()) {
+            return;
+        }
+        // Las cuentas de todo el lote de clientes se buscan en una sola consulta
+        Cache accountsCache = this.cacheManager.getCache(ACCOUNTS_CACHE);
+        if (accountsCache != null) {
+            this.repository.findIdsByCustomerIds(customerIds).forEach(accountsCache::evict);
+        }
+        Cache customerAccountsCache = this.cacheManager.getCache(CUSTOMER_ACCOUNTS_CACHE);
+        if (customerAccountsCache != null) {
+            customerIds.forEach(customerAccountsCache::evict);
+        }
+        log.debug("Account cache evicted for {} customers", customerIds.size());
+    }
+
+    private Optional<AccountDTO> loadById(Long id) {
+        return this.repository.findByIdWithCustomer(id).map(this.mapper::toDto);
     }
 
     private AccountDTO save(AccountDTO accountDTO){
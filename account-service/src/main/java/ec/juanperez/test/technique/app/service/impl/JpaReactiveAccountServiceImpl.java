@@ -0,0 +1,34 @@
+package ec.juanperez.test.technique.app.accounts.service.impl;
+
+import ec.juanperez.test.technique.app.accounts.dto.AccountDTO;
+import ec.juanperez.test.technique.app.accounts.service.AccountService;
+import ec.juanperez.test.technique.app.accounts.service.ReactiveAccountService;
+import ec.juanperez.test.technique.app.common.reactive.BlockingScheduler;
+import ec.juanperez.test.technique.config.R2dbcConfig;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Implementación por defecto: expone el servicio JPA bloqueante como Mono/Flux
+@RequiredArgsConstructor
+@Service
+@Profile("!" + R2dbcConfig.PROFILE)
+public class JpaReactiveAccountServiceImpl implements ReactiveAccountService {
+
+    private final AccountService service;
+    private final BlockingScheduler blockingScheduler;
+
+    @Override
+    public Mono<AccountDTO> findById(Long id) {
+        return this.blockingScheduler.fromCallable(() -> this.service.findById(id))
+                .flatMap(Mono::justOrEmpty);
+    }
+
+    @Override
+    public Flux<AccountDTO> findAll() {
+        return this.blockingScheduler.fromCallable(this.service::findAll)
+                .flatMapMany(Flux::fromIterable);
+    }
+}
@@ -0,0 +1,30 @@
+package ec.juanperez.test.technique.app.accounts.service.impl;
+
+import ec.juanperez.test.technique.app.accounts.dto.AccountDTO;
+import ec.juanperez.test.technique.app.accounts.repository.R2dbcAccountRepository;
+import ec.juanperez.test.technique.app.accounts.service.ReactiveAccountService;
+import ec.juanperez.test.technique.app.common.enums.StatusType;
+import ec.juanperez.test.technique.config.R2dbcConfig;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@RequiredArgsConstructor
+@Service
+@Profile(R2dbcConfig.PROFILE)
+public class R2dbcAccountServiceImpl implements ReactiveAccountService {
+
+    private final R2dbcAccountRepository repository;
+
+    @Override
+    public Mono<AccountDTO> findById(Long id) {
+        return this.repository.findByIdWithCustomer(id);
+    }
+
+    @Override
+    public Flux<AccountDTO> findAll() {
+        return this.repository.findAllByStatus(StatusType.ACTIVE);
+    }
+}
@@ -0,0 +1,14 @@
+package ec.juanperez.test.technique.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+// Caffeine con tamaño máximo y TTL definidos en spring.cache.caffeine.spec; las métricas
+// de aciertos/fallos se publican como cache.gets a través de actuator
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String ACCOUNTS_CACHE = "accounts";
+    public static final String CUSTOMER_ACCOUNTS_CACHE = "customerAccounts";
+}
@@ -1,8 +1,6 @@
 package ec.juanperez.test.technique.config;
 
-import ec.juanperez.test.technique.events.CustomerCreatedEvent;
-import ec.juanperez.test.technique.events.CustomerDeletedEvent;
-import ec.juanperez.test.technique.events.CustomerUpdatedEvent;
+import ec.juanperez.test.technique.events.CustomerEvent;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.springframework.beans.factory.annotation.Value;
@@ -11,6 +9,7 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.ConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
 import org.springframework.kafka.support.serializer.JsonDeserializer;
 
 import java.util.HashMap;
@@ -22,58 +21,35 @@ public class KafkaConfig {
     @Value("${spring.kafka.bootstrap-servers}")
     private String bootstrapServers;
 
-    @Bean
-    public ConsumerFactory<String, CustomerCreatedEvent> customerCreatedConsumerFactory() {
-        Map<String, Object> props = new HashMap<>();
-        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
-        props.put(ConsumerConfig.GROUP_ID_CONFIG, "account-service-group");
-        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "latest");
-        JsonDeserializer<CustomerCreatedEvent> deserializer = new JsonDeserializer<>(CustomerCreatedEvent.class, false);
-        deserializer.addTrustedPackages("*");
-        return new DefaultKafkaConsumerFactory<>(props, new StringDeserializer(), deserializer);
-    }
+    @Value("${customers.sync.max-poll-records:500}")
+    private int maxPollRecords;
 
-    @Bean
-    public ConcurrentKafkaListenerContainerFactory<String, CustomerCreatedEvent> customerCreatedKafkaListenerContainerFactory() {
-        ConcurrentKafkaListenerContainerFactory<String, CustomerCreatedEvent> factory = new ConcurrentKafkaListenerContainerFactory<>();
-        factory.setConsumerFactory(customerCreatedConsumerFactory());
-        return factory;
-    }
+    @Value("${customers.events.partitions:3}")
+    private int partitions;
 
     @Bean
-    public ConsumerFactory<String, CustomerUpdatedEvent> customerUpdatedConsumerFactory() {
+    public ConsumerFactory<String, CustomerEvent> customerEventsConsumerFactory() {
         Map<String, Object> props = new HashMap<>();
         props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         props.put(ConsumerConfig.GROUP_ID_CONFIG, "account-service-group");
-        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "latest");
-        JsonDeserializer<CustomerUpdatedEvent> deserializer = new JsonDeserializer<>(CustomerUpdatedEvent.class, false);
+        // Un grupo sin offsets lee el topic compactado desde el inicio: los upserts son idempotentes y así
+        // no se pierden los clientes publicados antes del primer arranque o tras expirar los offsets
+        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, maxPollRecords);
+        JsonDeserializer<CustomerEvent> deserializer = new JsonDeserializer<>(CustomerEvent.class, false);
         deserializer.addTrustedPackages("*");
-        return new DefaultKafkaConsumerFactory<>(props, new StringDeserializer(), deserializer);
+        // Un registro que no se puede deserializar llega como null al lote en vez de fallar el poll entero
+        return new DefaultKafkaConsumerFactory<>(props, new StringDeserializer(), new ErrorHandlingDeserializer<>(deserializer));
     }
 
     @Bean
-    public ConcurrentKafkaListenerContainerFactory<String, CustomerUpdatedEvent> customerUpdatedKafkaListenerContainerFactory() {
-        ConcurrentKafkaListenerContainerFactory<String, CustomerUpdatedEvent> factory = new ConcurrentKafkaListenerContainerFactory<>();
-        factory.setConsumerFactory(customerUpdatedConsumerFactory());
-        return factory;
-    }
-
-    @Bean
-    public ConsumerFactory<String, CustomerDeletedEvent> customerDeletedConsumerFactory() {
-        Map<String, Object> props = new HashMap<>();
-        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
-        props.put(ConsumerConfig.GROUP_ID_CONFIG, "account-service-group");
-        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "latest");
-        JsonDeserializer<CustomerDeletedEvent> deserializer = new JsonDeserializer<>(CustomerDeletedEvent.class, false);
-        deserializer.addTrustedPackages("*");
-        return new DefaultKafkaConsumerFactory<>(props, new StringDeserializer(), deserializer);
-    }
-
-    @Bean
-    public ConcurrentKafkaListenerContainerFactory<String, CustomerDeletedEvent> customerDeletedKafkaListenerContainerFactory() {
-        ConcurrentKafkaListenerContainerFactory<String, CustomerDeletedEvent> factory = new ConcurrentKafkaListenerContainerFactory<>();
-        factory.setConsumerFactory(customerDeletedConsumerFactory());
+    public ConcurrentKafkaListenerContainerFactory<String, CustomerEvent> customerEventsKafkaListenerContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, CustomerEvent> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(customerEventsConsumerFactory());
+        // Cada llamada al listener recibe el lote completo de un poll
+        factory.setBatchListener(true);
+        // Un hilo por partición: los eventos de un cliente están en una sola partición y se aplican en orden
+        factory.setConcurrency(partitions);
         return factory;
     }
 }
-
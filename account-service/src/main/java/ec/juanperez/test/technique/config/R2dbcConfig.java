@@ -0,0 +1,55 @@
+package ec.juanperez.test.technique.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.r2dbc.spi.ConnectionFactory;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+// Con el perfil r2dbc conviven los dos accesos a datos. Spring Boot omite el DataSource cuando
+// existe un ConnectionFactory, por eso el pool de Hikari se declara aquí con spring.datasource.*.
+// JPA sigue siendo el transaction manager principal para los servicios con @Transactional y
+// R2DBC se usa explícitamente mediante TransactionalOperator
+@Configuration
+@Profile(R2dbcConfig.PROFILE)
+public class R2dbcConfig {
+
+    public static final String PROFILE = "r2dbc";
+
+    @Bean
+    @Primary
+    @ConfigurationProperties("spring.datasource")
+    public DataSourceProperties dataSourceProperties() {
+        return new DataSourceProperties();
+    }
+
+    @Bean
+    @Primary
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource dataSource(DataSourceProperties dataSourceProperties) {
+        return dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    @Primary
+    public JpaTransactionManager transactionManager(EntityManagerFactory entityManagerFactory) {
+        return new JpaTransactionManager(entityManagerFactory);
+    }
+
+    @Bean
+    public R2dbcTransactionManager r2dbcTransactionManager(ConnectionFactory connectionFactory) {
+        return new R2dbcTransactionManager(connectionFactory);
+    }
+
+    @Bean
+    public TransactionalOperator r2dbcTransactionalOperator(R2dbcTransactionManager r2dbcTransactionManager) {
+        return TransactionalOperator.create(r2dbcTransactionManager);
+    }
+}
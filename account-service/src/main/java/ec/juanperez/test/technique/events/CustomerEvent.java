@@ -0,0 +1,26 @@
+package ec.juanperez.test.technique.events;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * Envelope of every change to a customer, published to {@link #TOPIC} with the customer id as key:
+ * the events of one customer stay in one partition and in order. Each event carries the full customer
+ * state, so the compacted topic only needs to keep the latest one per customer.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerEvent implements Serializable {
+
+    public static final String TOPIC = "customer-events";
+
+    private CustomerEventType type;
+    private Long customerId;
+    private String name;
+    private String identification;
+    private String status;
+}
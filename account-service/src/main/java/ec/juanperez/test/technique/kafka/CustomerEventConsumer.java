@@ -1,71 +1,104 @@
 package ec.juanperez.test.technique.kafka;
 
-import ec.juanperez.test.technique.events.CustomerCreatedEvent;
-import ec.juanperez.test.technique.events.CustomerDeletedEvent;
-import ec.juanperez.test.technique.events.CustomerUpdatedEvent;
+import ec.juanperez.test.technique.app.accounts.event.CustomersChangedEvent;
+import ec.juanperez.test.technique.events.CustomerEvent;
+import ec.juanperez.test.technique.events.CustomerEventType;
 import ec.juanperez.test.technique.model.CustomerReference;
 import ec.juanperez.test.technique.repository.CustomerReferenceRepository;
 import ec.juanperez.test.technique.app.common.enums.StatusType;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Keeps CUSTOMER_REFERENCE in sync with customer-service. Each call receives a polled batch of the
+ * customer-events topic, folds the events of each customer in the order they were published and
+ * writes the result in one transaction. An invalid event is logged and skipped on its own, so it
+ * cannot fail the rest of the batch and block the partition.
+ */
 @Slf4j
 @RequiredArgsConstructor
 @Service
 public class CustomerEventConsumer {
 
     private final CustomerReferenceRepository customerReferenceRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
-    @KafkaListener(topics = "customer-created", groupId = "account-service-group", containerFactory = "customerCreatedKafkaListenerContainerFactory")
+    @KafkaListener(topics = CustomerEvent.TOPIC, groupId = "account-service-group", containerFactory = "customerEventsKafkaListenerContainerFactory")
     @Transactional
-    public void consumeCustomerCreated(CustomerCreatedEvent event) {
-        log.info("Received CustomerCreatedEvent for customer ID: {}", event.getCustomerId());
-        
-        CustomerReference customerRef = new CustomerReference();
-        customerRef.setId(event.getCustomerId());
-        customerRef.setName(event.getName());
-        customerRef.setIdentification(event.getIdentification());
-        customerRef.setStatus(StatusType.valueOf(event.getStatus()));
-        
-        customerReferenceRepository.save(customerRef);
-        log.info("CustomerReference created for customer ID: {}", event.getCustomerId());
+    public void consume(List<CustomerEvent> events) {
+        log.info("Received {} CustomerEvent", events.size());
+
+        // Clientes con estado completo (se insertan o sobrescriben) y bajas sin estado completo;
+        // cada cliente queda en uno solo de los dos grupos
+        Map<Long, CustomerReference> upserts = new LinkedHashMap<>();
+        Set<Long> deletes = new LinkedHashSet<>();
+        // Un registro que no se pudo deserializar llega como null y se descarta
+        events.stream()
+                .filter(Objects::nonNull)
+                .forEach(event -> fold(event, upserts, deletes));
+
+        int upserted = customerReferenceRepository.upsertAll(upserts.values());
+        int deleted = deletes.isEmpty() ? 0 : customerReferenceRepository.updateStatusByIds(deletes, StatusType.DELETED);
+        if (deleted < deletes.size()) {
+            log.warn("CustomerReference not found for {} of {} deleted customers", deletes.size() - deleted, deletes.size());
+        }
+
+        Set<Long> customerIds = new LinkedHashSet<>(upserts.keySet());
+        customerIds.addAll(deletes);
+        // El caché de cuentas se limpia al confirmar el lote, no dentro de la transacción
+        eventPublisher.publishEvent(new CustomersChangedEvent(customerIds));
+        log.info("CustomerReference synced: {} upserted, {} deleted", upserted, deleted);
     }
 
-    @KafkaListener(topics = "customer-updated", groupId = "account-service-group", containerFactory = "customerUpdatedKafkaListenerContainerFactory")
-    @Transactional
-    public void consumeCustomerUpdated(CustomerUpdatedEvent event) {
-        log.info("Received CustomerUpdatedEvent for customer ID: {}", event.getCustomerId());
-        
-        customerReferenceRepository.findById(event.getCustomerId())
-                .ifPresentOrElse(
-                        customerRef -> {
-                            customerRef.setName(event.getName());
-                            customerRef.setIdentification(event.getIdentification());
-                            customerRef.setStatus(StatusType.valueOf(event.getStatus()));
-                            customerReferenceRepository.save(customerRef);
-                            log.info("CustomerReference updated for customer ID: {}", event.getCustomerId());
-                        },
-                        () -> log.warn("CustomerReference not found for customer ID: {}", event.getCustomerId())
-                );
+    private static void fold(CustomerEvent event, Map<Long, CustomerReference> upserts, Set<Long> deletes) {
+        Long customerId = event.getCustomerId();
+        StatusType status = statusOf(event);
+        if (customerId == null || status == null) {
+            // Un evento inválido se descarta solo: reintentar el lote no lo arreglaría y bloquearía la partición
+            log.warn("Skipping invalid CustomerEvent: type {}, customer ID {}, status {}",
+                    event.getType(), customerId, event.getStatus());
+            return;
+        }
+
+        if (event.getName() == null) {
+            // Baja sin estado completo: se aplica sobre lo que el lote ya tenga del cliente
+            CustomerReference pending = upserts.get(customerId);
+            if (pending != null) {
+                pending.setStatus(status);
+            } else {
+                deletes.add(customerId);
+            }
+            return;
+        }
+
+        // Cada evento trae el estado completo del cliente: con el topic compactado el único registro de un
+        // cliente puede ser UPDATED o DELETED, así que también esos se insertan si el cliente no existe
+        deletes.remove(customerId);
+        upserts.put(customerId, new CustomerReference(customerId, event.getName(), event.getIdentification(), status));
     }
 
-    @KafkaListener(topics = "customer-deleted", groupId = "account-service-group", containerFactory = "customerDeletedKafkaListenerContainerFactory")
-    @Transactional
-    public void consumeCustomerDeleted(CustomerDeletedEvent event) {
-        log.info("Received CustomerDeletedEvent for customer ID: {}", event.getCustomerId());
-        
-        customerReferenceRepository.findById(event.getCustomerId())
-                .ifPresentOrElse(
-                        customerRef -> {
-                            customerRef.setStatus(StatusType.DELETED);
-                            customerReferenceRepository.save(customerRef);
-                            log.info("CustomerReference marked as deleted for customer ID: {}", event.getCustomerId());
-                        },
-                        () -> log.warn("CustomerReference not found for customer ID: {}", event.getCustomerId())
-                );
+    private static StatusType statusOf(CustomerEvent event) {
+        if (event.getType() == CustomerEventType.DELETED) {
+            return StatusType.DELETED;
+        }
+        if (event.getType() == null || event.getStatus() == null) {
+            return null;
+        }
+        try {
+            return StatusType.valueOf(event.getStatus());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
     }
 }
-
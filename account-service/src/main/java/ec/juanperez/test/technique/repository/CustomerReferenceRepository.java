@@ -1,10 +1,28 @@
 package ec.juanperez.test.technique.repository;
 
+import ec.juanperez.test.technique.app.common.enums.StatusType;
 import ec.juanperez.test.technique.model.CustomerReference;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
-public interface CustomerReferenceRepository extends JpaRepository<CustomerReference, Long> {
-}
+public interface CustomerReferenceRepository extends JpaRepository<CustomerReference, Long>, CustomerReferenceRepositoryCustom {
 
+    // Paginación por clave: el siguiente bloque empieza después del último id leído
+    @Query(" select c from CustomerReference c where c.status = :status and c.id > :afterId order by c.id ")
+    List<CustomerReference> findByStatusAfterId(@Param("status") StatusType status,
+                                                @Param("afterId") Long afterId,
+                                                Limit limit);
+
+    // Bajas del lote en una sola sentencia; los clientes que no existen no se tocan
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(" update CustomerReference c set c.status = :status where c.id in :ids ")
+    int updateStatusByIds(@Param("ids") Collection<Long> ids, @Param("status") StatusType status);
+}
@@ -0,0 +1,14 @@
+package ec.juanperez.test.technique.repository;
+
+import ec.juanperez.test.technique.model.CustomerReference;
+
+import java.util.Collection;
+
+public interface CustomerReferenceRepositoryCustom {
+
+    /**
+     * Inserts the customers or overwrites the existing ones with a multi-row INSERT ... ON CONFLICT.
+     * Returns the number of rows written.
+     */
+    int upsertAll(Collection<CustomerReference> customers);
+}
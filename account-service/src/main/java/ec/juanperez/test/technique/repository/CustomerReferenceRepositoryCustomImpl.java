@@ -0,0 +1,62 @@
+package ec.juanperez.test.technique.repository;
+
+import ec.juanperez.test.technique.model.CustomerReference;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.StringJoiner;
+
+public class CustomerReferenceRepositoryCustomImpl implements CustomerReferenceRepositoryCustom {
+
+    // Filas por sentencia: 4 parámetros por fila, lejos del límite de 65535 de PostgreSQL
+    private static final int ROWS_PER_STATEMENT = 1000;
+
+    private static final String ON_CONFLICT = " on conflict (id_cliente) do update set " +
+            "nombre = excluded.nombre, identificacion = excluded.identificacion, estado = excluded.estado";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public int upsertAll(Collection<CustomerReference> customers) {
+        if (customers.isEmpty()) {
+            return 0;
+        }
+        List<CustomerReference> rows = new ArrayList<>(customers);
+        // Igual que @Modifying(flushAutomatically, clearAutomatically): la sentencia nativa no pasa por el contexto de persistencia
+        this.entityManager.flush();
+        int written = 0;
+        for (int from = 0; from < rows.size(); from += ROWS_PER_STATEMENT) {
+            List<CustomerReference> chunk = rows.subList(from, Math.min(from + ROWS_PER_STATEMENT, rows.size()));
+            written += this.statement(chunk).executeUpdate();
+        }
+        this.entityManager.clear();
+        return written;
+    }
+
+    private Query statement(List<CustomerReference> chunk) {
+        StringJoiner values = new StringJoiner(", ");
+        for (int i = 0; i < chunk.size(); i++) {
+            int first = i * 4 + 1;
+            values.add("(cast(?" + first + " as bigint), ?" + (first + 1) + ", ?" + (first + 2) + ", ?" + (first + 3) + ")");
+        }
+        String sql = "insert into customer_reference (id_cliente, nombre, identificacion, estado) " +
+                "select v.id_cliente, v.nombre, v.identificacion, v.estado " +
+                "from (values " + values + ") as v (id_cliente, nombre, identificacion, estado)" +
+                ON_CONFLICT;
+        Query query = this.entityManager.createNativeQuery(sql);
+        for (int i = 0; i < chunk.size(); i++) {
+            CustomerReference customer = chunk.get(i);
+            int first = i * 4 + 1;
+            query.setParameter(first, customer.getId());
+            query.setParameter(first + 1, customer.getName());
+            query.setParameter(first + 2, customer.getIdentification());
+            query.setParameter(first + 3, customer.getStatus().name());
+        }
+        return query;
+    }
+}
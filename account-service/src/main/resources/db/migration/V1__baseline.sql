@@ -0,0 +1,47 @@
+/*==============================================================*/
+/* Baseline: account-service objects as created by              */
+/* databases/create_db/2.create_tables.sql. Databases created   */
+/* with those scripts are marked as baseline and skip this file */
+/*==============================================================*/
+
+create sequence if not exists SEQ_CUENTA
+increment 1
+minvalue 1
+start 1;
+
+/* V8 raises the increment to the allocationSize of the pooled id generator in Movements */
+create sequence if not exists SEQ_MOVIMIENTOS
+increment 1
+minvalue 1
+start 1;
+
+create table if not exists CUSTOMER_REFERENCE (
+   ID_CLIENTE            BIGINT                 not null,
+   NOMBRE                varchar(300)           not null,
+   IDENTIFICACION        varchar(50)            not null,
+   ESTADO                varchar(50)            not null,
+   constraint PK_CUSTOMER_REFERENCE primary key (ID_CLIENTE)
+);
+
+create table if not exists CUENTA (
+   ID_CUENTA            BIGINT              not null default nextval('SEQ_CUENTA'),
+   ID_CLIENTE           BIGINT              not null,
+   NUMERO_CUENTA        varchar(50)         not null,
+   TIPO_CUENTA          varchar(50)         not null,
+   SALDO_INICIAL        numeric(18,2)       not null,
+   ESTADO               varchar(50)         not null,
+   constraint PK_CUENTA primary key (ID_CUENTA),
+   constraint CUENTA_UNIQUE unique (NUMERO_CUENTA)
+);
+
+create table if not exists MOVIMIENTOS (
+   ID_MOVIMIENTO            BIGINT                  not null default nextval('SEQ_MOVIMIENTOS'),
+   ID_CUENTA                BIGINT                  not null,
+   TIPO_MOVIMIENTO          varchar(50)             not null,
+   VALOR                    numeric(18,2)           not null,
+   FECHA_MOVIMIENTO         timestamp               not null,
+   SALDO                    numeric(18,2)           not null,
+   constraint PK_MOVIMIENTOS primary key (ID_MOVIMIENTO),
+   constraint FK_MOVIMIENTOS_CUENTA foreign key (ID_CUENTA)
+      references CUENTA (ID_CUENTA) on delete restrict on update restrict
+);
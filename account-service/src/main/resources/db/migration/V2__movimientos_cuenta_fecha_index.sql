@@ -0,0 +1,6 @@
+/*==============================================================*/
+/* Statement queries filter by account and date range, and the  */
+/* last balance lookup sorts by date within an account          */
+/*==============================================================*/
+
+create index if not exists IX_MOVIMIENTOS_CUENTA_FECHA on MOVIMIENTOS (ID_CUENTA, FECHA_MOVIMIENTO);
@@ -0,0 +1,66 @@
+/*==============================================================*/
+/* MOVIMIENTOS becomes range partitioned by month on            */
+/* FECHA_MOVIMIENTO. The primary key must include the partition */
+/* column; ID_MOVIMIENTO stays unique through SEQ_MOVIMIENTOS   */
+/*==============================================================*/
+
+alter table MOVIMIENTOS rename to MOVIMIENTOS_ANTERIOR;
+alter table MOVIMIENTOS_ANTERIOR rename constraint PK_MOVIMIENTOS to PK_MOVIMIENTOS_ANTERIOR;
+alter index IX_MOVIMIENTOS_CUENTA_FECHA rename to IX_MOVIMIENTOS_ANTERIOR_CUENTA_FECHA;
+
+create table MOVIMIENTOS (
+   ID_MOVIMIENTO            BIGINT                  not null default nextval('SEQ_MOVIMIENTOS'),
+   ID_CUENTA                BIGINT                  not null,
+   TIPO_MOVIMIENTO          varchar(50)             not null,
+   VALOR                    numeric(18,2)           not null,
+   FECHA_MOVIMIENTO         timestamp               not null,
+   SALDO                    numeric(18,2)           not null,
+   constraint PK_MOVIMIENTOS primary key (ID_MOVIMIENTO, FECHA_MOVIMIENTO)
+) partition by range (FECHA_MOVIMIENTO);
+
+alter table MOVIMIENTOS add constraint FK_MOVIMIENTOS_CUENTA foreign key (ID_CUENTA)
+      references CUENTA (ID_CUENTA) on delete restrict on update restrict;
+
+create index IX_MOVIMIENTOS_CUENTA_FECHA on MOVIMIENTOS (ID_CUENTA, FECHA_MOVIMIENTO);
+
+/* Catches rows outside the monthly partitions; it stays empty   */
+/* as long as future partitions are created ahead of time        */
+create table MOVIMIENTOS_DEFAULT partition of MOVIMIENTOS default;
+
+/*==============================================================*/
+/* Creates the missing monthly partitions from the month of     */
+/* P_DESDE up to P_MESES_ADELANTE months after the current one. */
+/* Returns the number of partitions created                     */
+/*==============================================================*/
+create or replace function CREAR_PARTICIONES_MOVIMIENTOS(P_DESDE date, P_MESES_ADELANTE integer)
+returns integer
+language plpgsql
+as $$
+declare
+   V_MES      date := date_trunc('month', P_DESDE)::date;
+   V_HASTA    date := (date_trunc('month', current_date) + make_interval(months => P_MESES_ADELANTE))::date;
+   V_NOMBRE   text;
+   V_CREADAS  integer := 0;
+begin
+   while V_MES <= V_HASTA loop
+      V_NOMBRE := 'movimientos_' || to_char(V_MES, 'YYYY_MM');
+      if to_regclass(V_NOMBRE) is null then
+         execute format('create table %I partition of movimientos for values from (%L) to (%L)',
+                        V_NOMBRE, V_MES, (V_MES + interval '1 month')::date);
+         V_CREADAS := V_CREADAS + 1;
+      end if;
+      V_MES := (V_MES + interval '1 month')::date;
+   end loop;
+   return V_CREADAS;
+end;
+$$;
+
+select CREAR_PARTICIONES_MOVIMIENTOS(coalesce((select min(FECHA_MOVIMIENTO) from MOVIMIENTOS_ANTERIOR)::date, current_date), 3);
+
+insert into MOVIMIENTOS (ID_MOVIMIENTO, ID_CUENTA, TIPO_MOVIMIENTO, VALOR, FECHA_MOVIMIENTO, SALDO)
+select ID_MOVIMIENTO, ID_CUENTA, TIPO_MOVIMIENTO, VALOR, FECHA_MOVIMIENTO, SALDO
+from MOVIMIENTOS_ANTERIOR;
+
+drop table MOVIMIENTOS_ANTERIOR;
+
+analyze MOVIMIENTOS;
@@ -0,0 +1,32 @@
+/*==============================================================*/
+/* End-of-day rollup per account: closing balance, credits,     */
+/* debits and movement count of each day with movements. It is  */
+/* maintained with every registered movement and filled for the */
+/* existing history by the backfill job                         */
+/*==============================================================*/
+
+create table if not exists ACCOUNT_DAILY_SNAPSHOT (
+   ID_CUENTA                BIGINT                  not null,
+   FECHA                    date                    not null,
+   SALDO_CIERRE             numeric(18,2)           not null,
+   TOTAL_CREDITOS           numeric(18,2)           not null,
+   TOTAL_DEBITOS            numeric(18,2)           not null,
+   CANTIDAD_MOVIMIENTOS     BIGINT                  not null,
+   VERSION                  BIGINT                  not null default 0,
+   constraint PK_ACCOUNT_DAILY_SNAPSHOT primary key (ID_CUENTA, FECHA),
+   constraint FK_ACCOUNT_DAILY_SNAPSHOT_CUENTA foreign key (ID_CUENTA)
+      references CUENTA (ID_CUENTA) on delete restrict on update restrict
+);
+
+/*==============================================================*/
+/* Progress of the backfill: last account already rebuilt, so a */
+/* restarted instance continues after it                        */
+/*==============================================================*/
+
+create table if not exists ACCOUNT_DAILY_SNAPSHOT_BACKFILL (
+   NOMBRE                   varchar(50)             not null,
+   ULTIMA_CUENTA            BIGINT                  not null,
+   COMPLETADO               boolean                 not null,
+   FECHA_ACTUALIZACION      timestamp               not null,
+   constraint PK_ACCOUNT_DAILY_SNAPSHOT_BACKFILL primary key (NOMBRE)
+);
@@ -0,0 +1,11 @@
+/*==============================================================*/
+/* Statement pages are read with a keyset cursor on             */
+/* (FECHA_MOVIMIENTO, ID_MOVIMIENTO) within an account. The     */
+/* index gains ID_MOVIMIENTO so the cursor condition and the    */
+/* order are resolved by the index; it still serves the queries */
+/* that only filter and sort by account and date                */
+/*==============================================================*/
+
+create index IX_MOVIMIENTOS_CUENTA_FECHA_ID on MOVIMIENTOS (ID_CUENTA, FECHA_MOVIMIENTO, ID_MOVIMIENTO);
+
+drop index IX_MOVIMIENTOS_CUENTA_FECHA;
@@ -0,0 +1,8 @@
+/*==============================================================*/
+/* GET /movements pages through all accounts ordered by         */
+/* (FECHA_MOVIMIENTO, ID_MOVIMIENTO). With this index each      */
+/* monthly partition is read in order and the cursor condition  */
+/* is an index condition, so no page sorts the table            */
+/*==============================================================*/
+
+create index IX_MOVIMIENTOS_FECHA_ID on MOVIMIENTOS (FECHA_MOVIMIENTO, ID_MOVIMIENTO);
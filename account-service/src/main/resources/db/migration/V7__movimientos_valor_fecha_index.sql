@@ -0,0 +1,9 @@
+/*==============================================================*/
+/* GET /movements/search filters by amount range. Searches by   */
+/* account number use IX_MOVIMIENTOS_CUENTA_FECHA_ID and date   */
+/* ranges use IX_MOVIMIENTOS_FECHA_ID; this index covers the    */
+/* amount predicate, with the date so the range can be checked  */
+/* without reading the row                                      */
+/*==============================================================*/
+
+create index IX_MOVIMIENTOS_VALOR_FECHA on MOVIMIENTOS (VALOR, FECHA_MOVIMIENTO);
@@ -0,0 +1,14 @@
+/*==============================================================*/
+/* Movements take their ids from a pooled generator that        */
+/* reserves 50 ids per call (allocationSize in Movements), so   */
+/* SEQ_MOVIMIENTOS must advance by 50. The next value is moved  */
+/* past every id already used: the first block reserved after   */
+/* this migration starts above the current maximum              */
+/*==============================================================*/
+
+alter sequence SEQ_MOVIMIENTOS increment by 50;
+
+select setval('SEQ_MOVIMIENTOS',
+              greatest(coalesce((select max(ID_MOVIMIENTO) from MOVIMIENTOS), 0),
+                       (select last_value from SEQ_MOVIMIENTOS)) + 50,
+              false);
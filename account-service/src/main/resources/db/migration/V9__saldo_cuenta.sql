@@ -0,0 +1,22 @@
+/*==============================================================*/
+/* Current balance per account, updated in the same transaction */
+/* as each movement insert. It starts with the balance of the   */
+/* last movement of every account; accounts without movements   */
+/* get their row from the initial balance on the first movement */
+/*==============================================================*/
+
+create table if not exists SALDO_CUENTA (
+   ID_CUENTA                BIGINT                  not null,
+   SALDO                    numeric(18,2)           not null,
+   FECHA_ACTUALIZACION      timestamp               not null,
+   VERSION                  BIGINT                  not null default 0,
+   constraint PK_SALDO_CUENTA primary key (ID_CUENTA),
+   constraint FK_SALDO_CUENTA_CUENTA foreign key (ID_CUENTA)
+      references CUENTA (ID_CUENTA) on delete restrict on update restrict
+);
+
+insert into SALDO_CUENTA (ID_CUENTA, SALDO, FECHA_ACTUALIZACION)
+select distinct on (m.ID_CUENTA) m.ID_CUENTA, m.SALDO, m.FECHA_MOVIMIENTO
+from MOVIMIENTOS m
+order by m.ID_CUENTA, m.FECHA_MOVIMIENTO desc, m.ID_MOVIMIENTO desc
+on conflict (ID_CUENTA) do nothing;
@@ -0,0 +1,213 @@
+package ec.juanperez.test.technique.accounts.service.impl;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import ec.juanperez.test.technique.app.accounts.dto.AccountDTO;
+import ec.juanperez.test.technique.app.accounts.enums.AccountType;
+import ec.juanperez.test.technique.app.accounts.event.CustomersChangedEvent;
+import ec.juanperez.test.technique.app.accounts.mapper.AccountMapper;
+import ec.juanperez.test.technique.app.accounts.model.Account;
+import ec.juanperez.test.technique.app.accounts.repository.AccountRepository;
+import ec.juanperez.test.technique.app.accounts.service.AccountService;
+import ec.juanperez.test.technique.app.accounts.service.impl.AccountCacheEvictionListener;
+import ec.juanperez.test.technique.app.accounts.service.impl.AccountServiceImpl;
+import ec.juanperez.test.technique.app.common.enums.StatusType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+import static ec.juanperez.test.technique.config.CacheConfig.ACCOUNTS_CACHE;
+import static ec.juanperez.test.technique.config.CacheConfig.CUSTOMER_ACCOUNTS_CACHE;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@SpringJUnitConfig(AccountServiceImplCacheTest.CacheTestConfig.class)
+class AccountServiceImplCacheTest {
+
+    @Configuration
+    @EnableCaching
+    @EnableTransactionManagement
+    @Import({AccountServiceImpl.class, AccountCacheEvictionListener.class})
+    static class CacheTestConfig {
+        @Bean
+        CacheManager cacheManager() {
+            CaffeineCacheManager cacheManager = new CaffeineCacheManager(ACCOUNTS_CACHE, CUSTOMER_ACCOUNTS_CACHE);
+            cacheManager.setCaffeine(Caffeine.newBuilder().maximumSize(100).recordStats());
+            return cacheManager;
+        }
+    }
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @MockitoBean
+    private AccountRepository repository;
+
+    @MockitoBean
+    private AccountMapper mapper;
+
+    private Account account;
+    private AccountDTO accountDTO;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+        account = new Account();
+        account.setId(1L);
+        accountDTO = new AccountDTO(1L, "478758", AccountType.AHORROS, new BigDecimal("2000.00"), StatusType.ACTIVE, 10L, "Jose Lema");
+        when(repository.findByIdWithCustomer(1L)).thenReturn(Optional.of(account));
+        when(mapper.toDto(account)).thenReturn(accountDTO);
+    }
+
+    @Test
+    void testFindById_SecondCallServedFromCache() {
+        // Given
+        CacheStats before = nativeStats(ACCOUNTS_CACHE);
+
+        // When
+        accountService.findById(1L);
+        Optional<AccountDTO> result = accountService.findById(1L);
+
+        // Then
+        assertEquals(Optional.of(accountDTO), result);
+        verify(repository, times(1)).findByIdWithCustomer(1L);
+        CacheStats stats = nativeStats(ACCOUNTS_CACHE).minus(before);
+        assertEquals(1, stats.hitCount());
+        assertEquals(1, stats.missCount());
+    }
+
+    @Test
+    void testFindById_NotFoundIsNotCached() {
+        // Given
+        when(repository.findByIdWithCustomer(2L)).thenReturn(Optional.empty());
+
+        // When
+        accountService.findById(2L);
+        accountService.findById(2L);
+
+        // Then
+        verify(repository, times(2)).findByIdWithCustomer(2L);
+    }
+
+    @Test
+    void testUpdate_EvictsAccount() {
+        // Given
+        when(mapper.toEntity(any(AccountDTO.class))).thenReturn(account);
+        when(repository.save(account)).thenReturn(account);
+        accountService.findById(1L);
+
+        // When
+        accountService.update(1L, accountDTO);
+        accountService.findById(1L);
+
+        // Then - one load before the update, the update's own check and reload, one after eviction
+        verify(repository, times(4)).findByIdWithCustomer(1L);
+    }
+
+    @Test
+    void testEvictByCustomerId_EvictsAccountsOfCustomer() {
+        // Given
+        when(repository.findAllByCustomerIdAndStatus(10L, StatusType.ACTIVE)).thenReturn(List.of(accountDTO));
+        when(repository.findIdsByCustomerId(10L)).thenReturn(List.of(1L));
+        accountService.findById(1L);
+        accountService.findAllByCustomerId(10L);
+
+        // When
+        accountService.evictByCustomerId(10L);
+        accountService.findById(1L);
+        accountService.findAllByCustomerId(10L);
+
+        // Then
+        verify(repository, times(2)).findByIdWithCustomer(1L);
+        verify(repository, times(2)).findAllByCustomerIdAndStatus(10L, StatusType.ACTIVE);
+    }
+
+    @Test
+    void testEvictByCustomerIds_OneLookupForAllCustomers() {
+        // Given
+        when(repository.findAllByCustomerIdAndStatus(10L, StatusType.ACTIVE)).thenReturn(List.of(accountDTO));
+        when(repository.findIdsByCustomerIds(List.of(10L, 11L))).thenReturn(List.of(1L));
+        accountService.findById(1L);
+        accountService.findAllByCustomerId(10L);
+
+        // When
+        accountService.evictByCustomerIds(List.of(10L, 11L));
+        accountService.findById(1L);
+        accountService.findAllByCustomerId(10L);
+
+        // Then
+        verify(repository, times(1)).findIdsByCustomerIds(List.of(10L, 11L));
+        verify(repository, never()).findIdsByCustomerId(any());
+        verify(repository, times(2)).findByIdWithCustomer(1L);
+        verify(repository, times(2)).findAllByCustomerIdAndStatus(10L, StatusType.ACTIVE);
+    }
+
+    @Test
+    void testFindById_CallersGetTheirOwnCopy() {
+        // Given
+        when(repository.findAllByCustomerIdAndStatus(10L, StatusType.ACTIVE)).thenReturn(List.of(accountDTO.copy()));
+        accountService.findById(1L).orElseThrow().setStatus(StatusType.DELETED);
+        accountService.findAllByCustomerId(10L).get(0).setCustomerName("Changed");
+
+        // When
+        AccountDTO cached = accountService.findById(1L).orElseThrow();
+        List<AccountDTO> cachedByCustomer = accountService.findAllByCustomerId(10L);
+
+        // Then - changes made by one caller are not seen by the next one
+        assertEquals(StatusType.ACTIVE, cached.getStatus());
+        assertEquals("Jose Lema", cachedByCustomer.get(0).getCustomerName());
+        verify(repository, times(1)).findByIdWithCustomer(1L);
+    }
+
+    @Test
+    void testCustomersChanged_EvictsOnlyAfterCommit() {
+        // Given
+        when(repository.findIdsByCustomerIds(List.of(10L))).thenReturn(List.of(1L));
+        accountService.findById(1L);
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            // When
+            eventPublisher.publishEvent(new CustomersChangedEvent(List.of(10L)));
+
+            // Then - the account stays cached until the transaction commits
+            assertNotNull(cacheManager.getCache(ACCOUNTS_CACHE).get(1L));
+            List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+            TransactionSynchronizationUtils.invokeAfterCommit(synchronizations);
+            TransactionSynchronizationUtils.invokeAfterCompletion(synchronizations, TransactionSynchronization.STATUS_COMMITTED);
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertNull(cacheManager.getCache(ACCOUNTS_CACHE).get(1L));
+    }
+
+    private CacheStats nativeStats(String cacheName) {
+        return ((CaffeineCache) cacheManager.getCache(cacheName)).getNativeCache().stats();
+    }
+}
@@ -0,0 +1,167 @@
+package ec.juanperez.test.technique.kafka;
+
+import ec.juanperez.test.technique.events.CustomerEvent;
+import ec.juanperez.test.technique.events.CustomerEventType;
+import ec.juanperez.test.technique.repository.CustomerReferenceRepository;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.ContainerTestUtils;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Sync benchmark: events per second from an embedded broker into CUSTOMER_REFERENCE on an embedded PostgreSQL.
+ * Half of the created events repeat a customer, so the batch de-duplication is exercised.
+ * BENCHMARK_CUSTOMER_EVENTS sets the number of events (50000) and BENCHMARK_MAX_POLL_RECORDS the batch size (500);
+ * a batch size of 1 gives the record-by-record baseline. Events are keyed by customer over three partitions,
+ * consumed by one listener thread per partition.
+ * Run with: gradle test -Pbenchmark --tests '*CustomerEventConsumerBenchmarkTest'
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+        "spring.datasource.driver-class-name=org.postgresql.Driver",
+        "spring.jpa.hibernate.ddl-auto=none",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.PostgreSQLDialect",
+        "spring.jpa.show-sql=false",
+        "spring.flyway.enabled=true",
+        "logging.level.ec.juanperez.test.technique.app=WARN",
+        "logging.level.ec.juanperez.test.technique.kafka.CustomerEventConsumer=WARN",
+        "logging.level.org.springframework.kafka=WARN"
+})
+@EmbeddedKafka(partitions = CustomerEventConsumerBenchmarkTest.PARTITIONS, topics = CustomerEvent.TOPIC)
+@DirtiesContext
+@ActiveProfiles("test")
+class CustomerEventConsumerBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(CustomerEventConsumerBenchmarkTest.class);
+
+    static final int PARTITIONS = 3;
+    private static final int EVENTS = Integer.parseInt(System.getenv().getOrDefault("BENCHMARK_CUSTOMER_EVENTS", "50000"));
+    private static final String MAX_POLL_RECORDS = System.getenv().getOrDefault("BENCHMARK_MAX_POLL_RECORDS", "500");
+    private static final long TIMEOUT_MINUTES = 10;
+
+    private static final EmbeddedPostgres POSTGRES = start();
+
+    @Autowired
+    private EmbeddedKafkaBroker embeddedKafka;
+
+    @Autowired
+    private KafkaListenerEndpointRegistry registry;
+
+    @Autowired
+    private CustomerReferenceRepository customerReferenceRepository;
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> POSTGRES.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "");
+        registry.add("customers.sync.max-poll-records", () -> MAX_POLL_RECORDS);
+        registry.add("customers.events.partitions", () -> PARTITIONS);
+    }
+
+    @AfterAll
+    static void tearDown() throws IOException {
+        POSTGRES.close();
+    }
+
+    @Test
+    void benchmarkEventsPerSecond() throws Exception {
+        // Se espera a que los listeners tengan su partición para no medir el rebalanceo inicial
+        for (MessageListenerContainer container : this.registry.getListenerContainers()) {
+            ContainerTestUtils.waitForAssignment(container, PARTITIONS);
+        }
+        Map<String, Object> producerProps = KafkaTestUtils.producerProps(this.embeddedKafka);
+        producerProps.put(ProducerConfig.LINGER_MS_CONFIG, 5);
+        producerProps.put(ProducerConfig.BATCH_SIZE_CONFIG, 65536);
+        KafkaTemplate<String, Object> kafkaTemplate = new KafkaTemplate<>(new DefaultKafkaProducerFactory<>(
+                producerProps, new StringSerializer(), new JsonSerializer<>()));
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(POSTGRES.getPostgresDatabase());
+        int customers = EVENTS / 2;
+
+        // Given - each customer is created twice; the second event carries its final name
+        long begin = System.nanoTime();
+        for (int i = 0; i < EVENTS; i++) {
+            long customerId = 1 + i % customers;
+            kafkaTemplate.send(CustomerEvent.TOPIC, String.valueOf(customerId), new CustomerEvent(CustomerEventType.CREATED, customerId,
+                    "Customer " + customerId + " v" + (i / customers), String.format("%010d", customerId), "ACTIVE"));
+        }
+        kafkaTemplate.flush();
+        long published = System.nanoTime() - begin;
+        awaitCount(() -> jdbcTemplate.queryForObject(
+                "select count(*) from customer_reference where nombre like '% v1'", Long.class), customers);
+        log.info("customer sync created published in {}ms", TimeUnit.NANOSECONDS.toMillis(published));
+        report("created", begin);
+
+        // When - every customer is updated once
+        begin = System.nanoTime();
+        for (int i = 0; i < customers; i++) {
+            long customerId = 1 + i;
+            kafkaTemplate.send(CustomerEvent.TOPIC, String.valueOf(customerId), new CustomerEvent(CustomerEventType.UPDATED, customerId,
+                    "Customer " + customerId + " updated", String.format("%010d", customerId), "ACTIVE"));
+        }
+        kafkaTemplate.flush();
+        awaitCount(() -> jdbcTemplate.queryForObject(
+                "select count(*) from customer_reference where nombre like '% updated'", Long.class), customers);
+        report("updated", begin, customers);
+
+        // Then
+        assertEquals(customers, this.customerReferenceRepository.count());
+        kafkaTemplate.destroy();
+    }
+
+    private static void awaitCount(LongSupplier count, long expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(TIMEOUT_MINUTES);
+        while (count.getAsLong() < expected) {
+            assertTrue(System.nanoTime() < deadline, "events not applied within " + TIMEOUT_MINUTES + " minutes");
+            Thread.sleep(50);
+        }
+    }
+
+    private static void report(String type, long begin) {
+        report(type, begin, EVENTS);
+    }
+
+    private static void report(String type, long begin, int events) {
+        long elapsed = System.nanoTime() - begin;
+        log.info("customer sync type={} events={} partitions={} maxPollRecords={} elapsed={}ms eventsPerSecond={}",
+                type, events, PARTITIONS, MAX_POLL_RECORDS, TimeUnit.NANOSECONDS.toMillis(elapsed),
+                events * TimeUnit.SECONDS.toNanos(1) / elapsed);
+    }
+
+    private static EmbeddedPostgres start() {
+        try {
+            return EmbeddedPostgres.builder().start();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
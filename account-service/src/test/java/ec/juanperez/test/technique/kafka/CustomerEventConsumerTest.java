@@ -1,11 +1,12 @@
 package ec.juanperez.test.technique.kafka;
 
-import ec.juanperez.test.technique.events.CustomerCreatedEvent;
-import ec.juanperez.test.technique.events.CustomerDeletedEvent;
-import ec.juanperez.test.technique.events.CustomerUpdatedEvent;
+import ec.juanperez.test.technique.events.CustomerEvent;
+import ec.juanperez.test.technique.events.CustomerEventType;
 import ec.juanperez.test.technique.model.CustomerReference;
 import ec.juanperez.test.technique.repository.CustomerReferenceRepository;
 import ec.juanperez.test.technique.app.common.enums.StatusType;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -13,25 +14,54 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.kafka.test.context.EmbeddedKafka;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 
-@SpringBootTest
-@EmbeddedKafka(partitions = 1, topics = {"customer-created", "customer-updated", "customer-deleted"})
+/**
+ * The batch upserts use INSERT ... ON CONFLICT, so the consumer runs against an embedded PostgreSQL
+ * migrated with Flyway instead of H2.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.driver-class-name=org.postgresql.Driver",
+        "spring.jpa.hibernate.ddl-auto=none",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.PostgreSQLDialect",
+        "spring.flyway.enabled=true"
+})
+@EmbeddedKafka(partitions = 1, topics = CustomerEvent.TOPIC)
 @DirtiesContext
 @ActiveProfiles("test")
 @Transactional
 class CustomerEventConsumerTest {
 
+    private static final EmbeddedPostgres POSTGRES = start();
+
     @Autowired
     private CustomerEventConsumer eventConsumer;
 
     @Autowired
     private CustomerReferenceRepository customerReferenceRepository;
 
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> POSTGRES.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "");
+    }
+
+    @AfterAll
+    static void tearDown() throws IOException {
+        POSTGRES.close();
+    }
+
     @BeforeEach
     void setUp() {
         customerReferenceRepository.deleteAll();
@@ -40,7 +70,8 @@ class CustomerEventConsumerTest {
     @Test
     void testConsumeCustomerCreatedEvent() {
         // Given
-        CustomerCreatedEvent event = new CustomerCreatedEvent(
+        CustomerEvent event = new CustomerEvent(
+                CustomerEventType.CREATED,
                 1L,
                 "Test Customer",
                 "1234567890",
@@ -48,7 +79,7 @@ class CustomerEventConsumerTest {
         );
 
         // When
-        eventConsumer.consumeCustomerCreated(event);
+        eventConsumer.consume(List.of(event));
 
         // Then
         Optional<CustomerReference> customerRef = customerReferenceRepository.findById(1L);
@@ -68,7 +99,8 @@ class CustomerEventConsumerTest {
         existingRef.setStatus(StatusType.ACTIVE);
         customerReferenceRepository.save(existingRef);
 
-        CustomerUpdatedEvent event = new CustomerUpdatedEvent(
+        CustomerEvent event = new CustomerEvent(
+                CustomerEventType.UPDATED,
                 1L,
                 "Updated Name",
                 "9876543210",
@@ -76,7 +108,7 @@ class CustomerEventConsumerTest {
         );
 
         // When
-        eventConsumer.consumeCustomerUpdated(event);
+        eventConsumer.consume(List.of(event));
 
         // Then
         Optional<CustomerReference> customerRef = customerReferenceRepository.findById(1L);
@@ -86,21 +118,39 @@ class CustomerEventConsumerTest {
     }
 
     @Test
-    void testConsumeCustomerUpdatedEvent_NotFound() {
-        // Given - No existing customer reference
-        CustomerUpdatedEvent event = new CustomerUpdatedEvent(
+    void testConsumeCustomerUpdatedEvent_UnknownCustomerIsInserted() {
+        // Given - The compacted topic only keeps the UPDATED record of a customer edited after creation
+        CustomerEvent event = new CustomerEvent(
+                CustomerEventType.UPDATED,
                 999L,
-                "Non-existent",
+                "Edited Customer",
                 "0000000000",
-                "ACTIVE"
+                "INACTIVE"
         );
 
         // When
-        eventConsumer.consumeCustomerUpdated(event);
+        eventConsumer.consume(List.of(event));
 
-        // Then - Should not throw exception, just log warning
+        // Then - The event carries the full state, so the customer is inserted
         Optional<CustomerReference> customerRef = customerReferenceRepository.findById(999L);
-        assertFalse(customerRef.isPresent(), "CustomerReference should not be created for non-existent customer");
+        assertTrue(customerRef.isPresent(), "CustomerReference should be created from its latest UPDATED event");
+        assertEquals("Edited Customer", customerRef.get().getName());
+        assertEquals("0000000000", customerRef.get().getIdentification());
+        assertEquals(StatusType.INACTIVE, customerRef.get().getStatus());
+    }
+
+    @Test
+    void testConsumeCustomerDeletedEventWithState_UnknownCustomerIsInserted() {
+        // Given - The latest record of a customer is a DELETED event with its full state
+        CustomerEvent event = new CustomerEvent(CustomerEventType.DELETED, 998L, "Gone Customer", "1111111111", "DELETED");
+
+        // When
+        eventConsumer.consume(List.of(event));
+
+        // Then
+        CustomerReference customerRef = customerReferenceRepository.findById(998L).orElseThrow();
+        assertEquals("Gone Customer", customerRef.getName());
+        assertEquals(StatusType.DELETED, customerRef.getStatus());
     }
 
     @Test
@@ -113,10 +163,10 @@ class CustomerEventConsumerTest {
         existingRef.setStatus(StatusType.ACTIVE);
         customerReferenceRepository.save(existingRef);
 
-        CustomerDeletedEvent event = new CustomerDeletedEvent(1L);
+        CustomerEvent event = deleted(1L);
 
         // When
-        eventConsumer.consumeCustomerDeleted(event);
+        eventConsumer.consume(List.of(event));
 
         // Then
         Optional<CustomerReference> customerRef = customerReferenceRepository.findById(1L);
@@ -127,14 +177,115 @@ class CustomerEventConsumerTest {
     @Test
     void testConsumeCustomerDeletedEvent_NotFound() {
         // Given - No existing customer reference
-        CustomerDeletedEvent event = new CustomerDeletedEvent(999L);
+        CustomerEvent event = deleted(999L);
 
         // When
-        eventConsumer.consumeCustomerDeleted(event);
+        eventConsumer.consume(List.of(event));
 
         // Then - Should not throw exception, just log warning
         Optional<CustomerReference> customerRef = customerReferenceRepository.findById(999L);
         assertFalse(customerRef.isPresent(), "CustomerReference should not exist");
     }
-}
 
+    @Test
+    void testConsumeCustomerCreatedBatch_LastEventPerCustomerWins() {
+        // Given - customer 1 already exists and appears twice in the batch
+        customerReferenceRepository.save(new CustomerReference(1L, "Original Name", "1234567890", StatusType.ACTIVE));
+        List<CustomerEvent> events = List.of(
+                new CustomerEvent(CustomerEventType.CREATED, 1L, "First Name", "1111111111", "ACTIVE"),
+                new CustomerEvent(CustomerEventType.CREATED, 2L, "Second Customer", "2222222222", "ACTIVE"),
+                new CustomerEvent(CustomerEventType.CREATED, 1L, "Last Name", "3333333333", "INACTIVE"));
+
+        // When
+        eventConsumer.consume(events);
+
+        // Then
+        assertEquals(2, customerReferenceRepository.count());
+        CustomerReference first = customerReferenceRepository.findById(1L).orElseThrow();
+        assertEquals("Last Name", first.getName());
+        assertEquals("3333333333", first.getIdentification());
+        assertEquals(StatusType.INACTIVE, first.getStatus());
+        assertEquals("Second Customer", customerReferenceRepository.findById(2L).orElseThrow().getName());
+    }
+
+    @Test
+    void testConsumeCustomerUpdatedAndDeletedBatches_UpsertUnknownCustomersWithState() {
+        // Given
+        customerReferenceRepository.save(new CustomerReference(1L, "Original Name", "1234567890", StatusType.ACTIVE));
+        customerReferenceRepository.save(new CustomerReference(2L, "Other Customer", "2222222222", StatusType.ACTIVE));
+
+        // When
+        eventConsumer.consume(List.of(
+                new CustomerEvent(CustomerEventType.UPDATED, 1L, "Updated Name", "9876543210", "ACTIVE"),
+                new CustomerEvent(CustomerEventType.UPDATED, 999L, "Non-existent", "0000000000", "ACTIVE")));
+        eventConsumer.consume(List.of(deleted(2L), deleted(998L), deleted(2L)));
+
+        // Then
+        assertEquals("Updated Name", customerReferenceRepository.findById(1L).orElseThrow().getName());
+        assertEquals(StatusType.DELETED, customerReferenceRepository.findById(2L).orElseThrow().getStatus());
+        // Un UPDATED trae el estado completo y se inserta; una baja sin estado no puede crear al cliente
+        assertEquals("Non-existent", customerReferenceRepository.findById(999L).orElseThrow().getName());
+        assertFalse(customerReferenceRepository.existsById(998L));
+    }
+
+    @Test
+    void testConsume_AppliesEventsOfOneCustomerInOrder() {
+        // Given - customer 1 is created, updated and deleted in the same batch; customer 2 exists and
+        // is deleted and then updated, which restores its status
+        customerReferenceRepository.save(new CustomerReference(2L, "Other Customer", "2222222222", StatusType.ACTIVE));
+        List<CustomerEvent> events = List.of(
+                new CustomerEvent(CustomerEventType.CREATED, 1L, "Test Customer", "1234567890", "ACTIVE"),
+                new CustomerEvent(CustomerEventType.UPDATED, 1L, "Updated Name", "1234567890", "ACTIVE"),
+                deleted(2L),
+                new CustomerEvent(CustomerEventType.DELETED, 1L, "Updated Name", "1234567890", "DELETED"),
+                new CustomerEvent(CustomerEventType.UPDATED, 2L, "Other Updated", "2222222222", "INACTIVE"));
+
+        // When
+        eventConsumer.consume(events);
+
+        // Then
+        CustomerReference first = customerReferenceRepository.findById(1L).orElseThrow();
+        assertEquals("Updated Name", first.getName());
+        assertEquals(StatusType.DELETED, first.getStatus());
+        CustomerReference second = customerReferenceRepository.findById(2L).orElseThrow();
+        assertEquals("Other Updated", second.getName());
+        assertEquals(StatusType.INACTIVE, second.getStatus());
+    }
+
+    @Test
+    void testConsume_SkipsPoisonEventsInTheMiddleOfABatch() {
+        // Given - an unknown status, a missing customer id and an undeserializable record sit between valid events
+        customerReferenceRepository.save(new CustomerReference(2L, "Other Customer", "2222222222", StatusType.ACTIVE));
+        List<CustomerEvent> events = Arrays.asList(
+                new CustomerEvent(CustomerEventType.CREATED, 1L, "Test Customer", "1234567890", "ACTIVE"),
+                new CustomerEvent(CustomerEventType.UPDATED, 2L, "Poison Name", "2222222222", "SUSPENDED"),
+                new CustomerEvent(CustomerEventType.CREATED, null, "No Id", "0000000000", "ACTIVE"),
+                null,
+                new CustomerEvent(CustomerEventType.UPDATED, 1L, "Updated Name", "1234567890", "INACTIVE"),
+                deleted(2L));
+
+        // When
+        eventConsumer.consume(events);
+
+        // Then - the valid events around the poison ones are applied
+        assertEquals(2, customerReferenceRepository.count());
+        CustomerReference first = customerReferenceRepository.findById(1L).orElseThrow();
+        assertEquals("Updated Name", first.getName());
+        assertEquals(StatusType.INACTIVE, first.getStatus());
+        CustomerReference second = customerReferenceRepository.findById(2L).orElseThrow();
+        assertEquals("Other Customer", second.getName());
+        assertEquals(StatusType.DELETED, second.getStatus());
+    }
+
+    private static CustomerEvent deleted(Long customerId) {
+        return new CustomerEvent(CustomerEventType.DELETED, customerId, null, null, null);
+    }
+
+    private static EmbeddedPostgres start() {
+        try {
+            return EmbeddedPostgres.builder().start();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
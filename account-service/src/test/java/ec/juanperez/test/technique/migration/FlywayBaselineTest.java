@@ -0,0 +1,93 @@
+package ec.juanperez.test.technique.migration;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.YamlPropertiesFactoryBean;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Applies the account-service Flyway configuration from application.yaml to a database shared with
+ * customer-service and to one created with databases/create_db, and checks that V1 still creates
+ * the account tables when the other service migrated first.
+ */
+class FlywayBaselineTest {
+
+    private EmbeddedPostgres postgres;
+    private DataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        postgres = EmbeddedPostgres.builder().start();
+        dataSource = postgres.getPostgresDatabase();
+        jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        postgres.close();
+    }
+
+    @Test
+    void migratesAccountTablesWhenCustomerServiceMigratedFirst() {
+        // Given: customer-service ya migró la base compartida y dejó su esquema no vacío
+        jdbcTemplate.execute("create table cliente (id_cliente bigint primary key)");
+        jdbcTemplate.execute("create table customer_schema_history (installed_rank int primary key)");
+
+        // When
+        flyway().migrate();
+
+        // Then
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "select count(*) from account_schema_history where version = '1' and success", Integer.class));
+        assertNotNull(jdbcTemplate.queryForObject("select to_regclass('cuenta')::text", String.class));
+        assertNotNull(jdbcTemplate.queryForObject("select to_regclass('customer_reference')::text", String.class));
+        assertEquals("p", jdbcTemplate.queryForObject("select relkind::text from pg_class where relname = 'movimientos'", String.class));
+    }
+
+    @Test
+    void migratesDatabaseCreatedWithCreateDbScripts() throws Exception {
+        // Given
+        jdbcTemplate.execute(Files.readString(Path.of("../databases/create_db/2.create_tables.sql")));
+        jdbcTemplate.update("insert into cliente (nombre, genero, identificacion, direccion, telefono, contrasena, estado) " +
+                "values ('Jose Lema', 'M', '0102030405', 'Otavalo sn y principal', '098254785', '1234', 'ACTIVE')");
+        jdbcTemplate.update("insert into cuenta (id_cliente, numero_cuenta, tipo_cuenta, saldo_inicial, estado) " +
+                "values (1, '478758', 'AHORROS', 2000, 'ACTIVE')");
+
+        // When
+        flyway().migrate();
+
+        // Then: V1 no cambia las tablas existentes y las migraciones posteriores se aplican sobre ellas
+        assertEquals(1, jdbcTemplate.queryForObject("select count(*) from cuenta", Integer.class));
+        assertEquals("p", jdbcTemplate.queryForObject("select relkind::text from pg_class where relname = 'movimientos'", String.class));
+        assertEquals(0, flyway().info().pending().length);
+    }
+
+    private Flyway flyway() {
+        Properties properties = applicationProperties();
+        return Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration")
+                .table(properties.getProperty("spring.flyway.table"))
+                .baselineOnMigrate(Boolean.parseBoolean(properties.getProperty("spring.flyway.baseline-on-migrate")))
+                .baselineVersion(properties.getProperty("spring.flyway.baseline-version"))
+                .load();
+    }
+
+    private static Properties applicationProperties() {
+        YamlPropertiesFactoryBean yaml = new YamlPropertiesFactoryBean();
+        yaml.setResources(new ClassPathResource("application.yaml"));
+        return yaml.getObject();
+    }
+}
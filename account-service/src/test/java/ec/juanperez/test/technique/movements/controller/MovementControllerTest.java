@@ -0,0 +1,173 @@
+package ec.juanperez.test.technique.movements.controller;
+
+import ec.juanperez.test.technique.app.common.reactive.BlockingScheduler;
+import ec.juanperez.test.technique.app.movements.controller.MovementController;
+import ec.juanperez.test.technique.app.movements.dto.MovementDTO;
+import ec.juanperez.test.technique.app.movements.dto.MovementFilter;
+import ec.juanperez.test.technique.app.movements.dto.MovementPageDTO;
+import ec.juanperez.test.technique.app.movements.dto.MovementSearchCriteria;
+import ec.juanperez.test.technique.app.movements.enums.MovementType;
+import ec.juanperez.test.technique.app.movements.exceptions.MovementBalanceException;
+import ec.juanperez.test.technique.app.movements.exceptions.MovementSearchTimeoutException;
+import ec.juanperez.test.technique.app.movements.export.MovementExporter;
+import ec.juanperez.test.technique.app.movements.service.MovementService;
+import ec.juanperez.test.technique.app.movements.service.ReactiveMovementService;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@WebFluxTest(MovementController.class)
+@Import({BlockingScheduler.class, MovementExporter.class})
+class MovementControllerTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @MockitoBean
+    private MovementService movementService;
+
+    @MockitoBean
+    private ReactiveMovementService reactiveMovementService;
+
+    @Test
+    void findPage_PassesFiltersCursorAndSize() {
+        // Given
+        when(movementService.findPage(any(MovementFilter.class), eq("abc"), eq(20)))
+                .thenReturn(new MovementPageDTO(List.of(movement(7L)), "def"));
+
+        // When - Then
+        webTestClient.get().uri("/movements?accountId=3&type=DEBIT&startDate=2024-01-01&endDate=2024-01-31&cursor=abc&size=20")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.movements[0].id").isEqualTo(7)
+                .jsonPath("$.nextCursor").isEqualTo("def");
+        ArgumentCaptor<MovementFilter> filter = ArgumentCaptor.forClass(MovementFilter.class);
+        verify(movementService).findPage(filter.capture(), eq("abc"), eq(20));
+        assertEquals(new MovementFilter(3L, MovementType.DEBIT, LocalDateTime.of(2024, 1, 1, 0, 0),
+                LocalDateTime.of(2024, 1, 31, 23, 59, 59)), filter.getValue());
+    }
+
+    @Test
+    void findPage_InvalidCursorIsBadRequest() {
+        // Given
+        when(movementService.findPage(any(MovementFilter.class), any(), any()))
+                .thenThrow(new IllegalArgumentException("Invalid movement cursor: not-a-cursor"));
+
+        // When - Then
+        webTestClient.get().uri("/movements?cursor=not-a-cursor")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void export_StreamsNdjsonAndClosesTheCursor() {
+        // Given
+        AtomicBoolean closed = new AtomicBoolean();
+        when(movementService.streamMovements(new MovementFilter()))
+                .thenReturn(Stream.of(movement(1L), movement(2L)).onClose(() -> closed.set(true)));
+
+        // When
+        String body = webTestClient.get().uri("/movements/export")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_NDJSON)
+                .expectBody(String.class).returnResult().getResponseBody();
+
+        // Then
+        List<String> lines = body.lines().toList();
+        assertEquals(2, lines.size());
+        assertTrue(lines.get(0).contains("\"id\":1"));
+        assertTrue(lines.get(1).contains("\"id\":2"));
+        assertTrue(closed.get());
+    }
+
+    @Test
+    void search_PassesCriteriaCursorAndSize() {
+        // Given
+        when(movementService.search(any(MovementSearchCriteria.class), eq("abc"), eq(20)))
+                .thenReturn(new MovementPageDTO(List.of(movement(7L)), null));
+
+        // When - Then
+        webTestClient.get().uri("/movements/search?accountNumber=478758&type=DEBIT&minAmount=5.50&maxAmount=100&startDate=2024-01-01&endDate=2024-01-31&cursor=abc&size=20")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.movements[0].accountNumber").isEqualTo("478758")
+                .jsonPath("$.nextCursor").doesNotExist();
+        ArgumentCaptor<MovementSearchCriteria> criteria = ArgumentCaptor.forClass(MovementSearchCriteria.class);
+        verify(movementService).search(criteria.capture(), eq("abc"), eq(20));
+        assertEquals(new MovementSearchCriteria("478758", MovementType.DEBIT, new BigDecimal("5.50"), new BigDecimal("100"),
+                LocalDateTime.of(2024, 1, 1, 0, 0), LocalDateTime.of(2024, 1, 31, 23, 59, 59)), criteria.getValue());
+    }
+
+    @Test
+    void search_TimeoutIsServiceUnavailable() {
+        // Given
+        when(movementService.search(any(MovementSearchCriteria.class), any(), any()))
+                .thenThrow(new MovementSearchTimeoutException(Duration.ofSeconds(2)));
+
+        // When - Then
+        webTestClient.get().uri("/movements/search?startDate=2024-01-01&endDate=2024-01-31")
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.SERVICE_UNAVAILABLE)
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("Movement search exceeded its budget of 2000 ms, narrow the filters");
+    }
+
+    @Test
+    void registerCredit_LedgerFailureIsUnwrapped() {
+        // Given
+        when(reactiveMovementService.registerMovementByType(3L, MovementType.CREDIT, new BigDecimal("10.00")))
+                .thenReturn(Mono.error(new CompletionException(new MovementBalanceException())));
+
+        // When - Then
+        webTestClient.post().uri("/movements/register/credit")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"accountId\":3,\"value\":10.00}")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void registerBatch_ExceptionWithCauseKeepsItsStatus() {
+        // Given
+        when(movementService.registerMovementsBatch(any()))
+                .thenThrow(new DataIntegrityViolationException("duplicate key", new SQLException("duplicate key")));
+
+        // When - Then
+        webTestClient.post().uri("/movements/register/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("[{\"accountId\":3,\"movementType\":\"CREDIT\",\"value\":10.00}]")
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.CONFLICT);
+    }
+
+    private static MovementDTO movement(Long id) {
+        return new MovementDTO(id, MovementType.DEBIT, new BigDecimal("10.00"), LocalDateTime.of(2024, 1, 5, 10, 0),
+                new BigDecimal("90.00"), 3L, "478758");
+    }
+}
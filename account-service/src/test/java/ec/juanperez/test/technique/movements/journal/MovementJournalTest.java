@@ -0,0 +1,149 @@
+package ec.juanperez.test.technique.movements.journal;
+
+import ec.juanperez.test.technique.app.movements.dto.BatchMovementResultDTO;
+import ec.juanperez.test.technique.app.movements.dto.MovementDTO;
+import ec.juanperez.test.technique.app.movements.dto.RegisterMovementRequest;
+import ec.juanperez.test.technique.app.movements.enums.MovementErrorType;
+import ec.juanperez.test.technique.app.movements.enums.MovementType;
+import ec.juanperez.test.technique.app.movements.exceptions.MovementBalanceException;
+import ec.juanperez.test.technique.app.movements.journal.MovementJournal;
+import ec.juanperez.test.technique.app.movements.service.MovementService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MovementJournalTest {
+
+    @Mock
+    private MovementService movementService;
+
+    private SimpleMeterRegistry meterRegistry;
+    private MovementJournal journal;
+
+    @AfterEach
+    void tearDown() {
+        if (journal != null) {
+            journal.stop();
+        }
+    }
+
+    @Test
+    void testSubmit_GroupsMovementsIntoOneCommit() {
+        // Given
+        when(movementService.registerMovementsBatch(anyList())).thenAnswer(invocation -> successResults(invocation.getArgument(0)));
+        startJournal(10, 200, 100);
+
+        // When
+        List<MovementDTO> results = Flux.range(0, 10)
+                .flatMap(i -> journal.submit(1L, MovementType.CREDIT, new BigDecimal(i + 1)))
+                .collectList()
+                .block(Duration.ofSeconds(5));
+
+        // Then
+        assertEquals(10, results.size());
+        verify(movementService, times(1)).registerMovementsBatch(anyList());
+        assertEquals(1, meterRegistry.get("movements.journal.batch.size").summary().count());
+        assertEquals(10.0, meterRegistry.get("movements.journal.batch.size").summary().totalAmount());
+        assertEquals(1, meterRegistry.get("movements.journal.commit.latency").timer().count());
+    }
+
+    @Test
+    void testSubmit_FailedItem_CompletesOnlyThatCallerWithError() {
+        // Given
+        when(movementService.registerMovementsBatch(anyList())).thenAnswer(invocation -> {
+            List<RegisterMovementRequest> requests = invocation.getArgument(0);
+            List<BatchMovementResultDTO> results = new ArrayList<>();
+            for (int i = 0; i < requests.size(); i++) {
+                boolean debit = requests.get(i).getMovementType() == MovementType.DEBIT;
+                results.add(debit
+                        ? new BatchMovementResultDTO(i, 1L, MovementType.DEBIT, false, null, "Saldo no disponible", MovementErrorType.INSUFFICIENT_BALANCE)
+                        : new BatchMovementResultDTO(i, 1L, MovementType.CREDIT, true, new MovementDTO(), null, null));
+            }
+            return results;
+        });
+        startJournal(2, 500, 100);
+
+        // When
+        Mono<MovementDTO> credit = journal.submit(1L, MovementType.CREDIT, BigDecimal.TEN);
+        Mono<MovementDTO> debit = journal.submit(1L, MovementType.DEBIT, BigDecimal.TEN);
+
+        // Then
+        StepVerifier.create(Mono.zip(credit, debit.onErrorResume(e -> {
+                    assertInstanceOf(MovementBalanceException.class, e);
+                    return Mono.just(new MovementDTO());
+                })))
+                .expectNextCount(1)
+                .verifyComplete();
+    }
+
+    @Test
+    void testSubmit_BatchCommitFails_FailsEveryCaller() {
+        // Given
+        when(movementService.registerMovementsBatch(anyList())).thenThrow(new IllegalStateException("db down"));
+        startJournal(10, 1, 100);
+
+        // When & Then
+        StepVerifier.create(journal.submit(1L, MovementType.CREDIT, BigDecimal.ONE))
+                .expectErrorMatches(e -> e instanceof IllegalStateException && "db down".equals(e.getMessage()))
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void testSubmit_QueueFull_Rejected() throws Exception {
+        // Given - the flusher is blocked committing the first movement
+        CountDownLatch committing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(movementService.registerMovementsBatch(anyList())).thenAnswer(invocation -> {
+            committing.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return successResults(invocation.getArgument(0));
+        });
+        startJournal(1, 0, 1);
+        journal.submit(1L, MovementType.CREDIT, BigDecimal.ONE).subscribe();
+        assertTrue(committing.await(5, TimeUnit.SECONDS));
+        journal.submit(1L, MovementType.CREDIT, BigDecimal.ONE).subscribe();
+
+        // When & Then
+        StepVerifier.create(journal.submit(1L, MovementType.CREDIT, BigDecimal.ONE))
+                .expectError(RejectedExecutionException.class)
+                .verify(Duration.ofSeconds(5));
+        release.countDown();
+    }
+
+    private void startJournal(int maxBatchSize, long maxWaitMillis, int queueCapacity) {
+        meterRegistry = new SimpleMeterRegistry();
+        journal = new MovementJournal(movementService, meterRegistry, true, maxBatchSize, maxWaitMillis, queueCapacity, 1000);
+        journal.start();
+    }
+
+    private static List<BatchMovementResultDTO> successResults(List<RegisterMovementRequest> requests) {
+        List<BatchMovementResultDTO> results = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            RegisterMovementRequest request = requests.get(i);
+            MovementDTO movementDTO = new MovementDTO();
+            movementDTO.setId((long) i);
+            movementDTO.setValue(request.getValue());
+            results.add(new BatchMovementResultDTO(i, request.getAccountId(), request.getMovementType(), true, movementDTO, null, null));
+        }
+        return results;
+    }
+}
@@ -0,0 +1,62 @@
+package ec.juanperez.test.technique.movements.ledger;
+
+import ec.juanperez.test.technique.app.movements.ledger.LedgerExecutor;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Contention benchmark: throughput of the serialized ledger as the number of hot accounts grows.
+ * Run with: gradle test -Pbenchmark --tests '*LedgerExecutorBenchmarkTest'
+ */
+@Tag("benchmark")
+class LedgerExecutorBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(LedgerExecutorBenchmarkTest.class);
+
+    private static final int STRIPES = 16;
+    private static final int MOVEMENTS = 20_000;
+    // Simula el costo de la transacción de un movimiento (lectura de saldo + insert)
+    private static final long WORK_NANOS = TimeUnit.MICROSECONDS.toNanos(200);
+
+    @ParameterizedTest(name = "{0} hot accounts")
+    @ValueSource(ints = {1, 2, 4, 16, 64, 256})
+    void benchmarkThroughputByHotAccounts(int hotAccounts) throws Exception {
+        LedgerExecutor ledgerExecutor = new LedgerExecutor(LedgerExecutor.MODE_SERIALIZED, STRIPES, MOVEMENTS);
+        ConcurrentHashMap<Long, Long> balances = new ConcurrentHashMap<>();
+        List<CompletableFuture<Long>> futures = new ArrayList<>(MOVEMENTS);
+        try {
+            long start = System.nanoTime();
+            for (int i = 0; i < MOVEMENTS; i++) {
+                long accountId = i % hotAccounts;
+                futures.add(ledgerExecutor.submit(accountId, () -> {
+                    long current = balances.getOrDefault(accountId, 0L);
+                    LockSupport.parkNanos(WORK_NANOS);
+                    balances.put(accountId, current + 1);
+                    return current + 1;
+                }));
+            }
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).get(5, TimeUnit.MINUTES);
+            long elapsed = System.nanoTime() - start;
+
+            long total = balances.values().stream().mapToLong(Long::longValue).sum();
+            assertEquals(MOVEMENTS, total);
+            log.info("ledger stripes={} hotAccounts={} movements={} elapsed={}ms throughput={} ops/s",
+                    STRIPES, hotAccounts, MOVEMENTS, TimeUnit.NANOSECONDS.toMillis(elapsed),
+                    MOVEMENTS * TimeUnit.SECONDS.toNanos(1) / elapsed);
+        } finally {
+            ledgerExecutor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package ec.juanperez.test.technique.movements.ledger;
+
+import ec.juanperez.test.technique.app.movements.ledger.LedgerExecutor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LedgerExecutorTest {
+
+    private LedgerExecutor ledgerExecutor;
+
+    @AfterEach
+    void tearDown() {
+        if (ledgerExecutor != null) {
+            ledgerExecutor.shutdown();
+        }
+    }
+
+    @Test
+    void testSubmit_SameAccount_NoLostUpdates() throws Exception {
+        // Given - read, compute, write without locking, like the movement write path
+        ledgerExecutor = new LedgerExecutor(LedgerExecutor.MODE_SERIALIZED, 4, 10_000);
+        Map<Long, Long> balances = new ConcurrentHashMap<>();
+        ExecutorService callers = Executors.newFixedThreadPool(8);
+        List<Future<CompletableFuture<Long>>> submissions = new ArrayList<>();
+
+        // When
+        for (int i = 0; i < 2_000; i++) {
+            long accountId = i % 3;
+            submissions.add(callers.submit(() -> ledgerExecutor.submit(accountId, () -> {
+                long current = balances.getOrDefault(accountId, 0L);
+                Thread.onSpinWait();
+                balances.put(accountId, current + 1);
+                return current + 1;
+            })));
+        }
+        for (Future<CompletableFuture<Long>> submission : submissions) {
+            submission.get().get(10, TimeUnit.SECONDS);
+        }
+        callers.shutdown();
+
+        // Then
+        long total = balances.values().stream().mapToLong(Long::longValue).sum();
+        assertEquals(2_000, total);
+    }
+
+    @Test
+    void testSubmit_SameAccount_PreservesOrder() throws Exception {
+        // Given
+        ledgerExecutor = new LedgerExecutor(LedgerExecutor.MODE_SERIALIZED, 4, 1_000);
+        List<Integer> applied = Collections.synchronizedList(new ArrayList<>());
+        List<CompletableFuture<Integer>> futures = new ArrayList<>();
+
+        // When
+        for (int i = 0; i < 100; i++) {
+            int sequence = i;
+            futures.add(ledgerExecutor.submit(7L, () -> {
+                applied.add(sequence);
+                return sequence;
+            }));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).get(10, TimeUnit.SECONDS);
+
+        // Then
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i, applied.get(i));
+        }
+    }
+
+    @Test
+    void testSubmit_TaskFails_CompletesExceptionally() {
+        // Given
+        ledgerExecutor = new LedgerExecutor(LedgerExecutor.MODE_SERIALIZED, 2, 10);
+
+        // When
+        CompletableFuture<Object> future = ledgerExecutor.submit(1L, () -> {
+            throw new IllegalStateException("boom");
+        });
+
+        // Then
+        ExecutionException ex = assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, ex.getCause());
+    }
+
+    @Test
+    void testSubmit_QueueFull_Rejected() throws Exception {
+        // Given
+        ledgerExecutor = new LedgerExecutor(LedgerExecutor.MODE_SERIALIZED, 1, 1);
+        CountDownLatch release = new CountDownLatch(1);
+        ledgerExecutor.submit(1L, () -> release.await(5, TimeUnit.SECONDS));
+        ledgerExecutor.submit(1L, () -> true);
+
+        // When
+        CompletableFuture<Boolean> rejected = ledgerExecutor.submit(1L, () -> true);
+        release.countDown();
+
+        // Then
+        ExecutionException ex = assertThrows(ExecutionException.class, () -> rejected.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(RejectedExecutionException.class, ex.getCause());
+    }
+
+    @Test
+    void testSubmit_DirectMode_RunsOnCallerThread() throws Exception {
+        // Given
+        ledgerExecutor = new LedgerExecutor(LedgerExecutor.MODE_DIRECT, 16, 1_000);
+        Thread caller = Thread.currentThread();
+
+        // When
+        CompletableFuture<Thread> future = ledgerExecutor.submit(1L, Thread::currentThread);
+
+        // Then
+        assertFalse(ledgerExecutor.isSerialized());
+        assertSame(caller, future.get());
+    }
+}
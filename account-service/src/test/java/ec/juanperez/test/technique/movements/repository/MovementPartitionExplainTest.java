@@ -0,0 +1,322 @@
+package ec.juanperez.test.technique.movements.repository;
+
+import ec.juanperez.test.technique.app.common.enums.StatusType;
+import ec.juanperez.test.technique.app.movements.dto.MovementDTO;
+import ec.juanperez.test.technique.app.movements.dto.MovementFilter;
+import ec.juanperez.test.technique.app.movements.repository.MovementRepository;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the Flyway migrations on an embedded PostgreSQL, executes the real MovementRepository queries
+ * and checks with EXPLAIN, on the SQL and parameters Hibernate sent, that they prune partitions and
+ * use the (id_cuenta, fecha_movimiento, id_movimiento) and (fecha_movimiento, id_movimiento) indexes.
+ */
+@DataJpaTest(properties = {"spring.jpa.hibernate.ddl-auto=validate", "spring.flyway.enabled=false"})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class MovementPartitionExplainTest {
+
+    private static final int ACCOUNTS = 200;
+    private static final LocalDateTime FEBRUARY_START = LocalDateTime.of(2024, 2, 1, 0, 0);
+    private static final LocalDateTime FEBRUARY_END = LocalDateTime.of(2024, 2, 29, 23, 59, 59);
+
+    private static final List<CapturedStatement> STATEMENTS = new CopyOnWriteArrayList<>();
+
+    private static EmbeddedPostgres postgres;
+    private static JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MovementRepository movementRepository;
+
+    @BeforeAll
+    static void setUp() throws Exception {
+        postgres = EmbeddedPostgres.builder().start();
+        DataSource dataSource = postgres.getPostgresDatabase();
+        jdbcTemplate = new JdbcTemplate(dataSource);
+
+        // Datos cargados antes de particionar, para verificar que V3 los reubica
+        flyway(dataSource, "2").migrate();
+        jdbcTemplate.update("insert into customer_reference (id_cliente, nombre, identificacion, estado) values (1, 'Jose Lema', '0102030405', 'ACTIVE')");
+        jdbcTemplate.update("insert into cuenta (id_cliente, numero_cuenta, tipo_cuenta, saldo_inicial, estado) " +
+                "select 1, 'C' || n, 'AHORROS', 1000, 'ACTIVE' from generate_series(1, ?) n", ACCOUNTS);
+        jdbcTemplate.update("insert into movimientos (id_cuenta, tipo_movimiento, valor, fecha_movimiento, saldo) " +
+                "select a.id_cuenta, 'CREDIT', 10, d + interval '10 hours', 1000 " +
+                "from cuenta a cross join generate_series(timestamp '2024-01-01', timestamp '2024-12-31', interval '1 day') d");
+        flyway(dataSource, "latest").migrate();
+        jdbcTemplate.execute("analyze");
+    }
+
+    @AfterAll
+    static void tearDown() throws Exception {
+        postgres.close();
+    }
+
+    @BeforeEach
+    void clearStatements() {
+        STATEMENTS.clear();
+    }
+
+    @Test
+    void migrationMovesExistingRowsIntoMonthlyPartitions() {
+        assertEquals("p", jdbcTemplate.queryForObject("select relkind::text from pg_class where relname = 'movimientos'", String.class));
+        assertEquals(ACCOUNTS * 366L, jdbcTemplate.queryForObject("select count(*) from movimientos", Long.class));
+        assertEquals(0L, jdbcTemplate.queryForObject("select count(*) from movimientos_default", Long.class));
+        assertEquals(ACCOUNTS * 29L, jdbcTemplate.queryForObject("select count(*) from movimientos_2024_02", Long.class));
+    }
+
+    @Test
+    void createsFuturePartitionsOnlyOnce() {
+        LocalDateTime future = LocalDateTime.now().plusMonths(6);
+        String partition = String.format("movimientos_%d_%02d", future.getYear(), future.getMonthValue());
+
+        Integer created = jdbcTemplate.queryForObject("select crear_particiones_movimientos(current_date, 6)", Integer.class);
+        Integer createdAgain = jdbcTemplate.queryForObject("select crear_particiones_movimientos(current_date, 6)", Integer.class);
+
+        assertTrue(created > 0);
+        assertEquals(0, createdAgain);
+        assertNotNull(jdbcTemplate.queryForObject("select to_regclass(?)::text", String.class, partition));
+    }
+
+    @Test
+    void statementQueryPrunesToRequestedMonth() {
+        // Given
+        try (Stream<MovementDTO> movements = movementRepository.streamMovementsByAccount(10L, FEBRUARY_START, FEBRUARY_END)) {
+            assertEquals(29, movements.count());
+        }
+
+        // When
+        String plan = explain(lastStatement());
+
+        // Then
+        assertOnlyPartition(plan, "movimientos_2024_02");
+        assertTrue(plan.contains("Index"), plan);
+    }
+
+    @Test
+    void statementQueryPrunesAtExecutionWithGenericPlan() {
+        // Given
+        try (Stream<MovementDTO> movements = movementRepository.streamMovementsByAccount(10L, FEBRUARY_START, FEBRUARY_END)) {
+            assertEquals(29, movements.count());
+        }
+        CapturedStatement captured = lastStatement();
+
+        // When: Hibernate reutiliza sentencias preparadas; con plan genérico la poda ocurre al ejecutar
+        String plan = explainGeneric(captured);
+
+        // Then
+        assertTrue(plan.contains("Subplans Removed"), plan);
+        assertOnlyPartition(plan, "movimientos_2024_02");
+    }
+
+    @Test
+    void lastBalanceQueryReadsIndexWithoutSorting() {
+        // Given
+        assertTrue(movementRepository.balanceLastMovement(10L).isPresent());
+
+        // When
+        String plan = explain(lastStatement());
+
+        // Then
+        assertFalse(plan.contains("Seq Scan"), plan);
+        assertNoSort(plan);
+        assertTrue(plan.contains("Index"), plan);
+    }
+
+    @Test
+    void summaryQueryUsesIndexForTotalsAndBalances() {
+        // Given
+        assertEquals(ACCOUNTS, movementRepository.summarizeByCustomer(1L, StatusType.ACTIVE.name(), FEBRUARY_START, FEBRUARY_END).size());
+
+        // When
+        String plan = explain(lastStatement());
+
+        // Then: los totales solo recorren la partición del periodo; los saldos de apertura y cierre leen
+        // una fila del índice por cuenta, sin ordenar movimientos
+        assertFalse(plan.contains("movimientos_2024_03"), plan);
+        assertFalse(plan.contains("Seq Scan on movimientos_2024_01"), plan);
+        assertTrue(plan.contains("Index Scan Backward using movimientos_2024_01_id_cuenta_fecha_movimiento_id_movimient"), plan);
+        assertTrue(plan.contains("Index Scan Backward using movimientos_2024_02_id_cuenta_fecha_movimiento_id_movimient"), plan);
+        assertFalse(plan.lines().anyMatch(line -> line.trim().startsWith("->  Sort")), plan);
+    }
+
+    @Test
+    void pageQuerySeeksIndexAfterCursorWithoutSorting() {
+        // Given
+        LocalDateTime cursor = LocalDateTime.of(2024, 2, 2, 10, 0);
+        assertEquals(3, movementRepository.findMovementsPageAfter(1L, 10L, StatusType.ACTIVE,
+                FEBRUARY_START, FEBRUARY_END, cursor, 5000L, Limit.of(3)).size());
+
+        // When
+        String plan = explain(lastStatement());
+
+        // Then: el cursor es parte de la condición del índice; una página lejana no recorre las anteriores
+        assertOnlyPartition(plan, "movimientos_2024_02");
+        assertTrue(plan.lines().anyMatch(line -> line.contains("Index Cond:") && line.contains("ROW(fecha_movimiento, id_movimiento) > ROW(")), plan);
+        assertNoSort(plan);
+    }
+
+    @Test
+    void listPageQueryReadsPartitionsInOrderWithoutSorting() {
+        // Given
+        assertEquals(50, movementRepository.findPage(new MovementFilter(), LocalDateTime.of(2024, 6, 15, 10, 0), 5000L, 50).size());
+
+        // When
+        String plan = explain(lastStatement());
+
+        // Then: sin filtros, GET /movements recorre las particiones en orden por el índice (fecha, id) desde el cursor
+        assertNoSort(plan);
+        assertFalse(plan.contains("Seq Scan on movimientos"), plan);
+        assertTrue(plan.contains("movimientos_2024_06_fecha_movimiento_id_movimiento_idx"), plan);
+        assertTrue(plan.lines().anyMatch(line -> line.contains("Index Cond:") && line.contains("ROW(fecha_movimiento, id_movimiento) > ROW(")), plan);
+    }
+
+    private static void assertOnlyPartition(String plan, String partition) {
+        assertTrue(plan.contains(partition), plan);
+        assertFalse(plan.contains("movimientos_2024_01"), plan);
+        assertFalse(plan.contains("movimientos_2024_03"), plan);
+        assertFalse(plan.contains("movimientos_default"), plan);
+        assertFalse(plan.contains("Seq Scan on movimientos"), plan);
+    }
+
+    private static void assertNoSort(String plan) {
+        assertFalse(plan.lines().anyMatch(line -> line.trim().matches("(->\\s+)?(Incremental )?Sort")), plan);
+    }
+
+    private static CapturedStatement lastStatement() {
+        return STATEMENTS.stream()
+                .filter(statement -> statement.sql().contains("movimientos"))
+                .reduce((first, second) -> second)
+                .orElseThrow(() -> new AssertionError("No statement on movimientos was executed"));
+    }
+
+    // EXPLAIN de la sentencia capturada con los mismos parámetros que envió Hibernate
+    private static String explain(CapturedStatement captured) {
+        List<Object> params = new ArrayList<>(captured.params().values());
+        return jdbcTemplate.execute((Connection connection) -> {
+            try (PreparedStatement statement = connection.prepareStatement("explain (costs off) " + captured.sql())) {
+                for (int i = 0; i < params.size(); i++) {
+                    statement.setObject(i + 1, params.get(i));
+                }
+                return readPlan(statement.executeQuery());
+            }
+        });
+    }
+
+    private static String explainGeneric(CapturedStatement captured) {
+        String sql = captured.sql();
+        for (int i = 1; i <= captured.params().size(); i++) {
+            sql = sql.replaceFirst("\\?", "\\$" + i);
+        }
+        String arguments = captured.params().values().stream()
+                .map(value -> value instanceof Number ? value.toString() : "'" + value + "'")
+                .collect(Collectors.joining(", "));
+        String prepared = sql;
+        return jdbcTemplate.execute((Connection connection) -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("set plan_cache_mode = force_generic_plan");
+                statement.execute("prepare capturada as " + prepared);
+                String plan = readPlan(statement.executeQuery("explain (analyze, costs off, timing off) execute capturada(" + arguments + ")"));
+                statement.execute("deallocate capturada");
+                statement.execute("reset plan_cache_mode");
+                return plan;
+            }
+        });
+    }
+
+    private static String readPlan(ResultSet resultSet) throws java.sql.SQLException {
+        List<String> lines = new ArrayList<>();
+        while (resultSet.next()) {
+            lines.add(resultSet.getString(1));
+        }
+        return String.join("\n", lines);
+    }
+
+    private static Flyway flyway(DataSource dataSource, String target) {
+        return Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration")
+                .table("account_schema_history")
+                .target(target)
+                .load();
+    }
+
+    private record CapturedStatement(String sql, Map<Integer, Object> params) {
+    }
+
+    // DataSource que registra cada sentencia preparada que ejecuta Hibernate junto con sus parámetros
+    @TestConfiguration
+    static class CapturingDataSourceConfig {
+
+        @Bean
+        DataSource dataSource() {
+            DataSource target = postgres.getPostgresDatabase();
+            return (DataSource) Proxy.newProxyInstance(DataSource.class.getClassLoader(), new Class<?>[]{DataSource.class},
+                    (proxy, method, args) -> {
+                        Object result = invoke(target, method, args);
+                        return result instanceof Connection connection ? capturing(connection) : result;
+                    });
+        }
+
+        private static Connection capturing(Connection connection) {
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                    (proxy, method, args) -> {
+                        Object result = invoke(connection, method, args);
+                        if (method.getName().equals("prepareStatement") && result instanceof PreparedStatement statement) {
+                            return capturing(statement, (String) args[0]);
+                        }
+                        return result;
+                    });
+        }
+
+        private static PreparedStatement capturing(PreparedStatement statement, String sql) {
+            Map<Integer, Object> params = new TreeMap<>();
+            return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(), new Class<?>[]{PreparedStatement.class},
+                    (proxy, method, args) -> {
+                        String name = method.getName();
+                        if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                            params.put(index, name.equals("setNull") ? null : args[1]);
+                        } else if (name.startsWith("execute") && (args == null || args.length == 0)) {
+                            STATEMENTS.add(new CapturedStatement(sql, new TreeMap<>(params)));
+                        }
+                        return invoke(statement, method, args);
+                    });
+        }
+
+        private static Object invoke(Object target, java.lang.reflect.Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
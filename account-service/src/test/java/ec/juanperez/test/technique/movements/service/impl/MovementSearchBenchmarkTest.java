@@ -0,0 +1,183 @@
+package ec.juanperez.test.technique.movements.service.impl;
+
+import ec.juanperez.test.technique.app.accounts.mapper.AccountMapperImpl;
+import ec.juanperez.test.technique.app.accounts.service.impl.AccountServiceImpl;
+import ec.juanperez.test.technique.app.movements.dto.MovementPageDTO;
+import ec.juanperez.test.technique.app.movements.dto.MovementSearchCriteria;
+import ec.juanperez.test.technique.app.movements.enums.MovementType;
+import ec.juanperez.test.technique.app.movements.mapper.MovementMapperImpl;
+import ec.juanperez.test.technique.app.movements.service.MovementService;
+import ec.juanperez.test.technique.app.movements.service.impl.MovementServiceImpl;
+import ec.juanperez.test.technique.app.movements.snapshot.AccountDailySnapshotService;
+import ec.juanperez.test.technique.config.CacheConfig;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Search benchmark: p50/p95 latency of GET /movements/search per filter combination over a synthetic
+ * year of movements on an embedded PostgreSQL migrated with Flyway, checked against the search timeout.
+ * Ten million movements by default; BENCHMARK_SEARCH_ROWS sets another size.
+ * Run with: gradle test -Pbenchmark --tests '*MovementSearchBenchmarkTest'
+ */
+@Tag("benchmark")
+@DataJpaTest(properties = {"spring.jpa.hibernate.ddl-auto=none", "spring.flyway.enabled=false"})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({MovementServiceImpl.class, AccountDailySnapshotService.class, AccountServiceImpl.class, MovementMapperImpl.class, AccountMapperImpl.class, CacheConfig.class})
+class MovementSearchBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(MovementSearchBenchmarkTest.class);
+
+    private static final long ROWS = Long.parseLong(System.getenv().getOrDefault("BENCHMARK_SEARCH_ROWS", "10000000"));
+    private static final int MOVEMENTS_PER_ACCOUNT = 100;
+    private static final int ACCOUNTS = (int) Math.max(1, ROWS / MOVEMENTS_PER_ACCOUNT);
+    private static final int ITERATIONS = 30;
+    private static final int PAGE_SIZE = 50;
+    private static final LocalDateTime YEAR_START = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    private static EmbeddedPostgres postgres;
+
+    @Autowired
+    private MovementService movementService;
+
+    @Value("${movements.search.timeout}")
+    private Duration budget;
+
+    @BeforeAll
+    static void setUp() throws Exception {
+        postgres = EmbeddedPostgres.builder().start();
+        DataSource dataSource = postgres.getPostgresDatabase();
+        Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration")
+                .table("account_schema_history")
+                .load()
+                .migrate();
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.queryForObject("select crear_particiones_movimientos(date '2024-01-01', 1)", Integer.class);
+
+        // Un año de movimientos repartidos al azar entre las cuentas, tipos e importes entre 0 y 1000
+        long begin = System.nanoTime();
+        jdbcTemplate.update("insert into customer_reference (id_cliente, nombre, identificacion, estado) values (1, 'Jose Lema', '0102030405', 'ACTIVE')");
+        jdbcTemplate.update("insert into cuenta (id_cliente, numero_cuenta, tipo_cuenta, saldo_inicial, estado) " +
+                "select 1, 'C' || n, 'AHORROS', 1000, 'ACTIVE' from generate_series(1, ?) n", ACCOUNTS);
+        long firstAccountId = jdbcTemplate.queryForObject("select min(id_cuenta) from cuenta", Long.class);
+        jdbcTemplate.update("insert into movimientos (id_cuenta, tipo_movimiento, valor, fecha_movimiento, saldo) " +
+                "select ? + n % ?, case when n % 3 = 0 then 'DEBIT' else 'CREDIT' end, " +
+                "round((random() * 1000)::numeric, 2), " +
+                "timestamp '2024-01-01' + random() * interval '366 days', 1000 " +
+                "from generate_series(1, ?) n", firstAccountId, ACCOUNTS, ROWS);
+        jdbcTemplate.execute("vacuum analyze");
+        log.info("search dataset rows={} accounts={} loaded in {}s",
+                ROWS, ACCOUNTS, TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - begin));
+    }
+
+    @AfterAll
+    static void tearDown() throws Exception {
+        postgres.close();
+    }
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "");
+    }
+
+    @Test
+    void benchmarkSearchLatencyByFilters() {
+        Random random = new Random(42);
+        Map<String, Function<Integer, MovementSearchCriteria>> scenarios = new LinkedHashMap<>();
+        scenarios.put("account", i -> new MovementSearchCriteria(account(random), null, null, null, null, null));
+        scenarios.put("account+type+amount", i -> new MovementSearchCriteria(account(random), MovementType.DEBIT,
+                new BigDecimal("100.00"), new BigDecimal("600.00"), null, null));
+        scenarios.put("account+month", i -> {
+            LocalDateTime start = month(random);
+            return new MovementSearchCriteria(account(random), null, null, null, start, start.plusMonths(1).minusSeconds(1));
+        });
+        scenarios.put("type+month", i -> {
+            LocalDateTime start = month(random);
+            return new MovementSearchCriteria(null, MovementType.DEBIT, null, null, start, start.plusDays(30));
+        });
+        scenarios.put("wideAmount+month", i -> {
+            LocalDateTime start = month(random);
+            return new MovementSearchCriteria(null, null, new BigDecimal("500.00"), null, start, start.plusDays(30));
+        });
+        scenarios.put("narrowAmount+month", i -> {
+            LocalDateTime start = month(random);
+            BigDecimal min = BigDecimal.valueOf(random.nextInt(99_000), 2);
+            return new MovementSearchCriteria(null, null, min, min.add(new BigDecimal("0.10")), start, start.plusDays(30));
+        });
+
+        for (Map.Entry<String, Function<Integer, MovementSearchCriteria>> scenario : scenarios.entrySet()) {
+            // Calentamiento del plan y de la caché de la base antes de medir
+            for (int i = 0; i < 3; i++) {
+                this.movementService.search(scenario.getValue().apply(i), null, PAGE_SIZE);
+            }
+            List<Long> firstPage = new ArrayList<>();
+            List<Long> nextPage = new ArrayList<>();
+            for (int i = 0; i < ITERATIONS; i++) {
+                MovementSearchCriteria criteria = scenario.getValue().apply(i);
+                long begin = System.nanoTime();
+                MovementPageDTO page = this.movementService.search(criteria, null, PAGE_SIZE);
+                firstPage.add(System.nanoTime() - begin);
+                if (page.getNextCursor() != null) {
+                    begin = System.nanoTime();
+                    this.movementService.search(criteria, page.getNextCursor(), PAGE_SIZE);
+                    nextPage.add(System.nanoTime() - begin);
+                }
+            }
+            report(scenario.getKey(), "first", firstPage);
+            if (!nextPage.isEmpty()) {
+                report(scenario.getKey(), "next", nextPage);
+            }
+        }
+    }
+
+    private void report(String scenario, String page, List<Long> samples) {
+        Collections.sort(samples);
+        long p50 = TimeUnit.NANOSECONDS.toMillis(samples.get(samples.size() / 2));
+        long p95 = TimeUnit.NANOSECONDS.toMillis(samples.get((int) Math.ceil(samples.size() * 0.95) - 1));
+        log.info("search rows={} filters={} page={} samples={} p50={}ms p95={}ms budget={}ms",
+                ROWS, scenario, page, samples.size(), p50, p95, this.budget.toMillis());
+        assertFalse(samples.isEmpty());
+        assertTrue(p95 < this.budget.toMillis(), scenario + " p95 " + p95 + "ms exceeds the budget");
+    }
+
+    private static String account(Random random) {
+        return "C" + (1 + random.nextInt(ACCOUNTS));
+    }
+
+    private static LocalDateTime month(Random random) {
+        return YEAR_START.plusMonths(random.nextInt(11));
+    }
+}
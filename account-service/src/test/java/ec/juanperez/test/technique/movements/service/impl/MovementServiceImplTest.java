@@ -0,0 +1,440 @@
+package ec.juanperez.test.technique.movements.service.impl;
+
+import ec.juanperez.test.technique.app.accounts.dto.AccountDTO;
+import ec.juanperez.test.technique.app.accounts.enums.AccountType;
+import ec.juanperez.test.technique.app.accounts.exception.AccountNotFoundException;
+import ec.juanperez.test.technique.app.accounts.service.AccountService;
+import ec.juanperez.test.technique.app.common.enums.StatusType;
+import ec.juanperez.test.technique.app.movements.dto.BatchMovementResultDTO;
+import ec.juanperez.test.technique.app.movements.dto.MovementDTO;
+import ec.juanperez.test.technique.app.movements.dto.RegisterMovementRequest;
+import ec.juanperez.test.technique.app.movements.enums.MovementType;
+import ec.juanperez.test.technique.app.movements.exceptions.MovementBalanceException;
+import ec.juanperez.test.technique.app.movements.exceptions.MovementValueException;
+import ec.juanperez.test.technique.app.movements.mapper.MovementMapper;
+import ec.juanperez.test.technique.app.movements.model.AccountBalance;
+import ec.juanperez.test.technique.app.movements.model.Movements;
+import ec.juanperez.test.technique.app.movements.repository.AccountBalanceRepository;
+import ec.juanperez.test.technique.app.movements.repository.MovementRepository;
+import ec.juanperez.test.technique.app.movements.service.impl.MovementServiceImpl;
+import ec.juanperez.test.technique.app.movements.snapshot.AccountDailySnapshotService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MovementServiceImplTest {
+
+    @Mock
+    private MovementRepository repository;
+
+    @Mock
+    private AccountBalanceRepository balanceRepository;
+
+    @Mock
+    private MovementMapper mapper;
+
+    @Mock
+    private AccountService accountService;
+
+    @Mock
+    private AccountDailySnapshotService snapshotService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private MovementServiceImpl movementService;
+
+    private AccountDTO accountDTO;
+    private MovementDTO movementDTO;
+    private Movements movement;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(movementService, "batchMaxSize", 3);
+
+        accountDTO = new AccountDTO();
+        accountDTO.setId(1L);
+        accountDTO.setNumber("478758");
+        accountDTO.setAccountType(AccountType.AHORROS);
+        accountDTO.setInitialBalance(new BigDecimal("1000.00"));
+        accountDTO.setStatus(StatusType.ACTIVE);
+
+        movementDTO = new MovementDTO();
+        movementDTO.setId(1L);
+        movementDTO.setAccountId(1L);
+        movementDTO.setAccountNumber("478758");
+        movementDTO.setMovementType(MovementType.CREDIT);
+        movementDTO.setValue(new BigDecimal("100.00"));
+        movementDTO.setFechaMovimiento(LocalDateTime.now());
+        movementDTO.setBalance(new BigDecimal("1100.00"));
+
+        movement = new Movements();
+        movement.setId(1L);
+        movement.setValue(new BigDecimal("100.00"));
+        movement.setBalance(new BigDecimal("1100.00"));
+    }
+
+    @Test
+    void testRegisterMovementByType_CreditWithMaterializedBalance_Success() {
+        // Given
+        Long accountId = 1L;
+        AccountBalance accountBalance = new AccountBalance(accountId, new BigDecimal("500.00"), LocalDateTime.now(), 3L);
+
+        when(accountService.findById(accountId)).thenReturn(Optional.of(accountDTO));
+        when(balanceRepository.findById(accountId)).thenReturn(Optional.of(accountBalance));
+        when(mapper.toEntity(any(MovementDTO.class))).thenReturn(movement);
+        when(repository.save(any(Movements.class))).thenReturn(movement);
+
+        // When
+        MovementDTO result = movementService.registerMovementByType(accountId, MovementType.CREDIT, new BigDecimal("150.00"));
+
+        // Then
+        assertNotNull(result);
+        assertEquals(movement.getId(), result.getId());
+        assertEquals("478758", result.getAccountNumber());
+        assertEquals(new BigDecimal("650.00"), result.getBalance());
+        assertEquals(new BigDecimal("650.00"), accountBalance.getBalance());
+        verify(repository, never()).balanceLastMovement(any());
+        verify(repository, never()).findByIdWithAccount(any());
+        verify(accountService, times(1)).findById(accountId);
+        verify(balanceRepository, times(1)).save(accountBalance);
+        verify(repository, times(1)).save(any(Movements.class));
+        verify(snapshotService, times(1)).record(List.of(result));
+    }
+
+    @Test
+    void testRegisterMovementByType_DebitSeedsBalanceFromHistory_Success() {
+        // Given
+        Long accountId = 1L;
+
+        when(accountService.findById(accountId)).thenReturn(Optional.of(accountDTO));
+        when(balanceRepository.findById(accountId)).thenReturn(Optional.empty());
+        when(repository.balanceLastMovement(accountId)).thenReturn(Optional.of(new BigDecimal("800.00")));
+        when(mapper.toEntity(any(MovementDTO.class))).thenReturn(movement);
+        when(repository.save(any(Movements.class))).thenReturn(movement);
+
+        // When
+        movementService.registerMovementByType(accountId, MovementType.DEBIT, new BigDecimal("300.00"));
+
+        // Then
+        ArgumentCaptor<AccountBalance> captor = ArgumentCaptor.forClass(AccountBalance.class);
+        verify(balanceRepository, times(1)).save(captor.capture());
+        assertEquals(accountId, captor.getValue().getAccountId());
+        assertEquals(new BigDecimal("500.00"), captor.getValue().getBalance());
+        verify(repository, times(1)).balanceLastMovement(accountId);
+    }
+
+    @Test
+    void testRegisterMovementByType_CreditSeedsBalanceFromInitialBalance_Success() {
+        // Given
+        Long accountId = 1L;
+
+        when(accountService.findById(accountId)).thenReturn(Optional.of(accountDTO));
+        when(balanceRepository.findById(accountId)).thenReturn(Optional.empty());
+        when(repository.balanceLastMovement(accountId)).thenReturn(Optional.empty());
+        when(mapper.toEntity(any(MovementDTO.class))).thenReturn(movement);
+        when(repository.save(any(Movements.class))).thenReturn(movement);
+
+        // When
+        movementService.registerMovementByType(accountId, MovementType.CREDIT, new BigDecimal("100.00"));
+
+        // Then
+        ArgumentCaptor<AccountBalance> captor = ArgumentCaptor.forClass(AccountBalance.class);
+        verify(balanceRepository, times(1)).save(captor.capture());
+        assertEquals(new BigDecimal("1100.00"), captor.getValue().getBalance());
+    }
+
+    @Test
+    void testRegisterMovementByType_DebitInsufficientBalance_ThrowsException() {
+        // Given
+        Long accountId = 1L;
+        AccountBalance accountBalance = new AccountBalance(accountId, new BigDecimal("100.00"), LocalDateTime.now(), 0L);
+
+        when(accountService.findById(accountId)).thenReturn(Optional.of(accountDTO));
+        when(balanceRepository.findById(accountId)).thenReturn(Optional.of(accountBalance));
+
+        // When & Then
+        assertThrows(MovementBalanceException.class, () ->
+                movementService.registerMovementByType(accountId, MovementType.DEBIT, new BigDecimal("150.00")));
+        assertEquals(new BigDecimal("100.00"), accountBalance.getBalance());
+        verify(balanceRepository, never()).save(any());
+        verify(repository, never()).save(any());
+    }
+
+    @Test
+    void testRegisterMovementByType_AccountNotFound_ThrowsException() {
+        // Given
+        when(accountService.findById(999L)).thenReturn(Optional.empty());
+
+        // When & Then
+        assertThrows(AccountNotFoundException.class, () ->
+                movementService.registerMovementByType(999L, MovementType.CREDIT, new BigDecimal("100.00")));
+        verify(balanceRepository, never()).findById(any());
+        verify(repository, never()).save(any());
+    }
+
+    @Test
+    void testRegisterMovementByType_ValueZero_ThrowsException() {
+        // Given
+        when(accountService.findById(1L)).thenReturn(Optional.of(accountDTO));
+
+        // When & Then
+        assertThrows(MovementValueException.class, () ->
+                movementService.registerMovementByType(1L, MovementType.CREDIT, BigDecimal.ZERO));
+        verify(balanceRepository, never()).findById(any());
+        verify(repository, never()).save(any());
+    }
+
+    @Test
+    void testGetCurrentBalance_FromMaterializedBalance() {
+        // Given
+        Long accountId = 1L;
+        when(balanceRepository.findById(accountId))
+                .thenReturn(Optional.of(new AccountBalance(accountId, new BigDecimal("750.00"), LocalDateTime.now(), 1L)));
+
+        // When
+        Optional<BigDecimal> result = movementService.getCurrentBalance(accountId);
+
+        // Then
+        assertEquals(Optional.of(new BigDecimal("750.00")), result);
+        verify(repository, never()).balanceLastMovement(any());
+    }
+
+    @Test
+    void testGetMovementsByCustomerIdAndDates_SingleQueryGroupedByAccount() {
+        // Given
+        AccountDTO secondAccount = new AccountDTO();
+        secondAccount.setId(2L);
+        secondAccount.setNumber("225487");
+        secondAccount.setAccountType(AccountType.CORRIENTE);
+        AccountDTO emptyAccount = new AccountDTO();
+        emptyAccount.setId(3L);
+        emptyAccount.setNumber("495878");
+        emptyAccount.setAccountType(AccountType.AHORROS);
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 0, 0);
+        LocalDateTime end = LocalDateTime.of(2024, 1, 31, 23, 59, 59);
+        MovementDTO first = new MovementDTO(1L, MovementType.CREDIT, new BigDecimal("100.00"), start.plusDays(1), new BigDecimal("1100.00"), 1L, "478758");
+        MovementDTO second = new MovementDTO(2L, MovementType.DEBIT, new BigDecimal("50.00"), start.plusDays(2), new BigDecimal("1050.00"), 1L, "478758");
+        MovementDTO third = new MovementDTO(3L, MovementType.CREDIT, new BigDecimal("10.00"), start.plusDays(1), new BigDecimal("110.00"), 2L, "225487");
+
+        when(accountService.findAllByCustomerId(1L)).thenReturn(List.of(accountDTO, secondAccount, emptyAccount));
+        when(repository.findMovementsByCustomer(1L, StatusType.ACTIVE, start, end)).thenReturn(List.of(first, second, third));
+
+        // When
+        Map<String, List<MovementDTO>> result = movementService.getMovementsByCustomerIdAndDates(1L, start, end);
+
+        // Then
+        assertEquals(List.of("478758-AHORROS", "225487-CORRIENTE", "495878-AHORROS"), List.copyOf(result.keySet()));
+        assertEquals(List.of(first, second), result.get("478758-AHORROS"));
+        assertEquals(List.of(third), result.get("225487-CORRIENTE"));
+        assertTrue(result.get("495878-AHORROS").isEmpty());
+        verify(repository, times(1)).findMovementsByCustomer(1L, StatusType.ACTIVE, start, end);
+    }
+
+    @Test
+    void testRegisterMovementsBatch_MixedResults_SavesOnlyValidItems() {
+        // Given
+        Long accountId = 1L;
+        AccountBalance accountBalance = new AccountBalance(accountId, new BigDecimal("100.00"), LocalDateTime.now(), 0L);
+        List<RegisterMovementRequest> requests = List.of(
+                new RegisterMovementRequest(accountId, new BigDecimal("50.00"), MovementType.CREDIT),
+                new RegisterMovementRequest(accountId, new BigDecimal("500.00"), MovementType.DEBIT),
+                new RegisterMovementRequest(accountId, new BigDecimal("120.00"), MovementType.DEBIT));
+
+        when(accountService.findById(accountId)).thenReturn(Optional.of(accountDTO));
+        when(balanceRepository.findById(accountId)).thenReturn(Optional.of(accountBalance));
+        when(mapper.toEntity(any(MovementDTO.class))).thenAnswer(invocation -> new Movements());
+        when(repository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Movements> movements = invocation.getArgument(0);
+            for (int i = 0; i < movements.size(); i++) {
+                movements.get(i).setId(10L + i);
+            }
+            return movements;
+        });
+
+        // When
+        List<BatchMovementResultDTO> results = movementService.registerMovementsBatch(requests);
+
+        // Then
+        assertEquals(3, results.size());
+        assertTrue(results.get(0).isSuccess());
+        assertEquals(new BigDecimal("150.00"), results.get(0).getMovement().getBalance());
+        assertEquals(10L, results.get(0).getMovement().getId());
+        assertFalse(results.get(1).isSuccess());
+        assertEquals("Saldo no disponible", results.get(1).getError());
+        assertTrue(results.get(2).isSuccess());
+        assertEquals(new BigDecimal("30.00"), results.get(2).getMovement().getBalance());
+        assertEquals(new BigDecimal("30.00"), accountBalance.getBalance());
+        verify(accountService, times(1)).findById(accountId);
+        verify(repository, times(1)).saveAll(argThat(movements -> ((List<?>) movements).size() == 2));
+        verify(repository, never()).save(any());
+        verify(snapshotService, times(1)).record(argThat(movements -> movements.size() == 2));
+    }
+
+    @Test
+    void testRegisterMovementsBatch_InvalidItems_ReportedPerItem() {
+        // Given
+        List<RegisterMovementRequest> requests = List.of(
+                new RegisterMovementRequest(1L, new BigDecimal("10.00")),
+                new RegisterMovementRequest(999L, new BigDecimal("10.00"), MovementType.CREDIT),
+                new RegisterMovementRequest(1L, BigDecimal.ZERO, MovementType.CREDIT));
+
+        when(accountService.findById(999L)).thenReturn(Optional.empty());
+        when(repository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        List<BatchMovementResultDTO> results = movementService.registerMovementsBatch(requests);
+
+        // Then
+        assertTrue(results.stream().noneMatch(BatchMovementResultDTO::isSuccess));
+        assertEquals("Movement type is required", results.get(0).getError());
+        assertEquals("Account not found with id: 999", results.get(1).getError());
+        verify(balanceRepository, never()).findById(any());
+    }
+
+    @Test
+    void testRegisterMovementsBatch_ConcurrentMovementConflict_RetriesBatch() {
+        // Given - a single movement on the same account commits between the batch read and its flush
+        Long accountId = 1L;
+        when(accountService.findById(accountId)).thenReturn(Optional.of(accountDTO));
+        when(balanceRepository.findById(accountId))
+                .thenReturn(Optional.of(new AccountBalance(accountId, new BigDecimal("100.00"), LocalDateTime.now(), 0L)))
+                .thenReturn(Optional.of(new AccountBalance(accountId, new BigDecimal("80.00"), LocalDateTime.now(), 1L)));
+        when(mapper.toEntity(any(MovementDTO.class))).thenAnswer(invocation -> new Movements());
+        when(repository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(balanceRepository.saveAll(anyCollection()))
+                .thenThrow(new ObjectOptimisticLockingFailureException(AccountBalance.class, accountId))
+                .thenAnswer(invocation -> List.copyOf(invocation.<Collection<AccountBalance>>getArgument(0)));
+
+        // When
+        List<BatchMovementResultDTO> results = movementService.registerMovementsBatch(
+                List.of(new RegisterMovementRequest(accountId, new BigDecimal("30.00"), MovementType.DEBIT)));
+
+        // Then - the second attempt applies the movement on the balance read again
+        assertTrue(results.get(0).isSuccess());
+        assertEquals(new BigDecimal("50.00"), results.get(0).getMovement().getBalance());
+        verify(transactionManager, times(2)).getTransaction(any());
+        verify(transactionManager, times(1)).rollback(any());
+        verify(transactionManager, times(1)).commit(any());
+    }
+
+    @Test
+    void testRegisterMovementsBatch_PersistentConflict_FailsAfterRetries() {
+        // Given
+        when(accountService.findById(1L)).thenReturn(Optional.of(accountDTO));
+        when(balanceRepository.findById(1L)).thenAnswer(invocation ->
+                Optional.of(new AccountBalance(1L, new BigDecimal("100.00"), LocalDateTime.now(), 0L)));
+        when(mapper.toEntity(any(MovementDTO.class))).thenAnswer(invocation -> new Movements());
+        when(repository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(balanceRepository.saveAll(anyCollection())).thenThrow(new ObjectOptimisticLockingFailureException(AccountBalance.class, 1L));
+
+        // When & Then
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> movementService.registerMovementsBatch(
+                List.of(new RegisterMovementRequest(1L, new BigDecimal("10.00"), MovementType.CREDIT))));
+        verify(transactionManager, times(3)).getTransaction(any());
+    }
+
+    @Test
+    void testRegisterMovementsBatch_SizeExceeded_ThrowsException() {
+        // Given
+        RegisterMovementRequest request = new RegisterMovementRequest(1L, new BigDecimal("10.00"), MovementType.CREDIT);
+
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () ->
+                movementService.registerMovementsBatch(List.of(request, request, request, request)));
+        verify(repository, never()).saveAll(any());
+    }
+
+    @Test
+    void testCreate_BuildsResponseWithoutReload() {
+        // Given
+        MovementDTO newMovementDTO = new MovementDTO();
+        newMovementDTO.setAccountId(1L);
+        newMovementDTO.setAccountNumber("478758");
+        newMovementDTO.setValue(new BigDecimal("100.00"));
+        MovementDTO mappedDTO = new MovementDTO();
+        mappedDTO.setId(1L);
+        mappedDTO.setAccountId(1L);
+
+        when(mapper.toEntity(newMovementDTO)).thenReturn(movement);
+        when(repository.save(movement)).thenReturn(movement);
+        when(mapper.toDTO(movement)).thenReturn(mappedDTO);
+
+        // When
+        MovementDTO result = movementService.create(newMovementDTO);
+
+        // Then
+        assertEquals(1L, result.getId());
+        assertEquals("478758", result.getAccountNumber());
+        verify(repository, never()).findByIdWithAccount(any());
+        verify(accountService, never()).findById(any());
+    }
+
+    @Test
+    void testCreate_SyncsMaterializedBalanceWithLastMovement() {
+        // Given
+        MovementDTO newMovementDTO = new MovementDTO();
+        newMovementDTO.setAccountId(1L);
+        newMovementDTO.setAccountNumber("478758");
+        newMovementDTO.setValue(new BigDecimal("100.00"));
+        AccountBalance accountBalance = new AccountBalance(1L, new BigDecimal("1000.00"), LocalDateTime.now(), 1L);
+
+        when(balanceRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(accountBalance));
+        when(mapper.toEntity(newMovementDTO)).thenReturn(movement);
+        when(repository.save(movement)).thenReturn(movement);
+        when(mapper.toDTO(movement)).thenReturn(movementDTO);
+        when(repository.balanceLastMovement(1L)).thenReturn(Optional.of(new BigDecimal("1100.00")));
+
+        // When
+        movementService.create(newMovementDTO);
+
+        // Then
+        assertEquals(new BigDecimal("1100.00"), accountBalance.getBalance());
+        verify(repository).flush();
+        verify(balanceRepository).save(accountBalance);
+    }
+
+    @Test
+    void testDelete_LastMovementOfAccount_ResetsMaterializedBalanceToInitialBalance() {
+        // Given
+        AccountBalance accountBalance = new AccountBalance(1L, new BigDecimal("1100.00"), LocalDateTime.now(), 1L);
+
+        when(repository.findByIdWithAccount(1L)).thenReturn(Optional.of(movement));
+        when(mapper.toDTO(movement)).thenReturn(movementDTO);
+        when(balanceRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(accountBalance));
+        when(repository.balanceLastMovement(1L)).thenReturn(Optional.empty());
+        when(accountService.findById(1L)).thenReturn(Optional.of(accountDTO));
+
+        // When
+        movementService.delete(1L);
+
+        // Then
+        assertEquals(new BigDecimal("1000.00"), accountBalance.getBalance());
+        verify(repository).deleteById(1L);
+        verify(balanceRepository).save(accountBalance);
+    }
+}
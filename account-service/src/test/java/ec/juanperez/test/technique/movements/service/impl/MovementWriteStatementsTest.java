@@ -0,0 +1,327 @@
+package ec.juanperez.test.technique.movements.service.impl;
+
+import ec.juanperez.test.technique.app.accounts.enums.AccountType;
+import ec.juanperez.test.technique.app.accounts.mapper.AccountMapperImpl;
+import ec.juanperez.test.technique.app.accounts.model.Account;
+import ec.juanperez.test.technique.app.accounts.repository.AccountRepository;
+import ec.juanperez.test.technique.app.accounts.service.impl.AccountServiceImpl;
+import ec.juanperez.test.technique.app.common.enums.StatusType;
+import ec.juanperez.test.technique.app.movements.dto.AccountPeriodSummaryDTO;
+import ec.juanperez.test.technique.app.movements.dto.MovementDTO;
+import ec.juanperez.test.technique.app.movements.dto.MovementFilter;
+import ec.juanperez.test.technique.app.movements.dto.MovementPageDTO;
+import ec.juanperez.test.technique.app.movements.dto.MovementSearchCriteria;
+import ec.juanperez.test.technique.app.movements.enums.MovementType;
+import ec.juanperez.test.technique.app.movements.mapper.MovementMapperImpl;
+import ec.juanperez.test.technique.app.movements.model.Movements;
+import ec.juanperez.test.technique.app.movements.repository.MovementRepository;
+import ec.juanperez.test.technique.app.movements.service.MovementService;
+import ec.juanperez.test.technique.app.movements.service.impl.MovementServiceImpl;
+import ec.juanperez.test.technique.app.movements.snapshot.AccountDailySnapshotService;
+import ec.juanperez.test.technique.config.CacheConfig;
+import ec.juanperez.test.technique.model.CustomerReference;
+import ec.juanperez.test.technique.repository.CustomerReferenceRepository;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({MovementServiceImpl.class, AccountDailySnapshotService.class, AccountServiceImpl.class, MovementMapperImpl.class, AccountMapperImpl.class, CacheConfig.class})
+class MovementWriteStatementsTest {
+
+    @Autowired
+    private MovementService movementService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private CustomerReferenceRepository customerReferenceRepository;
+
+    @Autowired
+    private MovementRepository movementRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Statistics statistics;
+    private Long accountId;
+
+    @BeforeEach
+    void setUp() {
+        CustomerReference customer = customerReferenceRepository.save(
+                new CustomerReference(1L, "Jose Lema", "1234567890", StatusType.ACTIVE));
+        Account account = new Account(null, "478758", AccountType.AHORROS, new BigDecimal("2000.00"), StatusType.ACTIVE, customer);
+        accountId = accountRepository.save(account).getId();
+
+        // Calentamiento: inicializa el saldo materializado y el bloque de ids de la secuencia pooled
+        movementService.registerMovementByType(accountId, MovementType.CREDIT, new BigDecimal("100.00"));
+        movementService.registerMovementByType(accountId, MovementType.CREDIT, new BigDecimal("100.00"));
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void testRegisterMovement_NoReloadAfterInsert() {
+        // When
+        MovementDTO result = movementService.registerMovementByType(accountId, MovementType.DEBIT, new BigDecimal("575.00"));
+        entityManager.flush();
+
+        // Then - account lookup (@DataJpaTest uses a no-op cache), current balance, movement insert, balance update,
+        // and the lookup and update of the day's snapshot
+        assertNotNull(result.getId());
+        assertEquals("478758", result.getAccountNumber());
+        assertEquals(0, new BigDecimal("1625.00").compareTo(result.getBalance()));
+        assertEquals(1, statistics.getQueryExecutionCount(), "only the account lookup query should run");
+        assertEquals(1, statistics.getEntityInsertCount());
+        assertEquals(2, statistics.getEntityUpdateCount());
+        assertEquals(6, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void testGetCurrentBalances_ConstantQueriesForManyAccounts() {
+        // Given - a second account with history but no materialized balance, and a third one without movements
+        CustomerReference customer = customerReferenceRepository.findById(1L).orElseThrow();
+        Account withHistory = accountRepository.save(new Account(null, "225487", AccountType.CORRIENTE, new BigDecimal("100.00"), StatusType.ACTIVE, customer));
+        Account withoutMovements = accountRepository.save(new Account(null, "495878", AccountType.AHORROS, new BigDecimal("0.00"), StatusType.ACTIVE, customer));
+        LocalDateTime now = LocalDateTime.now();
+        movementRepository.save(new Movements(null, MovementType.CREDIT, new BigDecimal("600.00"), now.minusDays(2), new BigDecimal("700.00"), withHistory));
+        movementRepository.save(new Movements(null, MovementType.DEBIT, new BigDecimal("150.00"), now.minusDays(1), new BigDecimal("550.00"), withHistory));
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+
+        // When
+        Map<Long, BigDecimal> balances = movementService.getCurrentBalances(List.of(accountId, withHistory.getId(), withoutMovements.getId()));
+
+        // Then - one lookup of materialized balances and one query for the latest movement of the rest
+        assertEquals(0, new BigDecimal("2200.00").compareTo(balances.get(accountId)));
+        assertEquals(0, new BigDecimal("550.00").compareTo(balances.get(withHistory.getId())));
+        assertFalse(balances.containsKey(withoutMovements.getId()));
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void testGetAccountSummaries_SingleGroupedQuery() {
+        // Given - movements before, inside and after the range, and an account without movements
+        CustomerReference customer = customerReferenceRepository.findById(1L).orElseThrow();
+        Account checking = accountRepository.save(new Account(null, "225487", AccountType.CORRIENTE, new BigDecimal("100.00"), StatusType.ACTIVE, customer));
+        Account withoutMovements = accountRepository.save(new Account(null, "495878", AccountType.AHORROS, new BigDecimal("75.00"), StatusType.ACTIVE, customer));
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 0, 0);
+        LocalDateTime end = LocalDateTime.of(2024, 1, 31, 23, 59, 59);
+        movementRepository.save(new Movements(null, MovementType.CREDIT, new BigDecimal("400.00"), start.minusDays(3), new BigDecimal("500.00"), checking));
+        movementRepository.save(new Movements(null, MovementType.CREDIT, new BigDecimal("50.00"), start.plusDays(2), new BigDecimal("550.00"), checking));
+        movementRepository.save(new Movements(null, MovementType.DEBIT, new BigDecimal("80.00"), start.plusDays(10), new BigDecimal("470.00"), checking));
+        movementRepository.save(new Movements(null, MovementType.DEBIT, new BigDecimal("70.00"), end.plusDays(1), new BigDecimal("400.00"), checking));
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+
+        // When
+        Map<Long, AccountPeriodSummaryDTO> summaries = movementService.getAccountSummaries(1L, start, end);
+
+        // Then
+        AccountPeriodSummaryDTO checkingSummary = summaries.get(checking.getId());
+        assertEquals(0, new BigDecimal("500.00").compareTo(checkingSummary.getOpeningBalance()));
+        assertEquals(0, new BigDecimal("50.00").compareTo(checkingSummary.getTotalCredits()));
+        assertEquals(0, new BigDecimal("80.00").compareTo(checkingSummary.getTotalDebits()));
+        assertEquals(0, new BigDecimal("470.00").compareTo(checkingSummary.getClosingBalance()));
+        assertEquals(2L, checkingSummary.getMovementCount());
+        AccountPeriodSummaryDTO emptySummary = summaries.get(withoutMovements.getId());
+        assertEquals(0, new BigDecimal("75.00").compareTo(emptySummary.getOpeningBalance()));
+        assertEquals(0, new BigDecimal("75.00").compareTo(emptySummary.getClosingBalance()));
+        assertEquals(0, BigDecimal.ZERO.compareTo(emptySummary.getTotalCredits()));
+        assertEquals(0L, emptySummary.getMovementCount());
+        assertEquals(3, summaries.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void testGetMovementsPage_FollowsKeysetCursorWithoutGaps() {
+        // Given - five movements in the range, two of them with the same timestamp, and one outside it
+        CustomerReference customer = customerReferenceRepository.findById(1L).orElseThrow();
+        Account checking = accountRepository.save(new Account(null, "225487", AccountType.CORRIENTE, new BigDecimal("100.00"), StatusType.ACTIVE, customer));
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 0, 0);
+        LocalDateTime end = LocalDateTime.of(2024, 1, 31, 23, 59, 59);
+        LocalDateTime sameTime = start.plusDays(5);
+        movementRepository.save(new Movements(null, MovementType.CREDIT, new BigDecimal("10.00"), start, new BigDecimal("110.00"), checking));
+        movementRepository.save(new Movements(null, MovementType.CREDIT, new BigDecimal("20.00"), sameTime, new BigDecimal("130.00"), checking));
+        movementRepository.save(new Movements(null, MovementType.CREDIT, new BigDecimal("30.00"), sameTime, new BigDecimal("160.00"), checking));
+        movementRepository.save(new Movements(null, MovementType.DEBIT, new BigDecimal("40.00"), start.plusDays(9), new BigDecimal("120.00"), checking));
+        movementRepository.save(new Movements(null, MovementType.DEBIT, new BigDecimal("50.00"), end, new BigDecimal("70.00"), checking));
+        movementRepository.save(new Movements(null, MovementType.DEBIT, new BigDecimal("60.00"), end.plusDays(1), new BigDecimal("10.00"), checking));
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+
+        // When - pages of two, each one continuing after the last row of the previous
+        List<MovementDTO> first = movementService.getMovementsPage(1L, checking.getId(), start, end, null, null, 2);
+        MovementDTO lastOfFirst = first.get(1);
+        List<MovementDTO> second = movementService.getMovementsPage(1L, checking.getId(), start, end, lastOfFirst.getFechaMovimiento(), lastOfFirst.getId(), 2);
+        MovementDTO lastOfSecond = second.get(1);
+        List<MovementDTO> third = movementService.getMovementsPage(1L, checking.getId(), start, end, lastOfSecond.getFechaMovimiento(), lastOfSecond.getId(), 2);
+
+        // Then - the tie on the timestamp is split across pages by id, and each page is a single query
+        assertEquals(List.of("10.00", "20.00"), first.stream().map(movement -> movement.getValue().toPlainString()).toList());
+        assertEquals(List.of("30.00", "40.00"), second.stream().map(movement -> movement.getValue().toPlainString()).toList());
+        assertEquals(List.of("50.00"), third.stream().map(movement -> movement.getValue().toPlainString()).toList());
+        assertEquals("225487", third.get(0).getAccountNumber());
+        assertEquals(3, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void testGetMovementsPage_EmptyForAccountOfAnotherCustomer() {
+        // Given
+        CustomerReference other = customerReferenceRepository.save(new CustomerReference(2L, "Marianela Montalvo", "0987654321", StatusType.ACTIVE));
+        Account foreign = accountRepository.save(new Account(null, "585545", AccountType.CORRIENTE, new BigDecimal("100.00"), StatusType.ACTIVE, other));
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 0, 0);
+        movementRepository.save(new Movements(null, MovementType.CREDIT, new BigDecimal("10.00"), start.plusDays(1), new BigDecimal("110.00"), foreign));
+        entityManager.flush();
+
+        // When
+        List<MovementDTO> page = movementService.getMovementsPage(1L, foreign.getId(), start, start.plusMonths(1), null, null, 10);
+
+        // Then
+        assertTrue(page.isEmpty());
+    }
+
+    @Test
+    void testFindPage_AppliesOnlyPresentFiltersAndFollowsCursor() {
+        // Given - debits and credits in two accounts, two of them with the same timestamp
+        CustomerReference customer = customerReferenceRepository.findById(1L).orElseThrow();
+        Account checking = accountRepository.save(new Account(null, "225487", AccountType.CORRIENTE, new BigDecimal("100.00"), StatusType.ACTIVE, customer));
+        LocalDateTime base = LocalDateTime.of(2024, 1, 10, 9, 0);
+        movementRepository.save(new Movements(null, MovementType.DEBIT, new BigDecimal("1.00"), base, new BigDecimal("99.00"), checking));
+        movementRepository.save(new Movements(null, MovementType.DEBIT, new BigDecimal("2.00"), base, new BigDecimal("97.00"), checking));
+        movementRepository.save(new Movements(null, MovementType.CREDIT, new BigDecimal("3.00"), base.plusDays(1), new BigDecimal("100.00"), checking));
+        movementRepository.save(new Movements(null, MovementType.DEBIT, new BigDecimal("4.00"), base.plusDays(2), new BigDecimal("96.00"), checking));
+        movementRepository.save(new Movements(null, MovementType.DEBIT, new BigDecimal("5.00"), base.plusDays(3), new BigDecimal("1995.00"), accountRepository.findById(accountId).orElseThrow()));
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+        MovementFilter debitsOfChecking = new MovementFilter(checking.getId(), MovementType.DEBIT, base.minusDays(1), base.plusMonths(1));
+
+        // When
+        MovementPageDTO first = movementService.findPage(debitsOfChecking, null, 2);
+        MovementPageDTO second = movementService.findPage(debitsOfChecking, first.getNextCursor(), 2);
+        MovementPageDTO unfiltered = movementService.findPage(new MovementFilter(null, null, base.minusDays(1), base.plusMonths(1)), null, 10);
+
+        // Then - one query per page and no cursor after the last one
+        assertEquals(List.of("1.00", "2.00"), first.getMovements().stream().map(movement -> movement.getValue().toPlainString()).toList());
+        assertNotNull(first.getNextCursor());
+        assertEquals(List.of("4.00"), second.getMovements().stream().map(movement -> movement.getValue().toPlainString()).toList());
+        assertNull(second.getNextCursor());
+        assertEquals(List.of("1.00", "2.00", "3.00", "4.00", "5.00"), unfiltered.getMovements().stream().map(movement -> movement.getValue().toPlainString()).toList());
+        assertEquals("478758", unfiltered.getMovements().get(4).getAccountNumber());
+        assertEquals(3, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void testFindPage_CapsPageSizeAndRejectsInvalidOnes() {
+        // Given - three movements in the account and a cap of two per page
+        movementService.registerMovementByType(accountId, MovementType.CREDIT, new BigDecimal("100.00"));
+        Object target = AopTestUtils.getTargetObject(movementService);
+        int maxSize = (int) ReflectionTestUtils.getField(target, "pageMaxSize");
+        ReflectionTestUtils.setField(target, "pageMaxSize", 2);
+        MovementFilter filter = new MovementFilter(accountId, null, null, null);
+
+        try {
+            // When
+            MovementPageDTO page = movementService.findPage(filter, null, 100);
+
+            // Then
+            assertEquals(2, page.getMovements().size());
+            assertNotNull(page.getNextCursor());
+            assertThrows(IllegalArgumentException.class, () -> movementService.findPage(filter, null, 0));
+            assertThrows(IllegalArgumentException.class, () -> movementService.findPage(filter, "not-a-cursor", 10));
+        } finally {
+            ReflectionTestUtils.setField(target, "pageMaxSize", maxSize);
+        }
+    }
+
+    @Test
+    void testSearch_CombinesAccountNumberTypeAndAmountRange() {
+        // Given - movements of two accounts with different types and amounts
+        CustomerReference customer = customerReferenceRepository.findById(1L).orElseThrow();
+        Account checking = accountRepository.save(new Account(null, "225487", AccountType.CORRIENTE, new BigDecimal("100.00"), StatusType.ACTIVE, customer));
+        Account savings = accountRepository.findById(accountId).orElseThrow();
+        LocalDateTime base = LocalDateTime.of(2024, 1, 10, 9, 0);
+        movementRepository.save(new Movements(null, MovementType.DEBIT, new BigDecimal("10.00"), base, new BigDecimal("90.00"), checking));
+        movementRepository.save(new Movements(null, MovementType.DEBIT, new BigDecimal("50.00"), base, new BigDecimal("40.00"), checking));
+        movementRepository.save(new Movements(null, MovementType.CREDIT, new BigDecimal("60.00"), base.plusDays(1), new BigDecimal("100.00"), checking));
+        movementRepository.save(new Movements(null, MovementType.DEBIT, new BigDecimal("70.00"), base.plusDays(2), new BigDecimal("30.00"), checking));
+        movementRepository.save(new Movements(null, MovementType.DEBIT, new BigDecimal("55.00"), base.plusDays(2), new BigDecimal("1945.00"), savings));
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+        MovementSearchCriteria debitsOfChecking = new MovementSearchCriteria("225487", MovementType.DEBIT,
+                new BigDecimal("20.00"), new BigDecimal("80.00"), null, null);
+
+        // When
+        MovementPageDTO first = movementService.search(debitsOfChecking, null, 1);
+        MovementPageDTO second = movementService.search(debitsOfChecking, first.getNextCursor(), 1);
+        MovementPageDTO allAccounts = movementService.search(new MovementSearchCriteria(null, MovementType.DEBIT,
+                new BigDecimal("50.00"), null, base.minusDays(1), base.plusDays(5)), null, 10);
+
+        // Then - one query per page, projected without loading accounts
+        assertEquals(List.of("50.00"), first.getMovements().stream().map(movement -> movement.getValue().toPlainString()).toList());
+        assertNotNull(first.getNextCursor());
+        assertEquals(List.of("70.00"), second.getMovements().stream().map(movement -> movement.getValue().toPlainString()).toList());
+        assertNull(second.getNextCursor());
+        assertEquals(List.of("50.00", "70.00", "55.00"), allAccounts.getMovements().stream().map(movement -> movement.getValue().toPlainString()).toList());
+        assertEquals("478758", allAccounts.getMovements().get(2).getAccountNumber());
+        assertEquals(3, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void testSearch_RejectsUnboundedOrInconsistentCriteria() {
+        // Given
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+        // When / Then - without account number the date range is required and bounded
+        assertThrows(IllegalArgumentException.class, () -> movementService.search(
+                new MovementSearchCriteria(null, MovementType.DEBIT, null, null, null, null), null, 10));
+        assertThrows(IllegalArgumentException.class, () -> movementService.search(
+                new MovementSearchCriteria(null, null, null, null, start, start.plusDays(40)), null, 10));
+        assertThrows(IllegalArgumentException.class, () -> movementService.search(
+                new MovementSearchCriteria("478758", null, new BigDecimal("10.00"), new BigDecimal("5.00"), null, null), null, 10));
+        assertThrows(IllegalArgumentException.class, () -> movementService.search(
+                new MovementSearchCriteria("478758", null, null, null, start.plusDays(1), start), null, 10));
+        assertTrue(movementService.search(new MovementSearchCriteria(null, null, null, null, start, start.plusDays(30)), null, 10)
+                .getMovements().isEmpty());
+    }
+
+    @Test
+    void testSearch_AcceptsRangeOfExactlyTheMaximumDays() {
+        // Given
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+        // When / Then - the limit is inclusive: 31 days pass, one second more is rejected
+        assertTrue(movementService.search(new MovementSearchCriteria(null, null, null, null, start, start.plusDays(31)), null, 10)
+                .getMovements().isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> movementService.search(
+                new MovementSearchCriteria(null, null, null, null, start, start.plusDays(31).plusSeconds(1)), null, 10));
+    }
+}
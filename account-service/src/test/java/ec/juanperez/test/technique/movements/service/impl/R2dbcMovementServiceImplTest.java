@@ -0,0 +1,177 @@
+package ec.juanperez.test.technique.movements.service.impl;
+
+import ec.juanperez.test.technique.app.accounts.dto.AccountDTO;
+import ec.juanperez.test.technique.app.accounts.enums.AccountType;
+import ec.juanperez.test.technique.app.accounts.exception.AccountNotFoundException;
+import ec.juanperez.test.technique.app.accounts.service.ReactiveAccountService;
+import ec.juanperez.test.technique.app.common.enums.StatusType;
+import ec.juanperez.test.technique.app.movements.dto.MovementDTO;
+import ec.juanperez.test.technique.app.movements.enums.MovementType;
+import ec.juanperez.test.technique.app.movements.exceptions.MovementBalanceException;
+import ec.juanperez.test.technique.app.movements.exceptions.MovementValueException;
+import ec.juanperez.test.technique.app.movements.repository.R2dbcMovementRepository;
+import ec.juanperez.test.technique.app.movements.service.impl.R2dbcMovementServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class R2dbcMovementServiceImplTest {
+
+    @Mock
+    private R2dbcMovementRepository repository;
+
+    @Mock
+    private ReactiveAccountService accountService;
+
+    @Mock
+    private TransactionalOperator transactionalOperator;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private R2dbcMovementServiceImpl movementService;
+
+    private AccountDTO accountDTO;
+
+    @BeforeEach
+    void setUp() {
+        accountDTO = new AccountDTO();
+        accountDTO.setId(1L);
+        accountDTO.setNumber("478758");
+        accountDTO.setAccountType(AccountType.AHORROS);
+        accountDTO.setInitialBalance(new BigDecimal("1000.00"));
+        accountDTO.setStatus(StatusType.ACTIVE);
+
+        lenient().when(transactionalOperator.transactional(anyMono())).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @Test
+    void testRegisterMovementByType_DebitWithLockedBalance_Success() {
+        // Given
+        when(accountService.findById(1L)).thenReturn(Mono.just(accountDTO));
+        when(repository.findBalanceForUpdate(1L)).thenReturn(Mono.just(new BigDecimal("500.00")));
+        when(repository.updateBalance(eq(1L), any(), any())).thenReturn(Mono.empty());
+        when(repository.insert(any(MovementDTO.class))).thenReturn(Mono.just(10L));
+        when(repository.upsertDailySnapshot(any(MovementDTO.class))).thenReturn(Mono.empty());
+
+        // When / Then
+        StepVerifier.create(movementService.registerMovementByType(1L, MovementType.DEBIT, new BigDecimal("200.00")))
+                .assertNext(result -> {
+                    assertEquals(10L, result.getId());
+                    assertEquals(new BigDecimal("300.00"), result.getBalance());
+                    assertEquals("478758", result.getAccountNumber());
+                })
+                .verifyComplete();
+
+        verify(repository).updateBalance(eq(1L), eq(new BigDecimal("300.00")), any());
+        verify(repository).upsertDailySnapshot(argThat(movement -> movement.getId() == 10L));
+        verify(repository, never()).balanceLastMovement(any());
+        verify(transactionalOperator).transactional(anyMono());
+    }
+
+    @Test
+    void testRegisterMovementByType_WithoutMaterializedBalance_SeedsFromLastMovement() {
+        // Given
+        when(accountService.findById(1L)).thenReturn(Mono.just(accountDTO));
+        when(repository.findBalanceForUpdate(1L))
+                .thenReturn(Mono.empty())
+                .thenReturn(Mono.just(new BigDecimal("750.00")));
+        when(repository.balanceLastMovement(1L)).thenReturn(Mono.just(new BigDecimal("750.00")));
+        when(repository.insertBalanceIfAbsent(eq(1L), eq(new BigDecimal("750.00")), any())).thenReturn(Mono.empty());
+        when(repository.updateBalance(eq(1L), any(), any())).thenReturn(Mono.empty());
+        when(repository.insert(any(MovementDTO.class))).thenReturn(Mono.just(11L));
+        when(repository.upsertDailySnapshot(any(MovementDTO.class))).thenReturn(Mono.empty());
+
+        // When / Then
+        StepVerifier.create(movementService.registerMovementByType(1L, MovementType.CREDIT, new BigDecimal("50.00")))
+                .assertNext(result -> assertEquals(new BigDecimal("800.00"), result.getBalance()))
+                .verifyComplete();
+
+        verify(repository).insertBalanceIfAbsent(eq(1L), eq(new BigDecimal("750.00")), any());
+        verify(repository, times(2)).findBalanceForUpdate(1L);
+    }
+
+    @Test
+    void testRegisterMovementByType_InsufficientBalance_NothingWritten() {
+        // Given
+        when(accountService.findById(1L)).thenReturn(Mono.just(accountDTO));
+        when(repository.findBalanceForUpdate(1L)).thenReturn(Mono.just(new BigDecimal("100.00")));
+
+        // When / Then
+        StepVerifier.create(movementService.registerMovementByType(1L, MovementType.DEBIT, new BigDecimal("200.00")))
+                .expectError(MovementBalanceException.class)
+                .verify();
+
+        verify(repository, never()).updateBalance(any(), any(), any());
+        verify(repository, never()).insert(any());
+        verify(repository, never()).upsertDailySnapshot(any());
+    }
+
+    @Test
+    void testRegisterMovementByType_AccountNotFound() {
+        // Given
+        when(accountService.findById(99L)).thenReturn(Mono.empty());
+
+        // When / Then
+        StepVerifier.create(movementService.registerMovementByType(99L, MovementType.CREDIT, new BigDecimal("10.00")))
+                .expectError(AccountNotFoundException.class)
+                .verify();
+
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void testRegisterMovementByType_InvalidValue() {
+        // Given
+        when(accountService.findById(1L)).thenReturn(Mono.just(accountDTO));
+
+        // When / Then
+        StepVerifier.create(movementService.registerMovementByType(1L, MovementType.CREDIT, BigDecimal.ZERO))
+                .expectError(MovementValueException.class)
+                .verify();
+
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void testRegisterMovementByType_InsertsMovementWithComputedBalance() {
+        // Given
+        when(accountService.findById(1L)).thenReturn(Mono.just(accountDTO));
+        when(repository.findBalanceForUpdate(1L)).thenReturn(Mono.just(new BigDecimal("500.00")));
+        when(repository.updateBalance(eq(1L), any(), any())).thenReturn(Mono.empty());
+        when(repository.insert(any(MovementDTO.class))).thenReturn(Mono.just(12L));
+        when(repository.upsertDailySnapshot(any(MovementDTO.class))).thenReturn(Mono.empty());
+
+        // When
+        movementService.registerMovementByType(1L, MovementType.CREDIT, new BigDecimal("25.00")).block();
+
+        // Then
+        ArgumentCaptor<MovementDTO> captor = ArgumentCaptor.forClass(MovementDTO.class);
+        verify(repository).insert(captor.capture());
+        assertEquals(1L, captor.getValue().getAccountId());
+        assertEquals(MovementType.CREDIT, captor.getValue().getMovementType());
+        assertEquals(new BigDecimal("525.00"), captor.getValue().getBalance());
+    }
+
+    // TransactionalOperator.transactional es genérico: el matcher tipado evita la conversión sin verificar
+    private static <T> Mono<T> anyMono() {
+        return any();
+    }
+}
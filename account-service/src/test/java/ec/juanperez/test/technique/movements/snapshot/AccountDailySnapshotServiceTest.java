@@ -0,0 +1,219 @@
+package ec.juanperez.test.technique.movements.snapshot;
+
+import ec.juanperez.test.technique.app.accounts.dto.AccountDTO;
+import ec.juanperez.test.technique.app.accounts.enums.AccountType;
+import ec.juanperez.test.technique.app.accounts.mapper.AccountMapperImpl;
+import ec.juanperez.test.technique.app.accounts.model.Account;
+import ec.juanperez.test.technique.app.accounts.repository.AccountRepository;
+import ec.juanperez.test.technique.app.accounts.service.impl.AccountServiceImpl;
+import ec.juanperez.test.technique.app.common.enums.StatusType;
+import ec.juanperez.test.technique.app.movements.dto.AccountPeriodSummaryDTO;
+import ec.juanperez.test.technique.app.movements.enums.MovementType;
+import ec.juanperez.test.technique.app.movements.mapper.MovementMapperImpl;
+import ec.juanperez.test.technique.app.movements.model.AccountDailySnapshot;
+import ec.juanperez.test.technique.app.movements.model.AccountDailySnapshotId;
+import ec.juanperez.test.technique.app.movements.model.AccountSnapshotBackfill;
+import ec.juanperez.test.technique.app.movements.model.Movements;
+import ec.juanperez.test.technique.app.movements.repository.AccountDailySnapshotRepository;
+import ec.juanperez.test.technique.app.movements.repository.AccountSnapshotBackfillRepository;
+import ec.juanperez.test.technique.app.movements.repository.MovementRepository;
+import ec.juanperez.test.technique.app.movements.service.MovementService;
+import ec.juanperez.test.technique.app.movements.service.impl.MovementServiceImpl;
+import ec.juanperez.test.technique.app.movements.snapshot.AccountDailySnapshotService;
+import ec.juanperez.test.technique.app.movements.snapshot.AccountSnapshotBackfillJob;
+import ec.juanperez.test.technique.config.CacheConfig;
+import ec.juanperez.test.technique.model.CustomerReference;
+import ec.juanperez.test.technique.repository.CustomerReferenceRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({AccountDailySnapshotService.class, MovementServiceImpl.class, AccountServiceImpl.class, MovementMapperImpl.class, AccountMapperImpl.class, CacheConfig.class})
+class AccountDailySnapshotServiceTest {
+
+    @Autowired
+    private AccountDailySnapshotService snapshotService;
+
+    @Autowired
+    private MovementService movementService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private CustomerReferenceRepository customerReferenceRepository;
+
+    @Autowired
+    private MovementRepository movementRepository;
+
+    @Autowired
+    private AccountDailySnapshotRepository snapshotRepository;
+
+    @Autowired
+    private AccountSnapshotBackfillRepository backfillRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Account savings;
+    private Account checking;
+    private LocalDate today;
+
+    @BeforeEach
+    void setUp() {
+        CustomerReference customer = customerReferenceRepository.save(
+                new CustomerReference(1L, "Jose Lema", "1234567890", StatusType.ACTIVE));
+        savings = accountRepository.save(new Account(null, "478758", AccountType.AHORROS, new BigDecimal("2000.00"), StatusType.ACTIVE, customer));
+        checking = accountRepository.save(new Account(null, "225487", AccountType.CORRIENTE, new BigDecimal("100.00"), StatusType.ACTIVE, customer));
+        today = LocalDate.now();
+    }
+
+    @Test
+    void testRegisterMovements_RollsUpTheDayIncrementally() {
+        // When
+        movementService.registerMovementByType(savings.getId(), MovementType.CREDIT, new BigDecimal("100.00"));
+        movementService.registerMovementByType(savings.getId(), MovementType.DEBIT, new BigDecimal("30.00"));
+        entityManager.flush();
+        entityManager.clear();
+
+        // Then
+        AccountDailySnapshot snapshot = snapshotRepository.findById(new AccountDailySnapshotId(savings.getId(), today)).orElseThrow();
+        assertEquals(0, new BigDecimal("100.00").compareTo(snapshot.getTotalCredits()));
+        assertEquals(0, new BigDecimal("30.00").compareTo(snapshot.getTotalDebits()));
+        assertEquals(0, new BigDecimal("2070.00").compareTo(snapshot.getClosingBalance()));
+        assertEquals(2L, snapshot.getMovementCount());
+    }
+
+    @Test
+    void testBackfill_RebuildsHistoryAndCompletes() {
+        // Given - history registered before the snapshots existed, and a stale row
+        saveHistory();
+        snapshotRepository.save(new AccountDailySnapshot(savings.getId(), today.minusDays(5), BigDecimal.ONE, BigDecimal.ONE, BigDecimal.ZERO, 1L, null));
+        entityManager.flush();
+        AccountSnapshotBackfillJob job = new AccountSnapshotBackfillJob(snapshotService, accountRepository, backfillRepository, 1);
+
+        // When
+        int accounts = job.backfill();
+        entityManager.flush();
+        entityManager.clear();
+
+        // Then
+        assertEquals(2, accounts);
+        AccountDailySnapshot twoDaysAgo = snapshotRepository.findById(new AccountDailySnapshotId(savings.getId(), today.minusDays(2))).orElseThrow();
+        assertEquals(0, new BigDecimal("500.00").compareTo(twoDaysAgo.getTotalCredits()));
+        assertEquals(0, new BigDecimal("200.00").compareTo(twoDaysAgo.getTotalDebits()));
+        assertEquals(0, new BigDecimal("2300.00").compareTo(twoDaysAgo.getClosingBalance()));
+        assertEquals(2L, twoDaysAgo.getMovementCount());
+        assertTrue(snapshotRepository.findById(new AccountDailySnapshotId(savings.getId(), today.minusDays(5))).isEmpty());
+        assertEquals(1, snapshotRepository.findByAccountId(checking.getId()).size());
+        AccountSnapshotBackfill progress = backfillRepository.findById(AccountDailySnapshotService.BACKFILL_NAME).orElseThrow();
+        assertTrue(progress.isCompleted());
+        assertEquals(checking.getId(), progress.getLastAccountId());
+        assertTrue(snapshotService.isBackfillCompleted());
+        assertEquals(0, job.backfill(), "a completed backfill does nothing");
+    }
+
+    @Test
+    void testBackfill_ResumesAfterLastAccount() {
+        // Given - a previous run already finished the savings account
+        saveHistory();
+        backfillRepository.save(new AccountSnapshotBackfill(AccountDailySnapshotService.BACKFILL_NAME, savings.getId(), false, LocalDateTime.now()));
+        AccountSnapshotBackfillJob job = new AccountSnapshotBackfillJob(snapshotService, accountRepository, backfillRepository, 10);
+
+        // When
+        int accounts = job.backfill();
+
+        // Then
+        assertEquals(1, accounts);
+        assertTrue(snapshotRepository.findByAccountId(savings.getId()).isEmpty());
+        assertEquals(1, snapshotRepository.findByAccountId(checking.getId()).size());
+    }
+
+    @Test
+    void testGetPeriodSummaries_OpeningAndClosingFromSnapshots() {
+        // Given
+        saveHistory();
+        snapshotService.rebuildAccount(savings.getId());
+        snapshotService.rebuildAccount(checking.getId());
+        List<AccountDTO> accounts = List.of(
+                new AccountDTO(savings.getId(), "478758", AccountType.AHORROS, new BigDecimal("2000.00")),
+                new AccountDTO(checking.getId(), "225487", AccountType.CORRIENTE, new BigDecimal("100.00")));
+
+        // When - only yesterday, so the opening balance is the closing of two days ago
+        Map<Long, AccountPeriodSummaryDTO> summaries = snapshotService.getPeriodSummaries(accounts, today.minusDays(1), today.minusDays(1));
+
+        // Then
+        AccountPeriodSummaryDTO savingsSummary = summaries.get(savings.getId());
+        assertEquals(0, new BigDecimal("2300.00").compareTo(savingsSummary.getOpeningBalance()));
+        assertEquals(0, new BigDecimal("0").compareTo(savingsSummary.getTotalCredits()));
+        assertEquals(0, new BigDecimal("300.00").compareTo(savingsSummary.getTotalDebits()));
+        assertEquals(0, new BigDecimal("2000.00").compareTo(savingsSummary.getClosingBalance()));
+        assertEquals(1L, savingsSummary.getMovementCount());
+        // The checking account moved two days ago only: it opens and closes at that balance
+        AccountPeriodSummaryDTO checkingSummary = summaries.get(checking.getId());
+        assertEquals(0, new BigDecimal("150.00").compareTo(checkingSummary.getOpeningBalance()));
+        assertEquals(0, new BigDecimal("150.00").compareTo(checkingSummary.getClosingBalance()));
+        assertEquals(0L, checkingSummary.getMovementCount());
+    }
+
+    @Test
+    void testGetPeriodSummaries_AccountWithoutEarlierSnapshotsOpensWithInitialBalance() {
+        // Given
+        saveHistory();
+        snapshotService.rebuildAccount(savings.getId());
+        List<AccountDTO> accounts = List.of(new AccountDTO(savings.getId(), "478758", AccountType.AHORROS, new BigDecimal("2000.00")));
+
+        // When
+        AccountPeriodSummaryDTO summary = snapshotService.getPeriodSummaries(accounts, today.minusDays(2), today.minusDays(1)).get(savings.getId());
+
+        // Then
+        assertEquals(0, new BigDecimal("2000.00").compareTo(summary.getOpeningBalance()));
+        assertEquals(0, new BigDecimal("500.00").compareTo(summary.getTotalCredits()));
+        assertEquals(0, new BigDecimal("500.00").compareTo(summary.getTotalDebits()));
+        assertEquals(0, new BigDecimal("2000.00").compareTo(summary.getClosingBalance()));
+        assertEquals(3L, summary.getMovementCount());
+    }
+
+    @Test
+    void testDeleteMovement_RefreshesOnlyItsDay() {
+        // Given
+        saveHistory();
+        snapshotService.rebuildAccount(checking.getId());
+        Long movementId = movementRepository.findAll().stream()
+                .filter(movement -> movement.getAccount().getId().equals(checking.getId()))
+                .findFirst().orElseThrow().getId();
+
+        // When
+        movementService.delete(movementId);
+        entityManager.flush();
+
+        // Then
+        assertTrue(snapshotRepository.findByAccountId(checking.getId()).isEmpty());
+    }
+
+    private void saveHistory() {
+        LocalDateTime twoDaysAgo = today.minusDays(2).atTime(9, 0);
+        LocalDateTime yesterday = today.minusDays(1).atTime(16, 30);
+        movementRepository.save(new Movements(null, MovementType.CREDIT, new BigDecimal("500.00"), twoDaysAgo, new BigDecimal("2500.00"), savings));
+        movementRepository.save(new Movements(null, MovementType.DEBIT, new BigDecimal("200.00"), twoDaysAgo.plusHours(3), new BigDecimal("2300.00"), savings));
+        movementRepository.save(new Movements(null, MovementType.DEBIT, new BigDecimal("300.00"), yesterday, new BigDecimal("2000.00"), savings));
+        movementRepository.save(new Movements(null, MovementType.CREDIT, new BigDecimal("50.00"), twoDaysAgo, new BigDecimal("150.00"), checking));
+        entityManager.flush();
+    }
+}
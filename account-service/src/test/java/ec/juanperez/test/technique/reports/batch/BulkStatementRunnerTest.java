@@ -0,0 +1,201 @@
+package ec.juanperez.test.technique.reports.batch;
+
+import ec.juanperez.test.technique.app.common.enums.StatusType;
+import ec.juanperez.test.technique.app.dto.CustomerDTO;
+import ec.juanperez.test.technique.app.reports.batch.BulkStatementCheckpoint;
+import ec.juanperez.test.technique.app.reports.batch.BulkStatementResult;
+import ec.juanperez.test.technique.app.reports.batch.BulkStatementRunner;
+import ec.juanperez.test.technique.app.reports.service.ReportService;
+import ec.juanperez.test.technique.model.CustomerReference;
+import ec.juanperez.test.technique.repository.CustomerReferenceRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.data.domain.Limit;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class BulkStatementRunnerTest {
+
+    private static final YearMonth PERIOD = YearMonth.of(2024, 1);
+    private static final LocalDate RUN_DATE = LocalDate.of(2024, 2, 1);
+
+    @TempDir
+    private Path outputDirectory;
+
+    private CustomerReferenceRepository customerReferenceRepository;
+    private ReportService reportService;
+    private List<CustomerReference> customers;
+
+    @BeforeEach
+    void setUp() {
+        customerReferenceRepository = mock(CustomerReferenceRepository.class);
+        reportService = mock(ReportService.class);
+        customers = LongStream.rangeClosed(1, 5).mapToObj(this::customer).toList();
+        // Paginación por clave: clientes con id mayor al último procesado, hasta el límite
+        when(customerReferenceRepository.findByStatusAfterId(eq(StatusType.ACTIVE), anyLong(), any(Limit.class)))
+                .thenAnswer(invocation -> {
+                    long afterId = invocation.getArgument(1);
+                    Limit limit = invocation.getArgument(2);
+                    return customers.stream().filter(c -> c.getId() > afterId).limit(limit.max()).toList();
+                });
+    }
+
+    @Test
+    void testRunWritesOneArchivePerChunkAndCompletesCheckpoint() throws IOException {
+        // Given
+        stubStatements(-1L);
+        BulkStatementRunner runner = runner(2);
+
+        // When
+        BulkStatementResult result = runner.run(PERIOD, RUN_DATE);
+
+        // Then
+        assertEquals(5, result.generated());
+        assertEquals(0, result.failed());
+        assertFalse(result.skipped());
+        Path directory = outputDirectory.resolve("2024-01");
+        assertEquals(List.of("account_statement_1.xlsx", "account_statement_2.xlsx"), entries(directory.resolve("statements-2024-02-01-part-00001.zip")));
+        assertEquals(List.of("account_statement_5.xlsx"), entries(directory.resolve("statements-2024-02-01-part-00003.zip")));
+        BulkStatementCheckpoint checkpoint = BulkStatementCheckpoint.load(directory);
+        assertTrue(checkpoint.completed());
+        assertEquals(5L, checkpoint.lastCustomerId());
+        assertEquals(5L, checkpoint.generated());
+        verify(reportService, times(5)).writeExcelReport(any(CustomerDTO.class), eq(LocalDateTime.of(2024, 1, 1, 0, 0)),
+                eq(LocalDateTime.of(2024, 1, 31, 23, 59, 59)), any(OutputStream.class), eq(false));
+    }
+
+    @Test
+    void testRunResumesAfterCheckpoint() throws IOException {
+        // Given - Una corrida anterior cerró los dos primeros bloques
+        stubStatements(-1L);
+        Path directory = Files.createDirectories(outputDirectory.resolve("2024-01"));
+        new BulkStatementCheckpoint(4L, 3, 4L, 0L, false).save(directory);
+        BulkStatementRunner runner = runner(2);
+
+        // When
+        BulkStatementResult result = runner.run(PERIOD, RUN_DATE);
+
+        // Then
+        assertEquals(1, result.generated());
+        verify(reportService, times(1)).writeExcelReport(any(CustomerDTO.class), any(), any(), any(OutputStream.class), eq(false));
+        assertEquals(List.of("account_statement_5.xlsx"), entries(directory.resolve("statements-2024-02-01-part-00003.zip")));
+        assertEquals(5L, BulkStatementCheckpoint.load(directory).generated());
+    }
+
+    @Test
+    void testRunSkipsCompletedPeriod() throws IOException {
+        // Given
+        Path directory = Files.createDirectories(outputDirectory.resolve("2024-01"));
+        BulkStatementCheckpoint.initial().complete().save(directory);
+
+        // When
+        BulkStatementResult result = runner(2).run(PERIOD, RUN_DATE);
+
+        // Then
+        assertTrue(result.skipped());
+        verifyNoInteractions(customerReferenceRepository, reportService);
+    }
+
+    @Test
+    void testRunCountsFailedStatementsAndContinues() throws IOException {
+        // Given
+        stubStatements(3L);
+
+        // When
+        BulkStatementResult result = runner(10).run(PERIOD, RUN_DATE);
+
+        // Then
+        assertEquals(4, result.generated());
+        assertEquals(1, result.failed());
+        Path directory = outputDirectory.resolve("2024-01");
+        List<String> entries = entries(directory.resolve("statements-2024-02-01-part-00001.zip"));
+        assertEquals(4, entries.size());
+        assertFalse(entries.contains("account_statement_3.xlsx"));
+        assertEquals(Set.of(3L), BulkStatementCheckpoint.loadFailedCustomerIds(directory));
+        // Los libros temporales se borran al cerrar el archivo
+        try (Stream<Path> files = Files.list(directory)) {
+            assertTrue(files.noneMatch(file -> file.getFileName().toString().endsWith(".tmp")));
+        }
+    }
+
+    @Test
+    void testRunRetriesFailedCustomersOfCompletedPeriod() throws IOException {
+        // Given - Una corrida anterior terminó con el cliente 3 fallido
+        stubStatements(3L);
+        runner(10).run(PERIOD, RUN_DATE);
+        reset(reportService);
+        stubStatements(-1L);
+        when(customerReferenceRepository.findAllById(any())).thenReturn(List.of(customer(3L)));
+
+        // When
+        BulkStatementResult result = runner(10).run(PERIOD, LocalDate.of(2024, 2, 2));
+
+        // Then
+        assertFalse(result.skipped());
+        assertEquals(1, result.generated());
+        assertEquals(0, result.failed());
+        Path directory = outputDirectory.resolve("2024-01");
+        assertEquals(List.of("account_statement_3.xlsx"), entries(directory.resolve("statements-2024-02-02-retry-00002.zip")));
+        assertTrue(BulkStatementCheckpoint.loadFailedCustomerIds(directory).isEmpty());
+        BulkStatementCheckpoint checkpoint = BulkStatementCheckpoint.load(directory);
+        assertEquals(5L, checkpoint.generated());
+        assertEquals(0L, checkpoint.failed());
+        assertTrue(runner(10).run(PERIOD, LocalDate.of(2024, 2, 3)).skipped());
+    }
+
+    private BulkStatementRunner runner(int chunkSize) {
+        return new BulkStatementRunner(customerReferenceRepository, reportService, true, outputDirectory, chunkSize, 4, 10);
+    }
+
+    private void stubStatements(long failingCustomerId) {
+        doAnswer(invocation -> {
+            CustomerDTO customer = invocation.getArgument(0);
+            if (customer.getId() == failingCustomerId) {
+                throw new IllegalStateException("boom");
+            }
+            OutputStream outputStream = invocation.getArgument(3);
+            outputStream.write(("statement " + customer.getId()).getBytes());
+            return null;
+        }).when(reportService).writeExcelReport(any(CustomerDTO.class), any(), any(), any(OutputStream.class), anyBoolean());
+    }
+
+    private CustomerReference customer(long id) {
+        CustomerReference customer = new CustomerReference();
+        customer.setId(id);
+        customer.setName("Customer " + id);
+        customer.setIdentification("ID" + id);
+        customer.setStatus(StatusType.ACTIVE);
+        return customer;
+    }
+
+    private List<String> entries(Path archive) throws IOException {
+        List<String> names = new ArrayList<>();
+        try (InputStream inputStream = Files.newInputStream(archive);
+             ZipInputStream zip = new ZipInputStream(inputStream)) {
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                names.add(entry.getName());
+            }
+        }
+        return names;
+    }
+}
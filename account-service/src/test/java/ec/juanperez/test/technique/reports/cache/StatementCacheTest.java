@@ -0,0 +1,89 @@
+package ec.juanperez.test.technique.reports.cache;
+
+import ec.juanperez.test.technique.app.movements.event.MovementsChangedEvent;
+import ec.juanperez.test.technique.app.reports.cache.StatementCache;
+import ec.juanperez.test.technique.app.reports.cache.StatementCacheEntry;
+import ec.juanperez.test.technique.app.reports.cache.StatementCacheKey;
+import ec.juanperez.test.technique.app.reports.dto.ReportAccountDTO;
+import ec.juanperez.test.technique.app.reports.enums.ReportFormat;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StatementCacheTest {
+
+    private static final LocalDateTime JANUARY = LocalDateTime.of(2024, 1, 1, 0, 0);
+    private static final LocalDateTime JANUARY_END = LocalDateTime.of(2024, 1, 31, 23, 59, 59);
+    private static final LocalDateTime FEBRUARY = LocalDateTime.of(2024, 2, 1, 0, 0);
+    private static final LocalDateTime FEBRUARY_END = LocalDateTime.of(2024, 2, 29, 23, 59, 59);
+
+    private SimpleMeterRegistry meterRegistry;
+    private StatementCache statementCache;
+    private StatementCacheKey januaryJson;
+    private StatementCacheKey februaryExcel;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        statementCache = new StatementCache(meterRegistry, true, 1_000_000, Duration.ofMinutes(10));
+        januaryJson = new StatementCacheKey(1L, JANUARY, JANUARY_END, ReportFormat.JSON);
+        februaryExcel = new StatementCacheKey(1L, FEBRUARY, FEBRUARY_END, ReportFormat.EXCEL);
+        statementCache.put(januaryJson, StatementCacheEntry.json(Set.of(10L, 11L), new ReportAccountDTO()), statementCache.startLoad());
+        statementCache.put(februaryExcel, StatementCacheEntry.excel(Set.of(10L, 11L), Map.of(10L, BigDecimal.ONE), new byte[]{1, 2, 3}), statementCache.startLoad());
+    }
+
+    @Test
+    void onMovementsChanged_InvalidatesOnlyOverlappingRangesOfTheAccount() {
+        // When: un movimiento de enero en una de las cuentas
+        statementCache.onMovementsChanged(MovementsChangedEvent.of(10L, JANUARY.plusDays(14)));
+
+        // Then
+        assertTrue(statementCache.get(januaryJson).isEmpty());
+        assertTrue(statementCache.get(februaryExcel).isPresent());
+        assertEquals(1.0, meterRegistry.get("reports.statement.cache.invalidated").counter().count());
+    }
+
+    @Test
+    void onMovementsChanged_IgnoresOtherAccounts() {
+        // When
+        statementCache.onMovementsChanged(new MovementsChangedEvent(99L, JANUARY, FEBRUARY_END));
+
+        // Then
+        assertTrue(statementCache.get(januaryJson).isPresent());
+        assertTrue(statementCache.get(februaryExcel).isPresent());
+    }
+
+    @Test
+    void put_SkipsStatementLoadedBeforeAConcurrentInvalidation() {
+        // Given: el reporte empezó a armarse antes del cambio en la cuenta
+        StatementCacheKey key = new StatementCacheKey(2L, JANUARY, JANUARY_END, ReportFormat.JSON);
+        long loadStartedAt = statementCache.startLoad();
+        statementCache.invalidate(20L, JANUARY.plusDays(3), JANUARY.plusDays(3));
+
+        // When
+        statementCache.put(key, StatementCacheEntry.json(Set.of(20L), new ReportAccountDTO()), loadStartedAt);
+
+        // Then
+        assertTrue(statementCache.get(key).isEmpty());
+    }
+
+    @Test
+    void get_PublishesHitRate() {
+        // When
+        statementCache.get(januaryJson);
+        statementCache.get(new StatementCacheKey(3L, JANUARY, JANUARY_END, ReportFormat.JSON));
+
+        // Then
+        assertEquals(1.0, meterRegistry.get("cache.gets").tags("cache", StatementCache.CACHE_NAME, "result", "hit").functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tags("cache", StatementCache.CACHE_NAME, "result", "miss").functionCounter().count());
+        assertEquals(0.5, meterRegistry.get("reports.statement.cache.hit.ratio").gauge().value());
+    }
+}
@@ -0,0 +1,108 @@
+package ec.juanperez.test.technique.reports.controller;
+
+import ec.juanperez.test.technique.app.dto.CustomerDTO;
+import ec.juanperez.test.technique.app.reports.service.ReportService;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.io.OutputStream;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.when;
+
+/**
+ * Load test: while more slow Excel reports are in flight than there are Netty event-loop
+ * threads, a cheap endpoint must still answer quickly.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@EmbeddedKafka(partitions = 1)
+@ActiveProfiles("test")
+class ReportAccountControllerLoadTest {
+
+    private static final Logger log = LoggerFactory.getLogger(ReportAccountControllerLoadTest.class);
+
+    private static final long REPORT_MILLIS = 1500;
+    private static final int PROBES = 20;
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @MockitoBean
+    private ReportService reportService;
+
+    @Test
+    void eventLoopStaysResponsiveWhileExcelReportsAreGenerated() throws Exception {
+        // Given: más reportes concurrentes que hilos del event loop
+        int reports = Math.max(Runtime.getRuntime().availableProcessors(), 4) * 2;
+        Set<String> reportThreads = ConcurrentHashMap.newKeySet();
+        CountDownLatch started = new CountDownLatch(1);
+        when(reportService.findCustomer(anyLong()))
+                .thenAnswer(invocation -> new CustomerDTO(invocation.getArgument(0), "Jose Lema", "0102030405", "ACTIVE"));
+        doAnswer(invocation -> {
+            reportThreads.add(Thread.currentThread().getName());
+            started.countDown();
+            Thread.sleep(REPORT_MILLIS);
+            invocation.<OutputStream>getArgument(3).write(new byte[]{1, 2, 3});
+            return null;
+        }).when(reportService).writeExcelReport(any(CustomerDTO.class), any(LocalDateTime.class), any(LocalDateTime.class), any(OutputStream.class));
+        WebTestClient client = webTestClient.mutate().responseTimeout(Duration.ofSeconds(60)).build();
+        client.get().uri("/actuator/info").exchange().expectStatus().isOk();
+
+        // When
+        ExecutorService clients = Executors.newFixedThreadPool(reports);
+        List<Future<Integer>> statuses = new ArrayList<>();
+        for (int i = 0; i < reports; i++) {
+            long clientId = i;
+            statuses.add(clients.submit(() -> client.get()
+                    .uri("/reports/{id}?startDate=2024-01-01&endDate=2024-01-31&format=excel", clientId)
+                    .exchange()
+                    .returnResult(byte[].class)
+                    .getStatus()
+                    .value()));
+        }
+        assertTrue(started.await(10, TimeUnit.SECONDS), "reports did not start");
+
+        List<Long> latencies = new ArrayList<>();
+        for (int i = 0; i < PROBES; i++) {
+            long start = System.nanoTime();
+            client.get().uri("/actuator/info").exchange().expectStatus().isOk();
+            latencies.add(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        }
+
+        // Then
+        for (Future<Integer> status : statuses) {
+            assertEquals(200, status.get(60, TimeUnit.SECONDS));
+        }
+        clients.shutdown();
+        Collections.sort(latencies);
+        long p99 = latencies.get((int) Math.ceil(latencies.size() * 0.99) - 1);
+        log.info("reports={} probeLatencyMs p50={} p99={} max={}",
+                reports, latencies.get(latencies.size() / 2), p99, latencies.get(latencies.size() - 1));
+
+        assertTrue(reportThreads.stream().noneMatch(name -> name.startsWith("reactor-http")),
+                "reports ran on the event loop: " + reportThreads);
+        assertTrue(p99 < REPORT_MILLIS / 2, "event loop stalled, probe p99 = " + p99 + " ms");
+    }
+}
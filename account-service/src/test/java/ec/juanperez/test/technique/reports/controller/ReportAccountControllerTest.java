@@ -0,0 +1,122 @@
+package ec.juanperez.test.technique.reports.controller;
+
+import ec.juanperez.test.technique.app.common.reactive.BlockingScheduler;
+import ec.juanperez.test.technique.app.dto.CustomerDTO;
+import ec.juanperez.test.technique.app.reports.controller.ReportAccountController;
+import ec.juanperez.test.technique.app.reports.dto.ReportAccountDTO;
+import ec.juanperez.test.technique.app.reports.dto.StatementPageDTO;
+import ec.juanperez.test.technique.app.reports.service.ReportService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@WebFluxTest(ReportAccountController.class)
+@Import(BlockingScheduler.class)
+class ReportAccountControllerTest {
+
+    private static final String REPORT_URI = "/reports/1?startDate=2024-01-01&endDate=2024-01-31";
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @MockitoBean
+    private ReportService reportService;
+
+    @Test
+    void findReportByCustomer_DefaultsToJson() {
+        // Given
+        when(reportService.getAccountStatementByCustomerIdAndDates(anyLong(), any(LocalDateTime.class), any(LocalDateTime.class), anyBoolean()))
+                .thenReturn(new ReportAccountDTO());
+
+        // When - Then
+        webTestClient.get().uri(REPORT_URI)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON);
+        verify(reportService, never()).writeNdjsonReport(any(), any(), any(), any());
+        verify(reportService).getAccountStatementByCustomerIdAndDates(eq(1L), any(LocalDateTime.class), any(LocalDateTime.class), eq(true));
+    }
+
+    @Test
+    void findReportByCustomer_SummaryOnlyWithoutMovements() {
+        // Given
+        when(reportService.getAccountStatementByCustomerIdAndDates(anyLong(), any(LocalDateTime.class), any(LocalDateTime.class), anyBoolean()))
+                .thenReturn(new ReportAccountDTO());
+
+        // When - Then
+        webTestClient.get().uri(REPORT_URI + "&includeMovements=false")
+                .exchange()
+                .expectStatus().isOk();
+        verify(reportService).getAccountStatementByCustomerIdAndDates(eq(1L), any(LocalDateTime.class), any(LocalDateTime.class), eq(false));
+    }
+
+    @Test
+    void findStatementPage_PassesCursorAndSize() {
+        // Given
+        when(reportService.getStatementPage(eq(1L), eq(7L), any(LocalDateTime.class), any(LocalDateTime.class), eq("abc"), eq(50)))
+                .thenReturn(new StatementPageDTO(7L, List.of(), "def"));
+
+        // When - Then
+        webTestClient.get().uri("/reports/1/accounts/7/movements?startDate=2024-01-01&endDate=2024-12-31&cursor=abc&size=50")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.accountId").isEqualTo(7)
+                .jsonPath("$.nextCursor").isEqualTo("def");
+    }
+
+    @Test
+    void findStatementPage_InvalidCursorIsBadRequest() {
+        // Given
+        when(reportService.getStatementPage(anyLong(), anyLong(), any(LocalDateTime.class), any(LocalDateTime.class), any(), any()))
+                .thenThrow(new IllegalArgumentException("Invalid movement cursor: not-a-cursor"));
+
+        // When - Then
+        webTestClient.get().uri("/reports/1/accounts/7/movements?startDate=2024-01-01&endDate=2024-12-31&cursor=not-a-cursor")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void streamReportByCustomer_WritesNdjsonWhenRequested() {
+        // Given
+        when(reportService.findCustomer(1L)).thenReturn(new CustomerDTO(1L, "Jose Lema", "0102030405", "ACTIVE"));
+        doAnswer(invocation -> {
+            invocation.<OutputStream>getArgument(3).write("{\"type\":\"HEADER\"}\n{\"type\":\"ACCOUNT\"}\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(reportService).writeNdjsonReport(any(CustomerDTO.class), any(LocalDateTime.class), any(LocalDateTime.class), any(OutputStream.class));
+
+        // When - Then
+        webTestClient.get().uri(REPORT_URI)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_NDJSON)
+                .expectBody(String.class).isEqualTo("{\"type\":\"HEADER\"}\n{\"type\":\"ACCOUNT\"}\n");
+    }
+
+    @Test
+    void findReportByCustomer_ExcelLookupFailureIsServerErrorBeforeStreaming() {
+        // Given
+        when(reportService.findCustomer(1L)).thenThrow(new IllegalStateException("customer lookup failed"));
+
+        // When - Then
+        webTestClient.get().uri(REPORT_URI + "&format=excel")
+                .exchange()
+                .expectStatus().is5xxServerError();
+        verify(reportService, never()).writeExcelReport(any(CustomerDTO.class), any(LocalDateTime.class), any(LocalDateTime.class), any(OutputStream.class));
+    }
+}
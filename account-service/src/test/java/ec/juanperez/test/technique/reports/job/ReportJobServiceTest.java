@@ -0,0 +1,171 @@
+package ec.juanperez.test.technique.reports.job;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import ec.juanperez.test.technique.app.dto.CustomerDTO;
+import ec.juanperez.test.technique.app.exception.CustomerReferenceNotFoundException;
+import ec.juanperez.test.technique.app.reports.dto.ReportAccountDTO;
+import ec.juanperez.test.technique.app.reports.dto.ReportJobDTO;
+import ec.juanperez.test.technique.app.reports.dto.ReportJobRequest;
+import ec.juanperez.test.technique.app.reports.enums.ReportFormat;
+import ec.juanperez.test.technique.app.reports.enums.ReportJobStatus;
+import ec.juanperez.test.technique.app.reports.exceptions.ReportJobNotFoundException;
+import ec.juanperez.test.technique.app.reports.exceptions.ReportJobNotReadyException;
+import ec.juanperez.test.technique.app.reports.exceptions.ReportJobQueueFullException;
+import ec.juanperez.test.technique.app.reports.job.ReportJob;
+import ec.juanperez.test.technique.app.reports.job.ReportJobService;
+import ec.juanperez.test.technique.app.reports.service.ReportService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+class ReportJobServiceTest {
+
+    private static final LocalDate START = LocalDate.of(2024, 1, 1);
+    private static final LocalDate END = LocalDate.of(2024, 1, 31);
+
+    @TempDir
+    Path spoolDirectory;
+
+    private final ReportService reportService = mock(ReportService.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private ReportJobService reportJobService;
+
+    @AfterEach
+    void tearDown() {
+        if (reportJobService != null) {
+            reportJobService.shutdown();
+        }
+    }
+
+    @Test
+    void submit_SpoolsExcelReportToDisk() throws Exception {
+        // Given
+        reportJobService = newService(2, 10, Duration.ofHours(1));
+        when(reportService.findCustomer(1L)).thenReturn(new CustomerDTO(1L, "Jose Lema", "0102030405", "ACTIVE"));
+        doAnswer(invocation -> {
+            invocation.<OutputStream>getArgument(3).write(new byte[]{1, 2, 3});
+            return null;
+        }).when(reportService).writeExcelReport(any(CustomerDTO.class), any(LocalDateTime.class), any(LocalDateTime.class), any(OutputStream.class));
+
+        // When
+        ReportJobDTO submitted = reportJobService.submit(new ReportJobRequest(1L, START, END, ReportFormat.EXCEL));
+        ReportJobDTO finished = awaitFinished(submitted.getId());
+
+        // Then
+        assertEquals(ReportJobStatus.COMPLETED, finished.getStatus());
+        assertEquals(3L, finished.getFileSize());
+        ReportJob job = reportJobService.findCompleted(submitted.getId());
+        assertArrayEquals(new byte[]{1, 2, 3}, Files.readAllBytes(job.getFile()));
+        assertEquals("account_statement_1.xlsx", job.getFileName());
+        assertEquals(1, meterRegistry.get("reports.jobs.run.time").tag("outcome", "completed").timer().count());
+    }
+
+    @Test
+    void submit_WritesJsonReport() throws Exception {
+        // Given
+        reportJobService = newService(1, 10, Duration.ofHours(1));
+        when(reportService.getAccountStatementByCustomerIdAndDates(anyLong(), any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(new ReportAccountDTO(new CustomerDTO(1L, "Jose Lema", "0102030405", "ACTIVE"), null, null, null));
+
+        // When
+        ReportJobDTO submitted = reportJobService.submit(new ReportJobRequest(1L, START, END, ReportFormat.JSON));
+        awaitFinished(submitted.getId());
+
+        // Then
+        String content = Files.readString(reportJobService.findCompleted(submitted.getId()).getFile());
+        assertTrue(content.contains("\"name\":\"Jose Lema\""));
+    }
+
+    @Test
+    void submit_MarksJobFailedAndKeepsNoFile() throws Exception {
+        // Given
+        reportJobService = newService(1, 10, Duration.ofHours(1));
+        when(reportService.findCustomer(99L)).thenThrow(new CustomerReferenceNotFoundException(99L));
+
+        // When
+        ReportJobDTO submitted = reportJobService.submit(new ReportJobRequest(99L, START, END, ReportFormat.EXCEL));
+        ReportJobDTO finished = awaitFinished(submitted.getId());
+
+        // Then
+        assertEquals(ReportJobStatus.FAILED, finished.getStatus());
+        assertNotNull(finished.getError());
+        assertThrows(ReportJobNotReadyException.class, () -> reportJobService.findCompleted(submitted.getId()));
+        try (var files = Files.list(spoolDirectory)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    void submit_RejectsWhenQueueIsFull() throws Exception {
+        // Given: un solo hilo ocupado y la cola con un trabajo en espera
+        reportJobService = newService(1, 1, Duration.ofHours(1));
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        when(reportService.findCustomer(anyLong())).thenAnswer(invocation -> {
+            started.countDown();
+            release.await(10, TimeUnit.SECONDS);
+            return new CustomerDTO(1L, "Jose Lema", "0102030405", "ACTIVE");
+        });
+        reportJobService.submit(new ReportJobRequest(1L, START, END, ReportFormat.EXCEL));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        reportJobService.submit(new ReportJobRequest(2L, START, END, ReportFormat.EXCEL));
+
+        // When - Then
+        assertThrows(ReportJobQueueFullException.class,
+                () -> reportJobService.submit(new ReportJobRequest(3L, START, END, ReportFormat.EXCEL)));
+        assertEquals(1.0, meterRegistry.get("reports.jobs.queue.size").gauge().value());
+        assertEquals(1.0, meterRegistry.get("reports.jobs.rejected").counter().count());
+        release.countDown();
+    }
+
+    @Test
+    void cleanupExpiredJobs_RemovesJobAndSpooledFile() throws Exception {
+        // Given
+        reportJobService = newService(1, 10, Duration.ZERO);
+        when(reportService.findCustomer(1L)).thenReturn(new CustomerDTO(1L, "Jose Lema", "0102030405", "ACTIVE"));
+        ReportJobDTO submitted = reportJobService.submit(new ReportJobRequest(1L, START, END, ReportFormat.EXCEL));
+        awaitFinished(submitted.getId());
+        Path file = reportJobService.findCompleted(submitted.getId()).getFile();
+
+        // When
+        reportJobService.cleanupExpiredJobs();
+
+        // Then
+        assertFalse(Files.exists(file));
+        assertThrows(ReportJobNotFoundException.class, () -> reportJobService.findById(submitted.getId()));
+    }
+
+    private ReportJobService newService(int threads, int queueCapacity, Duration ttl) throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        ReportJobService service = new ReportJobService(reportService, objectMapper, meterRegistry, threads, queueCapacity, spoolDirectory, ttl);
+        service.init();
+        return service;
+    }
+
+    private ReportJobDTO awaitFinished(String id) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        ReportJobDTO job = reportJobService.findById(id);
+        while (job.getStatus() != ReportJobStatus.COMPLETED && job.getStatus() != ReportJobStatus.FAILED) {
+            assertTrue(System.nanoTime() < deadline, "job did not finish");
+            Thread.sleep(10);
+            job = reportJobService.findById(id);
+        }
+        return job;
+    }
+}
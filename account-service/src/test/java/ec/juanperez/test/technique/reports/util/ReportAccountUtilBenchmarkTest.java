@@ -0,0 +1,87 @@
+package ec.juanperez.test.technique.reports.util;
+
+import ec.juanperez.test.technique.app.accounts.dto.AccountDTO;
+import ec.juanperez.test.technique.app.accounts.enums.AccountType;
+import ec.juanperez.test.technique.app.dto.CustomerDTO;
+import ec.juanperez.test.technique.app.reports.util.ReportAccountUtil;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Excel benchmark: rows per second and peak heap while streaming a statement, by number of movements.
+ * One million movements do not fit in a single sheet and exercise the continuation sheets.
+ * Run with: gradle test -Pbenchmark --tests '*ReportAccountUtilBenchmarkTest'
+ */
+@Tag("benchmark")
+class ReportAccountUtilBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(ReportAccountUtilBenchmarkTest.class);
+
+    @ParameterizedTest(name = "{0} movements")
+    @ValueSource(ints = {10_000, 100_000, 1_000_000})
+    void benchmarkRowsPerSecondByMovements(int movements) throws Exception {
+        ReportAccountUtil reportAccountUtil = new ReportAccountUtil();
+        ReflectionTestUtils.setField(reportAccountUtil, "rowAccessWindow", 100);
+        ReflectionTestUtils.setField(reportAccountUtil, "maxRowsPerSheet", 1_000_000);
+        CustomerDTO customer = new CustomerDTO(1L, "Jose Lema", "0102030405", "ACTIVE");
+        AccountDTO account = new AccountDTO(1L, "478758", AccountType.AHORROS, new BigDecimal("2000.00"), null, 1L, "Jose Lema");
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 0, 0);
+        AtomicLong bytes = new AtomicLong();
+        OutputStream countingStream = new OutputStream() {
+            @Override
+            public void write(int b) {
+                bytes.incrementAndGet();
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+                bytes.addAndGet(len);
+            }
+        };
+
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        System.gc();
+        long baseline = memory.getHeapMemoryUsage().getUsed();
+        AtomicLong peak = new AtomicLong(baseline);
+        Thread sampler = new Thread(() -> {
+            while (!Thread.currentThread().isInterrupted()) {
+                peak.accumulateAndGet(memory.getHeapMemoryUsage().getUsed(), Math::max);
+                try {
+                    Thread.sleep(5);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        });
+        sampler.start();
+
+        long begin = System.nanoTime();
+        reportAccountUtil.writeExcelReport(customer, List.of(account), Map.of(), Map.of(),
+                ignored -> ReportAccountUtilTest.movements(movements), start, start.plusYears(1), countingStream);
+        long elapsed = System.nanoTime() - begin;
+        sampler.interrupt();
+        sampler.join();
+
+        assertTrue(bytes.get() > 0);
+        log.info("excel movements={} size={}KB elapsed={}ms rowsPerSecond={} peakHeapDelta={}MB",
+                movements, bytes.get() / 1024, TimeUnit.NANOSECONDS.toMillis(elapsed),
+                movements * TimeUnit.SECONDS.toNanos(1) / elapsed,
+                (peak.get() - baseline) / (1024 * 1024));
+    }
+}
@@ -0,0 +1,179 @@
+package ec.juanperez.test.technique.reports.util;
+
+import ec.juanperez.test.technique.app.accounts.dto.AccountDTO;
+import ec.juanperez.test.technique.app.accounts.enums.AccountType;
+import ec.juanperez.test.technique.app.dto.CustomerDTO;
+import ec.juanperez.test.technique.app.movements.dto.AccountPeriodSummaryDTO;
+import ec.juanperez.test.technique.app.movements.dto.MovementDTO;
+import ec.juanperez.test.technique.app.movements.enums.MovementType;
+import ec.juanperez.test.technique.app.reports.util.ReportAccountUtil;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReportAccountUtilTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 0, 0);
+    private static final LocalDateTime END = LocalDateTime.of(2024, 1, 31, 23, 59, 59);
+
+    private ReportAccountUtil reportAccountUtil;
+    private CustomerDTO customer;
+    private AccountDTO savings;
+    private AccountDTO checking;
+
+    @BeforeEach
+    void setUp() {
+        reportAccountUtil = new ReportAccountUtil();
+        ReflectionTestUtils.setField(reportAccountUtil, "rowAccessWindow", 10);
+        ReflectionTestUtils.setField(reportAccountUtil, "maxRowsPerSheet", 1_000_000);
+        customer = new CustomerDTO(1L, "Jose Lema", "0102030405", "ACTIVE");
+        savings = new AccountDTO(1L, "478758", AccountType.AHORROS, new BigDecimal("2000.00"), null, 1L, "Jose Lema");
+        checking = new AccountDTO(2L, "225487", AccountType.CORRIENTE, new BigDecimal("100.00"), null, 1L, "Jose Lema");
+    }
+
+    @Test
+    void writeExcelReport_WritesEachAccountInItsOwnSheetWithFixedWidths() throws Exception {
+        // Given: más movimientos que la ventana de filas en memoria
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        // When
+        reportAccountUtil.writeExcelReport(customer, List.of(savings, checking),
+                Map.of(1L, new BigDecimal("1250.00")), Map.of(),
+                account -> account.getId() == 1L ? movements(25) : Stream.empty(),
+                START, END, outputStream);
+
+        // Then
+        try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(outputStream.toByteArray()))) {
+            assertEquals(3, workbook.getNumberOfSheets());
+            Sheet overview = workbook.getSheetAt(0);
+            assertEquals("Estado de Cuenta", overview.getSheetName());
+            assertEquals("Jose Lema", overview.getRow(0).getCell(1).getStringCellValue());
+            assertEquals("2024-01-01 al 2024-01-31", overview.getRow(3).getCell(1).getStringCellValue());
+            assertEquals("Cuenta", overview.getRow(5).getCell(0).getStringCellValue());
+            assertEquals("478758 - AHORROS", overview.getRow(6).getCell(1).getStringCellValue());
+            assertEquals("'478758 - AHORROS'!A1", overview.getRow(6).getCell(1).getHyperlink().getAddress());
+            assertEquals(1250.0, overview.getRow(6).getCell(2).getNumericCellValue());
+            // Cuenta sin saldo registrado: se muestra el saldo inicial
+            assertEquals(100.0, overview.getRow(7).getCell(2).getNumericCellValue());
+
+            Sheet savingsSheet = workbook.getSheet("478758 - AHORROS");
+            assertEquals("Cuenta: 478758 - AHORROS | Saldo: 1250.00", savingsSheet.getRow(0).getCell(0).getStringCellValue());
+            assertEquals("Fecha", savingsSheet.getRow(1).getCell(0).getStringCellValue());
+            assertEquals("2024-01-01 00:01", savingsSheet.getRow(2).getCell(0).getStringCellValue());
+            assertEquals(1.0, savingsSheet.getRow(2).getCell(2).getNumericCellValue());
+            assertEquals(25.0, savingsSheet.getRow(26).getCell(2).getNumericCellValue());
+            assertEquals(20 * 256, savingsSheet.getColumnWidth(0));
+            assertEquals(15 * 256, savingsSheet.getColumnWidth(3));
+
+            Sheet checkingSheet = workbook.getSheet("225487 - CORRIENTE");
+            assertEquals("Cuenta: 225487 - CORRIENTE | Saldo: 100.00", checkingSheet.getRow(0).getCell(0).getStringCellValue());
+            assertEquals(1, checkingSheet.getLastRowNum());
+        }
+    }
+
+    @Test
+    void writeExcelReport_RollsOverToContinuationSheets() throws Exception {
+        // Given: hojas de 10 filas, 2 de encabezados y 8 de movimientos
+        ReflectionTestUtils.setField(reportAccountUtil, "maxRowsPerSheet", 10);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        // When
+        reportAccountUtil.writeExcelReport(customer, List.of(savings), Map.of(), Map.of(),
+                account -> movements(25), START, END, outputStream);
+
+        // Then
+        try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(outputStream.toByteArray()))) {
+            assertEquals(5, workbook.getNumberOfSheets());
+            assertEquals(8.0, workbook.getSheet("478758 - AHORROS").getRow(9).getCell(2).getNumericCellValue());
+            Sheet second = workbook.getSheet("478758 - AHORROS (2)");
+            assertEquals("Cuenta: 478758 - AHORROS | Saldo: 2000.00 (continuación)", second.getRow(0).getCell(0).getStringCellValue());
+            assertEquals("Fecha", second.getRow(1).getCell(0).getStringCellValue());
+            assertEquals(9.0, second.getRow(2).getCell(2).getNumericCellValue());
+            Sheet last = workbook.getSheet("478758 - AHORROS (4)");
+            assertEquals(25.0, last.getRow(2).getCell(2).getNumericCellValue());
+            for (int i = 1; i < workbook.getNumberOfSheets(); i++) {
+                assertTrue(workbook.getSheetAt(i).getLastRowNum() < 10);
+            }
+            // Los estilos se comparten entre hojas: no crecen con el número de hojas ni de filas
+            assertTrue(workbook.getNumCellStyles() <= 4);
+        }
+    }
+
+    @Test
+    void writeExcelReport_KeepsSheetNamesUnique() throws Exception {
+        // Given: dos cuentas con el mismo número y tipo
+        AccountDTO duplicate = new AccountDTO(3L, "478758", AccountType.AHORROS, new BigDecimal("5.00"), null, 1L, "Jose Lema");
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        // When
+        reportAccountUtil.writeExcelReport(customer, List.of(savings, duplicate), Map.of(), Map.of(),
+                account -> Stream.empty(), START, END, outputStream);
+
+        // Then
+        try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(outputStream.toByteArray()))) {
+            assertNotNull(workbook.getSheet("478758 - AHORROS"));
+            assertEquals("Cuenta: 478758 - AHORROS | Saldo: 5.00", workbook.getSheet("478758 - AHORROS #2").getRow(0).getCell(0).getStringCellValue());
+        }
+    }
+
+    @Test
+    void writeExcelReport_ClosesEachAccountStream() {
+        // Given
+        AtomicInteger closed = new AtomicInteger();
+
+        // When
+        reportAccountUtil.writeExcelReport(customer, List.of(savings, checking), Map.of(), Map.of(),
+                account -> movements(5).onClose(closed::incrementAndGet),
+                START, END, new ByteArrayOutputStream());
+
+        // Then
+        assertEquals(2, closed.get());
+    }
+
+    @Test
+    void writeExcelReport_WritesSummaryBeforeMovements() throws Exception {
+        // Given
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        AccountPeriodSummaryDTO summary = new AccountPeriodSummaryDTO(new BigDecimal("1000.00"), new BigDecimal("6.00"),
+                BigDecimal.ZERO, new BigDecimal("1003.00"), 3L);
+
+        // When
+        reportAccountUtil.writeExcelReport(customer, List.of(savings, checking), Map.of(), Map.of(1L, summary),
+                account -> account.getId() == 1L ? movements(3) : Stream.empty(),
+                START, END, outputStream);
+
+        // Then
+        try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(outputStream.toByteArray()))) {
+            Sheet sheet = workbook.getSheet("478758 - AHORROS");
+            assertEquals("Saldo inicial", sheet.getRow(1).getCell(0).getStringCellValue());
+            assertEquals("Movimientos", sheet.getRow(1).getCell(4).getStringCellValue());
+            assertEquals(1000.0, sheet.getRow(2).getCell(0).getNumericCellValue());
+            assertEquals(6.0, sheet.getRow(2).getCell(1).getNumericCellValue());
+            assertEquals(1003.0, sheet.getRow(2).getCell(3).getNumericCellValue());
+            assertEquals(3.0, sheet.getRow(2).getCell(4).getNumericCellValue());
+            assertEquals("Fecha", sheet.getRow(3).getCell(0).getStringCellValue());
+            // Cuenta sin resumen: los movimientos siguen directamente al encabezado
+            assertEquals("Fecha", workbook.getSheet("225487 - CORRIENTE").getRow(1).getCell(0).getStringCellValue());
+        }
+    }
+
+    static Stream<MovementDTO> movements(int count) {
+        return IntStream.rangeClosed(1, count)
+                .mapToObj(i -> new MovementDTO(MovementType.CREDIT, BigDecimal.valueOf(i),
+                        START.plusMinutes(i), BigDecimal.valueOf(1000 + i)));
+    }
+}
@@ -0,0 +1,88 @@
+package ec.juanperez.test.technique.reports.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import ec.juanperez.test.technique.app.accounts.dto.AccountDTO;
+import ec.juanperez.test.technique.app.accounts.enums.AccountType;
+import ec.juanperez.test.technique.app.dto.CustomerDTO;
+import ec.juanperez.test.technique.app.movements.dto.MovementDTO;
+import ec.juanperez.test.technique.app.movements.enums.MovementType;
+import ec.juanperez.test.technique.app.reports.util.ReportNdjsonWriter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReportNdjsonWriterTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 0, 0);
+    private static final LocalDateTime END = LocalDateTime.of(2024, 1, 31, 23, 59, 59);
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    private ReportNdjsonWriter writer;
+    private CustomerDTO customer;
+    private AccountDTO empty;
+    private AccountDTO savings;
+    private AccountDTO checking;
+
+    @BeforeEach
+    void setUp() {
+        writer = new ReportNdjsonWriter(objectMapper);
+        customer = new CustomerDTO(1L, "Jose Lema", "0102030405", "ACTIVE");
+        empty = new AccountDTO(3L, "100001", AccountType.AHORROS, new BigDecimal("50.00"), null, 1L, "Jose Lema");
+        savings = new AccountDTO(1L, "478758", AccountType.AHORROS, new BigDecimal("2000.00"), null, 1L, "Jose Lema");
+        checking = new AccountDTO(2L, "225487", AccountType.CORRIENTE, new BigDecimal("100.00"), null, 1L, "Jose Lema");
+    }
+
+    @Test
+    void writeNdjsonReport_EmitsHeaderSectionsAndMovementsInOrder() throws Exception {
+        // Given
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        Stream<MovementDTO> movements = Stream.of(movement(1L, 1L), movement(2L, 1L));
+
+        // When
+        writer.writeNdjsonReport(customer, List.of(empty, savings, checking), Map.of(1L, new BigDecimal("1250.00")),
+                movements, START, END, outputStream);
+
+        // Then
+        List<JsonNode> records = new ArrayList<>();
+        for (String line : outputStream.toString(StandardCharsets.UTF_8).split("\n")) {
+            records.add(objectMapper.readTree(line));
+        }
+        assertEquals(List.of("HEADER", "ACCOUNT", "ACCOUNT", "MOVEMENT", "MOVEMENT", "ACCOUNT"),
+                records.stream().map(node -> node.get("type").asText()).toList());
+        assertEquals("Jose Lema", records.get(0).get("customer").get("name").asText());
+        assertEquals("100001-AHORROS", records.get(1).get("account").asText());
+        assertEquals(50.00, records.get(1).get("balance").asDouble());
+        assertEquals(1250.00, records.get(2).get("balance").asDouble());
+        assertEquals("478758-AHORROS", records.get(4).get("account").asText());
+        assertEquals(2, records.get(4).get("movement").get("id").asLong());
+        assertFalse(records.get(4).has("customer"));
+        assertEquals("225487-CORRIENTE", records.get(5).get("account").asText());
+    }
+
+    @Test
+    void writeNdjsonReport_RejectsMovementsOutOfAccountOrder() {
+        // Given
+        Stream<MovementDTO> movements = Stream.of(movement(1L, 2L), movement(2L, 1L));
+
+        // When - Then
+        assertThrows(IllegalStateException.class, () -> writer.writeNdjsonReport(customer, List.of(savings, checking),
+                Map.of(), movements, START, END, new ByteArrayOutputStream()));
+    }
+
+    private static MovementDTO movement(Long id, Long accountId) {
+        return new MovementDTO(id, MovementType.CREDIT, BigDecimal.TEN, START.plusDays(id), BigDecimal.valueOf(1000 + id), accountId, null);
+    }
+}
@@ -0,0 +1,63 @@
+package ec.juanperez.test.technique.app.common.reactive;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Runs blocking calls (JDBC, report generation) away from the Netty event loop.
+ * Controllers and reactive adapters wrap every blocking service call with it.
+ */
+@Slf4j
+@Component
+public class BlockingScheduler {
+
+    public static final String MODE_BOUNDED_ELASTIC = "bounded-elastic";
+    public static final String MODE_VIRTUAL = "virtual";
+
+    private final Scheduler scheduler;
+    private final boolean dedicated;
+
+    public BlockingScheduler(@Value("${blocking.scheduler.mode:bounded-elastic}") String mode,
+                             @Value("${blocking.scheduler.threads:10}") int threads,
+                             @Value("${blocking.scheduler.queue-capacity:10000}") int queueCapacity) {
+        this.dedicated = MODE_BOUNDED_ELASTIC.equalsIgnoreCase(mode);
+        if (!this.dedicated && !MODE_VIRTUAL.equalsIgnoreCase(mode)) {
+            throw new IllegalArgumentException("Unknown blocking scheduler mode: " + mode);
+        }
+        if (threads <= 0 || queueCapacity <= 0) {
+            throw new IllegalArgumentException("Blocking scheduler threads and queue capacity must be greater than zero");
+        }
+        // En modo virtual se usa el boundedElastic compartido de Reactor, que corre sobre hilos
+        // virtuales con JDK 21+ y -Dreactor.schedulers.defaultBoundedElasticOnVirtualThreads=true
+        this.scheduler = this.dedicated
+                ? Schedulers.newBoundedElastic(threads, queueCapacity, "blocking")
+                : Schedulers.boundedElastic();
+        log.info("Blocking scheduler started in {} mode{}", mode, this.dedicated ? " with " + threads + " threads" : "");
+    }
+
+    public <T> Mono<T> fromCallable(Callable<? extends T> callable) {
+        return Mono.<T>fromCallable(callable).subscribeOn(this.scheduler);
+    }
+
+    public Mono<Void> fromRunnable(Runnable runnable) {
+        return Mono.<Void>fromRunnable(runnable).subscribeOn(this.scheduler);
+    }
+
+    public Scheduler getScheduler() {
+        return this.scheduler;
+    }
+
+    @PreDestroy
+    public void dispose() {
+        if (this.dedicated) {
+            this.scheduler.dispose();
+        }
+    }
+}
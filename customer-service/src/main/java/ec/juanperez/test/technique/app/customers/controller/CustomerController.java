@@ -1,5 +1,6 @@
 package ec.juanperez.test.technique.app.customers.controller;
 
+import ec.juanperez.test.technique.app.common.reactive.BlockingScheduler;
 import ec.juanperez.test.technique.app.customers.dto.CustomerDTO;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -28,6 +29,7 @@ import org.springframework.http.ResponseEntity;
 public class CustomerController {
 
     private final CustomerService customerService;
+    private final BlockingScheduler blockingScheduler;
 
     @Operation(summary = "Get all customers", description = "Retrieve all active customers")
     @ApiResponses(value = {
@@ -38,7 +40,7 @@ public class CustomerController {
     @GetMapping
     public Mono<ResponseEntity<Flux<CustomerDTO>>> findAll() {
         log.info("Finding all customers");
-        return Mono.fromCallable(customerService::findAll)
+        return blockingScheduler.fromCallable(customerService::findAll)
                 .map(customers -> ResponseEntity.ok(Flux.fromIterable(customers)))
                 .onErrorResume(e -> {
                     log.error("Error finding all customers", e);
@@ -57,7 +59,7 @@ public class CustomerController {
     public Mono<ResponseEntity<CustomerDTO>> findById(
             @Parameter(description = "Customer ID", required = true) @PathVariable Long id) {
         log.info("Finding customer with id: {}", id);
-        return Mono.fromCallable(() -> customerService.findById(id))
+        return blockingScheduler.fromCallable(() -> customerService.findById(id))
                 .map(optional -> optional
                         .map(ResponseEntity::ok)
                         .orElse(ResponseEntity.notFound().build()))
@@ -77,7 +79,7 @@ public class CustomerController {
     public Mono<ResponseEntity<CustomerDTO>> create(@RequestBody Mono<CustomerDTO> customerDTOMono) {
         log.info("Creating new customer");
         return customerDTOMono
-                .flatMap(customerDTO -> Mono.fromCallable(() -> customerService.create(customerDTO)))
+                .flatMap(customerDTO -> blockingScheduler.fromCallable(() -> customerService.create(customerDTO)))
                 .map(ResponseEntity::ok)
                 .onErrorResume(e -> {
                     log.error("Error creating customer", e);
@@ -99,7 +101,7 @@ public class CustomerController {
             @RequestBody Mono<CustomerDTO> customerDTOMono) {
         log.info("Updating customer with id: {}", id);
         return customerDTOMono
-                .flatMap(customerDTO -> Mono.fromCallable(() -> customerService.update(id, customerDTO)))
+                .flatMap(customerDTO -> blockingScheduler.fromCallable(() -> customerService.update(id, customerDTO)))
                 .map(ResponseEntity::ok)
                 .onErrorResume(e -> {
                     log.error("Error updating customer with id: {}", id, e);
@@ -116,7 +118,7 @@ public class CustomerController {
     public Mono<ResponseEntity<Void>> delete(
             @Parameter(description = "Customer ID", required = true) @PathVariable Long id) {
         log.info("Deleting customer with id: {}", id);
-        return Mono.fromRunnable(() -> customerService.delete(id))
+        return blockingScheduler.fromRunnable(() -> customerService.delete(id))
                 .then(Mono.just(ResponseEntity.noContent().<Void>build()))
                 .onErrorResume(e -> {
                     log.error("Error deleting customer with id: {}", id, e);
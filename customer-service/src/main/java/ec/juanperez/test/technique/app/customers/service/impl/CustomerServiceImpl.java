@@ -9,10 +9,9 @@ import ec.juanperez.test.technique.app.customers.model.Customer;
 import ec.juanperez.test.technique.app.customers.repository.CustomerRepository;
 import ec.juanperez.test.technique.app.customers.service.CustomerService;
 import ec.juanperez.test.technique.app.person.dto.PersonDTO;
-import ec.juanperez.test.technique.events.CustomerCreatedEvent;
-import ec.juanperez.test.technique.events.CustomerDeletedEvent;
-import ec.juanperez.test.technique.events.CustomerUpdatedEvent;
-import ec.juanperez.test.technique.kafka.CustomerEventProducer;
+import ec.juanperez.test.technique.events.CustomerEvent;
+import ec.juanperez.test.technique.events.CustomerEventType;
+import ec.juanperez.test.technique.kafka.CustomerEventOutbox;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -30,7 +29,7 @@ public class CustomerServiceImpl implements CustomerService {
 
     private final CustomerRepository repository;
     private final CustomerMapper mapper;
-    private final CustomerEventProducer eventProducer;
+    private final CustomerEventOutbox eventOutbox;
 
     @Override
     public CustomerDTO create(CustomerDTO customerDTO) {
@@ -81,35 +80,29 @@ public class CustomerServiceImpl implements CustomerService {
         }
         CustomerDTO customerDTO = optionalCustomerDTO.get();
         customerDTO.setStatus(StatusType.DELETED);
-        this.save(customerDTO);
-        
-        // Publish delete event
-        eventProducer.publishCustomerDeleted(new CustomerDeletedEvent(id));
+        this.save(customerDTO, CustomerEventType.DELETED);
     }
 
     private CustomerDTO save(CustomerDTO customerDTO){
+        return this.save(customerDTO, customerDTO.getId() == null ? CustomerEventType.CREATED : CustomerEventType.UPDATED);
+    }
+
+    private CustomerDTO save(CustomerDTO customerDTO, CustomerEventType eventType){
         Customer customer = this.mapper.toEntity(customerDTO);
-        boolean isNew = customer.getId() == null;
-        customer = this.repository.save(customer);
+        // El flush toma el bloqueo de la fila antes de escribir el evento: dos cambios del mismo
+        // cliente quedan en el outbox en el orden en que se confirman
+        customer = this.repository.saveAndFlush(customer);
         CustomerDTO savedDTO = this.mapper.toDTO(customer);
-        
-        // Publish events
-        if (isNew) {
-            eventProducer.publishCustomerCreated(new CustomerCreatedEvent(
-                    savedDTO.getId(),
-                    savedDTO.getName(),
-                    savedDTO.getIdentification(),
-                    savedDTO.getStatus().toString()
-            ));
-        } else {
-            eventProducer.publishCustomerUpdated(new CustomerUpdatedEvent(
-                    savedDTO.getId(),
-                    savedDTO.getName(),
-                    savedDTO.getIdentification(),
-                    savedDTO.getStatus().toString()
-            ));
-        }
-        
+
+        // El evento se publica desde el outbox una vez confirmada la transacción
+        eventOutbox.append(new CustomerEvent(
+                eventType,
+                savedDTO.getId(),
+                savedDTO.getName(),
+                savedDTO.getIdentification(),
+                savedDTO.getStatus().toString()
+        ));
+
         return savedDTO;
     }
 
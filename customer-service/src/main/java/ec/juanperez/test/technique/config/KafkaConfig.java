@@ -0,0 +1,48 @@
+package ec.juanperez.test.technique.config;
+
+import ec.juanperez.test.technique.events.CustomerEvent;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.kafka.DefaultKafkaProducerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.TopicBuilder;
+
+import java.time.Duration;
+import java.util.Map;
+
+@Configuration
+public class KafkaConfig {
+
+    @Value("${customers.events.partitions:3}")
+    private int partitions;
+
+    @Value("${customers.events.replicas:1}")
+    private int replicas;
+
+    @Value("${customers.outbox.relay.send-timeout:PT30S}")
+    private Duration sendTimeout;
+
+    // Tópico compactado: por cada cliente se conserva al menos su último evento, que lleva el estado completo
+    @Bean
+    public NewTopic customerEventsTopic() {
+        return TopicBuilder.name(CustomerEvent.TOPIC)
+                .partitions(partitions)
+                .replicas(replicas)
+                .compact()
+                .build();
+    }
+
+    // El productor abandona cada envío dentro del send-timeout del relay (por defecto esperaría 120 s):
+    // el relay espera las confirmaciones un send-timeout y su lease dura el triple, así un registro
+    // no puede llegar a Kafka después de que otra pasada u otra instancia lo reenvíe
+    @Bean
+    public DefaultKafkaProducerFactoryCustomizer relaySendTimeoutCustomizer() {
+        long sendTimeoutMs = sendTimeout.toMillis();
+        return producerFactory -> producerFactory.updateConfigs(Map.of(
+                ProducerConfig.DELIVERY_TIMEOUT_MS_CONFIG, (int) sendTimeoutMs,
+                ProducerConfig.REQUEST_TIMEOUT_MS_CONFIG, (int) (sendTimeoutMs / 2),
+                ProducerConfig.MAX_BLOCK_MS_CONFIG, sendTimeoutMs / 2));
+    }
+}
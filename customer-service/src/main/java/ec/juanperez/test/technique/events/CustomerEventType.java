@@ -0,0 +1,7 @@
+package ec.juanperez.test.technique.events;
+
+public enum CustomerEventType {
+    CREATED,
+    UPDATED,
+    DELETED
+}
@@ -0,0 +1,28 @@
+package ec.juanperez.test.technique.kafka;
+
+import ec.juanperez.test.technique.events.CustomerEvent;
+import ec.juanperez.test.technique.model.CustomerEventOutboxEntry;
+import ec.juanperez.test.technique.repository.CustomerEventOutboxRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Records customer events in the outbox. It must join the transaction that changes CLIENTE,
+ * so an event exists if and only if its change is committed; CustomerEventRelay publishes it.
+ */
+@Slf4j
+@RequiredArgsConstructor
+@Component
+public class CustomerEventOutbox {
+
+    private final CustomerEventOutboxRepository repository;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(CustomerEvent event) {
+        this.repository.save(CustomerEventOutboxEntry.of(event));
+        log.info("Queued {} CustomerEvent for customer ID: {}", event.getType(), event.getCustomerId());
+    }
+}
@@ -0,0 +1,196 @@
+package ec.juanperez.test.technique.kafka;
+
+import ec.juanperez.test.technique.events.CustomerEvent;
+import ec.juanperez.test.technique.model.CustomerEventOutboxEntry;
+import ec.juanperez.test.technique.repository.CustomerEventOutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Publishes the customer event outbox. Each run sends the oldest entries in id order keyed by
+ * customer, waits for Kafka to acknowledge them and deletes the acknowledged prefix. Entries after
+ * a failed send stay and are sent again on the next run, so delivery is at least once and the
+ * events of a customer never overtake each other. Reading and deleting run in two short
+ * transactions and the send waits outside both; a lease row that outlives the send keeps one relay
+ * active when several instances run, and the delete only runs while this instance still holds it.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "customers.outbox.relay.enabled", havingValue = "true", matchIfMissing = true)
+public class CustomerEventRelay {
+
+    private final CustomerEventOutboxRepository repository;
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Duration sendTimeout;
+    private final Duration leaseDuration;
+    private final String owner = UUID.randomUUID().toString();
+    private final Timer lagTimer;
+    private final Counter publishedCounter;
+    private final Counter failedCounter;
+    private final AtomicReference<LocalDateTime> oldestPending = new AtomicReference<>();
+
+    public CustomerEventRelay(CustomerEventOutboxRepository repository,
+                              KafkaTemplate<String, Object> kafkaTemplate,
+                              PlatformTransactionManager transactionManager,
+                              MeterRegistry meterRegistry,
+                              @Value("${customers.outbox.relay.batch-size:500}") int batchSize,
+                              @Value("${customers.outbox.relay.send-timeout:PT30S}") Duration sendTimeout) {
+        if (batchSize <= 0 || sendTimeout.isNegative() || sendTimeout.isZero()) {
+            throw new IllegalArgumentException("Invalid customer event relay configuration");
+        }
+        this.repository = repository;
+        this.kafkaTemplate = kafkaTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.sendTimeout = sendTimeout;
+        // El lease cubre el envío (hasta un send-timeout) y la espera de las confirmaciones (un send-timeout
+        // más desde el último envío, ver KafkaConfig) con margen: otra instancia no lo toma mientras se envía
+        this.leaseDuration = sendTimeout.multipliedBy(3);
+        this.lagTimer = Timer.builder("customers.outbox.publish.lag")
+                .description("Time from writing a customer event to the outbox until Kafka acknowledges it")
+                .register(meterRegistry);
+        this.publishedCounter = Counter.builder("customers.outbox.published")
+                .description("Customer events published from the outbox")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("customers.outbox.failed")
+                .description("Customer event sends that failed and stay in the outbox")
+                .register(meterRegistry);
+        Gauge.builder("customers.outbox.oldest.age", this.oldestPending, CustomerEventRelay::ageSeconds)
+                .description("Seconds the oldest customer event has been waiting in the outbox")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${customers.outbox.relay.interval:PT0.1S}")
+    public void run() {
+        try {
+            // Un lote completo indica que queda backlog: se sigue sin esperar al siguiente intervalo
+            while (this.relay() == this.batchSize) {
+                log.debug("Customer event outbox has a backlog, relaying the next batch");
+            }
+        } catch (RuntimeException e) {
+            // Nada se borra si falla el borrado: el siguiente intento vuelve a enviar el lote
+            log.error("Customer event relay failed", e);
+        }
+    }
+
+    /**
+     * Publishes one batch of the outbox and returns how many events were acknowledged.
+     */
+    public int relay() {
+        List<CustomerEventOutboxEntry> entries = this.transactionTemplate.execute(status -> {
+            if (this.repository.acquireLease(this.owner, this.leaseDuration.toMillis()) == 0) {
+                // Otra instancia está publicando
+                this.oldestPending.set(this.oldestCreatedAt());
+                return List.of();
+            }
+            List<CustomerEventOutboxEntry> batch = this.repository.findAllByOrderByIdAsc(Limit.of(this.batchSize));
+            if (batch.isEmpty()) {
+                this.oldestPending.set(null);
+            }
+            return batch;
+        });
+        if (entries == null || entries.isEmpty()) {
+            return 0;
+        }
+
+        // Se espera a Kafka sin transacción abierta: no se retiene una conexión ni bloqueos durante el envío
+        int sent = this.send(entries);
+        Boolean deleted = this.transactionTemplate.execute(status -> {
+            // Renovar el lease bloquea su fila hasta el commit: si otra instancia lo tomó mientras se
+            // enviaba, no se borra nada y ella reenvía el lote
+            if (this.repository.acquireLease(this.owner, this.leaseDuration.toMillis()) == 0) {
+                log.warn("Customer event relay lease expired while sending, {} acknowledged events stay in the outbox", sent);
+                return false;
+            }
+            if (sent > 0) {
+                // Se borra por id y no por rango: un id menor aún sin confirmar se publica en otra pasada
+                this.repository.deleteAllByIdInBatch(entries.subList(0, sent).stream()
+                        .map(CustomerEventOutboxEntry::getId)
+                        .toList());
+                log.info("Published {} CustomerEvent from the outbox", sent);
+            }
+            this.oldestPending.set(sent < entries.size() ? entries.get(sent).getCreatedAt() : this.oldestCreatedAt());
+            return true;
+        });
+        return Boolean.TRUE.equals(deleted) ? sent : 0;
+    }
+
+    private LocalDateTime oldestCreatedAt() {
+        return this.repository.findFirstByOrderByIdAsc().map(CustomerEventOutboxEntry::getCreatedAt).orElse(null);
+    }
+
+    private int send(List<CustomerEventOutboxEntry> entries) {
+        // La clave es el id del cliente: todos sus eventos van a la misma partición y se consumen en orden.
+        // Se deja de enviar tras un fallo o al agotar el send-timeout: lo siguiente no se confirmaría
+        long sendDeadline = System.nanoTime() + this.sendTimeout.toNanos();
+        List<CompletableFuture<SendResult<String, Object>>> futures = new ArrayList<>(entries.size());
+        for (CustomerEventOutboxEntry entry : entries) {
+            CompletableFuture<SendResult<String, Object>> future =
+                    this.kafkaTemplate.send(CustomerEvent.TOPIC, String.valueOf(entry.getCustomerId()), entry.toEvent());
+            futures.add(future);
+            if (future.isCompletedExceptionally() || System.nanoTime() - sendDeadline > 0) {
+                break;
+            }
+        }
+
+        // Sin flush: linger.ms ya despacha los lotes. El productor abandona un registro a los
+        // delivery.timeout.ms (= send-timeout) de enviarlo, así al vencer esta espera ningún registro
+        // sigue en vuelo para llegar después de su reenvío
+        long deadline = System.nanoTime() + this.sendTimeout.toNanos();
+        for (int i = 0; i < futures.size(); i++) {
+            CustomerEventOutboxEntry entry = entries.get(i);
+            try {
+                futures.get(i).get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (ExecutionException | TimeoutException e) {
+                // Solo se confirma lo anterior al primer fallo; lo demás se reenvía en orden
+                this.failedCounter.increment(entries.size() - i);
+                log.error("Failed to publish {} CustomerEvent for customer ID: {}, {} events stay in the outbox",
+                        entry.getType(), entry.getCustomerId(), entries.size() - i, e);
+                this.publishedCounter.increment(i);
+                return i;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                this.publishedCounter.increment(i);
+                return i;
+            }
+            this.lagTimer.record(Duration.between(entry.getCreatedAt(), LocalDateTime.now()));
+        }
+        if (futures.size() < entries.size()) {
+            this.failedCounter.increment(entries.size() - futures.size());
+            log.warn("Customer event relay ran out of send time, {} events stay in the outbox", entries.size() - futures.size());
+        }
+        this.publishedCounter.increment(futures.size());
+        return futures.size();
+    }
+
+    private static double ageSeconds(AtomicReference<LocalDateTime> oldestPending) {
+        LocalDateTime oldest = oldestPending.get();
+        return oldest == null ? 0 : Math.max(0, Duration.between(oldest, LocalDateTime.now()).toMillis() / 1000.0);
+    }
+}
@@ -0,0 +1,55 @@
+package ec.juanperez.test.technique.model;
+
+import ec.juanperez.test.technique.events.CustomerEvent;
+import ec.juanperez.test.technique.events.CustomerEventType;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A customer event waiting in the outbox, written in the same transaction as the CLIENTE change
+ * it describes. The id gives the publication order.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+@Entity
+@Table(name = "customer_event_outbox")
+public class CustomerEventOutboxEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id_evento")
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "tipo_evento", length = 50, nullable = false)
+    private CustomerEventType type;
+
+    @Column(name = "id_cliente", nullable = false)
+    private Long customerId;
+
+    @Column(name = "nombre", length = 300, nullable = false)
+    private String name;
+
+    @Column(name = "identificacion", length = 50, nullable = false)
+    private String identification;
+
+    @Column(name = "estado", length = 50, nullable = false)
+    private String status;
+
+    @Column(name = "fecha_creacion", nullable = false)
+    private LocalDateTime createdAt;
+
+    public static CustomerEventOutboxEntry of(CustomerEvent event) {
+        return new CustomerEventOutboxEntry(null, event.getType(), event.getCustomerId(), event.getName(),
+                event.getIdentification(), event.getStatus(), LocalDateTime.now());
+    }
+
+    public CustomerEvent toEvent() {
+        return new CustomerEvent(this.type, this.customerId, this.name, this.identification, this.status);
+    }
+}
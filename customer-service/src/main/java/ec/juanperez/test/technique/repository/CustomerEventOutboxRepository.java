@@ -0,0 +1,26 @@
+package ec.juanperez.test.technique.repository;
+
+import ec.juanperez.test.technique.model.CustomerEventOutboxEntry;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface CustomerEventOutboxRepository extends JpaRepository<CustomerEventOutboxEntry, Long> {
+
+    List<CustomerEventOutboxEntry> findAllByOrderByIdAsc(Limit limit);
+
+    Optional<CustomerEventOutboxEntry> findFirstByOrderByIdAsc();
+
+    // Toma o renueva el lease si es propio o ya venció; con la hora de la base no depende del reloj de cada instancia
+    @Modifying
+    @Query(value = " update CUSTOMER_EVENT_RELAY_LEASE set DUENO = :owner, EXPIRA = clock_timestamp() + :leaseMillis * interval '1 millisecond' "
+            + " where ID_LEASE = 1 and (DUENO = :owner or EXPIRA < clock_timestamp()) ", nativeQuery = true)
+    int acquireLease(@Param("owner") String owner, @Param("leaseMillis") long leaseMillis);
+}
@@ -0,0 +1,22 @@
+/*==============================================================*/
+/* Baseline: customer-service objects as created by             */
+/* databases/create_db/2.create_tables.sql. Databases created   */
+/* with those scripts are marked as baseline and skip this file */
+/*==============================================================*/
+
+create sequence if not exists SEQ_CLIENTE
+increment 1
+minvalue 1
+start 1;
+
+create table if not exists CLIENTE (
+   ID_CLIENTE            BIGINT                 not null default nextval('SEQ_CLIENTE'),
+   NOMBRE                varchar(300)           not null,
+   GENERO                varchar(50)            not null,
+   IDENTIFICACION        varchar(50)            not null,
+   DIRECCION             varchar(300)           not null,
+   TELEFONO              varchar(20)            not null,
+   CONTRASENA            varchar(100)           not null,
+   ESTADO                varchar(50)            not null,
+   constraint PK_CLIENTE primary key (ID_CLIENTE)
+);
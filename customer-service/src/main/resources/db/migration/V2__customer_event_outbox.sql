@@ -0,0 +1,22 @@
+/*==============================================================*/
+/* Transactional outbox: every change to CLIENTE writes its     */
+/* customer event here in the same transaction. The relay       */
+/* publishes the rows in id order and deletes them once Kafka   */
+/* has acknowledged them, so the table only holds the backlog   */
+/*==============================================================*/
+
+create sequence if not exists SEQ_CUSTOMER_EVENT_OUTBOX
+increment 1
+minvalue 1
+start 1;
+
+create table if not exists CUSTOMER_EVENT_OUTBOX (
+   ID_EVENTO             BIGINT                 not null default nextval('SEQ_CUSTOMER_EVENT_OUTBOX'),
+   TIPO_EVENTO           varchar(50)            not null,
+   ID_CLIENTE            BIGINT                 not null,
+   NOMBRE                varchar(300)           not null,
+   IDENTIFICACION        varchar(50)            not null,
+   ESTADO                varchar(50)            not null,
+   FECHA_CREACION        timestamp              not null,
+   constraint PK_CUSTOMER_EVENT_OUTBOX primary key (ID_EVENTO)
+);
@@ -0,0 +1,17 @@
+/*==============================================================*/
+/* Lease of the outbox relay: a single row that names the       */
+/* instance allowed to publish and until when. The relay claims */
+/* it in a short transaction and sends to Kafka outside it, so  */
+/* no transaction or lock is held while it waits for the acks   */
+/*==============================================================*/
+
+create table if not exists CUSTOMER_EVENT_RELAY_LEASE (
+   ID_LEASE              INTEGER                not null,
+   DUENO                 varchar(100)           null,
+   EXPIRA                timestamp              not null,
+   constraint PK_CUSTOMER_EVENT_RELAY_LEASE primary key (ID_LEASE)
+);
+
+insert into CUSTOMER_EVENT_RELAY_LEASE (ID_LEASE, DUENO, EXPIRA)
+values (1, null, timestamp '1970-01-01 00:00:00')
+on conflict (ID_LEASE) do nothing;
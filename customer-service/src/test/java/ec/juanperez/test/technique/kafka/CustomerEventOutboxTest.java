@@ -0,0 +1,107 @@
+package ec.juanperez.test.technique.kafka;
+
+import ec.juanperez.test.technique.events.CustomerEvent;
+import ec.juanperez.test.technique.events.CustomerEventType;
+import ec.juanperez.test.technique.model.CustomerEventOutboxEntry;
+import ec.juanperez.test.technique.repository.CustomerEventOutboxRepository;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.IllegalTransactionStateException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks on an embedded PostgreSQL migrated with Flyway that outbox events are only written inside
+ * the transaction that changes the customer, and disappear with it on rollback.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(CustomerEventOutbox.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CustomerEventOutboxTest {
+
+    private static EmbeddedPostgres postgres;
+
+    @Autowired
+    private CustomerEventOutbox outbox;
+
+    @Autowired
+    private CustomerEventOutboxRepository repository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeAll
+    static void setUp() throws Exception {
+        postgres = EmbeddedPostgres.builder().start();
+    }
+
+    @AfterAll
+    static void tearDown() throws Exception {
+        postgres.close();
+    }
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "");
+    }
+
+    @BeforeEach
+    void clearOutbox() {
+        repository.deleteAllInBatch();
+    }
+
+    @Test
+    void testAppend_WithoutTransaction_IsRejected() {
+        // When / Then
+        assertThrows(IllegalTransactionStateException.class, () -> outbox.append(event(1L)));
+        assertEquals(0, repository.count());
+    }
+
+    @Test
+    void testAppend_JoinsTheCallerTransaction() {
+        // When
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            outbox.append(event(1L));
+            outbox.append(event(2L));
+        });
+
+        // Then: los eventos quedan en el orden en que se escribieron
+        List<CustomerEventOutboxEntry> entries = repository.findAll();
+        assertEquals(List.of(1L, 2L), entries.stream().map(CustomerEventOutboxEntry::getCustomerId).toList());
+        assertTrue(entries.get(0).getId() < entries.get(1).getId());
+    }
+
+    @Test
+    void testAppend_CallerRollsBack_EventIsDiscarded() {
+        // When
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            outbox.append(event(1L));
+            status.setRollbackOnly();
+        });
+
+        // Then
+        assertEquals(0, repository.count());
+    }
+
+    private static CustomerEvent event(Long customerId) {
+        return new CustomerEvent(CustomerEventType.CREATED, customerId, "Jose Lema", "0102030405", "ACTIVE");
+    }
+}
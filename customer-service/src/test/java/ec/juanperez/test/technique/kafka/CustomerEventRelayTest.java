@@ -0,0 +1,150 @@
+package ec.juanperez.test.technique.kafka;
+
+import ec.juanperez.test.technique.events.CustomerEvent;
+import ec.juanperez.test.technique.events.CustomerEventType;
+import ec.juanperez.test.technique.model.CustomerEventOutboxEntry;
+import ec.juanperez.test.technique.repository.CustomerEventOutboxRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.kafka.KafkaException;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CustomerEventRelayTest {
+
+    @Mock
+    private CustomerEventOutboxRepository repository;
+
+    @Mock
+    private KafkaTemplate<String, Object> kafkaTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void testRelay_FailedSend_DeletesOnlyAcknowledgedPrefix() {
+        // Given
+        CustomerEventRelay relay = relay(Duration.ofSeconds(5));
+        when(repository.acquireLease(anyString(), anyLong())).thenReturn(1);
+        when(repository.findAllByOrderByIdAsc(any(Limit.class))).thenReturn(List.of(entry(1L), entry(2L), entry(3L)));
+        when(kafkaTemplate.send(eq(CustomerEvent.TOPIC), anyString(), any()))
+                .thenReturn(acknowledged())
+                .thenReturn(acknowledged())
+                .thenReturn(failed())
+                .thenReturn(acknowledged());
+
+        // When
+        int published = relay.relay();
+
+        // Then: el evento 4 no existe; el 3 falla y ni él ni los siguientes se borran
+        assertEquals(2, published);
+        verify(repository).deleteAllByIdInBatch(List.of(1L, 2L));
+        verify(kafkaTemplate, never()).flush();
+    }
+
+    @Test
+    void testRelay_SendFailsImmediately_StopsSendingTheRest() {
+        // Given
+        CustomerEventRelay relay = relay(Duration.ofSeconds(5));
+        when(repository.acquireLease(anyString(), anyLong())).thenReturn(1);
+        when(repository.findAllByOrderByIdAsc(any(Limit.class))).thenReturn(List.of(entry(1L), entry(2L), entry(3L)));
+        when(kafkaTemplate.send(eq(CustomerEvent.TOPIC), anyString(), any())).thenReturn(failed());
+
+        // When
+        int published = relay.relay();
+
+        // Then
+        assertEquals(0, published);
+        verify(kafkaTemplate, times(1)).send(eq(CustomerEvent.TOPIC), anyString(), any());
+        verify(repository, never()).deleteAllByIdInBatch(any());
+    }
+
+    @Test
+    void testRelay_AckNotReceivedWithinSendTimeout_KeepsItInOutbox() {
+        // Given
+        CustomerEventRelay relay = relay(Duration.ofMillis(200));
+        when(repository.acquireLease(anyString(), anyLong())).thenReturn(1);
+        when(repository.findAllByOrderByIdAsc(any(Limit.class))).thenReturn(List.of(entry(1L), entry(2L), entry(3L)));
+        when(kafkaTemplate.send(eq(CustomerEvent.TOPIC), anyString(), any()))
+                .thenReturn(acknowledged())
+                .thenReturn(new CompletableFuture<>())
+                .thenReturn(acknowledged());
+
+        // When
+        long start = System.nanoTime();
+        int published = relay.relay();
+
+        // Then: la espera termina con el send-timeout, sin flush previo sin límite
+        assertEquals(1, published);
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).compareTo(Duration.ofSeconds(2)) < 0);
+        verify(repository).deleteAllByIdInBatch(List.of(1L));
+        verify(kafkaTemplate, never()).flush();
+    }
+
+    @Test
+    void testRelay_LeaseLostWhileSending_DeletesNothing() {
+        // Given: otra instancia tomó el lease mientras se esperaba a Kafka
+        CustomerEventRelay relay = relay(Duration.ofSeconds(5));
+        when(repository.acquireLease(anyString(), anyLong())).thenReturn(1, 0);
+        when(repository.findAllByOrderByIdAsc(any(Limit.class))).thenReturn(List.of(entry(1L), entry(2L)));
+        when(kafkaTemplate.send(eq(CustomerEvent.TOPIC), anyString(), any())).thenReturn(acknowledged());
+
+        // When
+        int published = relay.relay();
+
+        // Then
+        assertEquals(0, published);
+        verify(repository, times(2)).acquireLease(anyString(), eq(Duration.ofSeconds(15).toMillis()));
+        verify(repository, never()).deleteAllByIdInBatch(any());
+    }
+
+    @Test
+    void testRelay_LeaseHeldByAnotherInstance_SendsNothing() {
+        // Given
+        CustomerEventRelay relay = relay(Duration.ofSeconds(5));
+        when(repository.acquireLease(anyString(), anyLong())).thenReturn(0);
+
+        // When
+        int published = relay.relay();
+
+        // Then
+        assertEquals(0, published);
+        verify(repository, never()).findAllByOrderByIdAsc(any(Limit.class));
+        verifyNoInteractions(kafkaTemplate);
+    }
+
+    private CustomerEventRelay relay(Duration sendTimeout) {
+        return new CustomerEventRelay(repository, kafkaTemplate, transactionManager, new SimpleMeterRegistry(), 500, sendTimeout);
+    }
+
+    private static CustomerEventOutboxEntry entry(Long id) {
+        return new CustomerEventOutboxEntry(id, CustomerEventType.UPDATED, id, "Jose Lema", "0102030405", "ACTIVE", LocalDateTime.now());
+    }
+
+    private static CompletableFuture<SendResult<String, Object>> acknowledged() {
+        return CompletableFuture.completedFuture(null);
+    }
+
+    private static CompletableFuture<SendResult<String, Object>> failed() {
+        return CompletableFuture.failedFuture(new KafkaException("Broker not available"));
+    }
+}
@@ -0,0 +1,110 @@
+package ec.juanperez.test.technique.repository;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks the relay lease on an embedded PostgreSQL migrated with Flyway: one owner at a time,
+ * renewable by its owner and taken over by another instance only once it expires.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CustomerEventOutboxRepositoryTest {
+
+    private static final long LEASE_MILLIS = 60_000;
+
+    private static EmbeddedPostgres postgres;
+
+    @Autowired
+    private CustomerEventOutboxRepository repository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    static void setUp() throws Exception {
+        postgres = EmbeddedPostgres.builder().start();
+    }
+
+    @AfterAll
+    static void tearDown() throws Exception {
+        postgres.close();
+    }
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "");
+    }
+
+    @BeforeEach
+    void releaseLease() {
+        jdbcTemplate.update("update customer_event_relay_lease set dueno = null, expira = timestamp '1970-01-01 00:00:00'");
+    }
+
+    @Test
+    void testAcquireLease_HeldByAnotherInstance_IsRefused() {
+        // Given
+        assertEquals(1, acquire("relay-a"));
+
+        // When / Then
+        assertEquals(0, acquire("relay-b"));
+        assertEquals("relay-a", jdbcTemplate.queryForObject("select dueno from customer_event_relay_lease", String.class));
+    }
+
+    @Test
+    void testAcquireLease_Owner_RenewsIt() {
+        // Given
+        assertEquals(1, acquire("relay-a"));
+        jdbcTemplate.update("update customer_event_relay_lease set expira = clock_timestamp() + interval '1 second'");
+
+        // When
+        int renewed = acquire("relay-a");
+
+        // Then
+        assertEquals(1, renewed);
+        assertEquals(Boolean.TRUE, jdbcTemplate.queryForObject(
+                "select expira > clock_timestamp() + interval '30 seconds' from customer_event_relay_lease", Boolean.class));
+    }
+
+    @Test
+    void testAcquireLease_Expired_IsTakenOver() {
+        // Given: el dueño cayó y su lease venció
+        assertEquals(1, acquire("relay-a"));
+        jdbcTemplate.update("update customer_event_relay_lease set expira = clock_timestamp() - interval '1 second'");
+
+        // When
+        int taken = acquire("relay-b");
+
+        // Then
+        assertEquals(1, taken);
+        assertEquals(0, acquire("relay-a"));
+        assertEquals("relay-b", jdbcTemplate.queryForObject("select dueno from customer_event_relay_lease", String.class));
+    }
+
+    private int acquire(String owner) {
+        Integer updated = new TransactionTemplate(transactionManager)
+                .execute(status -> repository.acquireLease(owner, LEASE_MILLIS));
+        return updated == null ? 0 : updated;
+    }
+}
@@ -67,6 +67,10 @@ create table MOVIMIENTOS (
 alter table MOVIMIENTOS add constraint FK_MOVIMIENTOS_CUENTA foreign key (ID_CUENTA)
       references CUENTA (ID_CUENTA) on delete restrict on update restrict;
 
+/* The (ID_CUENTA, FECHA_MOVIMIENTO) index, the monthly partitions and   */
+/* SALDO_CUENTA are added by the account-service Flyway migrations        */
+/* (db/migration)                                                         */
+
 ALTER TABLE cuenta ADD CONSTRAINT cuenta_unique UNIQUE (numero_cuenta);
 
 /*==============================================================*/
@@ -91,7 +91,7 @@ echo -e "${BLUE}4. Verificando topics de Kafka...${NC}"
 echo ""
 
 TOPICS=$(docker exec technique-kafka kafka-topics --bootstrap-server localhost:9092 --list 2>/dev/null || echo "")
-REQUIRED_TOPICS=("customer-created" "customer-updated" "customer-deleted")
+REQUIRED_TOPICS=("customer-events")
 
 for topic in "${REQUIRED_TOPICS[@]}"; do
     if echo "$TOPICS" | grep -q "^${topic}$"; then
@@ -149,7 +149,7 @@ echo ""
 echo -e "${BLUE}8. Verificando logs de Customer Service (evento publicado)...${NC}"
 echo ""
 
-CUSTOMER_LOGS=$(docker logs technique-customer-service --tail 50 2>&1 | grep -i "CustomerCreatedEvent\|publish" | tail -3)
+CUSTOMER_LOGS=$(docker logs technique-customer-service --tail 50 2>&1 | grep -i "CustomerEvent\|publish" | tail -3)
 if [ -z "$CUSTOMER_LOGS" ]; then
     echo -e "${YELLOW}⚠ No se encontraron logs de publicación del evento${NC}"
 else
@@ -163,7 +163,7 @@ echo ""
 echo -e "${BLUE}9. Verificando logs de Account Service (evento consumido)...${NC}"
 echo ""
 
-ACCOUNT_LOGS=$(docker logs technique-account-service --tail 50 2>&1 | grep -i "CustomerCreatedEvent\|CustomerReference created" | tail -3)
+ACCOUNT_LOGS=$(docker logs technique-account-service --tail 50 2>&1 | grep -i "CustomerEvent\|CustomerReference synced" | tail -3)
 if [ -z "$ACCOUNT_LOGS" ]; then
     echo -e "${RED}✗ No se encontraron logs de consumo del evento${NC}"
     echo "   Esto podría indicar que el evento no se consumió correctamente"
@@ -239,6 +239,6 @@ echo "  - Ver logs de Customer Service: docker logs technique-customer-service -
 echo "  - Ver logs de Account Service: docker logs technique-account-service --tail 50"
 echo "  - Ver logs de Kafka: docker logs technique-kafka --tail 50"
 echo "  - Ver CustomerReference en DB: docker exec technique-postgres psql -U myuser -d test_technique_juan_jose_perez -c 'SELECT * FROM CUSTOMER_REFERENCE;'"
-echo "  - Consumir eventos manualmente: docker exec -it technique-kafka kafka-console-consumer --bootstrap-server localhost:9092 --topic customer-created --from-beginning"
+echo "  - Consumir eventos manualmente: docker exec -it technique-kafka kafka-console-consumer --bootstrap-server localhost:9092 --topic customer-events --from-beginning"
 echo ""
 
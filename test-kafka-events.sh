@@ -70,7 +70,7 @@ echo "4. Verificando que CustomerReference se creó en Account Service..."
 echo ""
 
 # Verificar logs de account-service para ver si consumió el evento
-ACCOUNT_LOGS=$(docker logs technique-account-service --tail 20 2>&1 | grep -i "CustomerCreatedEvent\|CustomerReference created")
+ACCOUNT_LOGS=$(docker logs technique-account-service --tail 20 2>&1 | grep -i "CustomerEvent\|CustomerReference synced")
 
 if [ -z "$ACCOUNT_LOGS" ]; then
     echo -e "${YELLOW}⚠ No se encontraron logs del evento en Account Service${NC}"